@@ -3,6 +3,7 @@ import Nav from 'react-bootstrap/Nav';
 import Navbar from 'react-bootstrap/Navbar';
 import { Link, useLocation, useNavigate } from 'react-router-dom';
 import { useState, useEffect } from 'react';
+import { revokeToken } from '../utils/auth';
 
 function BasicExample() {
   const location = useLocation();
@@ -37,6 +38,8 @@ function BasicExample() {
   }, [location]);
 
   const handleLogout = () => {
+    // Reads the token before it is cleared below
+    revokeToken();
     setUser(null);
     setRole("");
     localStorage.removeItem('user');
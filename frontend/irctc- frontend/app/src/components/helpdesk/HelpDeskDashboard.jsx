@@ -17,6 +17,7 @@ import {
   faTimes
 } from '@fortawesome/free-solid-svg-icons';
 import { Modal, Button, Form } from 'react-bootstrap';
+import { subscribeToSupportStream } from '../../utils/supportStream';
 
 // Status badge component
 const StatusBadge = ({ status }) => {
@@ -55,6 +56,7 @@ const HelpDeskDashboard = () => {
   const [selectedTicket, setSelectedTicket] = useState(null);
   const [replyMessage, setReplyMessage] = useState('');
   const [isSubmitting, setIsSubmitting] = useState(false);
+  const [stats, setStats] = useState(null);
 
   // Handle reply submission
   const handleReplySubmit = async (e) => {
@@ -143,8 +145,7 @@ const HelpDeskDashboard = () => {
       // Show success message
       setError(`Ticket marked as ${backendStatus} successfully!`);
       
-      // Refresh tickets after a short delay to show the success message
-      setTimeout(fetchTickets, 1000);
+      // The updated ticket arrives over the live stream
       
     } catch (err) {
       console.error('Error updating ticket status:', err);
@@ -205,9 +206,33 @@ const HelpDeskDashboard = () => {
     return matchesSearch && matchesStatus;
   });
 
-  // Load tickets on component mount
+  // Merge changed tickets from the live stream into the list, newest tickets first
+  const applyTicketUpdates = (rows) => {
+    setTickets(current => {
+      const byId = new Map(current.map(ticket => [ticket.id, ticket]));
+      const added = [];
+      rows.forEach(row => {
+        if (byId.has(row.id)) {
+          byId.set(row.id, { ...byId.get(row.id), ...row });
+        } else {
+          added.push(row);
+        }
+      });
+      added.sort((a, b) => b.id - a.id);
+      return [...added, ...current.map(ticket => byId.get(ticket.id))];
+    });
+  };
+
+  // Load tickets once on mount, then follow the live stream
   useEffect(() => {
     fetchTickets();
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (!user || !user.token) return undefined;
+    return subscribeToSupportStream(user.token, {
+      onTickets: applyTicketUpdates,
+      onStats: setStats,
+      onReconnect: fetchTickets
+    });
   }, []);
 
   return (
@@ -220,6 +245,11 @@ const HelpDeskDashboard = () => {
               <FontAwesomeIcon icon={faTicketAlt} className="me-2 text-primary" />
               Help Desk Dashboard
             </h2>
+            {stats && (
+              <small className="text-muted">
+                {stats.open} open · {stats.inProgress} in progress · {stats.needsAttention} need attention
+              </small>
+            )}
             <button 
               className="btn btn-outline-primary btn-sm"
               onClick={fetchTickets}
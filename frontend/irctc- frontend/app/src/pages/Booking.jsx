@@ -8,15 +8,27 @@ import './Booking.css';
 
 const Booking = () => {
   const [bookings, setBookings] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
 
+  // Pages are keyset-based: the server hands back nextCursor until the oldest booking
+  const fetchPage = async (cursor) => {
+    const response = await api.get('/bookings/user', { params: cursor ? { cursor } : {} });
+    return {
+      page: response.data.bookings ?? [],
+      cursor: response.data.nextCursor ?? null
+    };
+  };
+
   useEffect(() => {
     const fetchBookings = async () => {
       try {
         setLoading(true);
-        const response = await api.get('/bookings/user');
-        setBookings(response.data);
+        const { page, cursor } = await fetchPage(null);
+        setBookings(page);
+        setNextCursor(cursor);
       } catch (err) {
         setError('Failed to fetch your bookings. Please try again later.');
         console.error('Fetch bookings error:', err);
@@ -28,6 +40,21 @@ const Booking = () => {
     fetchBookings();
   }, []);
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      setError('');
+      const { page, cursor } = await fetchPage(nextCursor);
+      setBookings((current) => [...current, ...page]);
+      setNextCursor(cursor);
+    } catch (err) {
+      setError('Failed to load more bookings. Please try again.');
+      console.error('Load more bookings error:', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   if (loading) {
     return (
       <Container className="text-center py-5">
@@ -86,6 +113,19 @@ const Booking = () => {
               </Card.Body>
             </Card>
           ))}
+
+          {nextCursor && (
+            <div className="text-center">
+              <Button variant="outline-primary" onClick={loadMore} disabled={loadingMore}>
+                {loadingMore ? (
+                  <>
+                    <Spinner as="span" animation="border" size="sm" className="me-2" />
+                    Loading...
+                  </>
+                ) : 'Load more bookings'}
+              </Button>
+            </div>
+          )}
         </Col>
       </Row>
     </Container>
@@ -11,7 +11,6 @@ import {
 } from 'react-icons/fa';
 import { QRCodeSVG } from 'qrcode.react';
 import { saveAs } from 'file-saver';
-import html2canvas from 'html2canvas';
 import api from '../api/axiosConfig';
 import { toast } from 'react-toastify';
 import 'react-toastify/dist/ReactToastify.css';
@@ -277,16 +276,20 @@ const BookingConfirmation = () => {
     window.print();
   };
 
-  // Handle ticket download
-  const handleDownloadTicket = () => {
-    const ticketElement = ticketRef.current;
-    if (!ticketElement) return;
+  // Handle ticket download; the server renders the ticket
+  const handleDownloadTicket = async () => {
+    if (!booking?.pnr) return;
 
-    html2canvas(ticketElement).then(canvas => {
-      canvas.toBlob((blob) => {
-        saveAs(blob, `ticket-${booking?.pnr || 'booking'}.png`);
+    try {
+      const response = await api.get(`/api/bookings/pnr/${booking.pnr}/ticket`, {
+        responseType: 'blob',
+        headers: { Accept: 'image/png, application/json' },
       });
-    });
+      saveAs(response.data, `ticket-${booking.pnr}.png`);
+    } catch (err) {
+      console.error('Failed to download ticket:', err);
+      toast.error('Could not download the ticket. Please try again.');
+    }
   };
 
   const handleOpenEmailModal = () => {
@@ -303,16 +306,12 @@ const BookingConfirmation = () => {
     }
 
     setShowEmailModal(false);
-    const ticketElement = ticketRef.current;
-    if (!ticketElement || sendingEmail) return;
+    if (!booking?.pnr || sendingEmail) return;
 
     setSendingEmail(true);
     toast.info('Preparing to send email...');
 
     try {
-      const canvas = await html2canvas(ticketElement, { scale: 2 });
-      const imageDataUrl = canvas.toDataURL('image/png');
-
       const user = JSON.parse(localStorage.getItem('user') || '{}');
       const token = user?.token;
 
@@ -325,8 +324,7 @@ const BookingConfirmation = () => {
       await api.post('/api/bookings/send-email',
         {
           email: recipientEmail,
-          pnr: booking?.pnr,
-          ticketImage: imageDataUrl,
+          pnr: booking.pnr,
         },
         {
           headers: {
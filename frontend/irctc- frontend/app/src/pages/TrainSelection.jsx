@@ -277,22 +277,12 @@ const TrainSelection = () => {
       // Get the base URL for the current environment
       const baseUrl = window.location.origin;
       
-      // Prepare the payment request data
+      // The server prices the booking and builds the session metadata itself
       const paymentRequestData = {
         bookingId: bookingId,
         description: `Ticket for ${train.name} (${train.trainNumber})`,
-        amount: Math.round(totalFare * 100), // Ensure amount is an integer
-        currency: 'inr',
         success_url: `${baseUrl}/booking/confirmation?booking_id=${bookingId}&payment_success=true`,
         cancel_url: `${baseUrl}/booking/cancel?booking_id=${bookingId}`,
-        metadata: {
-          bookingId: bookingId,
-          trainId: train.id,
-          coachId: selectedCoach.id,
-          seatIds: selectedSeats.join(','),
-          totalFare: totalFare,
-          userId: user.id
-        },
       };
 
       console.log('Sending payment request:', {
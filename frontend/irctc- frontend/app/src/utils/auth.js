@@ -116,6 +116,24 @@ export const setAuthData = (data) => {
   }
 };
 
+/**
+ * Revoke the current token on the server so it can't be reused after logout.
+ * Errors are only logged; the local data is cleared either way.
+ */
+export const revokeToken = async () => {
+  const headers = getAuthHeaders();
+  if (!headers.Authorization) return;
+  try {
+    await fetch('http://localhost:8080/api/auth/logout', {
+      method: 'POST',
+      headers,
+      credentials: 'include'
+    });
+  } catch (error) {
+    console.error('Error revoking token:', error);
+  }
+};
+
 /**
  * Clear authentication data
  */
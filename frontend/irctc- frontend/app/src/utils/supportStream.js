@@ -0,0 +1,76 @@
+// Live helpdesk updates from /api/support/stream. EventSource can't send the
+// Authorization header, so the stream is read with fetch and parsed here.
+
+const STREAM_URL = 'http://localhost:8080/api/support/stream';
+const RETRY_MS = 5000;
+
+/**
+ * Subscribe to ticket and stats updates.
+ * @param {string} token JWT of an admin
+ * @param {Object} handlers onTickets(rows), onStats(stats), onReconnect()
+ * @returns {Function} Call to close the stream
+ */
+export const subscribeToSupportStream = (token, { onTickets, onStats, onReconnect }) => {
+  let controller = null;
+  let closed = false;
+  let connectedBefore = false;
+
+  const dispatch = (name, data) => {
+    if (!data) return;
+    try {
+      const payload = JSON.parse(data);
+      if (name === 'tickets' && onTickets) onTickets(payload);
+      if (name === 'stats' && onStats) onStats(payload);
+    } catch (error) {
+      console.error('Bad support stream event:', error);
+    }
+  };
+
+  const connect = async () => {
+    controller = new AbortController();
+    try {
+      const response = await fetch(STREAM_URL, {
+        headers: { 'Authorization': `Bearer ${token}`, 'Accept': 'text/event-stream' },
+        credentials: 'include',
+        signal: controller.signal
+      });
+      if (!response.ok) {
+        throw new Error(`Support stream failed: ${response.status}`);
+      }
+      // Updates made while disconnected were missed, so the caller reloads its snapshot
+      if (connectedBefore && onReconnect) onReconnect();
+      connectedBefore = true;
+
+      const reader = response.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          const block = buffer.slice(0, end);
+          buffer = buffer.slice(end + 2);
+          let name = 'message';
+          const data = [];
+          block.split('\n').forEach(line => {
+            if (line.startsWith('event:')) name = line.slice(6).trim();
+            else if (line.startsWith('data:')) data.push(line.slice(5));
+          });
+          dispatch(name, data.join('\n'));
+        }
+      }
+    } catch (error) {
+      if (closed) return;
+      console.error('Support stream error:', error);
+    }
+    if (!closed) setTimeout(connect, RETRY_MS);
+  };
+
+  connect();
+  return () => {
+    closed = true;
+    if (controller) controller.abort();
+  };
+};
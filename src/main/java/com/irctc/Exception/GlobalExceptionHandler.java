@@ -45,6 +45,12 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage(), "RESOURCE_NOT_FOUND");
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceBusy(ServiceBusyException ex) {
+        logger.warn("Service busy: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), "SERVICE_BUSY");
+    }
+
     @ExceptionHandler(SeatsNotAvailableException.class)
     public ResponseEntity<Map<String, Object>> handleSeatsNotAvailable(SeatsNotAvailableException ex) {
         logger.warn("Seats not available: {}", ex.getMessage());
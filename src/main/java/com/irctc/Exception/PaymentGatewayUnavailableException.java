@@ -0,0 +1,14 @@
+package com.irctc.Exception;
+
+/**
+ * The payment provider is down, slow or saturated; the call may succeed if retried later.
+ */
+public class PaymentGatewayUnavailableException extends PaymentGatewayException {
+    public PaymentGatewayUnavailableException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.irctc.Exception;
+
+/**
+ * A bounded worker pool is saturated; the request may succeed if retried later.
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
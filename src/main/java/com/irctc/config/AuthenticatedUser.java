@@ -0,0 +1,31 @@
+package com.irctc.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * The caller of an authenticated request, as the JWT describes them. Services take
+ * the user id from here instead of looking the user up by email. The name is the
+ * email, so {@code Authentication.getName()} still returns it.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal, Serializable {
+    // Null for tokens issued before the id was embedded
+    private final Long id;
+    private final String email;
+    private final String role;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -0,0 +1,39 @@
+package com.irctc.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PNR_DETAILS_CACHE = "pnrDetails";
+    public static final String USERS_CACHE = "users";
+
+    @Value("${cache.caffeine.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+    private String caffeineSpec;
+
+    // Users rarely change and are only needed in full occasionally, so a small short-lived cache
+    @Value("${cache.users.spec:maximumSize=1000,expireAfterWrite=5m}")
+    private String usersSpec;
+
+    /**
+     * Caches are transaction aware: puts and evictions are deferred until the
+     * surrounding transaction commits, so a cancel that rolls back leaves the
+     * entry alone and an eviction only lands once the new status is visible.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PNR_DETAILS_CACHE);
+        caffeineCacheManager.setCaffeineSpec(CaffeineSpec.parse(caffeineSpec));
+        caffeineCacheManager.registerCustomCache(USERS_CACHE, Caffeine.from(usersSpec).build());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -1,5 +1,7 @@
 package com.irctc.config;
 
+import com.irctc.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +22,7 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Override
@@ -29,16 +32,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                String username = jwtUtil.getUsernameFromToken(token);
-                String role = jwtUtil.getAllClaimsFromToken(token).get("role", String.class);
-                if (jwtUtil.validateToken(token, username)) {
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                    logger.debug("Authenticated user: {}", username);
-                } else {
-                    logger.warn("Invalid or expired token for user: {}", username);
+                // One verification covers signature and expiry
+                Claims claims = jwtUtil.verify(token);
+                if (tokenRevocationService.isRevoked(claims)) {
+                    logger.debug("Rejected revoked token of {}", claims.getSubject());
+                    filterChain.doFilter(request, response);
+                    return;
                 }
+                AuthenticatedUser user = new AuthenticatedUser(claims.get(JwtUtil.USER_ID_CLAIM, Long.class),
+                        claims.getSubject(), claims.get("role", String.class));
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                        user, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+                SecurityContextHolder.getContext().setAuthentication(auth);
+                logger.debug("Authenticated user: {}", user.getEmail());
             } catch (Exception e) {
                 logger.error("JWT processing error: {}", e.getMessage());
                 SecurityContextHolder.clearContext();
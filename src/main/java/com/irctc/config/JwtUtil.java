@@ -1,67 +1,147 @@
 package com.irctc.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.irctc.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Issues and verifies JWTs. The signing key and parser are built once; building a
+ * parser looks up its JSON deserializer through the ServiceLoader, which used to
+ * dominate the cost of every authenticated request.
+ *
+ * <p>Verified tokens are cached by their SHA-256, so a client sending the same token
+ * on every request pays for signature verification once. An entry never outlives the
+ * token's expiry, nor {@code jwt.cache.ttl}. The cache only vouches for the signature:
+ * revocation is checked on every request, see {@link com.irctc.service.TokenRevocationService}.
+ */
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
+    public static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.secret}")
     private String secret;
 
-    private final long expirationMillis = 60 * 60  * 60 * 1000; // 1 hour
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.ttl:5m}")
+    private Duration cacheTtl;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.token.validity:86400000}")
+    private long expirationMillis;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, Claims> verified;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiry(cacheTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwtVerified");
     }
 
-    public String generateToken(String email, String role) {
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put("role", user.getRole().name());
+        claims.put(USER_ID_CLAIM, user.getId());
         return Jwts.builder()
                 .setClaims(claims)
-                .setSubject(email)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getEmail())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMillis))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public boolean validateToken(String token, String email) {
-        try {
-            String username = getUsernameFromToken(token);
-            return username.equals(email) && !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+    /**
+     * Verifies the token's signature and expiry once and returns its claims. The
+     * claims may be shared with other requests and must not be modified.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public Claims verify(String token) {
+        String key = hash(token);
+        Claims claims = verified.getIfPresent(key);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            verified.put(key, claims);
+        } else if (claims.getExpiration() != null && claims.getExpiration().getTime() <= System.currentTimeMillis()) {
+            // The cache runs on its own clock; the token's expiry is wall-clock time
+            verified.invalidate(key);
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration().toInstant());
         }
+        return claims;
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
-    public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
+    // Keeps an entry until the token expires, but no longer than the configured ttl
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+        private final long maxNanos;
+
+        private UntilTokenExpiry(long maxNanos) {
+            this.maxNanos = maxNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return maxNanos;
+            }
+            long remaining = Duration.ofMillis(claims.getExpiration().getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(remaining, maxNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
 
-    public boolean isTokenExpired(String token) {
-        return getAllClaimsFromToken(token).getExpiration().before(new Date());
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
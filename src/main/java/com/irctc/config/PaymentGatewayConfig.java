@@ -0,0 +1,109 @@
+package com.irctc.config;
+
+import com.irctc.service.PaymentEventProcessor;
+import com.irctc.service.payment.CircuitBreaker;
+import com.irctc.service.payment.FakePaymentGateway;
+import com.irctc.service.payment.PaymentGateway;
+import com.irctc.service.payment.ResilientPaymentGateway;
+import com.irctc.service.payment.StripePaymentGateway;
+import com.stripe.StripeClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Chooses the payment provider with {@code payment.gateway} ({@code stripe} or
+ * {@code fake}) and wraps it in the bulkhead, timeout and circuit breaker.
+ */
+@Configuration
+public class PaymentGatewayConfig {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentGatewayConfig.class);
+
+    @Value("${payment.gateway:stripe}")
+    private String gateway;
+
+    // Older configs only set stripe.key
+    @Value("${stripe.api.secretkey:${stripe.key:}}")
+    private String stripeSecretKey;
+
+    @Value("${stripe.api.base:}")
+    private String stripeApiBase;
+
+    @Value("${stripe.connect-timeout-ms:3000}")
+    private int stripeConnectTimeoutMs;
+
+    @Value("${payment.gateway.timeout-ms:10000}")
+    private long callTimeoutMs;
+
+    @Value("${payment.gateway.max-concurrent-calls:16}")
+    private int maxConcurrentCalls;
+
+    @Value("${payment.gateway.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${payment.gateway.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${payment.gateway.circuit.open-ms:30000}")
+    private long circuitOpenMs;
+
+    @Value("${payment.fake.latency-ms:150}")
+    private long fakeLatencyMs;
+
+    @Value("${payment.fake.jitter-ms:100}")
+    private long fakeJitterMs;
+
+    @Value("${payment.fake.error-rate:0.0}")
+    private double fakeErrorRate;
+
+    @Value("${payment.fake.webhook-delay-ms:1000}")
+    private long fakeWebhookDelayMs;
+
+    @Value("${stripe.webhook.secret:}")
+    private String webhookSecret;
+
+    @Bean
+    public PaymentGateway paymentGateway(MeterRegistry meterRegistry, ObjectProvider<PaymentEventProcessor> paymentEvents) {
+        PaymentGateway provider = switch (gateway.trim().toLowerCase()) {
+            case "stripe" -> new StripePaymentGateway(stripeClient());
+            case "fake" -> fakeGateway(paymentEvents);
+            default -> throw new IllegalStateException("Unknown payment.gateway '" + gateway + "', expected stripe or fake");
+        };
+        logger.info("Payment gateway: {}", provider.name());
+
+        return new ResilientPaymentGateway(provider, maxConcurrentCalls, queueCapacity,
+            Duration.ofMillis(callTimeoutMs),
+            new CircuitBreaker(failureThreshold, Duration.ofMillis(circuitOpenMs)),
+            meterRegistry);
+    }
+
+    // Fake sessions complete through the payment inbox, like Stripe's do
+    private PaymentGateway fakeGateway(ObjectProvider<PaymentEventProcessor> paymentEvents) {
+        String secret = webhookSecret.isBlank() ? "whsec_fake_" + UUID.randomUUID() : webhookSecret;
+        return new FakePaymentGateway(fakeLatencyMs, fakeJitterMs, fakeErrorRate, secret, fakeWebhookDelayMs,
+            event -> paymentEvents.getObject().record(event));
+    }
+
+    private StripeClient stripeClient() {
+        if (stripeSecretKey.isBlank()) {
+            logger.warn("No Stripe secret key configured; checkout calls will fail");
+        }
+        StripeClient.StripeClientBuilder builder = StripeClient.builder()
+            .setApiKey(stripeSecretKey)
+            .setConnectTimeout(stripeConnectTimeoutMs)
+            // Never read longer than the caller is prepared to wait
+            .setReadTimeout((int) callTimeoutMs)
+            .setMaxNetworkRetries(0);
+        if (!stripeApiBase.isBlank()) {
+            builder.setApiBase(stripeApiBase);
+        }
+        return builder.build();
+    }
+}
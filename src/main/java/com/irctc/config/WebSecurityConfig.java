@@ -1,7 +1,9 @@
 package com.irctc.config;
 
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,6 +29,7 @@ import java.util.List;
 public class WebSecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -35,11 +38,14 @@ public class WebSecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async re-dispatch of streamed responses was already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 .requestMatchers(
                     "/api/auth/**", "/api/support/public",
                     "/register", "/login", "/trains/search", "/trains/{id}", "/trains", "/contact",
                     "/api/seats", "/api/seats/coach/{coachId}", "/api/seats/available/{coachId}", "/api/seats/{seatId}",
-                    "/trains/{trainId}/coaches", "/api/layout/coaches/{trainId}", "/api/v1/payment/checkout","/api/support","/trains/coaches/{trainId}/seats"
+                    "/trains/{trainId}/coaches", "/api/layout/coaches/{trainId}", "/api/layout/seats/{coachId}", "/api/v1/payment/webhook","/api/support","/trains/coaches/{trainId}/seats"
                 ).permitAll()
 
                 // Require only authentication, not roles
@@ -49,12 +55,14 @@ public class WebSecurityConfig {
 
                 // Admin-only routes
                 .requestMatchers(
-                    "/trains/coaches/{trainId}/create", "/trains/{id}", "/trains"
+                    "/trains/coaches/{trainId}/create", "/trains/{id}", "/trains", "/actuator/**"
                 ).hasRole("ADMIN")
 
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Limits by user once the token is read, before any controller work
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -86,8 +94,9 @@ public class WebSecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // Changing the strength rehashes each password at its owner's next login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
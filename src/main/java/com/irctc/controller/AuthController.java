@@ -1,17 +1,24 @@
 package com.irctc.controller;
 
+import com.irctc.Exception.ServiceBusyException;
+import com.irctc.Exception.UserNotFoundException;
 import com.irctc.model.User;
 import com.irctc.config.*;
+import com.irctc.service.TokenRevocationService;
 import com.irctc.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.springframework.security.core.Authentication;
 import java.util.stream.Collectors;
 
@@ -21,26 +28,18 @@ import java.util.stream.Collectors;
 public class AuthController {
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
+    // Hashing runs on its own pool, so the request thread is released while it waits
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@Valid @RequestBody User user) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> register(@Valid @RequestBody User user) {
         try {
-            User registeredUser = userService.register(user);
-            String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", registeredUser.getId());
-            response.put("username", registeredUser.getUsername());
-            response.put("role", registeredUser.getRole());
-            response.put("email", registeredUser.getEmail());
-            response.put("fullname", registeredUser.getFullname());
-            response.put("phone", registeredUser.getPhoneNumber());
-            response.put("gender", registeredUser.getGender());
-            response.put("token", token);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Registration failed: {}", e.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            return userService.register(user)
+                .thenApply(this::authResponse)
+                .exceptionally(e -> failure(e, "Registration failed", HttpStatus.BAD_REQUEST));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(failure(e, "Registration failed", HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -55,29 +54,72 @@ public class AuthController {
         ));
     }
 
+    // Revokes the token this request is made with
+    @PostMapping("/api/auth/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    Authentication auth) {
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser) || authHeader == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+        Claims claims = jwtUtil.verify(authHeader.substring("Bearer ".length()));
+        AuthenticatedUser user = userService.currentUser();
+        if (claims.getId() == null) {
+            // Tokens issued before they carried a jti can only be revoked all together
+            tokenRevocationService.revokeAllForUser(user.getId(), user.getEmail());
+        } else {
+            tokenRevocationService.revokeToken(claims.getId(), user.getId(), claims.getExpiration());
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+
+    // Revokes every token of the caller, on all devices
+    @PostMapping("/api/auth/logout-all")
+    public ResponseEntity<?> logoutEverywhere(Authentication auth) {
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser)) {
+            return ResponseEntity.status(401).body(Map.of("error", "Unauthorized"));
+        }
+        AuthenticatedUser user = userService.currentUser();
+        tokenRevocationService.revokeAllForUser(user.getId(), user.getEmail());
+        return ResponseEntity.ok(Map.of("message", "Logged out everywhere"));
+    }
+
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> loginRequest) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(@RequestBody Map<String, String> loginRequest) {
+        String email = loginRequest.get("email");
+        String password = loginRequest.get("password");
+        if (email == null || password == null) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(Map.of("error", "Email and password are required")));
+        }
         try {
-            String email = loginRequest.get("email");
-            String password = loginRequest.get("password");
-            if (email == null || password == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Email and password are required"));
-            }
-            User user = userService.login(email, password);
-            String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
-            Map<String, Object> response = new HashMap<>();
-            response.put("id", user.getId());
-            response.put("username", user.getUsername());
-            response.put("role", user.getRole());
-            response.put("email", user.getEmail());
-            response.put("fullname", user.getFullname());
-            response.put("phone", user.getPhoneNumber());
-            response.put("gender", user.getGender());
-            response.put("token", token);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Login failed: {}", e.getMessage());
-            return ResponseEntity.status(401).body(Map.of("error", e.getMessage()));
+            return userService.login(email, password)
+                .thenApply(this::authResponse)
+                .exceptionally(e -> failure(e, "Login failed", HttpStatus.UNAUTHORIZED));
+        } catch (UserNotFoundException e) {
+            return CompletableFuture.completedFuture(failure(e, "Login failed", HttpStatus.UNAUTHORIZED));
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> authResponse(User user) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", user.getId());
+        response.put("username", user.getUsername());
+        response.put("role", user.getRole());
+        response.put("email", user.getEmail());
+        response.put("fullname", user.getFullname());
+        response.put("phone", user.getPhoneNumber());
+        response.put("gender", user.getGender());
+        response.put("token", jwtUtil.generateToken(user));
+        return ResponseEntity.ok(response);
+    }
+
+    // A saturated hashing pool is rethrown for the exception handler to turn into a 503
+    private ResponseEntity<Map<String, Object>> failure(Throwable error, String what, HttpStatus status) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ServiceBusyException busy) {
+            throw busy;
         }
+        logger.error("{}: {}", what, cause.getMessage());
+        return ResponseEntity.status(status).body(Map.of("error", String.valueOf(cause.getMessage())));
     }
-}
\ No newline at end of file
+}
@@ -1,31 +1,55 @@
 package com.irctc.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.dto.BookingHistoryPage;
 import com.irctc.dto.BookingResponseDTO;
 import com.irctc.dto.EmailRequest;
+import com.irctc.dto.PnrStatusSummary;
 import com.irctc.dto.SeatBookingRequest;
 import com.irctc.model.Booking;
+import com.irctc.model.EmailOutbox;
 import com.irctc.service.BookingService;
-import com.irctc.service.EmailService;
+import com.irctc.service.EmailOutboxService;
+import com.irctc.service.TicketService;
+import com.irctc.service.fare.FareEngine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
-import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/bookings")
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final TicketService ticketService;
+    private final ObjectMapper objectMapper;
+    private final FareEngine fareEngine;
+
+    @Value("${booking.bulk-pnr.max-size:1000}")
+    private int maxBulkPnrs;
+
+    @Value("${booking.bulk-pnr.chunk-size:200}")
+    private int bulkPnrChunkSize;
 
     @PostMapping("/book")
     @PreAuthorize("isAuthenticated()")
@@ -33,7 +57,7 @@ public class BookingController {
         try {
             Booking booking = bookingService.bookSeats(request);
             // Convert the Booking entity to a BookingResponseDTO
-            BookingResponseDTO responseDto = BookingResponseDTO.fromEntity(booking);
+            BookingResponseDTO responseDto = BookingResponseDTO.fromEntity(booking, fareEngine.quote(booking));
             return ResponseEntity.ok(responseDto);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -42,15 +66,13 @@ public class BookingController {
     
     @GetMapping("/user")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> getUserBookings() {
+    public ResponseEntity<?> getUserBookings(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int size,
+                                             @RequestParam(defaultValue = "all") String scope) {
         try {
-            // This will get the currently authenticated user's bookings
-            List<Booking> userBookings = bookingService.getUserBookings();
-            // Convert to DTOs
-            List<BookingResponseDTO> responseDtos = userBookings.stream()
-                .map(BookingResponseDTO::fromEntity)
-                .collect(Collectors.toList());
-            return ResponseEntity.ok(responseDtos);
+            // This will get one page of the currently authenticated user's bookings
+            BookingHistoryPage page = bookingService.getUserBookings(cursor, size, scope);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -63,7 +85,7 @@ public class BookingController {
             // This will get the booking by ID
             Optional<Booking> booking = bookingService.getBookingById(id);
             if (booking.isPresent()) {
-                BookingResponseDTO responseDto = BookingResponseDTO.fromEntity(booking.get());
+                BookingResponseDTO responseDto = BookingResponseDTO.fromEntity(booking.get(), fareEngine.quote(booking.get()));
                 return ResponseEntity.ok(responseDto);
             } else {
                 return ResponseEntity.notFound().build();
@@ -84,6 +106,62 @@ public class BookingController {
         }
     }
 
+    /**
+     * Downloads the e-ticket as a PNG, rendered on the server and served from the
+     * ticket cache when the booking has not changed. Only the booking's owner and
+     * admins may download it.
+     */
+    @GetMapping("/pnr/{pnr}/ticket")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Resource> downloadTicket(@PathVariable String pnr) {
+        bookingService.checkTicketAccess(pnr);
+        Path ticket = ticketService.getTicket(pnr);
+        return ResponseEntity.ok()
+            .contentType(MediaType.IMAGE_PNG)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("ticket-" + pnr + ".png").build().toString())
+            .body(new FileSystemResource(ticket));
+    }
+
+    /**
+     * Resolves many PNRs in one call and streams back a JSON object of PNR to
+     * status summary (null for unknown PNRs), one chunk of lookups at a time.
+     */
+    @PostMapping("/pnr/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> getPnrStatuses(@RequestBody List<String> pnrs) {
+        Set<String> uniquePnrs = new LinkedHashSet<>();
+        if (pnrs != null) {
+            pnrs.stream()
+                .filter(pnr -> pnr != null && !pnr.isBlank())
+                .map(String::trim)
+                .forEach(uniquePnrs::add);
+        }
+        if (uniquePnrs.isEmpty()) {
+            throw new IllegalArgumentException("At least one PNR is required");
+        }
+        if (uniquePnrs.size() > maxBulkPnrs) {
+            throw new IllegalArgumentException("At most " + maxBulkPnrs + " PNRs can be looked up at once");
+        }
+
+        List<String> orderedPnrs = new ArrayList<>(uniquePnrs);
+        StreamingResponseBody body = out -> {
+            JsonGenerator json = objectMapper.createGenerator(out);
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.writeStartObject();
+            for (int from = 0; from < orderedPnrs.size(); from += bulkPnrChunkSize) {
+                List<String> chunk = orderedPnrs.subList(from, Math.min(from + bulkPnrChunkSize, orderedPnrs.size()));
+                for (Map.Entry<String, PnrStatusSummary> status : bookingService.getPnrStatuses(chunk).entrySet()) {
+                    json.writeObjectField(status.getKey(), status.getValue());
+                }
+                json.flush();
+            }
+            json.writeEndObject();
+            json.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @DeleteMapping("/cancel/{pnr}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> cancelBooking(@PathVariable String pnr) {
@@ -95,54 +173,23 @@ public class BookingController {
         }
     }
 
+    /**
+     * Queues the ticket email and returns straight away; the outbox workers send it
+     * with the server-rendered ticket attached. Like the download, only for the
+     * booking's owner or an admin.
+     */
     @PostMapping("/send-email")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> sendBookingEmail(@RequestBody EmailRequest emailRequest) {
-        try {
-            // Log the incoming request (without sensitive data)
-            System.out.println("Sending email to: " + emailRequest.getEmail());
-            System.out.println("PNR: " + emailRequest.getPnr());
-            System.out.println("Ticket image present: " + 
-                (emailRequest.getTicketImage() != null && !emailRequest.getTicketImage().isEmpty()));
-            
-            // Validate request
-            if (emailRequest.getEmail() == null || emailRequest.getEmail().trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Email is required"));
-            }
-            if (emailRequest.getPnr() == null || emailRequest.getPnr().trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "PNR is required"));
-            }
-            
-            // Send the email
-            emailService.sendTicketEmail(
-                emailRequest.getEmail().trim(),
-                emailRequest.getPnr().trim(),
-                emailRequest.getTicketImage()
-            );
-            
-            System.out.println("Email sent successfully to: " + emailRequest.getEmail());
-            return ResponseEntity.ok(Map.of("message", "Email sent successfully"));
-            
-        } catch (MessagingException e) {
-            System.err.println("Email sending failed (MessagingException): " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).body(Map.of(
-                "error", "Failed to send email: " + e.getMessage(),
-                "details", "Check SMTP configuration and credentials"
-            ));
-        } catch (IOException e) {
-            System.err.println("IO Error while sending email: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).body(Map.of(
-                "error", "Failed to process email content: " + e.getMessage()
-            ));
-        } catch (Exception e) {
-            System.err.println("Unexpected error sending email: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).body(Map.of(
-                "error", "An unexpected error occurred: " + e.getMessage(),
-                "type", e.getClass().getName()
-            ));
+        if (emailRequest.getEmail() == null || emailRequest.getEmail().trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Email is required"));
         }
+        if (emailRequest.getPnr() == null || emailRequest.getPnr().trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "PNR is required"));
+        }
+
+        bookingService.checkTicketAccess(emailRequest.getPnr().trim());
+        EmailOutbox queued = emailOutboxService.enqueueTicketEmail(emailRequest.getEmail(), emailRequest.getPnr());
+        return ResponseEntity.accepted().body(Map.of("message", "Email queued", "id", queued.getId()));
     }
 }
\ No newline at end of file
@@ -1,14 +1,17 @@
 package com.irctc.controller;
 
 import com.irctc.dto.CoachLayoutResponse;
-import com.irctc.dto.SeatLayoutResponse;
-import com.irctc.model.Seat;
 import com.irctc.service.CoachService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/layout")
@@ -17,12 +20,28 @@ public class LayoutController {
 
     private final CoachService coachService;
 
+    @Value("${layout.seat-cache-seconds:5}")
+    private long seatCacheSeconds;
+
+    /**
+     * Seat layout of one coach for one travel date. {@code format=bitmap} returns the
+     * compact booked-seat bitmap instead of the per-seat list.
+     */
     @GetMapping("/seats/{coachId}")
-    public List<SeatLayoutResponse> getSeatLayout(@PathVariable Long coachId) {
-        // This method is not used in the current implementation, but keeping it for backward compatibility
-        return null;
+    public ResponseEntity<?> getSeatLayout(@PathVariable Long coachId,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate travelDate,
+                                           @RequestParam(defaultValue = "list") String format) {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(seatCacheSeconds)).cachePublic();
+        if ("bitmap".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .cacheControl(cacheControl)
+                    .body(coachService.getSeatLayoutBitmap(coachId, travelDate));
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(coachService.getSeatLayout(coachId, travelDate));
     }
-    
+
     @GetMapping("/coaches/{trainId}")
     public List<CoachLayoutResponse> getCoachLayouts(@PathVariable Long trainId) {
         return coachService.getCoachLayoutsByTrainId(trainId);
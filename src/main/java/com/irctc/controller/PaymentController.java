@@ -1,13 +1,20 @@
 package com.irctc.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.Exception.InvalidBookingRequestException;
+import com.irctc.Exception.PaymentGatewayUnavailableException;
+import com.irctc.Exception.ResourceNotFoundException;
 import com.irctc.dto.ChargeRequest;
+import com.irctc.dto.CheckoutSessionResult;
+import com.irctc.dto.PaymentStatusResponse;
+import com.irctc.dto.ReconciliationReport;
 import com.irctc.service.BookingService;
-import com.stripe.Stripe;
-import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionCreateParams;
-import jakarta.annotation.PostConstruct;
+import com.irctc.service.PaymentEventProcessor;
+import com.irctc.service.PaymentReconciliationService;
+import com.irctc.service.payment.PaymentGateway;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +25,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import lombok.RequiredArgsConstructor;
@@ -34,18 +43,16 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/v1/payment")
 public class PaymentController {
     
-        @Value("${stripe.api.secretkey}")
-    private String secretKey;
-    
+    @Value("${stripe.webhook.secret:}")
+    private String webhookSecret;
+
     private final BookingService bookingService;
+    private final PaymentGateway paymentGateway;
+    private final PaymentEventProcessor paymentEventProcessor;
+    private final PaymentReconciliationService reconciliationService;
 
-    @PostConstruct
-    public void init() {
-        // Simple initialization with the key from properties
-        Stripe.apiKey = secretKey;
-        log.info("Stripe API key initialized");
-    }
 @PostMapping("/checkout")
+@PreAuthorize("isAuthenticated()")
 public ResponseEntity<?> createCheckoutSession(@RequestBody Map<String, Object> request) {
     try {
         // Simple validation
@@ -53,15 +60,15 @@ public ResponseEntity<?> createCheckoutSession(@RequestBody Map<String, Object>
             return ResponseEntity.badRequest().body(Map.of("error", "Request cannot be empty"));
         }
         
-        // Required parameters with defaults
-        Long amount = request.get("amount") != null ? 
-            Long.parseLong(request.get("amount").toString()) : 1000L; // $10.00
-            
-        String currency = request.get("currency") != null ? 
-            request.get("currency").toString() : "usd";
-            
+        // Only a booking the caller holds can be paid for. Its price and the metadata the
+        // webhook trusts come from the server; the client only chooses where to return to
+        if (request.get("bookingId") == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "bookingId is required"));
+        }
+        Long bookingId = Long.parseLong(request.get("bookingId").toString());
+
         String description = request.get("description") != null ? 
-            request.get("description").toString() : "IRCTC Booking";
+            request.get("description").toString() : null;
             
         // Get success and cancel URLs from request
         String successUrl = request.get("success_url") != null ? 
@@ -72,44 +79,22 @@ public ResponseEntity<?> createCheckoutSession(@RequestBody Map<String, Object>
             request.get("cancel_url").toString() : 
             "http://localhost:3000/booking/cancel";
         
-        // Create a simple Stripe Checkout session
-        SessionCreateParams params = SessionCreateParams.builder()
-            .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
-            .setMode(SessionCreateParams.Mode.PAYMENT)
-            .setSuccessUrl(successUrl)
-            .setCancelUrl(cancelUrl)
-            .addLineItem(
-                SessionCreateParams.LineItem.builder()
-                    .setQuantity(1L)
-                    .setPriceData(
-                        SessionCreateParams.LineItem.PriceData.builder()
-                            .setCurrency(currency)
-                            .setUnitAmount(amount)
-                            .setProductData(
-                                SessionCreateParams.LineItem.PriceData.ProductData.builder()
-                                    .setName(description)
-                                    .build())
-                            .build())
-                    .build())
-            .build();
-        
-        // Add metadata if present in the request
-//        if (request.get("metadata") instanceof Map) {
-//            @SuppressWarnings("unchecked")
-//            Map<String, String> metadata = (Map<String, String>) request.get("metadata");
-//            SessionCreateParams.MetadataBuilder metadataBuilder = SessionCreateParams.Metadata.builder();
-//            metadata.forEach(metadataBuilder::putMetadata);
-//            params = params.toBuilder().setMetadata(metadataBuilder.build()).build();
-//        }
-        
-        // Create the session
-        Session session = Session.create(params);
+        CheckoutSessionResult session = paymentGateway.createCheckoutSession(
+            bookingService.checkoutRequest(bookingId, description, successUrl, cancelUrl));
         
         // Return the session URL to redirect the user to Stripe Checkout
         return ResponseEntity.ok(Map.of(
             "url", session.getUrl()
         ));
         
+    } catch (AccessDeniedException | InvalidBookingRequestException | ResourceNotFoundException e) {
+        // Handled by GlobalExceptionHandler
+        throw e;
+    } catch (PaymentGatewayUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+            "error", "Payment provider unavailable",
+            "message", e.getMessage()
+        ));
     } catch (Exception e) {
         log.error("Payment error: {}", e.getMessage(), e);
         return ResponseEntity.status(500).body(Map.of(
@@ -119,6 +104,68 @@ public ResponseEntity<?> createCheckoutSession(@RequestBody Map<String, Object>
     }
 }
 
+    /**
+     * Stripe webhook. Only verifies the signature and stores checkout completions in
+     * the payment inbox; bookings are confirmed asynchronously.
+     */
+    @PostMapping("/webhook")
+    public ResponseEntity<?> handleWebhook(@RequestBody String payload,
+                                           @RequestHeader(value = "Stripe-Signature", required = false) String signature) {
+        if (webhookSecret == null || webhookSecret.isBlank()) {
+            log.error("Stripe webhook received but stripe.webhook.secret is not configured");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Webhook not configured"));
+        }
+        if (signature == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing Stripe-Signature header"));
+        }
+
+        Event event;
+        try {
+            event = Webhook.constructEvent(payload, signature, webhookSecret);
+        } catch (SignatureVerificationException | RuntimeException e) {
+            // RuntimeException covers payloads Stripe's parser cannot read
+            log.warn("Rejected Stripe webhook: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid webhook payload or signature"));
+        }
+
+        if (!PaymentEventProcessor.CHECKOUT_COMPLETED.equals(event.getType())) {
+            log.debug("Ignoring Stripe event {} of type {}", event.getId(), event.getType());
+            return ResponseEntity.ok(Map.of("received", true));
+        }
+        boolean stored = paymentEventProcessor.record(event);
+        return ResponseEntity.ok(Map.of("received", true, "duplicate", !stored));
+    }
+
+    /**
+     * Cheap status lookup for the confirmation page to poll after the Stripe redirect.
+     */
+    @GetMapping("/status/{sessionId}")
+    public ResponseEntity<PaymentStatusResponse> getPaymentStatus(@PathVariable String sessionId) {
+        return ResponseEntity.ok(paymentEventProcessor.getPaymentStatus(sessionId));
+    }
+
+    /**
+     * Starts a payment-to-booking reconciliation run in the background.
+     */
+    @PostMapping("/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> startReconciliation() {
+        if (!reconciliationService.startRun()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Reconciliation is already running"));
+        }
+        return ResponseEntity.accepted().body(Map.of("started", true));
+    }
+
+    @GetMapping("/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getReconciliationReport() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("running", reconciliationService.isRunning());
+        ReconciliationReport report = reconciliationService.getLatestReport();
+        body.put("report", report);
+        return ResponseEntity.ok(body);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = ex.getBindingResult()
@@ -1,11 +1,21 @@
 package com.irctc.controller;
 
+import com.irctc.dto.PnrStatusSummary;
+import com.irctc.dto.SupportAdminLoad;
+import com.irctc.dto.SupportMessageRequest;
 import com.irctc.dto.SupportRequest;
+import com.irctc.dto.SupportSearchPage;
+import com.irctc.dto.SupportTicketStats;
 import com.irctc.model.Support;
 import com.irctc.model.SupportStatus;
-import com.irctc.model.User;
 import com.irctc.repository.SupportRepository;
-import com.irctc.repository.UserRepository;
+import com.irctc.service.BookingService;
+import com.irctc.service.SupportAssignmentService;
+import com.irctc.service.SupportClassifierService;
+import com.irctc.service.SupportSearchService;
+import com.irctc.service.SupportService;
+import com.irctc.service.SupportStatsService;
+import com.irctc.service.SupportStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -19,14 +29,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,7 +56,13 @@ public class SupportController {
 
     private static final Logger logger = LoggerFactory.getLogger(SupportController.class);
     private final SupportRepository supportRepository;
-    private final UserRepository userRepository;
+    private final SupportService supportService;
+    private final SupportStatsService supportStatsService;
+    private final SupportSearchService supportSearchService;
+    private final SupportClassifierService supportClassifierService;
+    private final SupportAssignmentService supportAssignmentService;
+    private final SupportStreamService supportStreamService;
+    private final BookingService bookingService;
 
    
     @Operation(
@@ -63,33 +83,15 @@ public class SupportController {
         try {
             logger.info("Received new support request from: {} - {}", request.getEmail(), request.getName());
             
-            Support support = new Support();
-            support.setName(request.getName());
-            support.setEmail(request.getEmail());
-            support.setIssue(request.getIssue());
-            support.setStatus(SupportStatus.OPEN);
-            support.setResolved(false);
-            support.setSubmittedAt(LocalDateTime.now());
-            
-            
-            String issue = request.getIssue().toLowerCase();
-            if (issue.contains("booking") || issue.contains("reservation")) {
-                support.setCategory("BOOKING");
-            } else if (issue.contains("payment") || issue.contains("refund")) {
-                support.setCategory("PAYMENT");
-            } else if (issue.contains("train") || issue.contains("schedule")) {
-                support.setCategory("TRAIN");
-            } else {
-                support.setCategory("GENERAL");
-            }
-            
-            Support savedTicket = supportRepository.save(support);
+            Support savedTicket = supportService.createTicket(request);
             logger.info("Created support ticket ID: {} for {}", savedTicket.getId(), savedTicket.getEmail());
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Support request submitted successfully!");
             response.put("ticketId", savedTicket.getId());
             response.put("status", savedTicket.getStatus());
+            response.put("category", savedTicket.getCategory());
+            response.put("priority", savedTicket.getPriority());
             response.put("submittedAt", savedTicket.getSubmittedAt());
             
             return ResponseEntity.ok(response);
@@ -140,11 +142,7 @@ public class SupportController {
             return supportRepository.findById(id)
                 .map(ticket -> {
                     // Only allow access to the ticket owner or admin
-                    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-                    boolean isAdmin = auth.getAuthorities().stream()
-                        .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-                    
-                    if (isAdmin || ticket.getEmail().equals(auth.getName())) {
+                    if (canView(ticket)) {
                         return ResponseEntity.ok(ticket);
                     } else {
                         return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -174,20 +172,9 @@ public class SupportController {
         try {
             logger.info("Updating status of ticket {} to {}", id, status);
             
-            return supportRepository.findById(id)
-                .map(ticket -> {
-                    ticket.setStatus(status);
-                    if (notes != null && !notes.trim().isEmpty()) {
-                        String adminNotes = "[Status Update: " + status + "] " + notes;
-                        if (ticket.getAdminNotes() != null) {
-                            adminNotes = ticket.getAdminNotes() + "\n" + adminNotes;
-                        }
-                        ticket.setAdminNotes(adminNotes);
-                    }
-                    
-                    Support updatedTicket = supportRepository.save(ticket);
+            return supportService.updateStatus(id, status, notes, currentUser())
+                .map(updatedTicket -> {
                     logger.info("Updated ticket {} status to {}", id, status);
-                    
                     return ResponseEntity.ok(updatedTicket);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -202,7 +189,7 @@ public class SupportController {
    
     @Operation(
         summary = "Assign ticket to admin",
-        description = "Assigns a support ticket to an admin user (Admin only)"
+        description = "Assigns a support ticket to an admin user; 404 if either doesn't exist (Admin only)"
     )
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}/assign")
@@ -213,22 +200,11 @@ public class SupportController {
         try {
             logger.info("Assigning ticket {} to admin {}", id, adminId);
             
-            return supportRepository.findById(id)
-                .flatMap(ticket -> userRepository.findById(adminId)
-                    .map(admin -> {
-                        ticket.setAssignedTo(admin);
-                        ticket.setStatus(SupportStatus.IN_PROGRESS);
-                        
-                        String note = "Assigned to " + admin.getUsername();
-                        ticket.setAdminNotes(ticket.getAdminNotes() != null ? 
-                            ticket.getAdminNotes() + "\n" + note : note);
-                            
-                        Support updatedTicket = supportRepository.save(ticket);
-                        logger.info("Assigned ticket {} to admin {}", id, adminId);
-                        
-                        return ResponseEntity.ok(updatedTicket);
-                    })
-                )
+            return supportService.assign(id, adminId, currentUser())
+                .map(updatedTicket -> {
+                    logger.info("Assigned ticket {} to admin {}", id, adminId);
+                    return ResponseEntity.ok(updatedTicket);
+                })
                 .orElse(ResponseEntity.notFound().build());
                 
         } catch (Exception e) {
@@ -239,6 +215,16 @@ public class SupportController {
     }
 
     
+    @Operation(
+        summary = "Get admin workload",
+        description = "Open tickets per admin as the auto-assigner sees them, least loaded first (Admin only)"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/assignment/load")
+    public ResponseEntity<List<SupportAdminLoad>> getAdminLoad() {
+        return ResponseEntity.ok(supportAssignmentService.getLoads());
+    }
+
     @Operation(
         summary = "Get my tickets",
         description = "Retrieves all support tickets submitted by the current user"
@@ -279,17 +265,9 @@ public class SupportController {
         try {
             logger.info("Adding response to ticket {}", id);
             
-            return supportRepository.findById(id)
-                .map(ticket -> {
-                    if (ticket.getResponse() == null) {
-                        ticket.setResponse(response);
-                    } else {
-                        ticket.setResponse(ticket.getResponse() + "\n\n---\n\n" + response);
-                    }
-                    
-                    Support updatedTicket = supportRepository.save(ticket);
+            return supportService.addResponse(id, response, currentUser())
+                .map(updatedTicket -> {
                     logger.info("Added response to ticket {}", id);
-                    
                     return ResponseEntity.ok(updatedTicket);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -302,36 +280,152 @@ public class SupportController {
     }
 
   
+    @Operation(
+        summary = "Get ticket conversation",
+        description = "One page of the ticket's messages and status changes, oldest first; pass the id of "
+            + "the last entry as 'after' for the next page. Internal notes and notes on status changes are shown "
+            + "to admins only"
+    )
+    @GetMapping("/{id}/messages")
+    public ResponseEntity<?> getMessages(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return supportRepository.findById(id)
+            .<ResponseEntity<?>>map(ticket -> canView(ticket)
+                ? ResponseEntity.ok(supportService.getMessages(id, after, limit, isAdmin()))
+                : ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied")))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Add a message to a ticket",
+        description = "Appends a message to the ticket's conversation; messages from admins are helpdesk replies"
+    )
+    @PostMapping("/{id}/messages")
+    public ResponseEntity<?> addMessage(@PathVariable Long id, @Valid @RequestBody SupportMessageRequest request) {
+        Optional<Support> ticket = supportRepository.findById(id);
+        if (ticket.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!canView(ticket.get())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied"));
+        }
+        return supportService.addMessage(id, request.getMessage(), currentUser(), isAdmin())
+            .<ResponseEntity<?>>map(message -> ResponseEntity.status(HttpStatus.CREATED).body(message))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Get ticket status history",
+        description = "One page of the ticket's status changes, oldest first; pass the id of the last entry "
+            + "as 'after' for the next page. Notes on the changes are shown to admins only"
+    )
+    @GetMapping("/{id}/history")
+    public ResponseEntity<?> getStatusHistory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return supportRepository.findById(id)
+            .<ResponseEntity<?>>map(ticket -> canView(ticket)
+                ? ResponseEntity.ok(supportService.getStatusHistory(id, after, limit, isAdmin()))
+                : ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Access denied")))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(
         summary = "Get ticket statistics",
-        description = "Retrieves statistics about support tickets (Admin only)"
+        description = "Retrieves statistics about support tickets from in-memory counters (Admin only)"
     )
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getTicketStats() {
-        try {
-            logger.debug("Fetching support ticket statistics");
-            
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("total", supportRepository.count());
-            stats.put("open", supportRepository.countByStatus(SupportStatus.OPEN));
-            stats.put("inProgress", supportRepository.countByStatus(SupportStatus.IN_PROGRESS));
-            stats.put("resolved", supportRepository.countByStatus(SupportStatus.RESOLVED));
-            stats.put("closed", supportRepository.countByStatus(SupportStatus.CLOSED));
-            
-            // Get tickets needing attention (unresolved and older than 24 hours)
-            List<Support> attentionNeeded = supportRepository.findTicketsNeedingAttention();
-            stats.put("needsAttention", attentionNeeded.size());
-            
-            return ResponseEntity.ok(stats);
-            
-        } catch (Exception e) {
-            logger.error("Error fetching ticket statistics: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<SupportTicketStats> getTicketStats() {
+        return ResponseEntity.ok(supportStatsService.getStats());
     }
 
+    @Operation(
+        summary = "Stream live ticket updates",
+        description = "Server-sent events for the helpdesk dashboard: 'tickets' carries the rows changed in "
+            + "the last window, 'stats' the counts whenever they change. Load the ticket list once, then apply "
+            + "updates by id (Admin only)"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUpdates() {
+        return supportStreamService.subscribe();
+    }
    
+    @Operation(
+        summary = "Search tickets",
+        description = "Ranked full-text search over issue, responses, notes, email and category, "
+            + "with optional filters; quote a phrase to match it exactly (Admin only)"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search")
+    public ResponseEntity<SupportSearchPage> searchTickets(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) SupportStatus status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(supportSearchService.search(q, status, category, priority, from, to, page, size));
+    }
+
+    @Operation(
+        summary = "Rebuild the search index",
+        description = "Rebuilds the ticket search index from the database in the background (Admin only)"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        if (!supportSearchService.startRebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Index rebuild is already running"));
+        }
+        return ResponseEntity.accepted().body(Map.of("started", true));
+    }
+
+    @Operation(
+        summary = "Get bookings referenced by a ticket",
+        description = "Status of each PNR mentioned in the ticket, in the order mentioned; "
+            + "unknown PNRs map to null (Admin only)"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/bookings")
+    public ResponseEntity<Map<String, PnrStatusSummary>> getReferencedBookings(@PathVariable Long id) {
+        return supportRepository.findById(id)
+            .map(ticket -> ticket.getReferencedPnrs() == null
+                ? ResponseEntity.ok(Map.<String, PnrStatusSummary>of())
+                : ResponseEntity.ok(bookingService.getPnrStatuses(Arrays.asList(ticket.getReferencedPnrs().split(",")))))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+        summary = "Reload the ticket classifier",
+        description = "Re-reads the classifier keyword dictionary now instead of waiting for the "
+            + "change to be picked up (Admin only)"
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/classifier/reload")
+    public ResponseEntity<Map<String, Object>> reloadClassifier() {
+        return ResponseEntity.ok(Map.of("keywords", supportClassifierService.reload()));
+    }
+
+    private boolean canView(Support ticket) {
+        return isAdmin() || ticket.getEmail().equals(currentUser());
+    }
+
+    private static boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    private static String currentUser() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
     private Sort parseSortParameter(String[] sort) {
         if (sort.length >= 2) {
             return Sort.by(new Sort.Order(
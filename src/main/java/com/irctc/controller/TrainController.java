@@ -1,9 +1,12 @@
 package com.irctc.controller;
 
+import com.irctc.dto.BulkMailJob;
 import com.irctc.dto.CoachDTO;
+import com.irctc.dto.TrainNotificationRequest;
 import com.irctc.model.Coach;
 import com.irctc.model.Seat;
 import com.irctc.model.Train;
+import com.irctc.service.BulkNotificationService;
 import com.irctc.service.CoachService;
 import com.irctc.service.TrainService;
 import jakarta.validation.Valid;
@@ -25,6 +28,7 @@ import java.util.Map;
 public class TrainController {
     private final TrainService trainService;
     private final CoachService coachService;
+    private final BulkNotificationService bulkNotificationService;
     private static final Logger logger = LoggerFactory.getLogger(TrainController.class);
 
     @PostMapping
@@ -136,4 +140,23 @@ public class TrainController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Emails every passenger booked on the train for a travel date, e.g. about a
+     * cancellation or delay. Sending runs in the background; poll the job for progress.
+     */
+    @PostMapping("/{trainId}/notifications")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkMailJob> notifyPassengers(@PathVariable Long trainId,
+                                                        @Valid @RequestBody TrainNotificationRequest request) {
+        BulkMailJob job = bulkNotificationService.notifyTrainPassengers(
+            trainId, request.getTravelDate(), request.getSubject(), request.getMessage());
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/notifications/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkMailJob> getNotificationJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkNotificationService.getJob(jobId));
+    }
+}
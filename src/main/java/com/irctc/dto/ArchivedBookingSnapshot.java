@@ -0,0 +1,18 @@
+package com.irctc.dto;
+
+import com.irctc.service.BookingService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything the PNR and history endpoints need to answer for an archived
+ * booking, stored compressed alongside the archive row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBookingSnapshot {
+    private BookingService.PnrDetailsResponse details;
+    private BookingResponseDTO booking;
+}
@@ -0,0 +1,20 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a user's booking history. Pass {@code nextCursor} back as
+ * {@code cursor} to fetch the next (older) page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingHistoryPage {
+    private List<BookingResponseDTO> bookings;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,17 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Passenger columns of a booking, batch loaded for a page of bookings.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingPassengerRow {
+    private Long bookingId;
+    private String name;
+    private Integer age;
+    private String gender;
+    private Long seatId;
+}
@@ -12,7 +12,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -57,46 +59,33 @@ public class BookingResponseDTO {
     @NoArgsConstructor
     public static class FareDTO {
         private double baseFare;           // baseFare * passengerCount
-        private double reservationCharges; // e.g., 60.0
-        private double gst;                // 5% rounded/ceil
+        private double reservationCharges;
+        private double gst;
         private double totalFare;
     }
 
-    public static BookingResponseDTO fromEntity(Booking booking) {
+    /**
+     * @param fareQuote the booking's fare from {@link com.irctc.service.fare.FareEngine}
+     */
+    public static BookingResponseDTO fromEntity(Booking booking, FareQuote fareQuote) {
         // Train
         Train train = booking.getTrain();
         TrainSummaryDTO trainDTO = null;
-        if (train != null && booking.getTravelDate() != null) {
-            LocalDate travelDate = booking.getTravelDate();
-            LocalTime departureTime = train.getDepartureTime();
-            LocalTime arrivalTime = train.getArrivalTime();
-
-            LocalDateTime departureDateTime = travelDate.atTime(departureTime);
-            // Handle overnight trains where arrival is on the next day
-            LocalDateTime arrivalDateTime = arrivalTime.isBefore(departureTime) 
-                ? travelDate.plusDays(1).atTime(arrivalTime) 
-                : travelDate.atTime(arrivalTime);
-
-            trainDTO = new TrainSummaryDTO(
-                safe(String.valueOf(train.getNumber())),
-                safe(train.getName()),
-                toIso(departureDateTime),
-                toIso(arrivalDateTime)
-            );
+        if (train != null) {
+            trainDTO = trainSummary(train.getNumber(), train.getName(),
+                train.getDepartureTime(), train.getArrivalTime(), booking.getTravelDate());
         }
 
-        // Coach & fare (derive from first seat's coach if seats present)
+        // Coach (derive from first seat's coach if seats present)
         CoachSummaryDTO coachDTO = null;
-        double perPassengerFare = 0.0;
         if (booking.getSeats() != null && !booking.getSeats().isEmpty()) {
             Seat firstSeat = booking.getSeats().get(0);
             if (firstSeat.getCoach() != null) {
                 coachDTO = new CoachSummaryDTO(
                     safe(firstSeat.getCoach().getCoachNumber()),
                     booking.getSeatClass() != null ? booking.getSeatClass() : "",
-                    firstSeat.getCoach().getFare()
+                    FareQuote.toRupees(fareQuote.getPerPassenger())
                 );
-                perPassengerFare = firstSeat.getCoach().getFare();
             }
         }
 
@@ -120,18 +109,6 @@ public class BookingResponseDTO {
                 })
                 .collect(Collectors.toList());
 
-        // Fare totals (optional)
-        int paxCount = passengerEntities != null ? passengerEntities.size() : 0;
-        double baseFareTotal = perPassengerFare * paxCount;
-        double reservationCharges = 60.0;
-        double gst = Math.ceil((baseFareTotal + reservationCharges) * 0.05);
-        FareDTO fareDTO = new FareDTO(
-            baseFareTotal, 
-            reservationCharges, 
-            gst, 
-            baseFareTotal + reservationCharges + gst
-        );
-
         return new BookingResponseDTO(
             booking.getId(),
             safe(booking.getPnr()),
@@ -141,11 +118,97 @@ public class BookingResponseDTO {
             booking.getTravelDate() != null ? booking.getTravelDate().toString() : "",
             trainDTO,
             coachDTO,
-            fareDTO,
+            fare(fareQuote),
+            passengerDTOs
+        );
+    }
+
+    /**
+     * Builds the DTO from projected history rows. {@code seats} and {@code passengers}
+     * are the rows belonging to this booking only.
+     */
+    public static BookingResponseDTO fromSummary(BookingSummaryRow row,
+                                                 List<BookingSeatRow> seats,
+                                                 List<BookingPassengerRow> passengers,
+                                                 FareQuote fareQuote) {
+        TrainSummaryDTO trainDTO = null;
+        if (row.getTrainNumber() != null) {
+            trainDTO = trainSummary(row.getTrainNumber(), row.getTrainName(),
+                row.getDepartureTime(), row.getArrivalTime(), row.getTravelDate());
+        }
+
+        CoachSummaryDTO coachDTO = null;
+        if (!seats.isEmpty()) {
+            coachDTO = new CoachSummaryDTO(
+                safe(seats.get(0).getCoachNumber()),
+                row.getSeatClass() != null ? row.getSeatClass() : "",
+                FareQuote.toRupees(fareQuote.getPerPassenger())
+            );
+        }
+
+        // Passengers carry their seat id; fall back to index pairing like fromEntity
+        Map<Long, Integer> seatNumbers = seats.stream()
+            .collect(Collectors.toMap(BookingSeatRow::getSeatId, BookingSeatRow::getSeatNumber, (a, b) -> a));
+        List<PassengerResponseDTO> passengerDTOs = new ArrayList<>(passengers.size());
+        for (int i = 0; i < passengers.size(); i++) {
+            BookingPassengerRow p = passengers.get(i);
+            Integer seatNumber = p.getSeatId() != null ? seatNumbers.get(p.getSeatId()) : null;
+            if (seatNumber == null && !seats.isEmpty()) {
+                seatNumber = seats.size() == passengers.size()
+                    ? seats.get(i).getSeatNumber()
+                    : seats.get(0).getSeatNumber();
+            }
+            passengerDTOs.add(new PassengerResponseDTO(
+                p.getName(),
+                p.getAge() != null ? p.getAge() : 0,
+                p.getGender(),
+                "CONFIRMED",
+                seatNumber != null ? String.valueOf(seatNumber) : "--"
+            ));
+        }
+
+        return new BookingResponseDTO(
+            row.getId(),
+            safe(row.getPnr()),
+            safe(row.getFromStation()),
+            safe(row.getToStation()),
+            row.getBookingStatus() != null ? row.getBookingStatus().name() : "CONFIRMED",
+            row.getTravelDate() != null ? row.getTravelDate().toString() : "",
+            trainDTO,
+            coachDTO,
+            fare(fareQuote),
             passengerDTOs
         );
     }
 
+    private static TrainSummaryDTO trainSummary(int number, String name, LocalTime departureTime,
+                                                LocalTime arrivalTime, LocalDate travelDate) {
+        if (travelDate == null) {
+            return null;
+        }
+        LocalDateTime departureDateTime = travelDate.atTime(departureTime);
+        // Handle overnight trains where arrival is on the next day
+        LocalDateTime arrivalDateTime = arrivalTime.isBefore(departureTime)
+            ? travelDate.plusDays(1).atTime(arrivalTime)
+            : travelDate.atTime(arrivalTime);
+
+        return new TrainSummaryDTO(
+            safe(String.valueOf(number)),
+            safe(name),
+            toIso(departureDateTime),
+            toIso(arrivalDateTime)
+        );
+    }
+
+    private static FareDTO fare(FareQuote quote) {
+        return new FareDTO(
+            FareQuote.toRupees(quote.getBase()),
+            FareQuote.toRupees(quote.getReservationCharges()),
+            FareQuote.toRupees(quote.getGst()),
+            FareQuote.toRupees(quote.getTotal())
+        );
+    }
+
     private static String safe(String s) { 
         return s == null ? "" : s; 
     }
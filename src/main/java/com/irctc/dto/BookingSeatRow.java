@@ -0,0 +1,17 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Seat and coach columns of a booking, batch loaded for a page of bookings.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingSeatRow {
+    private Long bookingId;
+    private Long seatId;
+    private Integer seatNumber;
+    private Long coachId;
+    private String coachNumber;
+}
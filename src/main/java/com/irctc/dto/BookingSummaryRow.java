@@ -0,0 +1,31 @@
+package com.irctc.dto;
+
+import com.irctc.model.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Booking header row for the booking history, read through a JPQL constructor
+ * expression together with the train columns it needs.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingSummaryRow {
+    private Long id;
+    private String pnr;
+    private String fromStation;
+    private String toStation;
+    private Booking.BookingStatus bookingStatus;
+    private LocalDate travelDate;
+    private LocalDateTime bookingTime;
+    private String seatClass;
+    private Long trainId;
+    private Integer trainNumber;
+    private String trainName;
+    private LocalTime departureTime;
+    private LocalTime arrivalTime;
+}
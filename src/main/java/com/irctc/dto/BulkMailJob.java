@@ -0,0 +1,67 @@
+package com.irctc.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of one bulk mail run. Counters are updated by the sender threads while
+ * callers poll, so they are atomics rather than plain fields.
+ */
+@Getter
+public class BulkMailJob {
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String subject;
+    private final int total;
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final List<String> failedRecipients = new CopyOnWriteArrayList<>();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String lastError;
+
+    public BulkMailJob(String id, String subject, int total) {
+        this.id = id;
+        this.subject = subject;
+        this.total = total;
+    }
+
+    public int getPercentComplete() {
+        return total == 0 ? 100 : (sent.get() + failed.get()) * 100 / total;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void markRunning() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    public void markFinished(Status outcome) {
+        finishedAt = LocalDateTime.now();
+        status = outcome;
+    }
+
+    public void recordSent() {
+        sent.incrementAndGet();
+    }
+
+    public void recordFailure(String recipient, String error, int sampleLimit) {
+        failed.incrementAndGet();
+        lastError = error;
+        if (failedRecipients.size() < sampleLimit) {
+            failedRecipients.add(recipient);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Provider-neutral checkout request; {@code amount} is in the currency's minor unit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutRequest {
+    private long amount;
+    private String currency;
+    private String description;
+    private String successUrl;
+    private String cancelUrl;
+    private Map<String, String> metadata;
+}
@@ -0,0 +1,13 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutSessionResult {
+    private String sessionId;
+    private String url;
+}
@@ -0,0 +1,15 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Coach fare columns the fare tables are built from.
+ */
+@Getter
+@AllArgsConstructor
+public class CoachFareRow {
+    private Long coachId;
+    private String coachNumber;
+    private double fare;
+}
@@ -0,0 +1,20 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Flat coach/seat row read through a JPQL constructor expression, so the
+ * coach listing never hydrates managed Coach or Seat entities.
+ * Seat columns are null for a coach that has no seats yet (LEFT JOIN).
+ */
+@Getter
+@AllArgsConstructor
+public class CoachSeatRow {
+    private Long coachId;
+    private String coachNumber;
+    private Long seatId;
+    private Integer seatNumber;
+    private Boolean available;
+    private Boolean booked;
+}
@@ -6,5 +6,4 @@ import lombok.Data;
 public class EmailRequest {
     private String email;
     private String pnr;
-    private String ticketImage;
 }
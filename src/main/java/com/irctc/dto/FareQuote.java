@@ -0,0 +1,21 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Fare breakdown for one booking, in paise.
+ */
+@Getter
+@AllArgsConstructor
+public class FareQuote {
+    private long perPassenger;
+    private long base;
+    private long reservationCharges;
+    private long gst;
+    private long total;
+
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+}
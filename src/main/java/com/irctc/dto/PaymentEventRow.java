@@ -0,0 +1,20 @@
+package com.irctc.dto;
+
+import com.irctc.model.PaymentEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox columns the reconciliation job compares, without the payload.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentEventRow {
+    private Long id;
+    private String sessionId;
+    private PaymentEvent.Status status;
+    private String paymentStatus;
+    private LocalDateTime receivedAt;
+}
@@ -0,0 +1,19 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Booking status for a Stripe checkout session: CONFIRMED, PENDING, FAILED, or
+ * UNKNOWN while the webhook has not arrived yet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatusResponse {
+    private String sessionId;
+    private String status;
+    private String pnr;
+    private String error;
+}
@@ -0,0 +1,38 @@
+package com.irctc.dto;
+
+import com.irctc.model.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Status summary of one PNR for bulk lookups.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PnrStatusSummary {
+    private String pnr;
+    private String bookingStatus;
+    private String travelDate;
+    private Long trainId;
+    private String trainName;
+    private String fromStation;
+    private String toStation;
+    private long passengerCount;
+
+    /**
+     * JPQL constructor expression target.
+     */
+    public PnrStatusSummary(String pnr, Booking.BookingStatus bookingStatus, LocalDate travelDate,
+                            Long trainId, String trainName, String fromStation, String toStation,
+                            Long passengerCount) {
+        this(pnr,
+            bookingStatus != null ? bookingStatus.name() : null,
+            travelDate != null ? travelDate.toString() : null,
+            trainId, trainName, fromStation, toStation,
+            passengerCount != null ? passengerCount : 0L);
+    }
+}
@@ -0,0 +1,50 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one payment-to-booking reconciliation run: mismatch and repair counts per
+ * type, plus a capped sample of the mismatches themselves.
+ */
+@Data
+@NoArgsConstructor
+public class ReconciliationReport {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private boolean autoRepair;
+    private long eventsScanned;
+    private long bookingsScanned;
+    private Map<String, Long> mismatches = new LinkedHashMap<>();
+    private Map<String, Long> repaired = new LinkedHashMap<>();
+    private List<Mismatch> samples = new ArrayList<>();
+    private String error;
+
+    public void add(Mismatch mismatch, boolean repairedNow, int sampleLimit) {
+        mismatches.merge(mismatch.getType(), 1L, Long::sum);
+        if (repairedNow) {
+            repaired.merge(mismatch.getType(), 1L, Long::sum);
+        }
+        if (samples.size() < sampleLimit) {
+            samples.add(mismatch);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+        private String type;
+        private String sessionId;
+        private String pnr;
+        private String eventStatus;
+        private String action;
+    }
+}
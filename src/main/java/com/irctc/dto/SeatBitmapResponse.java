@@ -0,0 +1,22 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Compact seat layout for a single coach on a travel date.
+ * Bit (seatNumber - 1) of the base64 encoded bitmap is set when the seat is booked;
+ * bytes are little-endian as produced by {@link java.util.BitSet#toByteArray()}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatBitmapResponse {
+    private Long coachId;
+    private LocalDate travelDate;
+    private int seatCount;
+    private String bitmap;
+}
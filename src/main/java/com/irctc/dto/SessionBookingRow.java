@@ -0,0 +1,15 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A booking's Stripe session id and PNR, read from either the live or the archive table.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionBookingRow {
+    private Long id;
+    private String sessionId;
+    private String pnr;
+}
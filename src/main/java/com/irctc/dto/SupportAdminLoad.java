@@ -0,0 +1,19 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * An admin's open support tickets as the auto-assigner sees them.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportAdminLoad {
+    private final Long adminId;
+    private final String username;
+    private final int openTickets;
+    // Empty for admins who take any category
+    private final List<String> skills;
+}
@@ -0,0 +1,14 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Unresolved ticket count for one assignee, used to seed the auto-assigner.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportAssigneeCount {
+    private final Long adminId;
+    private final long count;
+}
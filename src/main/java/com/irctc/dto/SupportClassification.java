@@ -0,0 +1,18 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * What the classifier made of a ticket's issue text: its category, its priority and
+ * the PNRs it mentions, normalised to {@code PNR-XXXXXXXX}.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportClassification {
+    private final String category;
+    private final String priority;
+    private final List<String> pnrs;
+}
@@ -0,0 +1,27 @@
+package com.irctc.dto;
+
+import com.irctc.model.SupportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A ticket as the helpdesk dashboard lists it, pushed over the live stream when it changes.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportDashboardRow {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String issue;
+    private final String category;
+    private final String priority;
+    private final SupportStatus status;
+    private final boolean resolved;
+    // Username of the assigned admin, null if unassigned
+    private final String assignee;
+    private final LocalDateTime submittedAt;
+    private final LocalDateTime slaDueAt;
+}
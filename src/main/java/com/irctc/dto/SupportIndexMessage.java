@@ -0,0 +1,17 @@
+package com.irctc.dto;
+
+import com.irctc.model.SupportMessage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The conversation columns the search index reads for one message.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportIndexMessage {
+    private final Long ticketId;
+    private final SupportMessage.Type type;
+    private final boolean agent;
+    private final String body;
+}
@@ -0,0 +1,25 @@
+package com.irctc.dto;
+
+import com.irctc.model.SupportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The support ticket columns the search index reads, without hydrating the entity.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportIndexRow {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String issue;
+    private final String response;
+    private final String adminNotes;
+    private final String category;
+    private final String priority;
+    private final SupportStatus status;
+    private final LocalDateTime submittedAt;
+}
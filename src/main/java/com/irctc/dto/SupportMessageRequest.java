@@ -0,0 +1,15 @@
+package com.irctc.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * A new message on a support ticket's conversation.
+ */
+@Data
+public class SupportMessageRequest {
+    @NotBlank(message = "Message is required")
+    @Size(max = 4000, message = "Message must be at most 4000 characters")
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.irctc.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.irctc.model.SupportMessage;
+import com.irctc.model.SupportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conversation entry as shown in the ticket view. Status changes appear inline with
+ * {@code statusChange} set to the new status.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportMessageView {
+    private final Long id;
+    private final SupportMessage.Type type;
+    private final String text;
+    @JsonProperty("isAgent")
+    private final boolean agent;
+    private final String author;
+    private final LocalDateTime timestamp;
+    private final SupportStatus statusChange;
+}
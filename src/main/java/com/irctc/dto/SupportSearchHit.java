@@ -0,0 +1,22 @@
+package com.irctc.dto;
+
+import com.irctc.model.SupportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class SupportSearchHit {
+    private final Long ticketId;
+    private final float score;
+    private final String name;
+    private final String email;
+    private final SupportStatus status;
+    private final String category;
+    private final String priority;
+    private final LocalDateTime submittedAt;
+    // Start of the issue text
+    private final String snippet;
+}
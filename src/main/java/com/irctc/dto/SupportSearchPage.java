@@ -0,0 +1,21 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of ranked support ticket search results.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportSearchPage {
+    private final long total;
+    private final int page;
+    private final int size;
+    private final long tookMs;
+    // False until the first full index build finishes
+    private final boolean indexReady;
+    private final List<SupportSearchHit> hits;
+}
@@ -0,0 +1,20 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the SLA timer needs to know about an unresolved ticket.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportSlaRow {
+    private final Long id;
+    private final String priority;
+    private final String category;
+    private final LocalDateTime submittedAt;
+    // Null for tickets from before SLA deadlines were stored
+    private final LocalDateTime slaDueAt;
+}
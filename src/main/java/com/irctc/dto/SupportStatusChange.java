@@ -0,0 +1,21 @@
+package com.irctc.dto;
+
+import com.irctc.model.SupportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One step in a support ticket's status history.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportStatusChange {
+    private final Long id;
+    private final SupportStatus previousStatus;
+    private final SupportStatus status;
+    private final String updatedBy;
+    private final String notes;
+    private final LocalDateTime timestamp;
+}
@@ -0,0 +1,16 @@
+package com.irctc.dto;
+
+import com.irctc.model.SupportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Ticket count for one status and resolved flag, used to seed the support counters.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportStatusCount {
+    private final SupportStatus status;
+    private final boolean resolved;
+    private final long count;
+}
@@ -0,0 +1,18 @@
+package com.irctc.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Helpdesk dashboard counts, served from memory.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportTicketStats {
+    private final long total;
+    private final long open;
+    private final long inProgress;
+    private final long resolved;
+    private final long closed;
+    private final long needsAttention;
+}
@@ -0,0 +1,26 @@
+package com.irctc.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Notice sent to every passenger booked on a train for one travel date, e.g. a
+ * cancellation or a delay.
+ */
+@Data
+public class TrainNotificationRequest {
+    @NotNull(message = "Travel date is required")
+    private LocalDate travelDate;
+
+    @NotBlank(message = "Subject is required")
+    @Size(max = 200, message = "Subject must be at most 200 characters")
+    private String subject;
+
+    @NotBlank(message = "Message is required")
+    @Size(max = 5000, message = "Message must be at most 5000 characters")
+    private String message;
+}
@@ -0,0 +1,71 @@
+package com.irctc.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A booking whose journey is long past, moved out of the hot booking tables.
+ * The lookup columns are kept as plain columns; everything else lives in
+ * {@code snapshot}, a gzipped JSON {@link com.irctc.dto.ArchivedBookingSnapshot}.
+ */
+@Entity
+@Table(name = "archived_booking", indexes = {
+    @Index(name = "idx_archived_booking_user_time", columnList = "user_id, booking_time, booking_id")
+})
+@Getter
+@Setter
+public class ArchivedBooking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Id the booking had in the hot table, so history cursors stay valid across both
+    @Column(name = "booking_id", nullable = false, unique = true)
+    private Long bookingId;
+
+    @Column(nullable = false, unique = true)
+    private String pnr;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "travel_date")
+    private LocalDate travelDate;
+
+    @Column(name = "booking_time")
+    private LocalDateTime bookingTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "booking_status", nullable = false)
+    private Booking.BookingStatus bookingStatus;
+
+    @Column(name = "stripe_session_id", unique = true)
+    private String stripeSessionId;
+
+    @Column(name = "train_id")
+    private Long trainId;
+
+    @Column(name = "train_name")
+    private String trainName;
+
+    @Column(name = "from_station")
+    private String fromStation;
+
+    @Column(name = "to_station")
+    private String toStation;
+
+    @Column(name = "passenger_count", nullable = false)
+    private Long passengerCount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] snapshot;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -11,6 +11,10 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_booking_travel_date", columnList = "travelDate"),
+    @Index(name = "idx_booking_user_time", columnList = "user_id, bookingTime, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,73 @@
+package com.irctc.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox row for a verified Stripe webhook event. Rows are written by the webhook
+ * endpoint and turned into bookings by {@link com.irctc.service.PaymentEventProcessor}.
+ * FAILED means the payment itself did not go through; DEAD means a paid session could
+ * not be applied to its booking and needs a look.
+ */
+@Entity
+@Table(name = "payment_event", indexes = {
+    @Index(name = "idx_payment_event_due", columnList = "status, next_attempt_at, id"),
+    @Index(name = "idx_payment_event_session", columnList = "session_id")
+})
+@Getter
+@Setter
+public class PaymentEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Stripe retries deliveries; the event id makes ingestion idempotent
+    @Column(name = "stripe_event_id", nullable = false, unique = true)
+    private String stripeEventId;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(name = "session_id", nullable = false)
+    private String sessionId;
+
+    // Raw JSON of the checkout session carried by the event
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    // payment_status of the session as delivered, e.g. "paid" or "unpaid"
+    @Column(name = "payment_status")
+    private String paymentStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Null on rows received before retries were scheduled; those are due at once
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "booking_pnr")
+    private String bookingPnr;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public enum Status {
+        PENDING, PROCESSED, FAILED, DEAD
+    }
+}
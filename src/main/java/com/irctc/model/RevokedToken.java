@@ -0,0 +1,43 @@
+package com.irctc.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked JWT, or with no jti every token of a user issued up to {@code revokedAt}.
+ * Rows are only needed until the tokens they cover expire and are pruned after that;
+ * {@link com.irctc.service.TokenRevocationService} keeps them in memory for the checks.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_jti", columnList = "jti", unique = true),
+    @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at"),
+    @Index(name = "idx_revoked_tokens_revoked", columnList = "revoked_at")
+})
+@Getter
+@Setter
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 64)
+    private String jti;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // E-mail the user's tokens carry as subject; matches tokens issued before the uid claim
+    @Column(length = 100)
+    private String subject;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -1,5 +1,6 @@
 package com.irctc.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -46,8 +47,10 @@ public class Support {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Loaded lazily, so the proxy internals must not be serialised; nor must the hash
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "password"})
     private User assignedTo;
 
     @Column(length = 1000)
@@ -59,6 +62,17 @@ public class Support {
     @Column(length = 50)
     private String category; 
 
+    // PNRs mentioned in the issue, comma-separated
+    @Column(name = "referenced_pnrs", length = 100)
+    private String referencedPnrs;
+
+    // When the ticket breaches its SLA; null once resolved
+    @Column(name = "sla_due_at")
+    private LocalDateTime slaDueAt;
+
+    @Column(name = "sla_breaches", nullable = false)
+    private int slaBreaches;
+
     public Support() {
         
     }
@@ -72,10 +86,9 @@ public class Support {
     }
 
    
+    // A reopened ticket counts as unresolved again
     public void setStatus(SupportStatus status) {
         this.status = status;
-        if (status == SupportStatus.RESOLVED || status == SupportStatus.CLOSED) {
-            this.resolved = true;
-        }
+        this.resolved = status == SupportStatus.RESOLVED || status == SupportStatus.CLOSED;
     }
 }
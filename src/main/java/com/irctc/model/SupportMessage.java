@@ -0,0 +1,63 @@
+package com.irctc.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry in a support ticket's conversation. Rows are only ever inserted, so adding
+ * to a conversation costs the same however long it is; a ticket's entries are read
+ * back in id order.
+ */
+@Entity
+@Table(name = "support_messages", indexes = {
+    @Index(name = "idx_support_messages_ticket", columnList = "ticket_id, id")
+})
+@Getter
+@Setter
+public class SupportMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false, updatable = false)
+    private Long ticketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    private Type type;
+
+    // Written by the helpdesk rather than the customer
+    @Column(nullable = false, updatable = false)
+    private boolean agent;
+
+    @Column(length = 100, updatable = false)
+    private String author;
+
+    @Column(length = 4000, updatable = false)
+    private String body;
+
+    // Set on STATUS_CHANGE entries only
+    @Enumerated(EnumType.STRING)
+    @Column(name = "old_status", updatable = false)
+    private SupportStatus oldStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", updatable = false)
+    private SupportStatus newStatus;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Type {
+        /** Part of the conversation with the customer. */
+        MESSAGE,
+        /** Internal helpdesk note, not shown to the customer. */
+        NOTE,
+        /** The ticket moved from oldStatus to newStatus; the body holds any notes. */
+        STATUS_CHANGE
+    }
+}
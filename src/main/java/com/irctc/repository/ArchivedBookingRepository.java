@@ -0,0 +1,65 @@
+package com.irctc.repository;
+
+import com.irctc.dto.PnrStatusSummary;
+import com.irctc.dto.SessionBookingRow;
+import com.irctc.model.ArchivedBooking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    Optional<ArchivedBooking> findByPnr(String pnr);
+
+    boolean existsByStripeSessionId(String stripeSessionId);
+
+    @Query("SELECT a.userId FROM ArchivedBooking a WHERE a.pnr = :pnr")
+    Optional<Long> findUserIdByPnr(@Param("pnr") String pnr);
+
+    @Query("SELECT a.pnr FROM ArchivedBooking a WHERE a.stripeSessionId = :sessionId")
+    Optional<String> findPnrByStripeSessionId(@Param("sessionId") String sessionId);
+
+    /**
+     * Same keyset page as {@link BookingRepository#findHistoryPage}, over the archive.
+     */
+    @Query("SELECT a FROM ArchivedBooking a " +
+           "WHERE a.userId = :userId " +
+           "AND (:cursorTime IS NULL OR a.bookingTime < :cursorTime " +
+           "OR (a.bookingTime = :cursorTime AND a.bookingId < :cursorId)) " +
+           "AND (:travelFrom IS NULL OR a.travelDate >= :travelFrom) " +
+           "AND (:travelBefore IS NULL OR a.travelDate < :travelBefore) " +
+           "ORDER BY a.bookingTime DESC, a.bookingId DESC")
+    List<ArchivedBooking> findHistoryPage(@Param("userId") Long userId,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") Long cursorId,
+                                          @Param("travelFrom") LocalDate travelFrom,
+                                          @Param("travelBefore") LocalDate travelBefore,
+                                          Pageable pageable);
+
+    @Query("SELECT new com.irctc.dto.PnrStatusSummary(a.pnr, a.bookingStatus, a.travelDate, " +
+           "a.trainId, a.trainName, a.fromStation, a.toStation, a.passengerCount) " +
+           "FROM ArchivedBooking a WHERE a.pnr IN :pnrs")
+    List<PnrStatusSummary> findStatusSummariesByPnrIn(@Param("pnrs") Collection<String> pnrs);
+
+    /**
+     * Same range page as {@link BookingRepository#findSessionRows}, over the archive.
+     */
+    @Query("SELECT new com.irctc.dto.SessionBookingRow(a.id, a.stripeSessionId, a.pnr) FROM ArchivedBooking a " +
+           "WHERE a.stripeSessionId IS NOT NULL " +
+           "AND (:lower IS NULL OR a.stripeSessionId > :lower) " +
+           "AND (:upper IS NULL OR a.stripeSessionId <= :upper) " +
+           "AND (:afterSession IS NULL OR a.stripeSessionId > :afterSession " +
+           "OR (a.stripeSessionId = :afterSession AND a.id > :afterId)) " +
+           "ORDER BY a.stripeSessionId, a.id")
+    List<SessionBookingRow> findSessionRows(@Param("lower") String lower,
+                                            @Param("upper") String upper,
+                                            @Param("afterSession") String afterSession,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+}
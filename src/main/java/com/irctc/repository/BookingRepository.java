@@ -1,18 +1,137 @@
 package com.irctc.repository;
 
+import com.irctc.dto.BookingPassengerRow;
+import com.irctc.dto.BookingSeatRow;
+import com.irctc.dto.BookingSummaryRow;
+import com.irctc.dto.PnrStatusSummary;
+import com.irctc.dto.SessionBookingRow;
 import com.irctc.model.Booking;
 import com.irctc.model.Seat;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     boolean existsBySeatsAndTravelDate(Seat seat, LocalDate travelDate);
+    boolean existsBySeatsAndTravelDateAndBookingStatusAndIdNot(Seat seat, LocalDate travelDate,
+                                                               Booking.BookingStatus status, Long id);
     List<Booking> findByUserId(Long userId);
     Optional<Booking> findByPnr(String pnr);
 
+    // Seats are a second bag and cannot be fetched in the same graph; see findSeatIdsByBookingId
+    @EntityGraph(attributePaths = {"train", "user", "passengers"})
+    @Query("SELECT b.user.id FROM Booking b WHERE b.pnr = :pnr")
+    Optional<Long> findUserIdByPnr(@Param("pnr") String pnr);
+
+    @Query("SELECT b FROM Booking b WHERE b.pnr = :pnr")
+    Optional<Booking> findDetailsByPnr(@Param("pnr") String pnr);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT s.id FROM Booking b JOIN b.seats s WHERE b.id = :bookingId")
+    List<Long> findSeatIdsByBookingId(@Param("bookingId") Long bookingId);
+
     boolean existsByStripeSessionId(String stripeSessionId);
 
-}
\ No newline at end of file
+    @Query("SELECT b.pnr FROM Booking b WHERE b.stripeSessionId = :sessionId")
+    Optional<String> findPnrByStripeSessionId(@Param("sessionId") String sessionId);
+
+    /**
+     * Keyset page of a user's bookings, newest first. Null cursor values start from the
+     * newest booking and null travel-date bounds leave that side open.
+     */
+    @Query("SELECT new com.irctc.dto.BookingSummaryRow(b.id, b.pnr, b.fromStation, b.toStation, " +
+           "b.bookingStatus, b.travelDate, b.bookingTime, b.seatClass, " +
+           "t.id, t.number, t.name, t.departureTime, t.arrivalTime) " +
+           "FROM Booking b LEFT JOIN b.train t " +
+           "WHERE b.user.id = :userId " +
+           "AND (:cursorTime IS NULL OR b.bookingTime < :cursorTime " +
+           "OR (b.bookingTime = :cursorTime AND b.id < :cursorId)) " +
+           "AND (:travelFrom IS NULL OR b.travelDate >= :travelFrom) " +
+           "AND (:travelBefore IS NULL OR b.travelDate < :travelBefore) " +
+           "ORDER BY b.bookingTime DESC, b.id DESC")
+    List<BookingSummaryRow> findHistoryPage(@Param("userId") Long userId,
+                                            @Param("cursorTime") LocalDateTime cursorTime,
+                                            @Param("cursorId") Long cursorId,
+                                            @Param("travelFrom") LocalDate travelFrom,
+                                            @Param("travelBefore") LocalDate travelBefore,
+                                            Pageable pageable);
+
+    @Query("SELECT new com.irctc.dto.BookingSeatRow(b.id, s.id, s.seatNumber, c.id, c.coachNumber) " +
+           "FROM Booking b JOIN b.seats s JOIN s.coach c " +
+           "WHERE b.id IN :bookingIds ORDER BY b.id, s.id")
+    List<BookingSeatRow> findSeatRowsByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("SELECT new com.irctc.dto.BookingPassengerRow(p.booking.id, p.name, p.age, p.gender, p.seatId) " +
+           "FROM Passenger p WHERE p.booking.id IN :bookingIds ORDER BY p.booking.id, p.id")
+    List<BookingPassengerRow> findPassengerRowsByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("SELECT new com.irctc.dto.PnrStatusSummary(b.pnr, b.bookingStatus, b.travelDate, " +
+           "t.id, t.name, b.fromStation, b.toStation, COUNT(p)) " +
+           "FROM Booking b LEFT JOIN b.train t LEFT JOIN b.passengers p " +
+           "WHERE b.pnr IN :pnrs " +
+           "GROUP BY b.id, b.pnr, b.bookingStatus, b.travelDate, t.id, t.name, b.fromStation, b.toStation")
+    List<PnrStatusSummary> findStatusSummariesByPnrIn(@Param("pnrs") Collection<String> pnrs);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.travelDate < :cutoff ORDER BY b.id")
+    List<Long> findIdsToArchive(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"train", "user", "passengers"})
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids ORDER BY b.id")
+    List<Booking> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Bulk deletes for archiving. These bypass the passenger cascade, so passengers go
+    // first; Hibernate clears the booking_seats join rows as part of the booking delete.
+    @Modifying
+    @Query("DELETE FROM Passenger p WHERE p.booking.id IN :ids")
+    int deletePassengersByBookingIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page of bookings with a Stripe session id in {@code (lower, upper]}, in
+     * (session id, id) order. Null bounds are open.
+     */
+    @Query("SELECT new com.irctc.dto.SessionBookingRow(b.id, b.stripeSessionId, b.pnr) FROM Booking b " +
+           "WHERE b.stripeSessionId IS NOT NULL " +
+           "AND (:lower IS NULL OR b.stripeSessionId > :lower) " +
+           "AND (:upper IS NULL OR b.stripeSessionId <= :upper) " +
+           "AND (:afterSession IS NULL OR b.stripeSessionId > :afterSession " +
+           "OR (b.stripeSessionId = :afterSession AND b.id > :afterId)) " +
+           "ORDER BY b.stripeSessionId, b.id")
+    List<SessionBookingRow> findSessionRows(@Param("lower") String lower,
+                                            @Param("upper") String upper,
+                                            @Param("afterSession") String afterSession,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    // Bookings that never went through Stripe checkout
+    @Query("SELECT new com.irctc.dto.SessionBookingRow(b.id, b.stripeSessionId, b.pnr) FROM Booking b " +
+           "WHERE b.stripeSessionId IS NULL AND b.bookingTime < :before AND b.id > :afterId ORDER BY b.id")
+    List<SessionBookingRow> findRowsWithoutSession(@Param("before") LocalDateTime before,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    // One address per account holder travelling on the train that day
+    @Query("SELECT DISTINCT b.userEmail FROM Booking b " +
+           "WHERE b.train.id = :trainId AND b.travelDate = :travelDate AND b.bookingStatus = :status")
+    List<String> findRecipientEmails(@Param("trainId") Long trainId,
+                                     @Param("travelDate") LocalDate travelDate,
+                                     @Param("status") Booking.BookingStatus status);
+}
@@ -1,5 +1,7 @@
 package com.irctc.repository;
 
+import com.irctc.dto.CoachFareRow;
+import com.irctc.dto.CoachSeatRow;
 import com.irctc.model.Coach;
 import com.irctc.model.Train;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +14,12 @@ public interface CoachRepository extends JpaRepository<Coach, Long> {
     List<Coach> findByTrainId(Long trainId);
     List<Coach> findByTrain(Train train);
     
-    @Query("SELECT DISTINCT c FROM Coach c LEFT JOIN FETCH c.seats WHERE c.train.id = :trainId")
-    List<Coach> findByTrainIdWithSeats(@Param("trainId") Long trainId);
+    @Query("SELECT new com.irctc.dto.CoachSeatRow(c.id, c.coachNumber, " +
+           "s.id, s.seatNumber, s.available, s.booked) " +
+           "FROM Coach c LEFT JOIN c.seats s WHERE c.train.id = :trainId " +
+           "ORDER BY c.id, s.seatNumber")
+    List<CoachSeatRow> findCoachSeatRowsByTrainId(@Param("trainId") Long trainId);
+
+    @Query("SELECT new com.irctc.dto.CoachFareRow(c.id, c.coachNumber, c.fare) FROM Coach c WHERE c.train.id = :trainId")
+    List<CoachFareRow> findFareRowsByTrainId(@Param("trainId") Long trainId);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.irctc.repository;
+
+import com.irctc.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    long countByStatus(EmailOutbox.Status status);
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.nextAttemptAt, e.id")
+    List<Long> findDueIds(@Param("status") EmailOutbox.Status status,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+}
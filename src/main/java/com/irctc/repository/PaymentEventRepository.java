@@ -0,0 +1,64 @@
+package com.irctc.repository;
+
+import com.irctc.dto.PaymentEventRow;
+import com.irctc.model.PaymentEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PaymentEventRepository extends JpaRepository<PaymentEvent, Long> {
+    boolean existsByStripeEventId(String stripeEventId);
+
+    Optional<PaymentEvent> findFirstBySessionIdOrderByIdDesc(String sessionId);
+
+    @Query("SELECT e.id FROM PaymentEvent e WHERE e.status = :status " +
+           "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.id")
+    List<Long> findDueIds(@Param("status") PaymentEvent.Status status,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    /**
+     * Keyset page of the inbox in (session id, id) order, starting after the given key.
+     */
+    @Query("SELECT new com.irctc.dto.PaymentEventRow(e.id, e.sessionId, e.status, e.paymentStatus, e.receivedAt) " +
+           "FROM PaymentEvent e " +
+           "WHERE (:afterSession IS NULL OR e.sessionId > :afterSession " +
+           "OR (e.sessionId = :afterSession AND e.id > :afterId)) " +
+           "ORDER BY e.sessionId, e.id")
+    List<PaymentEventRow> findRowsAfter(@Param("afterSession") String afterSession,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    @Query("SELECT new com.irctc.dto.PaymentEventRow(e.id, e.sessionId, e.status, e.paymentStatus, e.receivedAt) " +
+           "FROM PaymentEvent e WHERE e.sessionId = :sessionId AND e.id > :afterId ORDER BY e.id")
+    List<PaymentEventRow> findRowsBySessionIdAfter(@Param("sessionId") String sessionId,
+                                                   @Param("afterId") Long afterId);
+
+    // Reconciliation repairs; each runs in its own short transaction
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentEvent e SET e.status = :pending, e.attempts = 0, e.lastError = :note, " +
+           "e.nextAttemptAt = NULL, e.processedAt = NULL " +
+           "WHERE e.sessionId = :sessionId AND e.status IN :givenUp AND e.paymentStatus = 'paid'")
+    int requeueFailedPaid(@Param("sessionId") String sessionId,
+                          @Param("note") String note,
+                          @Param("pending") PaymentEvent.Status pending,
+                          @Param("givenUp") Collection<PaymentEvent.Status> givenUp);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentEvent e SET e.status = :processed, e.bookingPnr = :pnr, e.lastError = NULL, e.processedAt = :now " +
+           "WHERE e.sessionId = :sessionId AND e.status <> :processed")
+    int markSessionProcessed(@Param("sessionId") String sessionId,
+                             @Param("pnr") String pnr,
+                             @Param("now") LocalDateTime now,
+                             @Param("processed") PaymentEvent.Status processed);
+}
@@ -1,5 +1,6 @@
 package com.irctc.repository;
 
+import com.irctc.dto.SeatLayoutResponse;
 import com.irctc.model.Seat;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -30,6 +32,16 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
            "ORDER BY s.coach.id, s.seatNumber")
     List<Object[]> findSeatLayoutsByTrainId(@Param("trainId") Long trainId);
 
+    @Query("SELECT new com.irctc.dto.SeatLayoutResponse(s.id, s.seatNumber, " +
+           "CASE WHEN s.booked = true OR s.available = false OR EXISTS (" +
+           "SELECT 1 FROM Booking b JOIN b.seats bs WHERE bs.id = s.id " +
+           "AND b.travelDate = :travelDate " +
+           "AND b.bookingStatus = com.irctc.model.Booking.BookingStatus.CONFIRMED) " +
+           "THEN true ELSE false END) " +
+           "FROM Seat s WHERE s.coach.id = :coachId ORDER BY s.seatNumber")
+    List<SeatLayoutResponse> findSeatLayoutByCoachIdAndTravelDate(@Param("coachId") Long coachId,
+                                                                  @Param("travelDate") LocalDate travelDate);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM Seat s WHERE s.id IN :ids")
     List<Seat> findAllByIdForUpdate(@Param("ids") List<Long> ids);
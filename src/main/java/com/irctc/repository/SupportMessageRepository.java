@@ -0,0 +1,62 @@
+package com.irctc.repository;
+
+import com.irctc.dto.SupportIndexMessage;
+import com.irctc.dto.SupportMessageView;
+import com.irctc.dto.SupportStatusChange;
+import com.irctc.model.SupportMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Support ticket conversations. Reads are keyset pages on (ticket_id, id), so a page
+ * costs the same wherever it is in the conversation.
+ */
+public interface SupportMessageRepository extends JpaRepository<SupportMessage, Long> {
+
+    boolean existsByTicketId(Long ticketId);
+
+    /**
+     * Keyset page of a ticket's conversation, oldest first
+     * @param ticketId Ticket ID
+     * @param afterId Last id of the previous page, 0 to start
+     * @param types Entry types to include
+     * @param pageable Page size
+     * @return Entries with id greater than afterId
+     */
+    @Query("SELECT new com.irctc.dto.SupportMessageView(m.id, m.type, m.body, m.agent, m.author, m.createdAt, " +
+           "m.newStatus) FROM SupportMessage m " +
+           "WHERE m.ticketId = :ticketId AND m.id > :afterId AND m.type IN :types ORDER BY m.id")
+    List<SupportMessageView> findViewsAfter(@Param("ticketId") Long ticketId,
+                                            @Param("afterId") Long afterId,
+                                            @Param("types") Collection<SupportMessage.Type> types,
+                                            Pageable pageable);
+
+    /**
+     * Keyset page of a ticket's status history, oldest first
+     * @param ticketId Ticket ID
+     * @param afterId Last id of the previous page, 0 to start
+     * @param pageable Page size
+     * @return Status changes with id greater than afterId
+     */
+    @Query("SELECT new com.irctc.dto.SupportStatusChange(m.id, m.oldStatus, m.newStatus, m.author, m.body, " +
+           "m.createdAt) FROM SupportMessage m " +
+           "WHERE m.ticketId = :ticketId AND m.id > :afterId " +
+           "AND m.type = com.irctc.model.SupportMessage.Type.STATUS_CHANGE ORDER BY m.id")
+    List<SupportStatusChange> findStatusChangesAfter(@Param("ticketId") Long ticketId,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    /**
+     * Conversation text of the given tickets for the search index
+     * @param ticketIds Ticket IDs
+     * @return Entries with a body, grouped by ticket and oldest first
+     */
+    @Query("SELECT new com.irctc.dto.SupportIndexMessage(m.ticketId, m.type, m.agent, m.body) " +
+           "FROM SupportMessage m WHERE m.ticketId IN :ticketIds AND m.body IS NOT NULL ORDER BY m.ticketId, m.id")
+    List<SupportIndexMessage> findIndexMessages(@Param("ticketIds") Collection<Long> ticketIds);
+}
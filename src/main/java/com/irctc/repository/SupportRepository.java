@@ -1,15 +1,26 @@
 package com.irctc.repository;
 
+import com.irctc.dto.SupportAssigneeCount;
+import com.irctc.dto.SupportDashboardRow;
+import com.irctc.dto.SupportIndexRow;
+import com.irctc.dto.SupportSlaRow;
+import com.irctc.dto.SupportStatusCount;
 import com.irctc.model.Support;
 import com.irctc.model.SupportStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Support ticket operations.
@@ -75,15 +86,75 @@ public interface SupportRepository extends JpaRepository<Support, Long> {
     long countByStatus(SupportStatus status);
 
     /**
-     * Custom query to find tickets that need attention (unresolved and older than 24 hours)
+     * Find unresolved tickets that are past their SLA deadline
+     * @param now Current time
      * @return List of tickets needing attention
      */
+    @Query("SELECT s FROM Support s WHERE s.resolved = false AND s.slaDueAt <= :now")
+    List<Support> findTicketsNeedingAttention(@Param("now") LocalDateTime now);
+
     /**
-     * Custom query to find tickets that need attention (unresolved and older than 24 hours)
-     * @return List of tickets needing attention
+     * Streams the SLA inputs of every unresolved ticket in one query. Must be consumed
+     * inside a transaction and closed.
+     * @return SLA rows, without loading the tickets
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.irctc.dto.SupportSlaRow(s.id, s.priority, s.category, s.submittedAt, s.slaDueAt) " +
+           "FROM Support s WHERE s.resolved = false")
+    Stream<SupportSlaRow> streamUnresolvedSla();
+
+    /**
+     * Ticket counts per status and resolved flag, in one grouped query
+     * @return One row per status and resolved combination present
+     */
+    @Query("SELECT new com.irctc.dto.SupportStatusCount(s.status, s.resolved, COUNT(s)) FROM Support s " +
+           "GROUP BY s.status, s.resolved")
+    List<SupportStatusCount> countByStatusAndResolved();
+
+    /**
+     * Unresolved ticket counts per assignee, in one grouped query
+     * @return One row per admin with unresolved tickets assigned
+     */
+    @Query("SELECT new com.irctc.dto.SupportAssigneeCount(s.assignedTo.id, COUNT(s)) FROM Support s " +
+           "WHERE s.resolved = false AND s.assignedTo IS NOT NULL GROUP BY s.assignedTo.id")
+    List<SupportAssigneeCount> countUnresolvedByAssignee();
+
+    /**
+     * Submission times of unresolved tickets submitted since the given time
+     * @param since Lower bound, inclusive
+     * @return Submission times, without loading the tickets
+     */
+    @Query("SELECT s.submittedAt FROM Support s WHERE s.resolved = false AND s.submittedAt >= :since")
+    List<LocalDateTime> findUnresolvedSubmittedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Keyset page of tickets for the search index, in id order
+     * @param afterId Last id of the previous page, 0 to start
+     * @param pageable Page size
+     * @return Index rows with id greater than afterId
+     */
+    @Query("SELECT new com.irctc.dto.SupportIndexRow(s.id, s.name, s.email, s.issue, s.response, s.adminNotes, " +
+           "s.category, s.priority, s.status, s.submittedAt) FROM Support s WHERE s.id > :afterId ORDER BY s.id")
+    List<SupportIndexRow> findIndexRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Index rows for the given tickets, in no particular order
+     * @param ids Ticket ids
+     * @return Index rows for the tickets that exist
+     */
+    @Query("SELECT new com.irctc.dto.SupportIndexRow(s.id, s.name, s.email, s.issue, s.response, s.adminNotes, " +
+           "s.category, s.priority, s.status, s.submittedAt) FROM Support s WHERE s.id IN :ids")
+    List<SupportIndexRow> findIndexRowsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Dashboard rows for the given tickets, in no particular order
+     * @param ids Ticket ids
+     * @return Rows for the tickets that exist, with the assignee's username
      */
-    @Query("SELECT s FROM Support s WHERE s.resolved = false AND s.submittedAt < FUNCTION('DATE_SUB', CURRENT_TIMESTAMP, 1, 'DAY')")
-    List<Support> findTicketsNeedingAttention();
+    @Query("SELECT new com.irctc.dto.SupportDashboardRow(s.id, s.name, s.email, s.issue, s.category, s.priority, " +
+           "s.status, s.resolved, a.username, s.submittedAt, s.slaDueAt) FROM Support s LEFT JOIN s.assignedTo a " +
+           "WHERE s.id IN :ids")
+    List<SupportDashboardRow> findDashboardRowsByIds(@Param("ids") Collection<Long> ids);
 
     /**
      * Check if a ticket with the given ID exists and is assigned to the given user
@@ -1,7 +1,10 @@
 package com.irctc.repository;
 
+import com.irctc.model.Role;
 import com.irctc.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -10,4 +13,5 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByPhoneNumber(String phoneNumber);
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
+    List<User> findByRole(Role role);
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.irctc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.dto.ArchivedBookingSnapshot;
+import com.irctc.dto.BookingPassengerRow;
+import com.irctc.dto.BookingResponseDTO;
+import com.irctc.dto.BookingSeatRow;
+import com.irctc.dto.BookingSummaryRow;
+import com.irctc.model.ArchivedBooking;
+import com.irctc.model.Booking;
+import com.irctc.model.Passenger;
+import com.irctc.model.Train;
+import com.irctc.repository.ArchivedBookingRepository;
+import com.irctc.repository.BookingRepository;
+import com.irctc.service.fare.FareEngine;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves bookings for journeys that are long over out of the booking, booking_seats
+ * and passenger tables into {@link ArchivedBooking}, so the hot tables only hold
+ * recent and upcoming journeys. Lookups fall through to the archive in
+ * {@link BookingService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(BookingArchiveService.class);
+
+    private final BookingRepository bookingRepo;
+    private final ArchivedBookingRepository archivedBookingRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final FareEngine fareEngine;
+
+    @Value("${booking.archive.after-days:30}")
+    private int archiveAfterDays;
+
+    @Value("${booking.archive.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Archives every booking whose travel date is more than
+     * {@code booking.archive.after-days} in the past, one batch per transaction.
+     *
+     * @return number of bookings archived
+     */
+    @Scheduled(cron = "${booking.archive.cron:0 30 2 * * *}")
+    public int archivePastJourneys() {
+        LocalDate cutoff = LocalDate.now().minusDays(archiveAfterDays);
+        int total = 0;
+        int archived;
+        do {
+            archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += archived;
+        } while (archived == batchSize);
+
+        if (total > 0) {
+            logger.info("Archived {} bookings with travel date before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        List<Long> ids = bookingRepo.findIdsToArchive(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<BookingSeatRow>> seatsByBooking = bookingRepo.findSeatRowsByBookingIds(ids)
+            .stream().collect(Collectors.groupingBy(BookingSeatRow::getBookingId));
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<ArchivedBooking> archived = bookingRepo.findDetailsByIdIn(ids).stream()
+            .map(booking -> toArchived(booking, seatsByBooking.getOrDefault(booking.getId(), List.of()), archivedAt))
+            .toList();
+        archivedBookingRepo.saveAll(archived);
+
+        bookingRepo.deletePassengersByBookingIdIn(ids);
+        bookingRepo.deleteByIdIn(ids);
+        return ids.size();
+    }
+
+    private ArchivedBooking toArchived(Booking booking, List<BookingSeatRow> seats, LocalDateTime archivedAt) {
+        Train train = booking.getTrain();
+        List<Passenger> passengers = booking.getPassengers().stream()
+            .sorted(Comparator.comparing(Passenger::getId))
+            .toList();
+
+        BookingSummaryRow summary = new BookingSummaryRow(booking.getId(), booking.getPnr(),
+            booking.getFromStation(), booking.getToStation(), booking.getBookingStatus(),
+            booking.getTravelDate(), booking.getBookingTime(), booking.getSeatClass(),
+            train != null ? train.getId() : null,
+            train != null ? train.getNumber() : null,
+            train != null ? train.getName() : null,
+            train != null ? train.getDepartureTime() : null,
+            train != null ? train.getArrivalTime() : null);
+        List<BookingPassengerRow> passengerRows = passengers.stream()
+            .map(p -> new BookingPassengerRow(booking.getId(), p.getName(), p.getAge(), p.getGender(), p.getSeatId()))
+            .toList();
+        List<Long> seatIds = seats.stream().map(BookingSeatRow::getSeatId).toList();
+
+        ArchivedBookingSnapshot snapshot = new ArchivedBookingSnapshot(
+            BookingService.toPnrDetails(booking, seatIds),
+            BookingResponseDTO.fromSummary(summary, seats, passengerRows,
+                fareEngine.quote(summary.getTrainId(), seats, passengerRows)));
+
+        ArchivedBooking archived = new ArchivedBooking();
+        archived.setBookingId(booking.getId());
+        archived.setPnr(booking.getPnr());
+        archived.setUserId(booking.getUser() != null ? booking.getUser().getId() : null);
+        archived.setTravelDate(booking.getTravelDate());
+        archived.setBookingTime(booking.getBookingTime());
+        archived.setBookingStatus(booking.getBookingStatus());
+        archived.setStripeSessionId(booking.getStripeSessionId());
+        archived.setTrainId(train != null ? train.getId() : null);
+        archived.setTrainName(train != null ? train.getName() : null);
+        archived.setFromStation(booking.getFromStation());
+        archived.setToStation(booking.getToStation());
+        archived.setPassengerCount((long) passengers.size());
+        archived.setSnapshot(compress(snapshot));
+        archived.setArchivedAt(archivedAt);
+        return archived;
+    }
+
+    public ArchivedBookingSnapshot readSnapshot(ArchivedBooking archived) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(archived.getSnapshot()))) {
+            return objectMapper.readValue(in, ArchivedBookingSnapshot.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable archive snapshot for PNR " + archived.getPnr(), e);
+        }
+    }
+
+    private byte[] compress(ArchivedBookingSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress snapshot for PNR " + snapshot.getDetails().getPnr(), e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -1,30 +1,43 @@
 package com.irctc.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.irctc.Exception.*;
+import com.irctc.config.AuthenticatedUser;
+import com.irctc.config.CacheConfig;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import com.irctc.dto.BookingCursor;
+import com.irctc.dto.BookingHistoryPage;
+import com.irctc.dto.BookingPassengerRow;
+import com.irctc.dto.BookingResponseDTO;
+import com.irctc.dto.BookingSeatRow;
+import com.irctc.dto.BookingSummaryRow;
+import com.irctc.dto.CheckoutRequest;
+import com.irctc.dto.FareQuote;
 import com.irctc.dto.PassengerDto;
+import com.irctc.dto.PnrStatusSummary;
 import com.irctc.dto.SeatBookingRequest;
 import com.irctc.model.*;
 import com.irctc.repository.*;
-import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
+import com.irctc.service.fare.FareEngine;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import java.util.HashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -41,6 +54,14 @@ public class BookingService {
     private final SeatRepository seatRepo;
     private final UserRepository userRepo;
     private final PassengerRepository passengerRepo;
+    private final CacheManager cacheManager;
+    private final ArchivedBookingRepository archivedBookingRepo;
+    private final BookingArchiveService bookingArchiveService;
+    private final FareEngine fareEngine;
+    private final EmailOutboxService emailOutboxService;
+    private final UserService userService;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     @Data
     public static class PnrDetailsResponse {
@@ -65,9 +86,7 @@ public class BookingService {
                 request != null ? request.getTravelDate() : null,
                 request != null ? request.getSeatIds() : null,
                 request != null && request.getPassengers() != null ? request.getPassengers().size() : 0);
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepo.findByEmail(userEmail)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        AuthenticatedUser caller = userService.currentUser();
 
         Train train = trainRepo.findById(request.getTrainId())
                 .orElseThrow(() -> new TrainNotFoundException("Train not found"));
@@ -100,14 +119,15 @@ public class BookingService {
 
         Booking booking = new Booking();
         booking.setTrain(train);
-        booking.setUser(user);
+        // A reference is enough to set the foreign key; the user row isn't read
+        booking.setUser(userRepo.getReferenceById(caller.getId()));
         booking.setSeats(seats);
         booking.setTravelDate(request.getTravelDate());
         booking.setBookingTime(LocalDateTime.now());
         booking.setBookingStatus(Booking.BookingStatus.CONFIRMED);
         booking.setPnr(generatePNR());
         booking.setSeatClass("Seating");
-        booking.setUserEmail(user.getEmail());
+        booking.setUserEmail(caller.getEmail());
         booking.setFromStation(request.getFromStation() != null ? request.getFromStation() : train.getFromStation());
         booking.setToStation(request.getToStation() != null ? request.getToStation() : train.getToStation());
 
@@ -133,11 +153,28 @@ public class BookingService {
         return savedBooking;
     }
 
+    /**
+     * Details of a booking by PNR, falling through to the archive for journeys that
+     * have already been moved out of the booking tables.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PNR_DETAILS_CACHE, key = "#pnr")
     public PnrDetailsResponse getPnrDetails(String pnr) {
         logger.info("Searching for PNR: {}", pnr);
-        Booking booking = bookingRepo.findByPnr(pnr)
+        Optional<Booking> booking = bookingRepo.findDetailsByPnr(pnr);
+        if (booking.isPresent()) {
+            return toPnrDetails(booking.get(), bookingRepo.findSeatIdsByBookingId(booking.get().getId()));
+        }
+        return archivedBookingRepo.findByPnr(pnr)
+                .map(archived -> bookingArchiveService.readSnapshot(archived).getDetails())
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with PNR: " + pnr));
+    }
 
+    /**
+     * Maps a booking loaded with its train, user and passengers; seats are passed
+     * as ids since they cannot be fetched in the same graph.
+     */
+    static PnrDetailsResponse toPnrDetails(Booking booking, List<Long> seatIds) {
         PnrDetailsResponse response = new PnrDetailsResponse();
         response.setPnr(booking.getPnr());
         response.setBookingTime(booking.getBookingTime());
@@ -147,7 +184,7 @@ public class BookingService {
         response.setUserEmail(booking.getUserEmail());
         response.setFromStation(booking.getFromStation());
         response.setToStation(booking.getToStation());
-        response.setSeatIds(booking.getSeats().stream().map(Seat::getId).toList());
+        response.setSeatIds(seatIds);
         response.setTrainId(booking.getTrain().getId());
         response.setTrainName(booking.getTrain().getName());
         response.setUserId(booking.getUser().getId());
@@ -167,192 +204,280 @@ public class BookingService {
         return response;
     }
 
+    /**
+     * Status summaries for a batch of PNRs, in request order. Entries already in the
+     * PNR cache are reused and the rest are resolved with one IN query, then one against
+     * the archive for whatever is still missing; unknown PNRs map to null.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, PnrStatusSummary> getPnrStatuses(Collection<String> pnrs) {
+        Map<String, PnrStatusSummary> statuses = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        Cache pnrCache = cacheManager.getCache(CacheConfig.PNR_DETAILS_CACHE);
+        for (String pnr : pnrs) {
+            PnrDetailsResponse cached = pnrCache != null ? pnrCache.get(pnr, PnrDetailsResponse.class) : null;
+            if (cached != null) {
+                statuses.put(pnr, new PnrStatusSummary(cached.getPnr(), cached.getBookingStatus(),
+                        cached.getTravelDate(), cached.getTrainId(), cached.getTrainName(),
+                        cached.getFromStation(), cached.getToStation(),
+                        cached.getPassengers() != null ? cached.getPassengers().size() : 0));
+            } else {
+                statuses.put(pnr, null);
+                misses.add(pnr);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            bookingRepo.findStatusSummariesByPnrIn(misses)
+                    .forEach(summary -> statuses.put(summary.getPnr(), summary));
+            misses.removeIf(pnr -> statuses.get(pnr) != null);
+        }
+        if (!misses.isEmpty()) {
+            archivedBookingRepo.findStatusSummariesByPnrIn(misses)
+                    .forEach(summary -> statuses.put(summary.getPnr(), summary));
+        }
+        return statuses;
+    }
+
     private String generatePNR() {
         return "PNR-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
     public boolean existsByStripeSessionId(String sessionId) {
-        return bookingRepo.existsByStripeSessionId(sessionId);
+        return bookingRepo.existsByStripeSessionId(sessionId)
+                || archivedBookingRepo.existsByStripeSessionId(sessionId);
     }
-    
+
     @Transactional(readOnly = true)
-    public List<Booking> getUserBookings() {
-        // Get the currently authenticated user
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepo.findByEmail(username)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        
-        return bookingRepo.findByUserId(user.getId());
+    public Optional<String> findPnrByStripeSessionId(String sessionId) {
+        Optional<String> pnr = bookingRepo.findPnrByStripeSessionId(sessionId);
+        return pnr.isPresent() ? pnr : archivedBookingRepo.findPnrByStripeSessionId(sessionId);
     }
     
+    /**
+     * One keyset page of the current user's bookings, newest first, across both the
+     * booking tables and the archive.
+     *
+     * @param cursor opaque cursor from the previous page, or null for the first page
+     * @param scope  "upcoming", "past" or "all" (by travel date relative to today)
+     */
+    @Transactional(readOnly = true)
+    public BookingHistoryPage getUserBookings(String cursor, int size, String scope) {
+        Long userId = userService.currentUser().getId();
+
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        BookingCursor after = cursor != null && !cursor.isBlank() ? BookingCursor.decode(cursor) : null;
+
+        LocalDate today = LocalDate.now();
+        LocalDate travelFrom = null;
+        LocalDate travelBefore = null;
+        if ("upcoming".equalsIgnoreCase(scope)) {
+            travelFrom = today;
+        } else if ("past".equalsIgnoreCase(scope)) {
+            travelBefore = today;
+        } else if (scope != null && !"all".equalsIgnoreCase(scope)) {
+            throw new IllegalArgumentException("Scope must be one of upcoming, past or all");
+        }
+
+        // One extra row from each side tells us whether another page exists
+        LocalDateTime cursorTime = after != null ? after.getBookingTime() : null;
+        Long cursorId = after != null ? after.getId() : null;
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<BookingSummaryRow> hotRows = bookingRepo.findHistoryPage(userId,
+                cursorTime, cursorId, travelFrom, travelBefore, window);
+        List<ArchivedBooking> archivedRows = archivedBookingRepo.findHistoryPage(userId,
+                cursorTime, cursorId, travelFrom, travelBefore, window);
+
+        // Both sides are newest first; merge them up to the page size
+        List<Boolean> takenFromHot = new ArrayList<>(pageSize);
+        int hotTaken = 0;
+        int archivedTaken = 0;
+        BookingCursor last = null;
+        while (takenFromHot.size() < pageSize
+                && (hotTaken < hotRows.size() || archivedTaken < archivedRows.size())) {
+            boolean takeHot = archivedTaken == archivedRows.size()
+                || (hotTaken < hotRows.size() && isNewer(hotRows.get(hotTaken), archivedRows.get(archivedTaken)));
+            if (takeHot) {
+                BookingSummaryRow row = hotRows.get(hotTaken++);
+                last = new BookingCursor(row.getBookingTime(), row.getId());
+            } else {
+                ArchivedBooking row = archivedRows.get(archivedTaken++);
+                last = new BookingCursor(row.getBookingTime(), row.getBookingId());
+            }
+            takenFromHot.add(takeHot);
+        }
+        boolean hasMore = hotTaken < hotRows.size() || archivedTaken < archivedRows.size();
+        if (takenFromHot.isEmpty()) {
+            return new BookingHistoryPage(List.of(), null, false);
+        }
+
+        List<BookingSummaryRow> hotPage = hotRows.subList(0, hotTaken);
+        Map<Long, List<BookingSeatRow>> seatsByBooking = Map.of();
+        Map<Long, List<BookingPassengerRow>> passengersByBooking = Map.of();
+        if (!hotPage.isEmpty()) {
+            List<Long> bookingIds = hotPage.stream().map(BookingSummaryRow::getId).toList();
+            seatsByBooking = bookingRepo.findSeatRowsByBookingIds(bookingIds)
+                .stream().collect(Collectors.groupingBy(BookingSeatRow::getBookingId));
+            passengersByBooking = bookingRepo.findPassengerRowsByBookingIds(bookingIds)
+                .stream().collect(Collectors.groupingBy(BookingPassengerRow::getBookingId));
+        }
+
+        Iterator<BookingSummaryRow> hotIt = hotPage.iterator();
+        Iterator<ArchivedBooking> archivedIt = archivedRows.iterator();
+        List<BookingResponseDTO> bookings = new ArrayList<>(takenFromHot.size());
+        for (boolean fromHot : takenFromHot) {
+            if (fromHot) {
+                BookingSummaryRow row = hotIt.next();
+                List<BookingSeatRow> seats = seatsByBooking.getOrDefault(row.getId(), List.of());
+                List<BookingPassengerRow> passengers = passengersByBooking.getOrDefault(row.getId(), List.of());
+                bookings.add(BookingResponseDTO.fromSummary(row, seats, passengers,
+                    fareEngine.quote(row.getTrainId(), seats, passengers)));
+            } else {
+                bookings.add(bookingArchiveService.readSnapshot(archivedIt.next()).getBooking());
+            }
+        }
+
+        String nextCursor = hasMore ? last.encode() : null;
+        return new BookingHistoryPage(bookings, nextCursor, hasMore);
+    }
+
+    private static boolean isNewer(BookingSummaryRow hot, ArchivedBooking archived) {
+        int byTime = hot.getBookingTime().compareTo(archived.getBookingTime());
+        return byTime != 0 ? byTime > 0 : hot.getId() > archived.getBookingId();
+    }
+
     @Transactional(readOnly = true)
     public Optional<Booking> getBookingById(Long id) {
         return bookingRepo.findById(id);
     }
 
-    @Transactional
-    public Map<String, Object> verifyAndCreateBooking(String sessionId) throws Exception {
-        logger.info("Starting verifyAndCreateBooking for session: {}", sessionId);
-        
-        if (sessionId == null || sessionId.isEmpty()) {
-            String errorMsg = "Session ID cannot be null or empty";
-            logger.error(errorMsg);
-            throw new Exception(errorMsg);
+    /**
+     * Checks the caller may have the booking's ticket rendered or mailed: it must be
+     * their own booking, live or archived, unless they are an admin.
+     *
+     * @throws ResourceNotFoundException if no booking has the PNR
+     * @throws AccessDeniedException if the booking belongs to another user
+     */
+    @Transactional(readOnly = true)
+    public void checkTicketAccess(String pnr) {
+        Long ownerId = bookingRepo.findUserIdByPnr(pnr)
+            .or(() -> archivedBookingRepo.findUserIdByPnr(pnr))
+            .orElseThrow(() -> new ResourceNotFoundException("Booking not found with PNR: " + pnr));
+        AuthenticatedUser caller = userService.currentUser();
+        if (!Role.ADMIN.name().equals(caller.getRole()) && !ownerId.equals(caller.getId())) {
+            throw new AccessDeniedException("Booking " + pnr + " belongs to another user");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<FareQuote> quoteBooking(Long id) {
+        return bookingRepo.findById(id).map(fareEngine::quote);
+    }
+
+    /**
+     * Checkout for one of the caller's unpaid bookings, priced by the fare engine. The
+     * webhook confirms whatever booking the metadata names and checks the amount against
+     * the same quote, so neither is ever taken from the client.
+     */
+    @Transactional(readOnly = true)
+    public CheckoutRequest checkoutRequest(Long bookingId, String description, String successUrl, String cancelUrl) {
+        AuthenticatedUser caller = userService.currentUser();
+        Booking booking = bookingRepo.findById(bookingId)
+            .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
+        if (booking.getUser() == null || !booking.getUser().getId().equals(caller.getId())) {
+            throw new AccessDeniedException("Booking " + bookingId + " belongs to another user");
+        }
+        if (booking.getBookingStatus() == Booking.BookingStatus.CANCELLED) {
+            throw new InvalidBookingRequestException("Booking " + booking.getPnr() + " is cancelled");
         }
-        
-        if (bookingRepo.existsByStripeSessionId(sessionId)) {
-            String errorMsg = "Booking with session ID " + sessionId + " has already been confirmed";
-            logger.warn(errorMsg);
-            throw new Exception(errorMsg);
+        if (booking.getStripeSessionId() != null) {
+            throw new InvalidBookingRequestException("Booking " + booking.getPnr() + " is already paid");
+        }
+        FareQuote quote = fareEngine.quote(booking);
+        // A booking without passengers, or in a coach missing from the fare table, would
+        // otherwise be charged the reservation fee alone
+        if (quote.getBase() <= 0) {
+            throw new InvalidBookingRequestException("No fare is known for booking " + booking.getPnr());
         }
 
-        try {
-            Session session = Session.retrieve(sessionId);
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("bookingId", booking.getId().toString());
+        metadata.put("userId", caller.getId().toString());
+        metadata.put("pnr", booking.getPnr());
+        return new CheckoutRequest(quote.getTotal(), FareEngine.CURRENCY,
+            description != null ? description : "IRCTC booking " + booking.getPnr(), successUrl, cancelUrl, metadata);
+    }
+
+    /**
+     * Links a completed Stripe checkout session to the booking it paid for. The booking's
+     * seats and the booking itself are locked, in the order {@link #bookSeats} takes them,
+     * and checked again: the booking must still be held by the user who started the
+     * checkout, its seats must not have gone to anyone else, and the session must have
+     * charged exactly the booking's fare. Repeated calls for the same session return the
+     * booking already recorded for it. The confirmation email is queued in the same
+     * transaction.
+     *
+     * @param amountTotal what the session charged, in paise
+     * @return PNR of the booking
+     */
+    public String confirmPaidSession(String sessionId, Map<String, String> metadata, Long amountTotal, String currency) {
+        Optional<String> existingPnr = findPnrByStripeSessionId(sessionId);
+        if (existingPnr.isPresent()) {
+            return existingPnr.get();
+        }
 
-            if (!"paid".equals(session.getPaymentStatus())) {
-                throw new Exception("Payment not successful. Status: " + session.getPaymentStatus());
+        String bookingIdStr = metadata.get("bookingId");
+        if (!hasValue(bookingIdStr)) {
+            throw new InvalidBookingRequestException("Checkout session " + sessionId + " names no booking");
+        }
+        Long bookingId = parseId("bookingId", bookingIdStr);
+        List<Long> seatIds = bookingRepo.findSeatIdsByBookingId(bookingId);
+        List<Seat> seats = seatIds.isEmpty() ? List.of() : seatRepo.findAllByIdForUpdate(seatIds);
+        Booking booking = bookingRepo.findByIdForUpdate(bookingId)
+            .orElseThrow(() -> new ResourceNotFoundException("Booking not found with ID: " + bookingIdStr));
+
+        if (booking.getUser() == null || !booking.getUser().getId().toString().equals(metadata.get("userId"))) {
+            throw new InvalidBookingRequestException("Checkout session " + sessionId + " was not started by the owner of booking " + booking.getPnr());
+        }
+        if (booking.getStripeSessionId() != null) {
+            throw new InvalidBookingRequestException("Booking " + booking.getPnr() + " is already paid by another session");
+        }
+        if (booking.getBookingStatus() != Booking.BookingStatus.CONFIRMED) {
+            throw new InvalidBookingRequestException("Booking " + booking.getPnr() + " was cancelled before payment completed");
+        }
+        for (Seat seat : seats) {
+            if (bookingRepo.existsBySeatsAndTravelDateAndBookingStatusAndIdNot(
+                    seat, booking.getTravelDate(), Booking.BookingStatus.CONFIRMED, booking.getId())) {
+                throw new SeatsNotAvailableException("Seat " + seat.getSeatNumber() + " of booking " + booking.getPnr() + " is held by another booking");
             }
+        }
 
-            Map<String, String> metadata = session.getMetadata();
-            logger.info("Stripe session metadata keys: {}", metadata.keySet());
-            logger.info("Stripe session metadata values: {}", metadata);
+        FareQuote quote = fareEngine.quote(booking);
+        if (amountTotal == null || amountTotal != quote.getTotal() || !FareEngine.CURRENCY.equalsIgnoreCase(currency)) {
+            throw new InvalidBookingRequestException(String.format("Checkout session %s charged %s %s but booking %s costs %d %s",
+                sessionId, amountTotal, currency, booking.getPnr(), quote.getTotal(), FareEngine.CURRENCY));
+        }
 
-            // Validate and get trainId
-            String trainIdStr = metadata.get("trainId");
-            if (trainIdStr == null || trainIdStr.equals("null") || trainIdStr.trim().isEmpty()) {
-                String errorMsg = "Train ID is missing or invalid in session metadata";
-                logger.error("{} - Metadata: {}", errorMsg, metadata);
-                throw new Exception(errorMsg);
-            }
-            
-            Long trainId;
-            try {
-                trainId = Long.parseLong(trainIdStr);
-            } catch (NumberFormatException e) {
-                String errorMsg = "Invalid trainId format: " + trainIdStr;
-                logger.error(errorMsg, e);
-                throw new Exception(errorMsg, e);
-            }
-            
-            logger.info("Looking up train with ID: {}", trainId);
-            Train train = trainRepo.findById(trainId)
-                .orElseThrow(() -> {
-                    String errorMsg = "Train not found with ID: " + trainId;
-                    logger.error(errorMsg);
-                    return new Exception(errorMsg);
-                });
-
-            // Validate and get userId
-            String userIdStr = metadata.get("userId");
-            if (userIdStr == null || userIdStr.equals("null") || userIdStr.trim().isEmpty()) {
-                String errorMsg = "User ID is missing or invalid in session metadata";
-                logger.error("{} - Metadata: {}", errorMsg, metadata);
-                throw new Exception(errorMsg);
-            }
-            Long userId = Long.parseLong(userIdStr);
-            User user = userRepo.findById(userId)
-                .orElseThrow(() -> new Exception("User not found with ID: " + userId));
-
-            // Parse seatIds with better error handling
-            String seatIdsJson = metadata.get("seatIds");
-            if (seatIdsJson == null || seatIdsJson.equals("null") || seatIdsJson.trim().isEmpty()) {
-                String errorMsg = "seatIds is missing or invalid in session metadata";
-                logger.error("{} - Metadata: {}", errorMsg, metadata);
-                throw new Exception(errorMsg);
-            }
-            
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.registerModule(new JavaTimeModule());
-            
-            List<Long> seatIds = new ArrayList<>();
-            try {
-                // Try parsing as JSON array first
-                if (seatIdsJson.trim().startsWith("[")) {
-                    seatIds = objectMapper.readValue(seatIdsJson, new TypeReference<List<Long>>() {});
-                } else {
-                    // Handle single ID case
-                    try {
-                        Long singleSeatId = Long.parseLong(seatIdsJson.trim());
-                        seatIds.add(singleSeatId);
-                    } catch (NumberFormatException e) {
-                        throw new Exception("Invalid seat ID format: " + seatIdsJson);
-                    }
-                }
-                logger.info("Parsed seat IDs: {}", seatIds);
-            } catch (Exception e) {
-                String errorMsg = "Failed to parse seatIds: " + seatIdsJson + ". Error: " + e.getMessage();
-                logger.error(errorMsg, e);
-                throw new Exception(errorMsg, e);
-            }
-            
-            if (seatIds == null || seatIds.isEmpty()) {
-                String errorMsg = "No seat IDs provided";
-                logger.error(errorMsg);
-                throw new Exception(errorMsg);
-            }
-            
-            logger.info("Looking up seats with IDs: {}", seatIds);
-            List<Seat> seats = seatRepo.findAllById(seatIds);
-            if (seats.size() != seatIds.size()) {
-                String errorMsg = "Some seats not found. Requested: " + seatIds + ", Found: " + 
-                    seats.stream().map(Seat::getId).collect(Collectors.toList());
-                logger.error(errorMsg);
-                throw new Exception(errorMsg);
-            }
+        booking.setStripeSessionId(sessionId);
+        bookingRepo.save(booking);
+        logger.info("Linked Stripe session {} to booking {}", sessionId, booking.getPnr());
+        emailOutboxService.enqueueTicketEmail(booking.getUserEmail(), booking.getPnr());
+        return booking.getPnr();
+    }
 
-            Booking newBooking = new Booking();
-            newBooking.setTrain(train);
-            newBooking.setUser(user);
-            newBooking.setSeats(seats);
-            newBooking.setTravelDate(LocalDate.parse(metadata.get("travelDate")));
-            newBooking.setBookingTime(LocalDateTime.now());
-            newBooking.setBookingStatus(Booking.BookingStatus.CONFIRMED);
-            newBooking.setPnr(generatePNR());
-            newBooking.setSeatClass(metadata.get("seatClass"));
-            newBooking.setUserEmail(user.getEmail());
-            newBooking.setFromStation(metadata.get("fromStation"));
-            newBooking.setToStation(metadata.get("toStation"));
-            newBooking.setStripeSessionId(sessionId);
-
-            Booking savedBooking = bookingRepo.save(newBooking);
-
-            List<PassengerDto> passengerDtos;
-            String passengersJson = metadata.get("passengers");
-            if (passengersJson == null) {
-                throw new Exception("Passenger data is missing from session metadata.");
-            }
-            try {
-                passengerDtos = objectMapper.readValue(passengersJson, new TypeReference<>() {});
-            } catch (JsonProcessingException e) {
-                logger.error("Failed to parse passenger JSON: {}", passengersJson, e);
-                throw new Exception("Failed to parse passenger data.");
-            }
-            List<Passenger> passengerEntities = passengerDtos.stream().map(dto -> {
-                Passenger p = new Passenger();
-                p.setName(dto.getName());
-                p.setAge(dto.getAge());
-                p.setGender(dto.getGender());
-                p.setPhone(dto.getPhone());
-                p.setSeatId(dto.getSeatId());
-                p.setBooking(savedBooking);
-                p.setAadhaar(dto.getAadhaar());
-                return p;
-            }).toList();
-
-            passengerRepo.saveAll(passengerEntities);
-            savedBooking.setPassengers(passengerEntities);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("booking", savedBooking);
-            response.put("train", train);
-
-            return response;
-
-        } catch (StripeException e) {
-            throw new Exception("Stripe API error: " + e.getMessage());
+    private static boolean hasValue(String value) {
+        return value != null && !value.equals("null") && !value.trim().isEmpty();
+    }
+
+    private static Long parseId(String name, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidBookingRequestException("Invalid " + name + " format: " + value);
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PNR_DETAILS_CACHE, key = "#pnr")
     public void cancelBooking(String pnr) {
         Booking booking = bookingRepo.findByPnr(pnr)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with PNR: " + pnr));
@@ -0,0 +1,237 @@
+package com.irctc.service;
+
+import com.irctc.Exception.ResourceNotFoundException;
+import com.irctc.Exception.TrainNotFoundException;
+import com.irctc.dto.BulkMailJob;
+import com.irctc.model.Booking;
+import com.irctc.model.Train;
+import com.irctc.repository.BookingRepository;
+import com.irctc.repository.TrainRepository;
+import com.irctc.service.notification.SendRateLimiter;
+import com.irctc.service.notification.SmtpTransportPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends one message to many recipients, e.g. every passenger of a cancelled train.
+ * Recipients are split into batches that share a small pool of long-lived SMTP
+ * connections, and all sends go through one rate limiter so the mail provider's
+ * per-second cap is respected. Progress is kept per job for polling.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkNotificationService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkNotificationService.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final BookingRepository bookingRepo;
+    private final TrainRepository trainRepo;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${email.bulk.connections:3}")
+    private int connections;
+
+    @Value("${email.bulk.messages-per-connection:100}")
+    private int messagesPerConnection;
+
+    @Value("${email.bulk.rate-per-second:10}")
+    private double ratePerSecond;
+
+    @Value("${email.bulk.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.bulk.retained-jobs:20}")
+    private int retainedJobs;
+
+    @Value("${email.bulk.failure-sample:100}")
+    private int failureSample;
+
+    @Value("${email.sender.name:Yatrasetu Support}")
+    private String senderName;
+
+    private final Map<String, BulkMailJob> jobs = new ConcurrentHashMap<>();
+    private SmtpTransportPool transportPool;
+    private SendRateLimiter rateLimiter;
+    private ExecutorService senderPool;
+    private Counter sentCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void start() {
+        transportPool = new SmtpTransportPool(mailSender.getSession(), mailSender.getProtocol(), mailSender.getHost(),
+            mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword(), connections, messagesPerConnection);
+        rateLimiter = new SendRateLimiter(ratePerSecond);
+        // One thread per connection; more threads would only queue on the pool
+        senderPool = Executors.newFixedThreadPool(connections, new CustomizableThreadFactory("email-bulk-"));
+        sentCounter = Counter.builder("email.bulk.messages").tag("outcome", "sent").register(meterRegistry);
+        failedCounter = Counter.builder("email.bulk.messages").tag("outcome", "failed").register(meterRegistry);
+        FunctionCounter.builder("email.bulk.connections", transportPool, SmtpTransportPool::connectionsOpened)
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        senderPool.shutdownNow();
+        senderPool.awaitTermination(10, TimeUnit.SECONDS);
+        transportPool.close();
+    }
+
+    /**
+     * Notifies everyone with a confirmed booking on the train for that travel date.
+     */
+    public BulkMailJob notifyTrainPassengers(Long trainId, LocalDate travelDate, String subject, String message) {
+        Train train = trainRepo.findById(trainId)
+            .orElseThrow(() -> new TrainNotFoundException("Train not found with id: " + trainId));
+        List<String> recipients = bookingRepo.findRecipientEmails(trainId, travelDate, Booking.BookingStatus.CONFIRMED);
+
+        String html = "<div style='font-family: Arial, sans-serif; line-height: 1.6;'>" +
+                "<h2 style='color: #1a237e;'>" + HtmlUtils.htmlEscape(subject) + "</h2>" +
+                "<p><strong>Train:</strong> " + train.getNumber() + " " + HtmlUtils.htmlEscape(train.getName()) + "</p>" +
+                "<p><strong>Travel date:</strong> " + travelDate + "</p>" +
+                "<p>" + HtmlUtils.htmlEscape(message).replace("\n", "<br>") + "</p>" +
+                "<br>" +
+                "<p><strong>The Yatrasetu Team</strong></p>" +
+                "</div>";
+        BulkMailJob job = send(subject, html, recipients);
+        logger.info("Notifying {} recipients of train {} on {} (job {})", job.getTotal(), trainId, travelDate, job.getId());
+        return job;
+    }
+
+    /**
+     * Queues one HTML message for every recipient and returns the job to poll.
+     */
+    public BulkMailJob send(String subject, String html, List<String> recipients) {
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(recipients));
+        BulkMailJob job = new BulkMailJob(UUID.randomUUID().toString(), subject, unique.size());
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+
+        job.markRunning();
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < unique.size(); from += batchSize) {
+            List<String> batch = unique.subList(from, Math.min(from + batchSize, unique.size()));
+            batches.add(CompletableFuture.runAsync(() -> sendBatch(job, subject, html, batch), senderPool));
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).whenComplete((done, error) -> {
+            job.markFinished(error == null ? BulkMailJob.Status.COMPLETED : BulkMailJob.Status.FAILED);
+            logger.info("Bulk mail job {} finished: {} sent, {} failed",
+                job.getId(), job.getSent().get(), job.getFailed().get());
+        });
+        return job;
+    }
+
+    public BulkMailJob getJob(String id) {
+        BulkMailJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Bulk mail job not found: " + id);
+        }
+        return job;
+    }
+
+    private void sendBatch(BulkMailJob job, String subject, String html, List<String> batch) {
+        SmtpTransportPool.PooledTransport transport = null;
+        try {
+            for (String recipient : batch) {
+                rateLimiter.acquire();
+                MimeMessage message;
+                try {
+                    message = buildMessage(recipient, subject, html);
+                } catch (MessagingException | UnsupportedEncodingException e) {
+                    recordFailure(job, recipient, e);
+                    continue;
+                }
+
+                // A dropped connection gets one retry on a fresh one
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        if (transport == null) {
+                            transport = transportPool.borrow();
+                        }
+                        transport.send(message);
+                        job.recordSent();
+                        sentCounter.increment();
+                        break;
+                    } catch (SendFailedException e) {
+                        // The server refused this address; the connection is still fine
+                        recordFailure(job, recipient, e);
+                        break;
+                    } catch (MessagingException e) {
+                        if (transport != null) {
+                            transportPool.release(transport, true);
+                            transport = null;
+                        }
+                        if (attempt >= 2) {
+                            recordFailure(job, recipient, e);
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk mail job " + job.getId() + " was interrupted", e);
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport, false);
+            }
+        }
+    }
+
+    private MimeMessage buildMessage(String recipient, String subject, String html)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = new MimeMessage(transportPool.getSession());
+        message.setFrom(new InternetAddress(mailSender.getUsername(), senderName));
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setTo(new InternetAddress(recipient.trim(), true));
+        helper.setSubject(subject);
+        helper.setText(html, true);
+        return message;
+    }
+
+    private void recordFailure(BulkMailJob job, String recipient, Exception e) {
+        job.recordFailure(recipient, e.getMessage(), failureSample);
+        failedCounter.increment();
+        logger.warn("Bulk mail job {} could not send to {}: {}", job.getId(), recipient, e.getMessage());
+    }
+
+    // Keeps the newest finished jobs around for polling and forgets the rest
+    private void evictFinishedJobs() {
+        List<BulkMailJob> finished = jobs.values().stream()
+            .filter(BulkMailJob::isFinished)
+            .sorted(Comparator.comparing(BulkMailJob::getCreatedAt))
+            .toList();
+        for (int i = 0; i < finished.size() - retainedJobs; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.irctc.service;
 
+import com.irctc.Exception.CoachNotFoundException;
 import com.irctc.dto.CoachDTO;
 import com.irctc.dto.CoachLayoutResponse;
+import com.irctc.dto.CoachSeatRow;
+import com.irctc.dto.FareQuote;
+import com.irctc.dto.SeatBitmapResponse;
 import com.irctc.dto.SeatDTO;
 import com.irctc.dto.SeatLayoutResponse;
 import com.irctc.model.Coach;
@@ -10,12 +14,17 @@ import com.irctc.model.Train;
 import com.irctc.repository.CoachRepository;
 import com.irctc.repository.SeatRepository;
 import com.irctc.repository.TrainRepository;
+import com.irctc.service.fare.FareEngine;
+import com.irctc.service.fare.FareTable;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -27,6 +36,7 @@ public class CoachService {
     private final CoachRepository coachRepo;
     private final SeatRepository seatRepo;
     private final TrainRepository trainRepo;
+    private final FareEngine fareEngine;
 
     @Transactional
     public void createCoachesForTrain(Long trainId) {
@@ -55,6 +65,7 @@ public class CoachService {
             }
             seatRepo.saveAll(seats);
         }
+        fareEngine.refresh(trainId);
     }
     
     @Transactional
@@ -83,6 +94,7 @@ public class CoachService {
             seats.add(seat);
         }
         seatRepo.saveAll(seats);
+        fareEngine.refresh(trainId);
         
         return savedCoach;
     }
@@ -98,63 +110,48 @@ public class CoachService {
                 throw new IllegalArgumentException(errorMsg);
             }
             
-            log.debug("Fetching coaches for train ID: {}", trainId);
-            
-            // Verify train exists first
-            boolean trainExists = trainRepo.existsById(trainId);
-            log.debug("Train exists check result for ID {}: {}", trainId, trainExists);
-            
-            if (!trainExists) {
-                String errorMsg = String.format("Train not found with ID: %d", trainId);
-                log.warn(errorMsg);
-                throw new IllegalArgumentException(errorMsg);
-            }
-            
-            log.debug("Fetching coaches with seats for train ID: {}", trainId);
-            List<Coach> coaches = coachRepo.findByTrainIdWithSeats(trainId);
-            log.debug("Found {} coaches for train ID: {}", coaches.size(), trainId);
-            
-            if (coaches.isEmpty()) {
+            log.debug("Fetching coach/seat rows for train ID: {}", trainId);
+            List<CoachSeatRow> rows = coachRepo.findCoachSeatRowsByTrainId(trainId);
+            log.debug("Found {} coach/seat rows for train ID: {}", rows.size(), trainId);
+
+            if (rows.isEmpty()) {
+                // Only an empty result needs the extra lookup to tell "no coaches" from "no train"
+                if (!trainRepo.existsById(trainId)) {
+                    String errorMsg = String.format("Train not found with ID: %d", trainId);
+                    log.warn(errorMsg);
+                    throw new IllegalArgumentException(errorMsg);
+                }
                 log.info("No coaches found for train ID: {}", trainId);
                 return List.of();
             }
-            
-            return coaches.stream()
-                .map(coach -> {
-                    try {
-                        CoachDTO dto = new CoachDTO();
-                        dto.setId(coach.getId());
-                        dto.setCoachNumber(coach.getCoachNumber());
-                        dto.setFare(coach.getFare());
-                        
-                        if (coach.getSeats() != null) {
-                            dto.setAvailableSeats((int) coach.getSeats().stream()
-                                .filter(Seat::isAvailable)
-                                .count());
-                            dto.setSeats(coach.getSeats().stream()
-                                .map(seat -> {
-                                    SeatDTO seatDto = new SeatDTO();
-                                    seatDto.setId(seat.getId());
-                                    seatDto.setSeatNumber(seat.getSeatNumber());
-                                    seatDto.setAvailable(seat.isAvailable());
-                                    seatDto.setBooked(seat.isBooked());
-                                    seatDto.setFare(seat.getFare());
-                                    return seatDto;
-                                })
-                                .collect(Collectors.toList()));
-                        } else {
-                            dto.setAvailableSeats(0);
-                            dto.setSeats(List.of());
-                        }
-                        return dto;
-                    } catch (Exception e) {
-                        log.error("Error mapping coach with ID {}: {}", coach != null ? coach.getId() : "null", e.getMessage(), e);
-                        throw new RuntimeException("Error processing coach data", e);
-                    }
-                })
-                .collect(Collectors.toList());
-                
-       
+
+            // Rows arrive ordered by coach, so each coach is a contiguous run
+            FareTable fares = fareEngine.table(trainId);
+            List<CoachDTO> coaches = new ArrayList<>();
+            CoachDTO current = null;
+            for (CoachSeatRow row : rows) {
+                if (current == null || !current.getId().equals(row.getCoachId())) {
+                    FareTable.CoachFare fare = fares.forCoach(row.getCoachId());
+                    current = new CoachDTO(row.getCoachId(), row.getCoachNumber(),
+                            fare != null ? FareQuote.toRupees(fare.getAdultFare()) : 0.0, 0, new ArrayList<>());
+                    coaches.add(current);
+                }
+                if (row.getSeatId() == null) {
+                    continue;
+                }
+                boolean available = Boolean.TRUE.equals(row.getAvailable());
+                current.getSeats().add(new SeatDTO(
+                        row.getSeatId(),
+                        row.getSeatNumber() != null ? row.getSeatNumber() : 0,
+                        available,
+                        current.getFare(),
+                        Boolean.TRUE.equals(row.getBooked())));
+                if (available) {
+                    current.setAvailableSeats(current.getAvailableSeats() + 1);
+                }
+            }
+            return coaches;
+
         } catch (Exception e) {
             log.error("Error fetching coaches for train ID {}: {}", trainId, e.getMessage(), e);
             throw new RuntimeException("Failed to fetch coaches. Please try again later.", e);
@@ -200,4 +197,33 @@ public class CoachService {
             ))
             .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    @Transactional(readOnly = true)
+    public List<SeatLayoutResponse> getSeatLayout(Long coachId, LocalDate travelDate) {
+        if (coachId == null || travelDate == null) {
+            throw new IllegalArgumentException("Coach ID and travel date are required");
+        }
+
+        List<SeatLayoutResponse> seats = seatRepo.findSeatLayoutByCoachIdAndTravelDate(coachId, travelDate);
+        if (seats.isEmpty() && !coachRepo.existsById(coachId)) {
+            throw new CoachNotFoundException("Coach not found with id: " + coachId);
+        }
+        return seats;
+    }
+
+    @Transactional(readOnly = true)
+    public SeatBitmapResponse getSeatLayoutBitmap(Long coachId, LocalDate travelDate) {
+        List<SeatLayoutResponse> seats = getSeatLayout(coachId, travelDate);
+
+        BitSet booked = new BitSet();
+        int seatCount = 0;
+        for (SeatLayoutResponse seat : seats) {
+            seatCount = Math.max(seatCount, seat.getSeatNumber());
+            if (seat.isBooked() && seat.getSeatNumber() > 0) {
+                booked.set(seat.getSeatNumber() - 1);
+            }
+        }
+        return new SeatBitmapResponse(coachId, travelDate, seatCount,
+                Base64.getEncoder().encodeToString(booked.toByteArray()));
+    }
+}
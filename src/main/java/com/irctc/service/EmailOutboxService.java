@@ -0,0 +1,164 @@
+package com.irctc.service;
+
+import com.irctc.Exception.ResourceNotFoundException;
+import com.irctc.model.EmailOutbox;
+import com.irctc.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for ticket emails. Callers only insert a row, inside their own
+ * transaction; a scheduled poller hands due rows to a small worker pool that attaches
+ * the server-rendered ticket and talks to SMTP. Failed sends are retried with exponential
+ * backoff and dead-lettered after {@code email.outbox.max-attempts}.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private final EmailOutboxRepository outboxRepo;
+    private final EmailService emailService;
+    private final TicketService ticketService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${email.outbox.workers:4}")
+    private int workers;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private ExecutorService workerPool;
+    private Counter retried;
+    private Counter deadLettered;
+
+    @PostConstruct
+    void startWorkers() {
+        workerPool = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("email-outbox-"));
+        Gauge.builder("email.outbox.backlog", backlog, AtomicLong::get).register(meterRegistry);
+        retried = Counter.builder("email.outbox.retried").register(meterRegistry);
+        deadLettered = Counter.builder("email.outbox.dead_lettered").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        workerPool.shutdown();
+        workerPool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues a ticket email as part of the caller's transaction.
+     */
+    @Transactional
+    public EmailOutbox enqueueTicketEmail(String recipient, String pnr) {
+        if (recipient == null || recipient.isBlank()) {
+            throw new IllegalArgumentException("Recipient email cannot be empty");
+        }
+        if (pnr == null || pnr.isBlank()) {
+            throw new IllegalArgumentException("PNR cannot be empty");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(recipient.trim());
+        email.setPnr(pnr.trim());
+        email.setCreatedAt(now);
+        email.setNextAttemptAt(now);
+        return outboxRepo.save(email);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        List<Long> due = outboxRepo.findDueIds(EmailOutbox.Status.PENDING, LocalDateTime.now(),
+            PageRequest.of(0, batchSize));
+        if (!due.isEmpty()) {
+            // Wait for the whole batch so the next poll never picks up an email still in flight
+            CompletableFuture<?>[] sends = due.stream()
+                .map(id -> CompletableFuture.runAsync(() -> deliver(id), workerPool))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(sends).join();
+        }
+        backlog.set(outboxRepo.countByStatus(EmailOutbox.Status.PENDING));
+    }
+
+    private void deliver(Long id) {
+        EmailOutbox email = outboxRepo.findById(id).orElse(null);
+        if (email == null || email.getStatus() != EmailOutbox.Status.PENDING) {
+            return;
+        }
+        email.setAttempts(email.getAttempts() + 1);
+
+        // SMTP runs outside any transaction so a slow server never holds a connection
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            emailService.sendTicketEmail(email.getRecipient(), email.getPnr(), ticketService.getTicket(email.getPnr()));
+            outcome = "success";
+            email.setStatus(EmailOutbox.Status.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+        } catch (Exception e) {
+            // A request that can never succeed is not worth retrying
+            recordFailure(email, e, e instanceof IllegalArgumentException || e instanceof ResourceNotFoundException);
+        } finally {
+            Timer.builder("email.outbox.send")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        outboxRepo.save(email);
+    }
+
+    private void recordFailure(EmailOutbox email, Exception e, boolean permanent) {
+        email.setLastError(truncate(e.getMessage()));
+        if (permanent || email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.DEAD);
+            deadLettered.increment();
+            logger.error("Giving up on ticket email {} for PNR {} after {} attempts: {}",
+                email.getId(), email.getPnr(), email.getAttempts(), e.getMessage());
+            return;
+        }
+        long delayMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(email.getAttempts() - 1, 30));
+        email.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delayMs)));
+        retried.increment();
+        logger.warn("Ticket email {} for PNR {} failed (attempt {}), retrying in {} ms: {}",
+            email.getId(), email.getPnr(), email.getAttempts(), delayMs, e.getMessage());
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -1,20 +1,22 @@
 package com.irctc.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
-import java.io.IOException;
-import java.util.Base64;
+import java.nio.file.Path;
 
 @Service
 public class EmailService {
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     @Autowired
     private JavaMailSender mailSender;
@@ -28,23 +30,22 @@ public class EmailService {
     @Value("${spring.mail.port}")
     private int smtpPort;
 
-    public void sendTicketEmail(String to, String pnr, String ticketImage) throws MessagingException, IOException {
-        System.out.println("\n===== Sending Email =====");
-        System.out.println("From: " + fromEmail);
-        System.out.println("To: " + to);
-        System.out.println("SMTP Server: " + smtpHost + ":" + smtpPort);
-        System.out.println("PNR: " + pnr);
-        System.out.println("Ticket Image Present: " + (ticketImage != null && !ticketImage.isEmpty()));
-        
-        try {
-            // Validate input parameters
-            if (to == null || to.isBlank()) {
-                throw new IllegalArgumentException("Recipient email cannot be empty");
-            }
-            if (pnr == null || pnr.isBlank()) {
-                throw new IllegalArgumentException("PNR cannot be empty");
-            }
+    /**
+     * Sends the ticket email over SMTP. Blocks for the whole exchange, so only the
+     * outbox workers call this.
+     */
+    public void sendTicketEmail(String to, String pnr, Path ticket) throws MessagingException {
+        // Invalid input is not wrapped, so callers can tell it from a delivery failure
+        if (to == null || to.isBlank()) {
+            throw new IllegalArgumentException("Recipient email cannot be empty");
+        }
+        if (pnr == null || pnr.isBlank()) {
+            throw new IllegalArgumentException("PNR cannot be empty");
+        }
+        logger.debug("Sending ticket email for PNR {} to {} via {}:{} (ticket attached: {})",
+            pnr, to, smtpHost, smtpPort, ticket != null);
 
+        try {
             MimeMessage message = mailSender.createMimeMessage();
             message.setFrom(new InternetAddress(fromEmail, "Yatrasetu Support"));
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -67,34 +68,37 @@ public class EmailService {
 
             helper.setText(htmlContent, true);
 
-            // Handle ticket image attachment if provided
-            if (ticketImage != null && !ticketImage.isBlank()) {
-                try {
-                    // Handle different base64 formats (with or without data:image prefix)
-                    String base64Image = ticketImage;
-                    if (ticketImage.contains(",")) {
-                        base64Image = ticketImage.split(",")[1];
-                    }
-                    
-                    // Decode the base64 image
-                    byte[] imageBytes = Base64.getDecoder().decode(base64Image.trim());
-                    
-                    // Add the image as an attachment
-                    helper.addAttachment("ticket-" + pnr + ".png", 
-                                      new ByteArrayResource(imageBytes), 
-                                      "image/png");
-                } catch (Exception e) {
-                    System.err.println("Error attaching ticket image: " + e.getMessage());
-                    // Continue without the attachment rather than failing the entire email
-                }
+            // Attach the server-rendered ticket
+            if (ticket != null) {
+                helper.addAttachment("ticket-" + pnr + ".png", new FileSystemResource(ticket), "image/png");
             }
 
             // Send the email
             mailSender.send(message);
-            System.out.println("Email sent successfully to: " + to);
+            logger.info("Ticket email for PNR {} sent to {}", pnr, to);
             
         } catch (Exception e) {
-            System.err.println("Failed to send email: " + e.getMessage());
+            throw new MessagingException("Failed to send email: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends a plain-text alert to the helpdesk, e.g. an SLA breach.
+     */
+    public void sendSupportAlert(String to, String subject, String text) throws MessagingException {
+        if (to == null || to.isBlank()) {
+            throw new IllegalArgumentException("Recipient email cannot be empty");
+        }
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            message.setFrom(new InternetAddress(fromEmail, "Yatrasetu Support"));
+            MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+            helper.setTo(to.trim());
+            helper.setSubject(subject);
+            helper.setText(text, false);
+            mailSender.send(message);
+            logger.info("Support alert '{}' sent to {}", subject, to);
+        } catch (Exception e) {
             throw new MessagingException("Failed to send email: " + e.getMessage(), e);
         }
     }
@@ -0,0 +1,87 @@
+package com.irctc.service;
+
+import com.irctc.Exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt on its own small pool so a burst of logins can't take request threads
+ * away from bookings. The queue is bounded; when it is full, hashing is refused with
+ * {@link ServiceBusyException} rather than queued behind minutes of work.
+ */
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+    // $2a$10$... : version, then the two-digit cost
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.password.workers:2}")
+    private int workers;
+
+    @Value("${auth.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int strength;
+
+    private ThreadPoolExecutor hashPool;
+
+    @PostConstruct
+    void start() {
+        hashPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"));
+        new ExecutorServiceMetrics(hashPool, "passwordHash", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        hashPool.shutdownNow();
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String hash) {
+        return submit("matches", () -> passwordEncoder.matches(rawPassword, hash));
+    }
+
+    /**
+     * Whether the hash was made with a different cost than the one configured now.
+     */
+    public boolean needsRehash(String hash) {
+        Matcher matcher = BCRYPT_COST.matcher(hash);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> CompletableFuture<T> submit(String operation, Supplier<T> work) {
+        Timer timer = meterRegistry.timer("auth.password.hash", "operation", operation);
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(work), hashPool);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("auth.password.rejected", "operation", operation).increment();
+            throw new ServiceBusyException("Too many sign-ins right now, please retry shortly");
+        }
+    }
+}
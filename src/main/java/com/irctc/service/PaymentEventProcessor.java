@@ -0,0 +1,256 @@
+package com.irctc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.Exception.InvalidBookingRequestException;
+import com.irctc.Exception.ResourceNotFoundException;
+import com.irctc.Exception.SeatsNotAvailableException;
+import com.irctc.dto.PaymentStatusResponse;
+import com.irctc.model.PaymentEvent;
+import com.irctc.repository.PaymentEventRepository;
+import com.stripe.model.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable inbox for Stripe checkout webhooks. The webhook endpoint only stores the
+ * verified event; a scheduled poller hands due events to a small worker pool, which
+ * confirms the bookings a chunk of events at a time. Events that fail are retried with
+ * exponential backoff and dead-lettered after {@code payment.webhook.max-attempts}, or
+ * at once if the booking rejected the payment.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentEventProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentEventProcessor.class);
+
+    public static final String CHECKOUT_COMPLETED = "checkout.session.completed";
+
+    private final PaymentEventRepository paymentEventRepo;
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.webhook.workers:4}")
+    private int workers;
+
+    @Value("${payment.webhook.batch-size:100}")
+    private int batchSize;
+
+    @Value("${payment.webhook.chunk-size:20}")
+    private int chunkSize;
+
+    @Value("${payment.webhook.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${payment.webhook.initial-backoff-ms:5000}")
+    private long initialBackoffMs;
+
+    @Value("${payment.webhook.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    private ExecutorService workerPool;
+    private Counter retried;
+    private Counter deadLettered;
+
+    @PostConstruct
+    void startWorkers() {
+        workerPool = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("payment-event-"));
+        retried = Counter.builder("payment.webhook.retried").register(meterRegistry);
+        deadLettered = Counter.builder("payment.webhook.dead_lettered").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        workerPool.shutdown();
+        workerPool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stores a verified checkout event in the inbox.
+     *
+     * @return false if the event was already received
+     */
+    public boolean record(Event event) {
+        if (paymentEventRepo.existsByStripeEventId(event.getId())) {
+            return false;
+        }
+        String sessionJson = event.getDataObjectDeserializer().getRawJson();
+        JsonNode session;
+        try {
+            session = objectMapper.readTree(sessionJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event " + event.getId() + " carries no readable checkout session");
+        }
+        String sessionId = session.path("id").asText(null);
+        if (sessionId == null) {
+            throw new IllegalArgumentException("Event " + event.getId() + " carries no checkout session id");
+        }
+
+        PaymentEvent paymentEvent = new PaymentEvent();
+        paymentEvent.setStripeEventId(event.getId());
+        paymentEvent.setType(event.getType());
+        paymentEvent.setSessionId(sessionId);
+        paymentEvent.setPayload(sessionJson);
+        paymentEvent.setPaymentStatus(session.path("payment_status").asText(null));
+        paymentEvent.setReceivedAt(LocalDateTime.now());
+        paymentEvent.setNextAttemptAt(paymentEvent.getReceivedAt());
+        try {
+            paymentEventRepo.save(paymentEvent);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent redelivery of the same event got there first
+            return false;
+        }
+        logger.info("Received {} for session {}", event.getType(), sessionId);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook.poll-interval-ms:1000}")
+    public void processPending() {
+        List<Long> pending = paymentEventRepo.findDueIds(PaymentEvent.Status.PENDING, LocalDateTime.now(),
+            PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Wait for the whole batch so the next poll never picks up an event still in flight
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Long> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            chunks.add(CompletableFuture.runAsync(() -> processChunk(chunk), workerPool));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void processChunk(List<Long> eventIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                paymentEventRepo.findAllById(eventIds).forEach(this::apply));
+        } catch (RuntimeException e) {
+            // One bad event rolls back the whole chunk; redo it one event per transaction
+            logger.warn("Payment event chunk {} failed, retrying events one by one: {}", eventIds, e.getMessage());
+            eventIds.forEach(this::processOne);
+        }
+    }
+
+    private void processOne(Long eventId) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                paymentEventRepo.findById(eventId).ifPresent(this::apply));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status ->
+                paymentEventRepo.findById(eventId).ifPresent(event -> recordFailure(event, e)));
+        }
+    }
+
+    private void apply(PaymentEvent event) {
+        if (event.getStatus() != PaymentEvent.Status.PENDING) {
+            return;
+        }
+        event.setAttempts(event.getAttempts() + 1);
+
+        JsonNode session;
+        try {
+            session = objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            markFailed(event, "Unreadable checkout session payload");
+            return;
+        }
+        String paymentStatus = session.path("payment_status").asText();
+        if (!"paid".equals(paymentStatus)) {
+            markFailed(event, "Payment not successful. Status: " + paymentStatus);
+            return;
+        }
+
+        Map<String, String> metadata = session.hasNonNull("metadata")
+            ? objectMapper.convertValue(session.get("metadata"), new TypeReference<Map<String, String>>() {})
+            : Map.of();
+        Long amountTotal = session.hasNonNull("amount_total") ? session.get("amount_total").asLong() : null;
+        String pnr = bookingService.confirmPaidSession(event.getSessionId(), metadata,
+            amountTotal, session.path("currency").asText(null));
+
+        event.setStatus(PaymentEvent.Status.PROCESSED);
+        event.setBookingPnr(pnr);
+        event.setLastError(null);
+        event.setProcessedAt(LocalDateTime.now());
+        logger.info("Confirmed booking {} for session {}", pnr, event.getSessionId());
+    }
+
+    private void recordFailure(PaymentEvent event, RuntimeException e) {
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(truncate(e.getMessage()));
+        // The booking turned the payment down; asking again won't change its mind
+        boolean permanent = e instanceof InvalidBookingRequestException || e instanceof SeatsNotAvailableException
+            || e instanceof ResourceNotFoundException || e instanceof IllegalArgumentException;
+        if (permanent || event.getAttempts() >= maxAttempts) {
+            event.setStatus(PaymentEvent.Status.DEAD);
+            event.setProcessedAt(LocalDateTime.now());
+            deadLettered.increment();
+            logger.error("Giving up on payment event {} for session {} after {} attempts: {}",
+                event.getStripeEventId(), event.getSessionId(), event.getAttempts(), e.getMessage());
+            return;
+        }
+        long delayMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(event.getAttempts() - 1, 30));
+        event.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delayMs)));
+        retried.increment();
+        logger.warn("Payment event {} for session {} failed (attempt {}), retrying in {} ms: {}",
+            event.getStripeEventId(), event.getSessionId(), event.getAttempts(), delayMs, e.getMessage());
+    }
+
+    private void markFailed(PaymentEvent event, String reason) {
+        event.setStatus(PaymentEvent.Status.FAILED);
+        event.setLastError(reason);
+        event.setProcessedAt(LocalDateTime.now());
+        logger.warn("Payment event {} for session {} failed: {}", event.getStripeEventId(), event.getSessionId(), reason);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    /**
+     * Where the booking for a checkout session stands, without calling Stripe.
+     */
+    public PaymentStatusResponse getPaymentStatus(String sessionId) {
+        Optional<String> pnr = bookingService.findPnrByStripeSessionId(sessionId);
+        if (pnr.isPresent()) {
+            return new PaymentStatusResponse(sessionId, "CONFIRMED", pnr.get(), null);
+        }
+        return paymentEventRepo.findFirstBySessionIdOrderByIdDesc(sessionId)
+            .map(event -> switch (event.getStatus()) {
+                case PROCESSED -> new PaymentStatusResponse(sessionId, "CONFIRMED", event.getBookingPnr(), null);
+                case FAILED, DEAD -> new PaymentStatusResponse(sessionId, "FAILED", null, event.getLastError());
+                case PENDING -> new PaymentStatusResponse(sessionId, "PENDING", null, null);
+            })
+            // The webhook has not arrived yet
+            .orElseGet(() -> new PaymentStatusResponse(sessionId, "UNKNOWN", null, null));
+    }
+}
@@ -0,0 +1,305 @@
+package com.irctc.service;
+
+import com.irctc.dto.PaymentEventRow;
+import com.irctc.dto.ReconciliationReport;
+import com.irctc.dto.SessionBookingRow;
+import com.irctc.model.PaymentEvent;
+import com.irctc.repository.ArchivedBookingRepository;
+import com.irctc.repository.BookingRepository;
+import com.irctc.repository.PaymentEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Cross-checks the webhook inbox against the bookings (live and archived) by Stripe
+ * session id. Both sides are read in keyset pages sorted by session id: each page of
+ * inbox rows is joined against the bookings whose session id falls in the same range,
+ * so only one page of each side is ever held in memory and the string ordering is
+ * always the database's own.
+ * <p>
+ * Repairs are limited to the inbox: a failed event for a paid session without a booking
+ * is requeued, and an event whose booking already exists is marked processed. Everything
+ * else is only reported.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentReconciliationService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    public static final String PAID_WITHOUT_BOOKING = "PAID_WITHOUT_BOOKING";
+    public static final String STUCK_PENDING = "STUCK_PENDING";
+    public static final String EVENT_NOT_PROCESSED = "EVENT_NOT_PROCESSED";
+    public static final String BOOKING_FOR_UNPAID_SESSION = "BOOKING_FOR_UNPAID_SESSION";
+    public static final String BOOKING_WITHOUT_EVENT = "BOOKING_WITHOUT_EVENT";
+    public static final String BOOKING_WITHOUT_PAYMENT = "BOOKING_WITHOUT_PAYMENT";
+
+    private final PaymentEventRepository paymentEventRepo;
+    private final BookingRepository bookingRepo;
+    private final ArchivedBookingRepository archivedBookingRepo;
+
+    @Value("${payment.reconciliation.page-size:1000}")
+    private int pageSize;
+
+    @Value("${payment.reconciliation.grace-minutes:30}")
+    private long graceMinutes;
+
+    @Value("${payment.reconciliation.auto-repair:true}")
+    private boolean autoRepair;
+
+    @Value("${payment.reconciliation.sample-size:100}")
+    private int sampleSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<ReconciliationReport> latestReport = new AtomicReference<>();
+    private ExecutorService runner;
+
+    @PostConstruct
+    void startRunner() {
+        runner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("payment-reconciliation-"));
+    }
+
+    @PreDestroy
+    void stopRunner() throws InterruptedException {
+        runner.shutdownNow();
+        runner.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // A full run can take minutes; keep it off the scheduler thread the pollers share
+    @Scheduled(cron = "${payment.reconciliation.cron:0 15 3 * * *}")
+    public void scheduledRun() {
+        if (!startRun()) {
+            logger.info("Payment reconciliation already running, skipping scheduled run");
+        }
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return false if a run is already in progress
+     */
+    public boolean startRun() {
+        if (running.get()) {
+            return false;
+        }
+        runner.execute(this::reconcile);
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public ReconciliationReport getLatestReport() {
+        return latestReport.get();
+    }
+
+    /**
+     * Runs a full reconciliation unless one is already in progress.
+     *
+     * @return the report, or null if another run was in progress
+     */
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Payment reconciliation already running, skipping");
+            return null;
+        }
+        ReconciliationReport report = new ReconciliationReport();
+        report.setStartedAt(LocalDateTime.now());
+        report.setAutoRepair(autoRepair);
+        try {
+            LocalDateTime graceCutoff = report.getStartedAt().minusMinutes(graceMinutes);
+            reconcileSessions(report, graceCutoff);
+            reportBookingsWithoutSession(report, graceCutoff);
+        } catch (RuntimeException e) {
+            logger.error("Payment reconciliation failed", e);
+            report.setError(e.getMessage());
+        } finally {
+            report.setFinishedAt(LocalDateTime.now());
+            latestReport.set(report);
+            running.set(false);
+        }
+        logger.info("Payment reconciliation scanned {} events and {} bookings: mismatches {}, repaired {}",
+            report.getEventsScanned(), report.getBookingsScanned(), report.getMismatches(), report.getRepaired());
+        return report;
+    }
+
+    private void reconcileSessions(ReconciliationReport report, LocalDateTime graceCutoff) {
+        String lower = null;
+        String afterSession = null;
+        Long afterId = null;
+        while (true) {
+            List<PaymentEventRow> page = paymentEventRepo.findRowsAfter(afterSession, afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            // Pull in the rest of the last session so a session never straddles two windows
+            PaymentEventRow last = page.get(page.size() - 1);
+            List<PaymentEventRow> window = new ArrayList<>(page);
+            window.addAll(paymentEventRepo.findRowsBySessionIdAfter(last.getSessionId(), last.getId()));
+
+            Map<String, List<PaymentEventRow>> eventsBySession = new LinkedHashMap<>();
+            for (PaymentEventRow row : window) {
+                eventsBySession.computeIfAbsent(row.getSessionId(), key -> new ArrayList<>()).add(row);
+            }
+
+            String upper = last.getSessionId();
+            Set<String> booked = new HashSet<>();
+            forEachBookedSession(lower, upper, booking -> {
+                report.setBookingsScanned(report.getBookingsScanned() + 1);
+                List<PaymentEventRow> events = eventsBySession.get(booking.getSessionId());
+                if (events == null) {
+                    report.add(mismatch(BOOKING_WITHOUT_EVENT, booking.getSessionId(), booking.getPnr(), null, "REPORTED"),
+                        false, sampleSize);
+                } else {
+                    booked.add(booking.getSessionId());
+                    checkBookedSession(report, booking, events);
+                }
+            });
+            eventsBySession.forEach((sessionId, events) -> {
+                if (!booked.contains(sessionId)) {
+                    checkUnbookedSession(report, sessionId, events, graceCutoff);
+                }
+            });
+
+            report.setEventsScanned(report.getEventsScanned() + window.size());
+            PaymentEventRow tail = window.get(window.size() - 1);
+            lower = upper;
+            afterSession = tail.getSessionId();
+            afterId = tail.getId();
+        }
+
+        // Bookings past the last session in the inbox have no event at all
+        forEachBookedSession(lower, null, booking -> {
+            report.setBookingsScanned(report.getBookingsScanned() + 1);
+            report.add(mismatch(BOOKING_WITHOUT_EVENT, booking.getSessionId(), booking.getPnr(), null, "REPORTED"),
+                false, sampleSize);
+        });
+    }
+
+    /**
+     * Streams live then archived bookings whose session id is in {@code (lower, upper]}.
+     */
+    private void forEachBookedSession(String lower, String upper, Consumer<SessionBookingRow> action) {
+        String afterSession = null;
+        Long afterId = null;
+        List<SessionBookingRow> page;
+        do {
+            page = bookingRepo.findSessionRows(lower, upper, afterSession, afterId, PageRequest.of(0, pageSize));
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                afterSession = page.get(page.size() - 1).getSessionId();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+
+        afterSession = null;
+        afterId = null;
+        do {
+            page = archivedBookingRepo.findSessionRows(lower, upper, afterSession, afterId, PageRequest.of(0, pageSize));
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                afterSession = page.get(page.size() - 1).getSessionId();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    private void checkBookedSession(ReconciliationReport report, SessionBookingRow booking, List<PaymentEventRow> events) {
+        boolean anyPaid = events.stream().anyMatch(event -> mayBePaid(event.getPaymentStatus()));
+        if (!anyPaid) {
+            report.add(mismatch(BOOKING_FOR_UNPAID_SESSION, booking.getSessionId(), booking.getPnr(),
+                events.get(0).getPaymentStatus(), "REPORTED"), false, sampleSize);
+            return;
+        }
+
+        PaymentEventRow unprocessed = events.stream()
+            .filter(event -> event.getStatus() != PaymentEvent.Status.PROCESSED)
+            .findFirst()
+            .orElse(null);
+        if (unprocessed == null) {
+            return;
+        }
+        // The booking exists, so the event has nothing left to do
+        boolean repaired = autoRepair && paymentEventRepo.markSessionProcessed(booking.getSessionId(),
+            booking.getPnr(), LocalDateTime.now(), PaymentEvent.Status.PROCESSED) > 0;
+        report.add(mismatch(EVENT_NOT_PROCESSED, booking.getSessionId(), booking.getPnr(),
+            unprocessed.getStatus().name(), repaired ? "MARKED_PROCESSED" : "REPORTED"), repaired, sampleSize);
+    }
+
+    private void checkUnbookedSession(ReconciliationReport report, String sessionId, List<PaymentEventRow> events,
+                                      LocalDateTime graceCutoff) {
+        List<PaymentEventRow> paid = events.stream()
+            .filter(event -> mayBePaid(event.getPaymentStatus()))
+            .toList();
+        if (paid.isEmpty()) {
+            // Unpaid sessions are not supposed to have a booking
+            return;
+        }
+
+        if (paid.stream().anyMatch(event -> event.getStatus() == PaymentEvent.Status.PENDING)) {
+            boolean inFlight = paid.stream().anyMatch(event ->
+                event.getStatus() == PaymentEvent.Status.PENDING && event.getReceivedAt().isAfter(graceCutoff));
+            if (!inFlight) {
+                report.add(mismatch(STUCK_PENDING, sessionId, null, "PENDING", "REPORTED"), false, sampleSize);
+            }
+            return;
+        }
+
+        if (paid.stream().anyMatch(event -> event.getStatus() == PaymentEvent.Status.PROCESSED)) {
+            // Processed but the booking is gone; nothing safe to do automatically
+            report.add(mismatch(PAID_WITHOUT_BOOKING, sessionId, null, "PROCESSED", "REPORTED"), false, sampleSize);
+            return;
+        }
+
+        // Only events the processor gave up on: hand them back for another round
+        boolean repaired = autoRepair && paymentEventRepo.requeueFailedPaid(sessionId, "Requeued by reconciliation",
+            PaymentEvent.Status.PENDING, List.of(PaymentEvent.Status.FAILED, PaymentEvent.Status.DEAD)) > 0;
+        report.add(mismatch(PAID_WITHOUT_BOOKING, sessionId, null, paid.get(paid.size() - 1).getStatus().name(),
+            repaired ? "REQUEUED" : "REPORTED"), repaired, sampleSize);
+    }
+
+    private void reportBookingsWithoutSession(ReconciliationReport report, LocalDateTime graceCutoff) {
+        long afterId = 0;
+        List<SessionBookingRow> page;
+        do {
+            page = bookingRepo.findRowsWithoutSession(graceCutoff, afterId, PageRequest.of(0, pageSize));
+            for (SessionBookingRow booking : page) {
+                report.setBookingsScanned(report.getBookingsScanned() + 1);
+                report.add(mismatch(BOOKING_WITHOUT_PAYMENT, null, booking.getPnr(), null, "REPORTED"), false, sampleSize);
+                afterId = booking.getId();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    // Events stored before payment_status was recorded are treated as possibly paid
+    private static boolean mayBePaid(String paymentStatus) {
+        return paymentStatus == null || "paid".equals(paymentStatus);
+    }
+
+    private static ReconciliationReport.Mismatch mismatch(String type, String sessionId, String pnr,
+                                                         String eventStatus, String action) {
+        return new ReconciliationReport.Mismatch(type, sessionId, pnr, eventStatus, action);
+    }
+}
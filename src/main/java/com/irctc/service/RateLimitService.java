@@ -0,0 +1,297 @@
+package com.irctc.service;
+
+import com.irctc.config.AuthenticatedUser;
+import com.irctc.service.ratelimit.TokenBucketTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Token-bucket limits per route and role. Signed-in callers get a bucket per user,
+ * everyone else one per client IP, and IPv6 clients one per /64 since a single host
+ * is usually handed a whole prefix. Routes and limits come from {@code rate-limit.rules};
+ * a signed-in caller whose role has no limit on a route gets the route's
+ * {@code ANONYMOUS} limit by address, so a token can't be used to skip the login
+ * limit, and only a route without either is unlimited.
+ *
+ * <p>Checking a request allocates nothing once its caller has a bucket: rules are
+ * matched by comparing strings, the key is a long built from the user id or the
+ * address, and buckets live in a {@link TokenBucketTable}.
+ */
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitService.class);
+    private static final String ANONYMOUS = "ANONYMOUS";
+    // User ids are positive; address keys set the sign bit so the two never collide
+    private static final long ADDRESS_KEY = Long.MIN_VALUE;
+    private static final long HASHED_ADDRESS_KEY = Long.MIN_VALUE | (1L << 62);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // e.g. "POST /login ANONYMOUS=10/1m; GET /trains/search ANONYMOUS=30/1m USER=60/1m"
+    @Value("${rate-limit.rules:}")
+    private String rulesSpec;
+
+    @Value("${rate-limit.stripes:64}")
+    private int stripes;
+
+    // Buckets tracked per route; past that, the bucket nearest to full is dropped
+    @Value("${rate-limit.max-keys-per-route:100000}")
+    private int maxKeysPerRoute;
+
+    private List<Rule> rules = List.of();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            logger.info("Rate limiting is disabled");
+            return;
+        }
+        rules = parseRules(rulesSpec);
+        for (Rule rule : rules) {
+            rule.allowed = meterRegistry.counter("ratelimit.decisions", "route", rule.name, "result", "allowed");
+            rule.limited = meterRegistry.counter("ratelimit.decisions", "route", rule.name, "result", "limited");
+            Gauge.builder("ratelimit.buckets", rule.buckets, TokenBucketTable::size)
+                .tag("route", rule.name).register(meterRegistry);
+            FunctionCounter.builder("ratelimit.evictions", rule.buckets, TokenBucketTable::evictions)
+                .tag("route", rule.name).register(meterRegistry);
+            logger.info("Rate limiting {} with {}", rule.name, rule.limits.keySet());
+        }
+    }
+
+    /**
+     * Takes a token for the request, if a rule covers it.
+     *
+     * @param user the caller, or null for an anonymous request
+     * @return 0 if the request may go ahead, otherwise the nanos until it may be retried
+     */
+    public long acquire(String method, String path, AuthenticatedUser user, String remoteAddr) {
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            if (!rule.matches(method, path)) {
+                continue;
+            }
+            Limit limit = user != null ? rule.limits.get(user.getRole()) : null;
+            long key;
+            if (limit != null && user.getId() != null) {
+                key = user.getId();
+            } else {
+                if (limit == null) {
+                    limit = rule.limits.get(ANONYMOUS);
+                    if (limit == null) {
+                        return 0;
+                    }
+                }
+                key = addressKey(remoteAddr);
+            }
+            long waitNanos = rule.buckets.tryAcquire(key, limit.intervalNanos, limit.burstNanos, System.nanoTime());
+            (waitNanos == 0 ? rule.allowed : rule.limited).increment();
+            return waitNanos;
+        }
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}",
+               initialDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Rule rule : rules) {
+            int held = rule.buckets.evictIdle(now);
+            logger.debug("Rate limit buckets of {} after sweep: {}", rule.name, held);
+        }
+    }
+
+    // IPv4 is packed exactly, IPv6 keeps its /64 hashed into the remaining 62 bits, and
+    // anything else is hashed whole
+    private static long addressKey(String address) {
+        if (address == null) {
+            return ADDRESS_KEY;
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon < 0 || address.indexOf('.', colon) > 0) {
+            // Plain IPv4, or IPv4-mapped IPv6, which gets the same bucket
+            long ipv4 = ipv4(address, colon + 1);
+            return ipv4 >= 0 ? ADDRESS_KEY | ipv4 : hashedAddressKey(address);
+        }
+        return ipv6Key(address);
+    }
+
+    private static long ipv4(String address, int from) {
+        long ipv4 = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = from; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                ipv4 = (ipv4 << 8) | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        return dots == 3 && octet >= 0 ? (ipv4 << 8) | octet : -1;
+    }
+
+    private static long ipv6Key(String address) {
+        int end = address.indexOf('%');
+        if (end < 0) {
+            end = address.length();
+        }
+        int gap = address.indexOf("::");
+        int headEnd = gap >= 0 ? gap : end;
+        int head = countHextets(address, 0, headEnd);
+        int tail = gap >= 0 ? countHextets(address, gap + 2, end) : 0;
+        if (head < 0 || tail < 0 || (gap >= 0 ? head + tail > 7 : head != 8)) {
+            return hashedAddressKey(address);
+        }
+        long prefix = highHextets(address, 0, headEnd, 0);
+        if (gap >= 0) {
+            prefix |= highHextets(address, gap + 2, end, 8 - tail);
+        }
+        // Multiplying by an odd constant spreads the prefix before two bits are dropped
+        return HASHED_ADDRESS_KEY | ((prefix * 0x9e3779b97f4a7c15L) >>> 2);
+    }
+
+    // Groups of one to four hex digits separated by single colons, or -1
+    private static int countHextets(String address, int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        int groups = 1;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = address.charAt(i);
+            if (c == ':') {
+                if (digits == 0) {
+                    return -1;
+                }
+                groups++;
+                digits = 0;
+            } else if (Character.digit(c, 16) >= 0 && digits < 4) {
+                digits++;
+            } else {
+                return -1;
+            }
+        }
+        return digits == 0 ? -1 : groups;
+    }
+
+    // The groups of the range that fall in the first 64 bits, starting at the given group
+    private static long highHextets(String address, int from, int to, int group) {
+        long bits = 0;
+        int value = 0;
+        for (int i = from; i <= to; i++) {
+            if (i == to || address.charAt(i) == ':') {
+                if (group < 4) {
+                    bits |= (long) value << (48 - 16 * group);
+                }
+                group++;
+                value = 0;
+            } else {
+                value = (value << 4) | Character.digit(address.charAt(i), 16);
+            }
+        }
+        return bits;
+    }
+
+    private static long hashedAddressKey(String address) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < address.length(); i++) {
+            h ^= address.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return HASHED_ADDRESS_KEY | (h & ((1L << 62) - 1));
+    }
+
+    private List<Rule> parseRules(String spec) {
+        List<Rule> parsed = new ArrayList<>();
+        if (spec == null || spec.isBlank()) {
+            return parsed;
+        }
+        for (String entry : spec.split(";")) {
+            String[] parts = entry.trim().split("\\s+");
+            if (parts.length < 3) {
+                throw new IllegalStateException(
+                    "rate-limit.rules entries must look like METHOD /path ROLE=capacity/period ..., got '" + entry + "'");
+            }
+            Map<String, Limit> limits = new HashMap<>();
+            for (int i = 2; i < parts.length; i++) {
+                String[] roleAndLimit = parts[i].split("=");
+                String[] capacityAndPeriod = roleAndLimit.length == 2 ? roleAndLimit[1].split("/") : new String[0];
+                if (capacityAndPeriod.length != 2) {
+                    throw new IllegalStateException(
+                        "rate-limit.rules limits must look like ROLE=capacity/period, got '" + parts[i] + "'");
+                }
+                limits.put(roleAndLimit[0].toUpperCase(Locale.ROOT),
+                    new Limit(Integer.parseInt(capacityAndPeriod[0]), DurationStyle.detectAndParse(capacityAndPeriod[1])));
+            }
+            parsed.add(new Rule(parts[0].toUpperCase(Locale.ROOT), parts[1], Map.copyOf(limits),
+                new TokenBucketTable(stripes, maxKeysPerRoute)));
+        }
+        return List.copyOf(parsed);
+    }
+
+    private static final class Rule {
+        private final String method;
+        private final String path;
+        // "/api/seats/book/**" covers everything below /api/seats/book
+        private final boolean prefix;
+        private final String name;
+        private final Map<String, Limit> limits;
+        private final TokenBucketTable buckets;
+        private Counter allowed;
+        private Counter limited;
+
+        private Rule(String method, String path, Map<String, Limit> limits, TokenBucketTable buckets) {
+            this.method = method;
+            this.prefix = path.endsWith("/**");
+            this.path = prefix ? path.substring(0, path.length() - 2) : path;
+            this.name = method + " " + path;
+            this.limits = limits;
+            this.buckets = buckets;
+        }
+
+        private boolean matches(String requestMethod, String requestPath) {
+            return method.equals(requestMethod) && (prefix ? requestPath.startsWith(path) : path.equals(requestPath));
+        }
+    }
+
+    private static final class Limit {
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        private Limit(int capacity, Duration period) {
+            if (capacity <= 0 || period.isNegative() || period.isZero()) {
+                throw new IllegalStateException("Rate limits need a positive capacity and period");
+            }
+            this.intervalNanos = period.toNanos() / capacity;
+            this.burstNanos = period.toNanos() - intervalNanos;
+        }
+    }
+}
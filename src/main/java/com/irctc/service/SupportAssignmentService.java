@@ -0,0 +1,152 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportAdminLoad;
+import com.irctc.dto.SupportAssigneeCount;
+import com.irctc.model.Role;
+import com.irctc.model.User;
+import com.irctc.repository.SupportRepository;
+import com.irctc.repository.UserRepository;
+import com.irctc.service.support.AdminLoadBoard;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Picks the admin for a support ticket from an in-memory {@link AdminLoadBoard}, so
+ * assignment never counts tickets in the database. The board is seeded from one
+ * grouped query, changed as tickets are assigned, reassigned and resolved, and
+ * re-seeded periodically to absorb changes made by other instances.
+ *
+ * <p>Changes apply to the board at once, so concurrent submissions spread across
+ * admins, and are undone if the surrounding transaction rolls back.
+ */
+@Service
+@RequiredArgsConstructor
+public class SupportAssignmentService {
+    private static final Logger logger = LoggerFactory.getLogger(SupportAssignmentService.class);
+
+    private final UserRepository userRepository;
+    private final SupportRepository supportRepository;
+    private final MeterRegistry meterRegistry;
+
+    // Categories per admin username, e.g. "alice:PAYMENT|BOOKING, bob:TRAIN"
+    @Value("${support.assignment.skills:}")
+    private String skills;
+
+    private Map<String, Set<String>> skillsByUsername;
+    private final AtomicReference<AdminLoadBoard> board = new AtomicReference<>();
+
+    @PostConstruct
+    void seed() {
+        skillsByUsername = parseSkills(skills);
+        resync();
+    }
+
+    /**
+     * Gives a ticket to the least-loaded admin qualified for its category.
+     *
+     * @param excludeId admin to pass over, e.g. the one the ticket is being taken from
+     * @return the admin, or empty if there is none to take it
+     */
+    public Optional<AdminLoadBoard.Assignee> claim(String category, Long excludeId) {
+        AdminLoadBoard current = board.get();
+        AdminLoadBoard.Assignee assignee = current.claim(category, excludeId);
+        meterRegistry.counter("support.assignments", "result", assignee != null ? "assigned" : "none").increment();
+        if (assignee != null) {
+            onRollback(() -> current.decrement(assignee.getId()));
+        }
+        return Optional.ofNullable(assignee);
+    }
+
+    /**
+     * Moves one open ticket from one admin's load to another's; either may be null.
+     */
+    public void transfer(Long fromId, Long toId) {
+        AdminLoadBoard current = board.get();
+        current.decrement(fromId);
+        current.increment(toId);
+        onRollback(() -> {
+            current.decrement(toId);
+            current.increment(fromId);
+        });
+    }
+
+    public void release(Long adminId) {
+        transfer(adminId, null);
+    }
+
+    public void registerAdmin(User user) {
+        if (user.getRole() == Role.ADMIN) {
+            board.get().register(user.getId(), user.getUsername(), 0);
+        }
+    }
+
+    public List<SupportAdminLoad> getLoads() {
+        return board.get().snapshot();
+    }
+
+    /**
+     * Rebuilds the board from the database and swaps it in.
+     */
+    @Scheduled(fixedDelayString = "${support.assignment.resync-interval-ms:600000}",
+               initialDelayString = "${support.assignment.resync-interval-ms:600000}")
+    public void resync() {
+        Map<Long, Long> open = new HashMap<>();
+        for (SupportAssigneeCount row : supportRepository.countUnresolvedByAssignee()) {
+            open.put(row.getAdminId(), row.getCount());
+        }
+        AdminLoadBoard fresh = new AdminLoadBoard(skillsByUsername);
+        List<User> admins = userRepository.findByRole(Role.ADMIN);
+        for (User admin : admins) {
+            fresh.register(admin.getId(), admin.getUsername(), open.getOrDefault(admin.getId(), 0L).intValue());
+        }
+        board.set(fresh);
+        logger.debug("Support assignment re-seeded: {} admins", admins.size());
+    }
+
+    private static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    private static Map<String, Set<String>> parseSkills(String spec) {
+        Map<String, Set<String>> parsed = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return parsed;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                throw new IllegalStateException(
+                    "support.assignment.skills entries must look like username:CATEGORY|CATEGORY, got '" + entry + "'");
+            }
+            parsed.put(parts[0].trim(), Set.copyOf(Arrays.asList(parts[1].trim().split("\\s*\\|\\s*"))));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,97 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportClassification;
+import com.irctc.service.support.TicketClassifier;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Holds the current {@link TicketClassifier}. The keyword dictionary is read from
+ * {@code support.classifier.dictionary} at startup and re-read whenever the file
+ * changes, so keywords can be tuned without a restart. A dictionary that fails to
+ * load leaves the previous classifier in place.
+ */
+@Service
+@RequiredArgsConstructor
+public class SupportClassifierService {
+    private static final Logger logger = LoggerFactory.getLogger(SupportClassifierService.class);
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${support.classifier.dictionary:classpath:support-classifier.properties}")
+    private String dictionaryLocation;
+
+    private volatile TicketClassifier classifier;
+    private volatile long loadedModified;
+
+    @PostConstruct
+    void load() {
+        reload();
+    }
+
+    public SupportClassification classify(String issue) {
+        return classifier.classify(issue);
+    }
+
+    /**
+     * Re-reads the dictionary and swaps in a new classifier.
+     *
+     * @return the number of keywords loaded
+     * @throws IllegalArgumentException if the dictionary cannot be read or is incomplete
+     */
+    public synchronized int reload() {
+        Resource resource = resourceLoader.getResource(dictionaryLocation);
+        long modified = lastModified(resource);
+        Properties dictionary = new Properties();
+        try (InputStream in = resource.getInputStream();
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            dictionary.load(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read classifier dictionary " + dictionaryLocation
+                + ": " + e.getMessage());
+        }
+        TicketClassifier fresh = TicketClassifier.fromDictionary(dictionary);
+        classifier = fresh;
+        loadedModified = modified;
+        logger.info("Loaded support classifier dictionary {}: {} keywords", dictionaryLocation, fresh.keywordCount());
+        return fresh.keywordCount();
+    }
+
+    @Scheduled(fixedDelayString = "${support.classifier.reload-interval-ms:30000}",
+               initialDelayString = "${support.classifier.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        long modified = lastModified(resourceLoader.getResource(dictionaryLocation));
+        if (modified == loadedModified) {
+            return;
+        }
+        try {
+            reload();
+        } catch (IllegalArgumentException e) {
+            // Don't retry the same broken file every interval
+            loadedModified = modified;
+            logger.error("Keeping the previous support classifier: {}", e.getMessage());
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportIndexMessage;
+import com.irctc.dto.SupportIndexRow;
+import com.irctc.dto.SupportSearchHit;
+import com.irctc.dto.SupportSearchPage;
+import com.irctc.model.SupportStatus;
+import com.irctc.repository.SupportMessageRepository;
+import com.irctc.repository.SupportRepository;
+import com.irctc.service.support.SupportTicketEvent;
+import com.irctc.service.support.TicketSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over support tickets for the helpdesk. The index lives in memory,
+ * is built from the database at startup in one streaming pass, and follows ticket
+ * changes once they commit. Each ticket is indexed with its whole conversation.
+ *
+ * <p>All index writes and the swap to a rebuilt index run on one indexer thread, so
+ * they apply in commit order. Tickets changed while a rebuild is streaming are
+ * re-read once the new index is in place.
+ */
+@Service
+@RequiredArgsConstructor
+public class SupportSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(SupportSearchService.class);
+
+    private final SupportRepository supportRepository;
+    private final SupportMessageRepository messageRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${support.search.rebuild-page-size:1000}")
+    private int rebuildPageSize;
+
+    @Value("${support.search.max-window:10000}")
+    private int maxWindow;
+
+    @Value("${support.search.compact-min-dead:10000}")
+    private int compactMinDead;
+
+    private volatile TicketSearchIndex index = new TicketSearchIndex();
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Only touched on the indexer thread
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private ExecutorService indexer;
+    private ExecutorService rebuilder;
+
+    @PostConstruct
+    void start() {
+        indexer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("support-indexer-"));
+        rebuilder = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("support-index-rebuild-"));
+        startRebuild();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        rebuilder.shutdownNow();
+        indexer.shutdown();
+        indexer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketEvent(SupportTicketEvent event) {
+        indexer.execute(() -> reindex(event.getTicketId()));
+    }
+
+    /**
+     * Starts a full rebuild from the database in the background.
+     *
+     * @return false if a rebuild is already running
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuilder.execute(this::rebuild);
+        return true;
+    }
+
+    public SupportSearchPage search(String query, SupportStatus status, String category, String priority,
+                                    LocalDate from, LocalDate to, int page, int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and 100");
+        }
+        if ((long) (page + 1) * size > maxWindow) {
+            throw new IllegalArgumentException("Search results are limited to the first " + maxWindow + " hits");
+        }
+
+        long start = System.nanoTime();
+        TicketSearchIndex.Result result = index.search(query,
+            new TicketSearchIndex.Filter(status, category, priority, from, to), page * size, size);
+        long tookNanos = System.nanoTime() - start;
+        meterRegistry.timer("support.search").record(tookNanos, TimeUnit.NANOSECONDS);
+
+        List<SupportSearchHit> hits = new ArrayList<>();
+        if (!result.getHits().isEmpty()) {
+            List<Long> ids = result.getHits().stream().map(TicketSearchIndex.Hit::getTicketId).toList();
+            Map<Long, SupportIndexRow> rows = supportRepository.findIndexRowsByIds(ids).stream()
+                .collect(Collectors.toMap(SupportIndexRow::getId, Function.identity()));
+            for (TicketSearchIndex.Hit hit : result.getHits()) {
+                SupportIndexRow row = rows.get(hit.getTicketId());
+                // Deleted since it was indexed
+                if (row != null) {
+                    hits.add(new SupportSearchHit(row.getId(), hit.getScore(), row.getName(), row.getEmail(),
+                        row.getStatus(), row.getCategory(), row.getPriority(), row.getSubmittedAt(),
+                        snippet(row.getIssue())));
+                }
+            }
+        }
+        return new SupportSearchPage(result.getTotal(), page, size, TimeUnit.NANOSECONDS.toMillis(tookNanos),
+            ready, hits);
+    }
+
+    private void reindex(Long ticketId) {
+        try {
+            List<SupportIndexRow> rows = supportRepository.findIndexRowsByIds(List.of(ticketId));
+            if (rows.isEmpty()) {
+                index.remove(ticketId);
+            } else {
+                index.index(rows.get(0), messageRepository.findIndexMessages(List.of(ticketId)));
+            }
+            if (rebuilding.get()) {
+                changedDuringRebuild.add(ticketId);
+            } else if (index.deadCount() > Math.max(compactMinDead, index.size())) {
+                // Replaced versions outnumber live tickets; a rebuild drops them
+                startRebuild();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not index support ticket {}: {}", ticketId, e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        try {
+            TicketSearchIndex fresh = new TicketSearchIndex();
+            long afterId = 0;
+            List<SupportIndexRow> page;
+            do {
+                page = supportRepository.findIndexRowsAfter(afterId, PageRequest.of(0, rebuildPageSize));
+                if (!page.isEmpty()) {
+                    indexPage(fresh, page);
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == rebuildPageSize);
+
+            indexer.execute(() -> {
+                index = fresh;
+                ready = true;
+                rebuilding.set(false);
+                List<Long> replay = new ArrayList<>(changedDuringRebuild);
+                changedDuringRebuild.clear();
+                replay.forEach(this::reindex);
+                logger.info("Support search index rebuilt: {} tickets in {} ms", fresh.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            });
+        } catch (RuntimeException e) {
+            logger.error("Support search index rebuild failed: {}", e.getMessage(), e);
+            indexer.execute(() -> {
+                changedDuringRebuild.clear();
+                rebuilding.set(false);
+            });
+        }
+    }
+
+    // One query for the conversations of the whole page
+    private void indexPage(TicketSearchIndex target, List<SupportIndexRow> page) {
+        Map<Long, List<SupportIndexMessage>> messages = messageRepository
+            .findIndexMessages(page.stream().map(SupportIndexRow::getId).toList()).stream()
+            .collect(Collectors.groupingBy(SupportIndexMessage::getTicketId));
+        for (SupportIndexRow row : page) {
+            target.index(row, messages.getOrDefault(row.getId(), List.of()));
+        }
+    }
+
+    private static String snippet(String issue) {
+        if (issue == null) {
+            return null;
+        }
+        return issue.length() <= 200 ? issue : issue.substring(0, 200) + "...";
+    }
+}
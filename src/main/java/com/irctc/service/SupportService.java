@@ -0,0 +1,345 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportClassification;
+import com.irctc.dto.SupportMessageView;
+import com.irctc.dto.SupportRequest;
+import com.irctc.dto.SupportStatusChange;
+import com.irctc.model.Support;
+import com.irctc.model.SupportMessage;
+import com.irctc.model.Role;
+import com.irctc.model.SupportStatus;
+import com.irctc.model.User;
+import com.irctc.repository.SupportMessageRepository;
+import com.irctc.repository.SupportRepository;
+import com.irctc.repository.UserRepository;
+import com.irctc.service.support.AdminLoadBoard;
+import com.irctc.service.support.SlaBreach;
+import com.irctc.service.support.SlaPolicy;
+import com.irctc.service.support.SupportTicketEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * All writes to support tickets go through here, so every change publishes a
+ * {@link SupportTicketEvent} in the same transaction. Replies, notes and status
+ * changes are appended to the ticket's conversation as {@link SupportMessage} rows.
+ * Every change to who holds an open ticket is mirrored in {@link SupportAssignmentService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class SupportService {
+    // Column lengths on Support and SupportMessage
+    private static final int RESPONSE_LENGTH = 4000;
+    private static final int NOTES_LENGTH = 1000;
+    private static final int MESSAGE_LENGTH = 4000;
+    private static final int REFERENCED_PNRS_LENGTH = 100;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Set<SupportMessage.Type> CUSTOMER_VISIBLE =
+        EnumSet.of(SupportMessage.Type.MESSAGE, SupportMessage.Type.STATUS_CHANGE);
+
+    private final SupportRepository supportRepository;
+    private final UserRepository userRepository;
+    private final SupportMessageRepository messageRepository;
+    private final SupportClassifierService classifierService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SlaPolicy slaPolicy;
+    private final SupportAssignmentService assignmentService;
+
+    @Value("${support.assignment.auto:true}")
+    private boolean autoAssign;
+
+    @Transactional
+    public Support createTicket(SupportRequest request) {
+        Support support = new Support();
+        support.setName(request.getName());
+        support.setEmail(request.getEmail());
+        support.setIssue(request.getIssue());
+        support.setStatus(SupportStatus.OPEN);
+        support.setResolved(false);
+        support.setSubmittedAt(LocalDateTime.now());
+        SupportClassification classification = classifierService.classify(request.getIssue());
+        support.setCategory(classification.getCategory());
+        support.setPriority(classification.getPriority());
+        support.setReferencedPnrs(joinPnrs(classification.getPnrs()));
+        support.setSlaDueAt(slaPolicy.deadline(support.getPriority(), support.getCategory(), support.getSubmittedAt()));
+
+        Support saved = supportRepository.save(support);
+        append(saved.getId(), SupportMessage.Type.STATUS_CHANGE, false, request.getEmail(), null,
+            null, SupportStatus.OPEN);
+        if (autoAssign) {
+            assignmentService.claim(saved.getCategory(), null).ifPresent(admin ->
+                assignTo(saved, userRepository.getReferenceById(admin.getId()), null,
+                    "Auto-assigned to " + admin.getUsername()));
+        }
+        return publishChange(saved, SupportTicketEvent.Type.CREATED, null, false);
+    }
+
+    @Transactional
+    public Optional<Support> updateStatus(Long id, SupportStatus status, String notes, String author) {
+        return supportRepository.findById(id).map(ticket -> {
+            SupportStatus oldStatus = ticket.getStatus();
+            boolean wasResolved = ticket.isResolved();
+            carryOverLegacyText(ticket);
+            ticket.setStatus(status);
+            if (ticket.isResolved()) {
+                ticket.setSlaDueAt(null);
+                if (!wasResolved && ticket.getAssignedTo() != null) {
+                    assignmentService.release(ticket.getAssignedTo().getId());
+                }
+            } else if (wasResolved) {
+                // Reopened: the SLA clock starts over from now, and the ticket is back on its admin's load
+                ticket.setSlaDueAt(slaPolicy.deadline(ticket.getPriority(), ticket.getCategory(), LocalDateTime.now()));
+                if (ticket.getAssignedTo() != null) {
+                    assignmentService.transfer(null, ticket.getAssignedTo().getId());
+                }
+            }
+            String note = notes != null && !notes.trim().isEmpty() ? notes.trim() : null;
+            if (note != null) {
+                ticket.setAdminNotes(clip(note, NOTES_LENGTH));
+            }
+            append(ticket.getId(), SupportMessage.Type.STATUS_CHANGE, true, author, note, oldStatus, status);
+            return publishChange(supportRepository.save(ticket), SupportTicketEvent.Type.STATUS_CHANGED,
+                oldStatus, wasResolved);
+        });
+    }
+
+    /**
+     * Hands the ticket to the given admin; empty if either doesn't exist.
+     */
+    @Transactional
+    public Optional<Support> assign(Long id, Long adminId, String author) {
+        return supportRepository.findById(id)
+            .flatMap(ticket -> userRepository.findById(adminId)
+                .filter(user -> user.getRole() == Role.ADMIN)
+                .map(admin -> {
+                    SupportStatus oldStatus = ticket.getStatus();
+                    boolean wasResolved = ticket.isResolved();
+                    carryOverLegacyText(ticket);
+                    if (!wasResolved) {
+                        assignmentService.transfer(assigneeId(ticket), admin.getId());
+                    }
+                    assignTo(ticket, admin, author, "Assigned to " + admin.getUsername());
+                    return publishChange(supportRepository.save(ticket), SupportTicketEvent.Type.ASSIGNED,
+                        oldStatus, wasResolved);
+                }));
+    }
+
+    /**
+     * Adds a helpdesk reply to the conversation. The ticket itself keeps only the
+     * latest reply, for ticket lists and search.
+     */
+    @Transactional
+    public Optional<Support> addResponse(Long id, String response, String author) {
+        return supportRepository.findById(id).map(ticket -> {
+            reply(ticket, response, author);
+            return ticket;
+        });
+    }
+
+    /**
+     * Adds a message to the conversation, as a helpdesk reply when {@code agent} is
+     * set. A customer message leaves the ticket row untouched.
+     */
+    @Transactional
+    public Optional<SupportMessageView> addMessage(Long id, String message, String author, boolean agent) {
+        return supportRepository.findById(id).map(ticket -> {
+            if (agent) {
+                return toView(reply(ticket, message, author));
+            }
+            carryOverLegacyText(ticket);
+            SupportMessage saved = append(ticket.getId(), SupportMessage.Type.MESSAGE, false, author, message,
+                null, null);
+            publishChange(ticket, SupportTicketEvent.Type.MESSAGE, ticket.getStatus(), ticket.isResolved());
+            return toView(saved);
+        });
+    }
+
+    /**
+     * Acts on a ticket whose SLA deadline has passed: raises its priority one level,
+     * or, once it is at the top, moves it to the least-loaded other admin. Either way
+     * the ticket gets a fresh deadline for its new state. Does nothing if the ticket
+     * was resolved or its deadline moved since the timer was set.
+     */
+    @Transactional
+    public Optional<SlaBreach> breachSla(Long id, LocalDateTime now) {
+        return supportRepository.findById(id).map(ticket -> {
+            if (ticket.isResolved() || (ticket.getSlaDueAt() != null && ticket.getSlaDueAt().isAfter(now))) {
+                return new SlaBreach(id, SlaBreach.Action.NONE, ticket.getPriority(), null,
+                    ticket.isResolved() ? null : ticket.getSlaDueAt());
+            }
+            SupportStatus oldStatus = ticket.getStatus();
+            boolean wasResolved = ticket.isResolved();
+            carryOverLegacyText(ticket);
+            ticket.setSlaBreaches(ticket.getSlaBreaches() + 1);
+
+            SlaBreach.Action action;
+            String escalated = slaPolicy.escalate(ticket.getPriority());
+            if (escalated != null) {
+                append(id, SupportMessage.Type.NOTE, true, null,
+                    "SLA breached: priority raised from " + ticket.getPriority() + " to " + escalated, null, null);
+                ticket.setPriority(escalated);
+                action = SlaBreach.Action.ESCALATED;
+            } else {
+                Long currentId = assigneeId(ticket);
+                Optional<AdminLoadBoard.Assignee> next = assignmentService.claim(ticket.getCategory(), currentId);
+                if (next.isPresent()) {
+                    assignmentService.release(currentId);
+                    assignTo(ticket, userRepository.getReferenceById(next.get().getId()), null,
+                        "SLA breached: reassigned to " + next.get().getUsername());
+                    action = SlaBreach.Action.REASSIGNED;
+                } else {
+                    append(id, SupportMessage.Type.NOTE, true, null, "SLA breached again", null, null);
+                    action = SlaBreach.Action.NOTIFIED;
+                }
+            }
+            ticket.setSlaDueAt(slaPolicy.deadline(ticket.getPriority(), ticket.getCategory(), now));
+            publishChange(supportRepository.save(ticket), SupportTicketEvent.Type.SLA_BREACHED, oldStatus, wasResolved);
+            return new SlaBreach(id, action, ticket.getPriority(),
+                ticket.getAssignedTo() != null ? ticket.getAssignedTo().getEmail() : null, ticket.getSlaDueAt());
+        });
+    }
+
+    /**
+     * One page of a ticket's conversation, oldest first; pass the last id seen to get
+     * the next page. Internal notes are left out unless asked for, and so are the notes
+     * on status changes, which are written by the helpdesk for the helpdesk.
+     */
+    @Transactional(readOnly = true)
+    public List<SupportMessageView> getMessages(Long ticketId, long afterId, int limit, boolean includeNotes) {
+        checkPageSize(limit);
+        List<SupportMessageView> page = messageRepository.findViewsAfter(ticketId, afterId,
+            includeNotes ? EnumSet.allOf(SupportMessage.Type.class) : CUSTOMER_VISIBLE, PageRequest.of(0, limit));
+        if (includeNotes) {
+            return page;
+        }
+        return page.stream()
+            .map(view -> view.getType() != SupportMessage.Type.STATUS_CHANGE || view.getText() == null ? view
+                : new SupportMessageView(view.getId(), view.getType(), null, view.isAgent(), view.getAuthor(),
+                    view.getTimestamp(), view.getStatusChange()))
+            .toList();
+    }
+
+    /**
+     * One page of a ticket's status history, oldest first. The notes on each change
+     * are left out unless asked for.
+     */
+    @Transactional(readOnly = true)
+    public List<SupportStatusChange> getStatusHistory(Long ticketId, long afterId, int limit, boolean includeNotes) {
+        checkPageSize(limit);
+        List<SupportStatusChange> page = messageRepository.findStatusChangesAfter(ticketId, afterId,
+            PageRequest.of(0, limit));
+        if (includeNotes) {
+            return page;
+        }
+        return page.stream()
+            .map(change -> change.getNotes() == null ? change
+                : new SupportStatusChange(change.getId(), change.getPreviousStatus(), change.getStatus(),
+                    change.getUpdatedBy(), null, change.getTimestamp()))
+            .toList();
+    }
+
+    // Assigning a ticket starts work on it, so an open ticket moves to IN_PROGRESS
+    private void assignTo(Support ticket, User admin, String author, String note) {
+        SupportStatus oldStatus = ticket.getStatus();
+        ticket.setAssignedTo(admin);
+        ticket.setStatus(SupportStatus.IN_PROGRESS);
+        if (oldStatus == SupportStatus.IN_PROGRESS) {
+            append(ticket.getId(), SupportMessage.Type.NOTE, true, author, note, null, null);
+        } else {
+            append(ticket.getId(), SupportMessage.Type.STATUS_CHANGE, true, author, note,
+                oldStatus, SupportStatus.IN_PROGRESS);
+        }
+    }
+
+    private static Long assigneeId(Support ticket) {
+        // Reading the id doesn't initialise the lazy proxy
+        return ticket.getAssignedTo() != null ? ticket.getAssignedTo().getId() : null;
+    }
+
+    private SupportMessage reply(Support ticket, String response, String author) {
+        carryOverLegacyText(ticket);
+        SupportMessage saved = append(ticket.getId(), SupportMessage.Type.MESSAGE, true, author, response, null, null);
+        ticket.setResponse(clip(response, RESPONSE_LENGTH));
+        publishChange(supportRepository.save(ticket), SupportTicketEvent.Type.RESPONDED, ticket.getStatus(),
+            ticket.isResolved());
+        return saved;
+    }
+
+    private SupportMessage append(Long ticketId, SupportMessage.Type type, boolean agent, String author, String body,
+                                  SupportStatus oldStatus, SupportStatus newStatus) {
+        SupportMessage message = new SupportMessage();
+        message.setTicketId(ticketId);
+        message.setType(type);
+        message.setAgent(agent);
+        message.setAuthor(clip(author, 100));
+        message.setBody(clip(body, MESSAGE_LENGTH));
+        message.setOldStatus(oldStatus);
+        message.setNewStatus(newStatus);
+        message.setCreatedAt(LocalDateTime.now());
+        return messageRepository.save(message);
+    }
+
+    /**
+     * Tickets from before conversations were stored have their replies and notes
+     * concatenated on the ticket row. The first new entry on such a ticket moves that
+     * text into the conversation so the ticket row can hold just the latest reply.
+     */
+    private void carryOverLegacyText(Support ticket) {
+        if ((ticket.getResponse() == null && ticket.getAdminNotes() == null)
+                || messageRepository.existsByTicketId(ticket.getId())) {
+            return;
+        }
+        if (ticket.getResponse() != null) {
+            append(ticket.getId(), SupportMessage.Type.MESSAGE, true, null, ticket.getResponse(), null, null);
+        }
+        if (ticket.getAdminNotes() != null) {
+            append(ticket.getId(), SupportMessage.Type.NOTE, true, null, ticket.getAdminNotes(), null, null);
+        }
+    }
+
+    private Support publishChange(Support ticket, SupportTicketEvent.Type type, SupportStatus oldStatus,
+                                  boolean wasResolved) {
+        eventPublisher.publishEvent(new SupportTicketEvent(ticket.getId(), type, oldStatus, ticket.getStatus(),
+            wasResolved, ticket.isResolved(), ticket.getSubmittedAt(), ticket.getSlaDueAt()));
+        return ticket;
+    }
+
+    private static SupportMessageView toView(SupportMessage message) {
+        return new SupportMessageView(message.getId(), message.getType(), message.getBody(), message.isAgent(),
+            message.getAuthor(), message.getCreatedAt(), message.getNewStatus());
+    }
+
+    private static void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // As many whole PNRs as fit the column, since pnr.code-length is configurable; null if none do
+    private static String joinPnrs(List<String> pnrs) {
+        StringJoiner joined = new StringJoiner(",");
+        for (String pnr : pnrs) {
+            int separator = joined.length() > 0 ? 1 : 0;
+            if (joined.length() + separator + pnr.length() > REFERENCED_PNRS_LENGTH) {
+                break;
+            }
+            joined.add(pnr);
+        }
+        return joined.length() > 0 ? joined.toString() : null;
+    }
+
+    private static String clip(String text, int maxLength) {
+        return text == null || text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,185 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportSlaRow;
+import com.irctc.repository.SupportRepository;
+import com.irctc.service.support.SlaBreach;
+import com.irctc.service.support.SlaPolicy;
+import com.irctc.service.support.SupportTicketEvent;
+import com.irctc.service.support.TimingWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Fires support ticket SLA deadlines. Every unresolved ticket has a timer on a
+ * {@link TimingWheel}; the wheel is filled from one streaming query at startup and
+ * kept current from ticket events, so nothing ever scans the table for overdue tickets.
+ * A timer that fires hands the ticket to {@link SupportService#breachSla}, which
+ * escalates or reassigns it and sets its next deadline, and the helpdesk is emailed.
+ *
+ * <p>The wheel is only touched on the SLA thread.
+ */
+@Service
+@RequiredArgsConstructor
+public class SupportSlaService {
+    private static final Logger logger = LoggerFactory.getLogger(SupportSlaService.class);
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final SupportRepository supportRepository;
+    private final SupportService supportService;
+    private final SlaPolicy slaPolicy;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${support.sla.tick:1s}")
+    private Duration tick;
+
+    // Helpdesk inbox copied on every breach; blank to only email the assignee
+    @Value("${support.sla.notify-to:}")
+    private String notifyTo;
+
+    private TimingWheel wheel;
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private ScheduledExecutorService timer;
+    private ExecutorService notifier;
+
+    @PostConstruct
+    void start() {
+        wheel = new TimingWheel(tick.toMillis(), System.currentTimeMillis());
+        meterRegistry.gauge("support.sla.scheduled", scheduled);
+        timer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("support-sla-"));
+        notifier = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("support-sla-notify-"));
+        // Queued first, so every event-driven change applies on top of the loaded state
+        timer.execute(this::load);
+        timer.scheduleWithFixedDelay(this::fireDue, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        timer.shutdownNow();
+        notifier.shutdown();
+        notifier.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketEvent(SupportTicketEvent event) {
+        // Breaches reschedule themselves once breachSla returns
+        if (event.getType() == SupportTicketEvent.Type.SLA_BREACHED) {
+            return;
+        }
+        LocalDateTime due = event.isResolved() ? null : event.getSlaDueAt();
+        timer.execute(() -> setDeadline(event.getTicketId(), due));
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<SupportSlaRow> rows = supportRepository.streamUnresolvedSla()) {
+                    rows.forEach(row -> {
+                        // Tickets from before deadlines were stored get one from their age
+                        LocalDateTime due = row.getSlaDueAt() != null ? row.getSlaDueAt()
+                            : slaPolicy.deadline(row.getPriority(), row.getCategory(), row.getSubmittedAt());
+                        wheel.schedule(row.getId(), toMillis(due));
+                    });
+                }
+            });
+            scheduled.set(wheel.size());
+            logger.info("Loaded {} support SLA deadlines in {} ms", wheel.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            logger.error("Could not load support SLA deadlines: {}", e.getMessage(), e);
+        }
+    }
+
+    private void fireDue() {
+        try {
+            List<Long> due = new ArrayList<>();
+            wheel.advanceTo(System.currentTimeMillis(), due::add);
+            due.forEach(this::breach);
+            scheduled.set(wheel.size());
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-delay schedule
+            logger.error("Support SLA tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void breach(Long ticketId) {
+        try {
+            supportService.breachSla(ticketId, LocalDateTime.now()).ifPresent(breach -> {
+                setDeadline(ticketId, breach.getNextDueAt());
+                if (breach.getAction() != SlaBreach.Action.NONE) {
+                    meterRegistry.counter("support.sla.breaches", "action", breach.getAction().name()).increment();
+                    logger.info("Support ticket {} breached its SLA: {} (priority {})", ticketId,
+                        breach.getAction(), breach.getPriority());
+                    notifier.execute(() -> notify(breach));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not act on SLA breach of ticket {}, retrying in {}: {}", ticketId, RETRY_DELAY,
+                e.getMessage());
+            wheel.schedule(ticketId, System.currentTimeMillis() + RETRY_DELAY.toMillis());
+        }
+    }
+
+    private void setDeadline(Long ticketId, LocalDateTime due) {
+        if (due == null) {
+            wheel.cancel(ticketId);
+        } else {
+            wheel.schedule(ticketId, toMillis(due));
+        }
+        scheduled.set(wheel.size());
+    }
+
+    private void notify(SlaBreach breach) {
+        Set<String> recipients = new LinkedHashSet<>();
+        if (notifyTo != null && !notifyTo.isBlank()) {
+            recipients.add(notifyTo.trim());
+        }
+        if (breach.getAssigneeEmail() != null) {
+            recipients.add(breach.getAssigneeEmail());
+        }
+        String subject = "Support ticket #" + breach.getTicketId() + " breached its SLA";
+        String text = "Support ticket #" + breach.getTicketId() + " was not handled in time.\n\n"
+            + "Action taken: " + breach.getAction() + "\n"
+            + "Priority: " + breach.getPriority() + "\n"
+            + "Next deadline: " + breach.getNextDueAt() + "\n";
+        for (String recipient : recipients) {
+            try {
+                emailService.sendSupportAlert(recipient, subject, text);
+            } catch (MessagingException | RuntimeException e) {
+                logger.warn("Could not send SLA alert for ticket {} to {}: {}", breach.getTicketId(), recipient,
+                    e.getMessage());
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,87 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportStatusCount;
+import com.irctc.dto.SupportTicketStats;
+import com.irctc.repository.SupportRepository;
+import com.irctc.service.support.SupportCounters;
+import com.irctc.service.support.SupportTicketEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the helpdesk counts in memory so the stats endpoint never queries the
+ * database. Counts are seeded from one grouped query, follow ticket changes once
+ * they commit, and are re-seeded periodically to absorb changes made by other
+ * instances.
+ */
+@Service
+@RequiredArgsConstructor
+public class SupportStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(SupportStatsService.class);
+
+    private final SupportRepository supportRepository;
+
+    @Value("${support.stats.attention-after:24h}")
+    private Duration attentionAfter;
+
+    @Value("${support.stats.bucket-width:5m}")
+    private Duration bucketWidth;
+
+    private final AtomicReference<SupportCounters> counters = new AtomicReference<>();
+
+    @PostConstruct
+    void seed() {
+        resync();
+    }
+
+    public SupportTicketStats getStats() {
+        return counters.get().snapshot();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketEvent(SupportTicketEvent event) {
+        SupportCounters current = counters.get();
+        if (event.getType() == SupportTicketEvent.Type.CREATED) {
+            current.created(event.getNewStatus(), event.isResolved(), event.getSubmittedAt());
+        } else {
+            current.changed(event.getOldStatus(), event.getNewStatus(), event.isWasResolved(), event.isResolved(),
+                event.getSubmittedAt());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${support.stats.sweep-interval-ms:60000}")
+    public void sweep() {
+        long aged = counters.get().expire(LocalDateTime.now());
+        if (aged > 0) {
+            logger.debug("{} support tickets now need attention", aged);
+        }
+    }
+
+    /**
+     * Rebuilds the counts from the database and swaps them in.
+     */
+    @Scheduled(fixedDelayString = "${support.stats.resync-interval-ms:600000}",
+               initialDelayString = "${support.stats.resync-interval-ms:600000}")
+    public void resync() {
+        SupportCounters fresh = new SupportCounters(bucketWidth, attentionAfter);
+        for (SupportStatusCount row : supportRepository.countByStatusAndResolved()) {
+            fresh.seed(row.getStatus(), row.isResolved(), row.getCount());
+        }
+        // Only tickets inside the attention window need a bucket
+        LocalDateTime since = LocalDateTime.now().minus(attentionAfter).minus(bucketWidth);
+        supportRepository.findUnresolvedSubmittedSince(since).forEach(fresh::seedYoung);
+        counters.set(fresh);
+        logger.debug("Support stats re-seeded: {} tickets", fresh.snapshot().getTotal());
+    }
+}
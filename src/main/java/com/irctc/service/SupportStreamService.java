@@ -0,0 +1,166 @@
+package com.irctc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.dto.SupportDashboardRow;
+import com.irctc.repository.SupportRepository;
+import com.irctc.service.support.SupportTicketEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes ticket changes and helpdesk counts to open dashboards over server-sent
+ * events. Committed changes are collected per ticket and flushed once per window:
+ * one query loads the changed tickets, the batch is serialised once and the same
+ * text goes to every dashboard, so database load doesn't grow with the number of
+ * dashboards. Counts come from {@link SupportStatsService} and are sent whenever
+ * they differ from the last ones sent.
+ */
+@Service
+@RequiredArgsConstructor
+public class SupportStreamService {
+    private static final Logger logger = LoggerFactory.getLogger(SupportStreamService.class);
+    // Keeps the IN list of one flush query bounded
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private final SupportRepository supportRepository;
+    private final SupportStatsService supportStatsService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${support.stream.window:500ms}")
+    private Duration window;
+
+    @Value("${support.stream.heartbeat:30s}")
+    private Duration heartbeat;
+
+    // Clients reconnect when this runs out
+    @Value("${support.stream.timeout:30m}")
+    private Duration timeout;
+
+    private final List<SseEmitter> clients = new CopyOnWriteArrayList<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService flusher;
+    // Only touched on the flush thread
+    private String lastStats;
+    private long lastSentMillis;
+
+    @PostConstruct
+    void start() {
+        meterRegistry.gaugeCollectionSize("support.stream.clients", List.of(), clients);
+        flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("support-stream-"));
+        flusher.scheduleWithFixedDelay(this::flush, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+        clients.forEach(SseEmitter::complete);
+    }
+
+    /**
+     * Opens a stream for one dashboard. The current counts are sent straight away;
+     * after that only changes.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> clients.remove(emitter));
+        emitter.onTimeout(() -> clients.remove(emitter));
+        emitter.onError(e -> clients.remove(emitter));
+        try {
+            emitter.send(SseEmitter.event().name("stats").data(toJson(supportStatsService.getStats()),
+                MediaType.APPLICATION_JSON));
+            clients.add(emitter);
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTicketEvent(SupportTicketEvent event) {
+        changed.add(event.getTicketId());
+    }
+
+    private void flush() {
+        try {
+            List<Long> ids = drainChanged();
+            if (clients.isEmpty()) {
+                return;
+            }
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                List<SupportDashboardRow> rows = supportRepository.findDashboardRowsByIds(
+                    ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_QUERY)));
+                broadcast("tickets", toJson(rows));
+            }
+            String stats = toJson(supportStatsService.getStats());
+            if (!stats.equals(lastStats)) {
+                broadcast("stats", stats);
+                lastStats = stats;
+            }
+            if (System.currentTimeMillis() - lastSentMillis >= heartbeat.toMillis()) {
+                // Finds dashboards that went away without closing the connection
+                broadcast(null, null);
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the fixed-delay schedule
+            logger.error("Support stream flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<Long> drainChanged() {
+        List<Long> ids = new ArrayList<>();
+        for (Long id : changed) {
+            if (changed.remove(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private void broadcast(String name, String json) {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = (name == null
+            ? SseEmitter.event().comment("heartbeat")
+            : SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON)).build();
+        for (SseEmitter client : clients) {
+            try {
+                client.send(event);
+            } catch (IOException | IllegalStateException e) {
+                clients.remove(client);
+                client.completeWithError(e);
+            }
+        }
+        lastSentMillis = System.currentTimeMillis();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise support stream payload", e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.irctc.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.Exception.ResourceNotFoundException;
+import com.irctc.Exception.ServiceBusyException;
+import com.irctc.dto.BookingResponseDTO;
+import com.irctc.repository.ArchivedBookingRepository;
+import com.irctc.repository.BookingRepository;
+import com.irctc.service.fare.FareEngine;
+import com.irctc.service.ticket.TicketRenderer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Server-rendered e-tickets. A ticket is stored as {@code <pnr>-<hash>.png}, where the
+ * hash covers the booking data and the layout version, so a stored file is reused until
+ * the booking changes. Rendering runs on a small bounded pool, and concurrent requests
+ * for the same ticket share one render.
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketService {
+    private static final Logger logger = LoggerFactory.getLogger(TicketService.class);
+
+    // PNRs become file names, so nothing but letters, digits and dashes
+    private static final Pattern SAFE_PNR = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    private final BookingRepository bookingRepo;
+    private final ArchivedBookingRepository archivedBookingRepo;
+    private final BookingArchiveService bookingArchiveService;
+    private final FareEngine fareEngine;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ticket.cache.dir:${java.io.tmpdir}/irctc-tickets}")
+    private Path cacheDir;
+
+    @Value("${ticket.cache.max-age-days:30}")
+    private int maxAgeDays;
+
+    @Value("${ticket.render.workers:2}")
+    private int workers;
+
+    @Value("${ticket.render.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${ticket.render.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private final TicketRenderer renderer = new TicketRenderer();
+    private final Map<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor renderPool;
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(cacheDir);
+        renderPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ticket-render-"));
+        logger.info("Ticket cache at {}", cacheDir);
+    }
+
+    @PreDestroy
+    void stop() {
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * Returns the ticket PNG for a PNR, rendering it only if the booking changed since
+     * it was last stored.
+     */
+    public Path getTicket(String pnr) {
+        if (pnr == null || !SAFE_PNR.matcher(pnr).matches()) {
+            throw new IllegalArgumentException("Invalid PNR: " + pnr);
+        }
+        BookingResponseDTO booking = loadBooking(pnr);
+        Path file = cacheDir.resolve(pnr + "-" + version(booking) + ".png");
+        if (Files.exists(file)) {
+            meterRegistry.counter("ticket.cache", "result", "hit").increment();
+            touch(file);
+            return file;
+        }
+        meterRegistry.counter("ticket.cache", "result", "miss").increment();
+
+        CompletableFuture<Path> render = startRender(booking, file);
+        try {
+            return render.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceBusyException("Ticket rendering timed out after " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while rendering ticket", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Ticket rendering failed for PNR " + pnr, e.getCause());
+        }
+    }
+
+    private CompletableFuture<Path> startRender(BookingResponseDTO booking, Path file) {
+        CompletableFuture<Path> render;
+        try {
+            render = inFlight.computeIfAbsent(file,
+                key -> CompletableFuture.supplyAsync(() -> renderAndStore(booking, key), renderPool));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Ticket rendering is busy, please retry shortly");
+        }
+        render.whenComplete((path, error) -> inFlight.remove(file, render));
+        return render;
+    }
+
+    private BookingResponseDTO loadBooking(String pnr) {
+        return transactionTemplate.execute(status -> bookingRepo.findDetailsByPnr(pnr)
+            .map(booking -> BookingResponseDTO.fromEntity(booking, fareEngine.quote(booking)))
+            .or(() -> archivedBookingRepo.findByPnr(pnr)
+                .map(archived -> bookingArchiveService.readSnapshot(archived).getBooking()))
+            .orElseThrow(() -> new ResourceNotFoundException("Booking not found with PNR: " + pnr)));
+    }
+
+    private String version(BookingResponseDTO booking) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(("layout-" + TicketRenderer.LAYOUT_VERSION).getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(booking));
+            // 16 bytes are plenty to tell versions of one booking apart
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash ticket for PNR " + booking.getPnr(), e);
+        }
+    }
+
+    private Path renderAndStore(BookingResponseDTO booking, Path file) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            byte[] png = renderer.render(booking);
+            // Write aside and move into place so readers never see a partial file
+            Path tmp = Files.createTempFile(cacheDir, booking.getPnr() + "-", ".tmp");
+            Files.write(tmp, png);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            deleteOtherVersions(booking.getPnr(), file);
+            logger.debug("Rendered ticket {} ({} bytes)", file.getFileName(), png.length);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store ticket for PNR " + booking.getPnr(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("ticket.render"));
+        }
+    }
+
+    private void deleteOtherVersions(String pnr, Path current) throws IOException {
+        try (DirectoryStream<Path> versions = Files.newDirectoryStream(cacheDir, pnr + "-*.png")) {
+            for (Path version : versions) {
+                // Same length keeps a longer PNR sharing this prefix out of it
+                if (!version.equals(current)
+                        && version.getFileName().toString().length() == current.getFileName().toString().length()) {
+                    Files.deleteIfExists(version);
+                }
+            }
+        }
+    }
+
+    // Keeps a ticket that is still being served out of the pruning
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Could not touch {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops tickets nobody has asked for in a while; they are rendered again on demand.
+     */
+    @Scheduled(cron = "${ticket.cache.prune-cron:0 45 3 * * *}")
+    public void pruneCache() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(maxAgeDays));
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, "*.png")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not prune ticket cache {}: {}", cacheDir, e.getMessage());
+        }
+        logger.info("Pruned {} cached tickets older than {} days", deleted, maxAgeDays);
+    }
+}
@@ -0,0 +1,221 @@
+package com.irctc.service;
+
+import com.irctc.config.JwtUtil;
+import com.irctc.model.RevokedToken;
+import com.irctc.repository.RevokedTokenRepository;
+import com.irctc.service.auth.BloomFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revokes JWTs, one at a time by jti or all of a user's at once, and answers on every
+ * request whether a token has been revoked.
+ *
+ * <p>The check runs in memory. A Bloom filter over the revoked jtis rules out almost
+ * every live token without touching the exact set, and a user's cut-off is only looked
+ * up once any user has one. Revocations are written to {@code revoked_tokens}, which is
+ * loaded at startup, polled for rows written by other instances, and pruned once the
+ * tokens the rows cover have expired anyway. The poll goes by {@code revoked_at} and
+ * looks back over an overlap window, since ids are handed out before commit and a row
+ * can become visible after one with a higher id was already read.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.token.validity:86400000}")
+    private long tokenValidityMillis;
+
+    // Size of the Bloom filter; it is rebuilt larger if more tokens are revoked than this
+    @Value("${jwt.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // How far back each poll looks past the previous one, to catch rows committed late
+    // or stamped by an instance whose clock is behind
+    @Value("${jwt.revocation.sync-overlap-ms:60000}")
+    private long syncOverlapMillis;
+
+    // jti -> expiry of the token, epoch millis
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // user id -> tokens issued at or before this second are revoked
+    private final Map<Long, Long> userCutoffs = new ConcurrentHashMap<>();
+    // e-mail -> the same cut-off, for tokens issued before they carried a uid
+    private final Map<String, Long> subjectCutoffs = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloom;
+    private int bloomCapacity;
+    // When the previous poll started; only touched by sync(), which the scheduler
+    // never runs concurrently
+    private LocalDateTime lastSyncAt;
+
+    private Counter revokedByToken;
+    private Counter revokedByUser;
+    private Counter bloomFalsePositives;
+
+    @PostConstruct
+    void start() {
+        revokedByToken = meterRegistry.counter("jwt.revocation.rejected", "reason", "token");
+        revokedByUser = meterRegistry.counter("jwt.revocation.rejected", "reason", "user");
+        bloomFalsePositives = meterRegistry.counter("jwt.revocation.bloom.false_positives");
+        meterRegistry.gaugeMapSize("jwt.revocation.tokens", List.of(), revokedTokens);
+        meterRegistry.gaugeMapSize("jwt.revocation.users", List.of(), userCutoffs);
+        rebuildBloom();
+        sync();
+    }
+
+    /**
+     * Whether the verified token has been revoked. Allocation-free for a token that
+     * was not revoked while no user-wide revocation is in force.
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && bloom.mightContain(jti)) {
+            if (revokedTokens.containsKey(jti)) {
+                revokedByToken.increment();
+                return true;
+            }
+            bloomFalsePositives.increment();
+        }
+        if (!userCutoffs.isEmpty()) {
+            Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+            String subject = claims.getSubject();
+            Long cutoff = userId != null ? userCutoffs.get(userId)
+                : subject != null ? subjectCutoffs.get(subject) : null;
+            Date issuedAt = cutoff != null ? claims.getIssuedAt() : null;
+            if (issuedAt != null && issuedAt.getTime() / 1000 <= cutoff) {
+                revokedByUser.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Revokes one token. It is rejected on this instance as soon as this returns, and on
+     * the others from their next sync.
+     */
+    public void revokeToken(String jti, Long userId, Date expiresAt) {
+        long expiresMillis = expiresAt != null ? expiresAt.getTime() : System.currentTimeMillis() + tokenValidityMillis;
+        RevokedToken row = new RevokedToken();
+        row.setJti(jti);
+        row.setUserId(userId);
+        row.setRevokedAt(LocalDateTime.now());
+        row.setExpiresAt(toLocal(expiresMillis));
+        revokedTokenRepository.save(row);
+        remember(jti, expiresMillis);
+        logger.info("Revoked token {} of user {}", jti, userId);
+    }
+
+    /**
+     * Revokes every token the user holds now, including the one making the request.
+     * Tokens issued within the same second are revoked too.
+     */
+    public void revokeAllForUser(Long userId, String email) {
+        LocalDateTime now = LocalDateTime.now();
+        RevokedToken row = new RevokedToken();
+        row.setUserId(userId);
+        row.setSubject(email);
+        row.setRevokedAt(now);
+        row.setExpiresAt(now.plusNanos(tokenValidityMillis * 1_000_000));
+        revokedTokenRepository.save(row);
+        rememberCutoff(row);
+        logger.info("Revoked all tokens of user {}", userId);
+    }
+
+    /**
+     * Picks up revocations made on other instances and forgets expired ones. Rows inside
+     * the overlap window are read again on the next poll, which is harmless since
+     * remembering a revocation twice changes nothing. The Bloom filter can't drop
+     * entries, so it is rebuilt whenever some have expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}",
+               initialDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> rows = lastSyncAt == null
+            ? revokedTokenRepository.findByExpiresAtAfter(now)
+            : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                lastSyncAt.minusNanos(syncOverlapMillis * 1_000_000), now);
+        for (RevokedToken row : rows) {
+            if (row.getJti() != null) {
+                remember(row.getJti(), toEpochMillis(row.getExpiresAt()));
+            } else if (row.getUserId() != null) {
+                rememberCutoff(row);
+            }
+        }
+        lastSyncAt = now;
+
+        long nowMillis = System.currentTimeMillis();
+        boolean expired = revokedTokens.values().removeIf(expiresAt -> expiresAt < nowMillis);
+        userCutoffs.values().removeIf(cutoff -> cutoff * 1000 + tokenValidityMillis < nowMillis);
+        subjectCutoffs.values().removeIf(cutoff -> cutoff * 1000 + tokenValidityMillis < nowMillis);
+        if (expired || revokedTokens.size() > bloomCapacity) {
+            rebuildBloom();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval-ms:3600000}",
+               initialDelayString = "${jwt.revocation.prune-interval-ms:3600000}")
+    public void prune() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Pruned {} expired token revocations", deleted);
+        }
+    }
+
+    // Synchronised with the rebuild so no revocation lands in a filter being replaced
+    private synchronized void remember(String jti, long expiresMillis) {
+        revokedTokens.put(jti, expiresMillis);
+        bloom.put(jti);
+    }
+
+    private void rememberCutoff(RevokedToken row) {
+        long cutoff = toEpochSecond(row.getRevokedAt());
+        userCutoffs.merge(row.getUserId(), cutoff, Math::max);
+        if (row.getSubject() != null) {
+            subjectCutoffs.merge(row.getSubject(), cutoff, Math::max);
+        }
+    }
+
+    private synchronized void rebuildBloom() {
+        bloomCapacity = Math.max(expectedTokens, revokedTokens.size() * 2);
+        BloomFilter fresh = new BloomFilter(bloomCapacity, falsePositiveRate);
+        revokedTokens.keySet().forEach(fresh::put);
+        bloom = fresh;
+        logger.debug("Rebuilt token revocation filter: {} tokens", revokedTokens.size());
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -8,6 +8,7 @@ import com.irctc.model.Train;
 import com.irctc.repository.CoachRepository;
 import com.irctc.repository.SeatRepository;
 import com.irctc.repository.TrainRepository;
+import com.irctc.service.fare.FareEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -25,6 +26,7 @@ public class TrainService {
     private final TrainRepository trainRepository;
     private final CoachRepository coachRepository;
     private final SeatRepository seatRepository;
+    private final FareEngine fareEngine;
 
     private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
 
@@ -162,6 +164,7 @@ public class TrainService {
         Train train = trainRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Train not found with id: " + id));
         trainRepository.delete(train);
+        fareEngine.refresh(id);
     }
 
     private void updateIfNotBlank(String newValue, Consumer<String> setter) {
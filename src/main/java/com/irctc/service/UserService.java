@@ -1,23 +1,85 @@
 package com.irctc.service;
 
+import com.irctc.Exception.ServiceBusyException;
 import com.irctc.Exception.UserNotFoundException;
+import com.irctc.config.AuthenticatedUser;
+import com.irctc.config.CacheConfig;
 import com.irctc.model.Role;
 import com.irctc.model.User;
 import com.irctc.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final SupportAssignmentService supportAssignmentService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    // Writes that follow a hash. They are kept off the hashing pool, which only ever
+    // runs BCrypt; no more arrive than the pool hashes, so the queue needs no bound.
+    @Value("${auth.account.writers:2}")
+    private int writers;
+
+    private ExecutorService accountWriter;
+
+    @PostConstruct
+    void start() {
+        accountWriter = Executors.newFixedThreadPool(writers, new CustomizableThreadFactory("account-write-"));
+    }
+
+    @PreDestroy
+    void stop() {
+        accountWriter.shutdown();
+    }
+
+    /**
+     * Registers the user once their password is hashed on the hashing pool. A
+     * registration that loses a race for the same email, username or phone number is
+     * rejected like one that lost it to an earlier sign-up.
+     *
+     * @throws ServiceBusyException if the hashing pool is saturated
+     */
+    public CompletableFuture<User> register(User user) {
+        rejectIfTaken(user);
+
+        user.setRole(user.getRole() == null ? Role.USER : user.getRole());
+        return passwordHashingService.encode(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            logger.info("Registering user: {}", user.getUsername());
+            User saved;
+            try {
+                saved = transactionTemplate.execute(tx -> userRepository.save(user));
+            } catch (DataIntegrityViolationException e) {
+                rejectIfTaken(user);
+                throw new IllegalArgumentException("Email, username or phone number already in use");
+            }
+            supportAssignmentService.registerAdmin(saved);
+            return saved;
+        }, accountWriter);
+    }
 
-    public User register(User user) {
+    private void rejectIfTaken(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
             logger.warn("Registration failed: Email already in use: {}", user.getEmail());
             throw new IllegalArgumentException("Email already in use");
@@ -30,21 +92,70 @@ public class UserService {
             logger.warn("Registration failed: Phone number already in use: {}", user.getPhoneNumber());
             throw new IllegalArgumentException("Phone number already in use");
         }
-
-        user.setRole(user.getRole() == null ? Role.USER : user.getRole());
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        logger.info("Registering user: {}", user.getUsername());
-        return userRepository.save(user);
     }
 
-    public User login(String email, String password) {
+    /**
+     * Checks the password on the hashing pool. A hash made with an outdated cost is
+     * replaced in the background once the password is known to be right.
+     *
+     * @throws ServiceBusyException if the hashing pool is saturated
+     */
+    public CompletableFuture<User> login(String email, String password) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("Invalid email or password"));
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            logger.warn("Login failed for email: {}", email);
-            throw new UserNotFoundException("Invalid email or password");
+        return passwordHashingService.matches(password, user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                logger.warn("Login failed for email: {}", email);
+                throw new UserNotFoundException("Invalid email or password");
+            }
+            logger.info("User logged in: {}", user.getUsername());
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                rehash(user.getId(), password);
+            }
+            return user;
+        });
+    }
+
+    private void rehash(Long userId, String password) {
+        try {
+            passwordHashingService.encode(password).thenAcceptAsync(hash ->
+                transactionTemplate.executeWithoutResult(tx -> userRepository.findById(userId).ifPresent(user -> {
+                    user.setPassword(hash);
+                    userRepository.save(user);
+                    meterRegistry.counter("auth.password.rehashed").increment();
+                    logger.info("Rehashed password of user {} with the current cost", userId);
+                })), accountWriter
+            ).exceptionally(e -> {
+                logger.warn("Could not rehash password of user {}: {}", userId, e.getMessage());
+                return null;
+            });
+        } catch (ServiceBusyException e) {
+            // The next login tries again
+            logger.debug("Skipped rehash of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * The caller of the current request, straight from the JWT. Only tokens issued
+     * before the user id was embedded cost a lookup.
+     */
+    public AuthenticatedUser currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            return user;
         }
-        logger.info("User logged in: {}", user.getUsername());
-        return user;
+        String email = auth != null ? auth.getName() : null;
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole().name());
+    }
+
+    /**
+     * The full user, cached for a few minutes. The result is shared, so treat it as read-only.
+     */
+    @Cacheable(CacheConfig.USERS_CACHE)
+    public User getUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + id));
     }
 }
\ No newline at end of file
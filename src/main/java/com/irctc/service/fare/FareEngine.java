@@ -0,0 +1,141 @@
+package com.irctc.service.fare;
+
+import com.irctc.dto.BookingPassengerRow;
+import com.irctc.dto.BookingSeatRow;
+import com.irctc.dto.CoachFareRow;
+import com.irctc.dto.FareQuote;
+import com.irctc.model.Booking;
+import com.irctc.model.Passenger;
+import com.irctc.model.Seat;
+import com.irctc.repository.CoachRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prices bookings from per-train {@link FareTable}s. Tables are loaded on first use and
+ * rebuilt whenever an admin change to the train's coaches commits, so pricing a booking
+ * is a map lookup per passenger. All amounts are in paise.
+ */
+@Service
+@RequiredArgsConstructor
+public class FareEngine {
+    private static final Logger logger = LoggerFactory.getLogger(FareEngine.class);
+
+    /** Currency of every quote, as Stripe spells it. */
+    public static final String CURRENCY = "inr";
+
+    private final CoachRepository coachRepo;
+
+    // Per booking, in rupees
+    @Value("${fare.reservation-charge:60}")
+    private long reservationCharge;
+
+    @Value("${fare.gst-percent:5}")
+    private int gstPercent;
+
+    @Value("${fare.child.max-age:11}")
+    private int childMaxAge;
+
+    @Value("${fare.child.concession-percent:0}")
+    private int childConcessionPercent;
+
+    private final Map<Long, FareTable> tables = new ConcurrentHashMap<>();
+
+    public FareTable table(Long trainId) {
+        if (trainId == null) {
+            return FareTable.EMPTY;
+        }
+        // Trains without coaches are not cached; load returns null for them
+        FareTable table = tables.computeIfAbsent(trainId, this::load);
+        return table != null ? table : FareTable.EMPTY;
+    }
+
+    /**
+     * Rebuilds the train's table once the current transaction commits, or right away
+     * outside a transaction.
+     */
+    public void refresh(Long trainId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild(trainId);
+                }
+            });
+        } else {
+            rebuild(trainId);
+        }
+    }
+
+    private void rebuild(Long trainId) {
+        // compute() is serialised with a concurrent computeIfAbsent() for the same train,
+        // so a table loaded before the commit can never replace the rebuilt one
+        tables.compute(trainId, (id, old) -> load(id));
+        logger.info("Rebuilt fare table for train {}", trainId);
+    }
+
+    private FareTable load(Long trainId) {
+        List<CoachFareRow> rows = coachRepo.findFareRowsByTrainId(trainId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<Long, FareTable.CoachFare> byCoachId = new HashMap<>();
+        for (CoachFareRow row : rows) {
+            long adult = Math.round(row.getFare() * 100);
+            long child = adult - adult * childConcessionPercent / 100;
+            byCoachId.put(row.getCoachId(), new FareTable.CoachFare(row.getCoachId(), row.getCoachNumber(), adult, child));
+        }
+        return new FareTable(byCoachId);
+    }
+
+    /**
+     * Prices a booking in the given coach. Passengers without a known age pay the adult fare.
+     */
+    public FareQuote quote(Long trainId, Long coachId, Collection<Integer> passengerAges) {
+        FareTable.CoachFare coach = table(trainId).forCoach(coachId);
+        long perPassenger = coach != null ? coach.getAdultFare() : 0;
+        long base = 0;
+        if (coach != null) {
+            for (Integer age : passengerAges) {
+                base += age != null && age <= childMaxAge ? coach.getChildFare() : coach.getAdultFare();
+            }
+        }
+        long reservation = reservationCharge * 100;
+        long taxable = base + reservation;
+        // GST is rounded up to the whole rupee
+        long gst = Math.ceilDiv(taxable * gstPercent, 100 * 100) * 100;
+        return new FareQuote(perPassenger, base, reservation, gst, taxable + gst);
+    }
+
+    /**
+     * Prices a booking from its projected history rows.
+     */
+    public FareQuote quote(Long trainId, List<BookingSeatRow> seats, List<BookingPassengerRow> passengers) {
+        return quote(trainId, seats.isEmpty() ? null : seats.get(0).getCoachId(),
+            passengers.stream().map(BookingPassengerRow::getAge).toList());
+    }
+
+    public FareQuote quote(Booking booking) {
+        Long trainId = booking.getTrain() != null ? booking.getTrain().getId() : null;
+        Long coachId = null;
+        if (booking.getSeats() != null && !booking.getSeats().isEmpty()) {
+            Seat firstSeat = booking.getSeats().get(0);
+            coachId = firstSeat.getCoach() != null ? firstSeat.getCoach().getId() : null;
+        }
+        List<Integer> ages = booking.getPassengers() != null
+            ? booking.getPassengers().stream().map(Passenger::getAge).toList()
+            : List.of();
+        return quote(trainId, coachId, ages);
+    }
+}
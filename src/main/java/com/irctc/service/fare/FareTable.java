@@ -0,0 +1,36 @@
+package com.irctc.service.fare;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Fares of one train, precomputed per coach in paise. Never modified: when the train's
+ * coaches change the whole table is rebuilt and swapped in.
+ */
+public final class FareTable {
+    static final FareTable EMPTY = new FareTable(Map.of());
+
+    private final Map<Long, CoachFare> byCoachId;
+
+    FareTable(Map<Long, CoachFare> byCoachId) {
+        this.byCoachId = Map.copyOf(byCoachId);
+    }
+
+    /**
+     * @return the coach's fares, or null if the coach is not part of this train
+     */
+    public CoachFare forCoach(Long coachId) {
+        return coachId != null ? byCoachId.get(coachId) : null;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class CoachFare {
+        private final Long coachId;
+        private final String coachNumber;
+        private final long adultFare;
+        private final long childFare;
+    }
+}
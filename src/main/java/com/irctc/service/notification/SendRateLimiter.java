@@ -0,0 +1,35 @@
+package com.irctc.service.notification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces sends evenly at a fixed rate across all threads. Each caller reserves the
+ * next free slot and sleeps until it comes up, so bursts are smoothed rather than
+ * rejected.
+ */
+public class SendRateLimiter {
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    public SendRateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        // An idle limiter does not bank permits for a later burst
+        long slot = Math.max(nextFreeNanos, now);
+        nextFreeNanos = slot + intervalNanos;
+        return slot - now;
+    }
+}
@@ -0,0 +1,139 @@
+package com.irctc.service.notification;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed number of authenticated SMTP connections shared by the bulk sender. A
+ * connection is opened on first use, reused for many messages and reopened after
+ * {@code maxMessagesPerConnection}, since most servers cap messages per session.
+ */
+public class SmtpTransportPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final Session session;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessagesPerConnection;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledTransport> idle;
+    private final LongAdder connectionsOpened = new LongAdder();
+
+    public SmtpTransportPool(Session session, String protocol, String host, int port, String username,
+                             String password, int size, int maxMessagesPerConnection) {
+        this.session = session;
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.permits = new Semaphore(size);
+        this.idle = new ArrayBlockingQueue<>(size);
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * SMTP connections opened so far, including reconnects.
+     */
+    public long connectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    /**
+     * Takes a connected transport, waiting for one to be released if all are in use.
+     */
+    public PooledTransport borrow() throws MessagingException, InterruptedException {
+        permits.acquire();
+        try {
+            PooledTransport transport = idle.poll();
+            if (transport == null) {
+                transport = new PooledTransport(session.getTransport(protocol));
+            }
+            if (!transport.isConnected()) {
+                transport.reconnect();
+            }
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Hands a transport back. A broken one is closed so the next borrower reconnects.
+     */
+    public void release(PooledTransport transport, boolean broken) {
+        if (broken) {
+            transport.close();
+        }
+        idle.offer(transport);
+        permits.release();
+    }
+
+    @Override
+    public void close() {
+        PooledTransport transport;
+        while ((transport = idle.poll()) != null) {
+            transport.close();
+        }
+    }
+
+    /**
+     * One SMTP connection and how many messages it has carried since it was opened.
+     */
+    public final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public void send(MimeMessage message) throws MessagingException {
+            if (sent >= maxMessagesPerConnection) {
+                reconnect();
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+        }
+
+        private boolean isConnected() {
+            return transport.isConnected();
+        }
+
+        private void reconnect() throws MessagingException {
+            close();
+            transport.connect(host, port, username, password);
+            connectionsOpened.increment();
+            sent = 0;
+            logger.debug("Opened SMTP connection to {}:{}", host, port);
+        }
+
+        private void close() {
+            try {
+                if (transport.isConnected()) {
+                    transport.close();
+                }
+            } catch (MessagingException e) {
+                logger.debug("Could not close SMTP connection cleanly: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.irctc.service.payment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.Exception.PaymentGatewayUnavailableException;
+import com.irctc.dto.CheckoutRequest;
+import com.irctc.dto.CheckoutSessionResult;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for Stripe with configurable latency and failure rate, for
+ * load-testing checkout without network access. The returned URL is the success URL
+ * with the fake session id appended, as Stripe would redirect after payment.
+ *
+ * <p>Every session is paid straight away: after {@code webhookDelayMs} a signed
+ * {@code checkout.session.completed} event is built, verified the way the webhook
+ * endpoint verifies Stripe's, and handed to the webhook sink, so the payment goes
+ * through the same inbox a real one would.
+ */
+public class FakePaymentGateway implements PaymentGateway {
+    private static final Logger logger = LoggerFactory.getLogger(FakePaymentGateway.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+    private final String webhookSecret;
+    private final long webhookDelayMs;
+    private final Consumer<Event> webhookSink;
+    private final ScheduledExecutorService webhookScheduler;
+
+    /**
+     * @param webhookSecret secret to sign the completion events with
+     * @param webhookSink receives the completion event of every session, or null for none
+     */
+    public FakePaymentGateway(long latencyMs, long jitterMs, double errorRate,
+                              String webhookSecret, long webhookDelayMs, Consumer<Event> webhookSink) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        this.webhookSecret = webhookSecret;
+        this.webhookDelayMs = webhookDelayMs;
+        this.webhookSink = webhookSink;
+        if (webhookSink != null && webhookDelayMs > 0) {
+            CustomizableThreadFactory threads = new CustomizableThreadFactory("fake-stripe-webhook-");
+            threads.setDaemon(true);
+            this.webhookScheduler = Executors.newSingleThreadScheduledExecutor(threads);
+        } else {
+            this.webhookScheduler = null;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "fake";
+    }
+
+    @Override
+    public CheckoutSessionResult createCheckoutSession(CheckoutRequest request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayUnavailableException("Fake checkout interrupted");
+        }
+        if (random.nextDouble() < errorRate) {
+            throw new PaymentGatewayUnavailableException("Fake provider error");
+        }
+
+        String sessionId = "cs_fake_" + UUID.randomUUID().toString().replace("-", "");
+        String successUrl = request.getSuccessUrl() != null ? request.getSuccessUrl() : "";
+        String url = successUrl + (successUrl.contains("?") ? "&" : "?") + "session_id=" + sessionId;
+        complete(sessionId, request);
+        return new CheckoutSessionResult(sessionId, url);
+    }
+
+    private void complete(String sessionId, CheckoutRequest request) {
+        if (webhookSink == null) {
+            return;
+        }
+        Runnable deliver = () -> {
+            try {
+                webhookSink.accept(completedEvent(sessionId, request));
+            } catch (RuntimeException e) {
+                logger.warn("Fake checkout {} could not deliver its webhook: {}", sessionId, e.getMessage());
+            }
+        };
+        if (webhookScheduler == null) {
+            deliver.run();
+        } else {
+            webhookScheduler.schedule(deliver, webhookDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    Event completedEvent(String sessionId, CheckoutRequest request) {
+        Map<String, Object> session = new LinkedHashMap<>();
+        session.put("id", sessionId);
+        session.put("object", "checkout.session");
+        session.put("mode", "payment");
+        session.put("status", "complete");
+        session.put("payment_status", "paid");
+        session.put("amount_total", request.getAmount());
+        session.put("currency", request.getCurrency());
+        session.put("metadata", request.getMetadata() != null ? request.getMetadata() : Map.of());
+
+        long now = Webhook.Util.getTimeNow();
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", "evt_fake_" + UUID.randomUUID().toString().replace("-", ""));
+        event.put("object", "event");
+        event.put("api_version", "2023-10-16");
+        event.put("created", now);
+        event.put("livemode", false);
+        event.put("type", "checkout.session.completed");
+        event.put("data", Map.of("object", session));
+
+        try {
+            String payload = MAPPER.writeValueAsString(event);
+            String signature = "t=" + now + ",v1=" + Webhook.Util.computeHmacSha256(webhookSecret, now + "." + payload);
+            return Webhook.constructEvent(payload, signature, webhookSecret);
+        } catch (JsonProcessingException | GeneralSecurityException | SignatureVerificationException e) {
+            throw new IllegalStateException("Could not build fake webhook for session " + sessionId, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.irctc.service.payment;
+
+import com.irctc.dto.CheckoutRequest;
+import com.irctc.dto.CheckoutSessionResult;
+
+/**
+ * Payment provider used for checkout. Implementations throw
+ * {@link com.irctc.Exception.PaymentGatewayUnavailableException} when the provider is
+ * down or overloaded and {@link com.irctc.Exception.PaymentGatewayException} when it
+ * rejects the request.
+ */
+public interface PaymentGateway {
+
+    /** Short name used in logs and metric tags. */
+    String name();
+
+    CheckoutSessionResult createCheckoutSession(CheckoutRequest request);
+}
@@ -0,0 +1,130 @@
+package com.irctc.service.payment;
+
+import com.irctc.Exception.PaymentGatewayException;
+import com.irctc.Exception.PaymentGatewayUnavailableException;
+import com.irctc.dto.CheckoutRequest;
+import com.irctc.dto.CheckoutSessionResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Wraps a {@link PaymentGateway} so a slow or failing provider cannot tie up request
+ * threads: calls run on a bounded pool of their own (bulkhead), the caller waits at most
+ * {@code callTimeout}, and repeated provider failures open a {@link CircuitBreaker}.
+ * Every call is timed under {@code payment.gateway.calls}, tagged with its outcome.
+ */
+public class ResilientPaymentGateway implements PaymentGateway {
+    private static final Logger logger = LoggerFactory.getLogger(ResilientPaymentGateway.class);
+
+    private final PaymentGateway delegate;
+    private final ThreadPoolExecutor bulkhead;
+    private final long callTimeoutMs;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+
+    public ResilientPaymentGateway(PaymentGateway delegate, int maxConcurrentCalls, int queueCapacity,
+                                   Duration callTimeout, CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.bulkhead = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("payment-gateway-"));
+        this.callTimeoutMs = callTimeout.toMillis();
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("payment.gateway.bulkhead.active", bulkhead, ThreadPoolExecutor::getActiveCount)
+            .tag("gateway", delegate.name()).register(meterRegistry);
+        Gauge.builder("payment.gateway.bulkhead.queued", bulkhead, pool -> pool.getQueue().size())
+            .tag("gateway", delegate.name()).register(meterRegistry);
+        Gauge.builder("payment.gateway.circuit.open", circuitBreaker, breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+            .tag("gateway", delegate.name()).register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public CheckoutSessionResult createCheckoutSession(CheckoutRequest request) {
+        return call("create_checkout_session", () -> delegate.createCheckoutSession(request));
+    }
+
+    private <T> T call(String operation, Callable<T> action) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                outcome = "circuit_open";
+                throw new PaymentGatewayUnavailableException("Payment provider is unavailable, please retry shortly");
+            }
+
+            Future<T> future;
+            try {
+                future = bulkhead.submit(action);
+            } catch (RejectedExecutionException e) {
+                circuitBreaker.onIgnored();
+                outcome = "rejected";
+                throw new PaymentGatewayUnavailableException("Payment provider is busy, please retry shortly");
+            }
+
+            try {
+                T result = future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+                circuitBreaker.onSuccess();
+                outcome = "success";
+                return result;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                circuitBreaker.onFailure();
+                outcome = "timeout";
+                throw new PaymentGatewayUnavailableException("Payment provider timed out after " + callTimeoutMs + " ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                circuitBreaker.onIgnored();
+                throw new PaymentGatewayUnavailableException("Interrupted while waiting for the payment provider");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof PaymentGatewayUnavailableException unavailable) {
+                    circuitBreaker.onFailure();
+                    throw unavailable;
+                }
+                // The provider answered, it just refused this request
+                circuitBreaker.onSuccess();
+                if (cause instanceof PaymentGatewayException rejected) {
+                    throw rejected;
+                }
+                throw new PaymentGatewayException("Payment provider call failed: " + cause.getMessage(), cause);
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("payment.gateway.calls")
+                .tag("gateway", delegate.name())
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+            if (!"success".equals(outcome)) {
+                logger.warn("{} {} ended with {} after {} ms", delegate.name(), operation, outcome,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    public void shutdown() {
+        bulkhead.shutdownNow();
+    }
+}
@@ -0,0 +1,67 @@
+package com.irctc.service.payment;
+
+import com.irctc.Exception.PaymentGatewayException;
+import com.irctc.Exception.PaymentGatewayUnavailableException;
+import com.irctc.dto.CheckoutRequest;
+import com.irctc.dto.CheckoutSessionResult;
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.param.checkout.SessionCreateParams;
+
+/**
+ * Stripe Checkout through one shared {@link StripeClient}, so connections to Stripe
+ * are reused from the JDK keep-alive cache instead of being opened per call.
+ */
+public class StripePaymentGateway implements PaymentGateway {
+
+    private final StripeClient client;
+
+    public StripePaymentGateway(StripeClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public String name() {
+        return "stripe";
+    }
+
+    @Override
+    public CheckoutSessionResult createCheckoutSession(CheckoutRequest request) {
+        SessionCreateParams.Builder params = SessionCreateParams.builder()
+            .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
+            .setMode(SessionCreateParams.Mode.PAYMENT)
+            .setSuccessUrl(request.getSuccessUrl())
+            .setCancelUrl(request.getCancelUrl())
+            .addLineItem(
+                SessionCreateParams.LineItem.builder()
+                    .setQuantity(1L)
+                    .setPriceData(
+                        SessionCreateParams.LineItem.PriceData.builder()
+                            .setCurrency(request.getCurrency())
+                            .setUnitAmount(request.getAmount())
+                            .setProductData(
+                                SessionCreateParams.LineItem.PriceData.ProductData.builder()
+                                    .setName(request.getDescription())
+                                    .build())
+                            .build())
+                    .build());
+        if (request.getMetadata() != null) {
+            params.putAllMetadata(request.getMetadata());
+        }
+
+        try {
+            Session session = client.checkout().sessions().create(params.build());
+            return new CheckoutSessionResult(session.getId(), session.getUrl());
+        } catch (ApiConnectionException | RateLimitException e) {
+            throw new PaymentGatewayUnavailableException("Stripe is unreachable: " + e.getMessage(), e);
+        } catch (StripeException e) {
+            if (e.getStatusCode() != null && e.getStatusCode() >= 500) {
+                throw new PaymentGatewayUnavailableException("Stripe error: " + e.getMessage(), e);
+            }
+            throw new PaymentGatewayException("Stripe rejected the checkout: " + e.getMessage(), e);
+        }
+    }
+}
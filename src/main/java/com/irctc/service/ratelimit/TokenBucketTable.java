@@ -0,0 +1,204 @@
+package com.irctc.service.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets keyed by a non-zero long, split over lock stripes. Each stripe is an
+ * open-addressing table of two primitive arrays, so taking a token from an existing
+ * bucket allocates nothing and only contends with keys of the same stripe.
+ *
+ * <p>A bucket is stored as the single timestamp at which it will be full again (the
+ * generic cell rate algorithm): a request is allowed while that lies no further
+ * ahead than the burst window, and pushes it one emission interval further. A bucket
+ * whose timestamp has passed is full, so forgetting it changes nothing; idle buckets
+ * are dropped by {@link #evictIdle} and whenever a stripe runs out of room. A stripe
+ * that is still full of active buckets makes room by dropping the one nearest to
+ * full, so callers spreading over many keys only push out each other's buckets,
+ * never that of a key drawing hard on its limit.
+ */
+public final class TokenBucketTable {
+    private static final long EMPTY = 0L;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+    // A stripe full of active buckets would otherwise be swept again for every new key
+    private static final long INLINE_SWEEP_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int maxKeysPerStripe;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param stripes number of lock stripes, rounded up to a power of two
+     * @param maxKeys buckets kept at most; past that, active buckets are evicted
+     */
+    public TokenBucketTable(int stripes, int maxKeys) {
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = count - 1;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / count);
+    }
+
+    /**
+     * Takes a token from the key's bucket.
+     *
+     * @param intervalNanos time to earn one token: the period divided by the capacity
+     * @param burstNanos how far ahead a bucket may be drawn: the period minus one interval
+     * @return 0 if the request may go ahead, otherwise the nanos until a token is free
+     */
+    public long tryAcquire(long key, long intervalNanos, long burstNanos, long nowNanos) {
+        long hash = mix(key);
+        return stripes[(int) (hash >>> 40) & stripeMask].tryAcquire(key, (int) hash, intervalNanos, burstNanos, nowNanos);
+    }
+
+    /**
+     * Drops every bucket that has refilled completely.
+     *
+     * @return number of buckets still held
+     */
+    public int evictIdle(long nowNanos) {
+        int held = 0;
+        for (Stripe stripe : stripes) {
+            held += stripe.evictIdle(nowNanos);
+        }
+        return held;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * Active buckets dropped because their stripe was full.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    // murmur3 finaliser
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb93fe1a85ec5L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private final class Stripe {
+        private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+        private long[] fullAt = new long[INITIAL_STRIPE_CAPACITY];
+        // Written under the lock; size() reads it without, which is fine for a gauge
+        private volatile int size;
+        private long sweptAt = System.nanoTime() - INLINE_SWEEP_BACKOFF_NANOS;
+
+        synchronized long tryAcquire(long key, int hash, long intervalNanos, long burstNanos, long now) {
+            int slot = find(keys, key, hash);
+            if (keys[slot] == EMPTY) {
+                if (!makeRoom(now)) {
+                    evictNearestFull();
+                    evictions.increment();
+                }
+                slot = find(keys, key, hash);
+                keys[slot] = key;
+                fullAt[slot] = now;
+                size++;
+            }
+            long start = Math.max(fullAt[slot], now);
+            long ahead = start - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            fullAt[slot] = start + intervalNanos;
+            return 0;
+        }
+
+        synchronized int evictIdle(long now) {
+            rehash(keys.length, now);
+            return size;
+        }
+
+        // Keeps the table at most half full, first by dropping idle buckets, then by growing
+        private boolean makeRoom(long now) {
+            if ((size + 1) * 2 <= keys.length) {
+                return true;
+            }
+            if (now - sweptAt >= INLINE_SWEEP_BACKOFF_NANOS) {
+                rehash(keys.length, now);
+                if ((size + 1) * 2 <= keys.length) {
+                    return true;
+                }
+            }
+            if (size >= maxKeysPerStripe) {
+                return false;
+            }
+            rehash(keys.length * 2, now);
+            return true;
+        }
+
+        // Scans the whole stripe, but only once it holds maxKeysPerStripe active buckets
+        private void evictNearestFull() {
+            int victim = -1;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && (victim < 0 || fullAt[i] < fullAt[victim])) {
+                    victim = i;
+                }
+            }
+            remove(victim);
+        }
+
+        // Backward-shift deletion, so no probe chain is broken by the hole
+        private void remove(int slot) {
+            int mask = keys.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (keys[next] != EMPTY) {
+                int home = (int) mix(keys[next]) & mask;
+                // Move the entry back unless its home lies cyclically in (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    fullAt[hole] = fullAt[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = EMPTY;
+            size--;
+        }
+
+        private void rehash(int capacity, long now) {
+            sweptAt = now;
+            long[] newKeys = new long[capacity];
+            long[] newFullAt = new long[capacity];
+            int kept = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && fullAt[i] > now) {
+                    int slot = find(newKeys, keys[i], (int) mix(keys[i]));
+                    newKeys[slot] = keys[i];
+                    newFullAt[slot] = fullAt[i];
+                    kept++;
+                }
+            }
+            keys = newKeys;
+            fullAt = newFullAt;
+            size = kept;
+        }
+
+        // Linear probing; the table is never full, so this ends on the key or an empty slot
+        private int find(long[] table, long key, int hash) {
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            while (table[slot] != EMPTY && table[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.irctc.service.support;
+
+import com.irctc.dto.SupportAdminLoad;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-ticket load per admin, ordered so the least-loaded admin is always first.
+ * Admins with skills form a team for each of their categories; a ticket goes to the
+ * least-loaded member of its category's team, or to the least-loaded admin overall when
+ * the category has no team or every member is excluded.
+ *
+ * <p>Lock-free: each admin's load and a version live in one {@code AtomicLong}, and
+ * every team is a skip list of immutable (load, admin, version) slots. Claiming an admin
+ * is a CAS on the first slot's state; a slot whose version no longer matches is stale
+ * and is dropped when a scan meets it. Versions make every slot unique, so an update
+ * never removes the slot of a later one.
+ */
+public final class AdminLoadBoard {
+    private static final Comparator<Slot> ORDER = Comparator.<Slot>comparingInt(slot -> slot.load)
+        .thenComparingLong(slot -> slot.admin.id)
+        .thenComparingInt(slot -> slot.version);
+
+    private final Map<Long, Admin> admins = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Slot> everyone = new ConcurrentSkipListSet<>(ORDER);
+    // Fixed when the board is built, so an admin's teams never change under an update
+    private final Map<String, ConcurrentSkipListSet<Slot>> teams;
+    private final Map<String, Set<String>> skillsByUsername;
+
+    /**
+     * @param skillsByUsername categories each admin handles; admins not listed take any category
+     */
+    public AdminLoadBoard(Map<String, Set<String>> skillsByUsername) {
+        Map<String, ConcurrentSkipListSet<Slot>> byCategory = new HashMap<>();
+        Map<String, Set<String>> skills = new HashMap<>();
+        skillsByUsername.forEach((username, categories) -> {
+            Set<String> keys = new TreeSet<>();
+            for (String category : categories) {
+                keys.add(key(category));
+                byCategory.computeIfAbsent(key(category), k -> new ConcurrentSkipListSet<>(ORDER));
+            }
+            skills.put(username, keys);
+        });
+        this.teams = Map.copyOf(byCategory);
+        this.skillsByUsername = Map.copyOf(skills);
+    }
+
+    /**
+     * Adds an admin with the given open-ticket load. Does nothing if the admin is
+     * already on the board.
+     */
+    public void register(Long id, String username, int openTickets) {
+        Set<String> skills = skillsByUsername.getOrDefault(username, Set.of());
+        List<ConcurrentSkipListSet<Slot>> queues = new ArrayList<>();
+        queues.add(everyone);
+        for (String category : skills) {
+            queues.add(teams.get(category));
+        }
+        Admin admin = new Admin(id, username, skills, queues, Math.max(0, openTickets));
+        if (admins.putIfAbsent(id, admin) == null) {
+            Slot slot = admin.slot(admin.state.get());
+            for (ConcurrentSkipListSet<Slot> queue : queues) {
+                queue.add(slot);
+            }
+        }
+    }
+
+    /**
+     * Takes the least-loaded admin qualified for the category and counts one more open
+     * ticket against them.
+     *
+     * @param excludeId admin to pass over, or null
+     * @return the admin, or null if there is no admin to take
+     */
+    public Assignee claim(String category, Long excludeId) {
+        ConcurrentSkipListSet<Slot> team = teams.get(key(category));
+        Assignee assignee = team == null ? null : claimFrom(team, excludeId);
+        return assignee != null ? assignee : claimFrom(everyone, excludeId);
+    }
+
+    public void increment(Long adminId) {
+        adjust(adminId, 1);
+    }
+
+    public void decrement(Long adminId) {
+        adjust(adminId, -1);
+    }
+
+    public List<SupportAdminLoad> snapshot() {
+        List<SupportAdminLoad> loads = new ArrayList<>();
+        for (Slot slot : everyone) {
+            if (slot.isCurrent()) {
+                loads.add(new SupportAdminLoad(slot.admin.id, slot.admin.username, slot.load,
+                    List.copyOf(slot.admin.skills)));
+            }
+        }
+        return loads;
+    }
+
+    private Assignee claimFrom(ConcurrentSkipListSet<Slot> queue, Long excludeId) {
+        scan:
+        while (true) {
+            // A stale slot means that admin's current slot may sit behind the cursor, so
+            // only a scan that met none can conclude nobody is available
+            boolean sawStale = false;
+            for (Slot slot : queue) {
+                Admin admin = slot.admin;
+                long state = admin.state.get();
+                if (version(state) != slot.version) {
+                    queue.remove(slot);
+                    sawStale = true;
+                    continue;
+                }
+                if (admin.id.equals(excludeId)) {
+                    continue;
+                }
+                long next = next(state, 1);
+                if (admin.state.compareAndSet(state, next)) {
+                    admin.moved(state, next);
+                    return admin.assignee;
+                }
+                // Someone else changed this admin's load; their slot may now sort elsewhere
+                continue scan;
+            }
+            if (!sawStale) {
+                return null;
+            }
+        }
+    }
+
+    private void adjust(Long adminId, int delta) {
+        Admin admin = adminId == null ? null : admins.get(adminId);
+        if (admin == null) {
+            return;
+        }
+        while (true) {
+            long state = admin.state.get();
+            if (load(state) + delta < 0) {
+                return;
+            }
+            long next = next(state, delta);
+            if (admin.state.compareAndSet(state, next)) {
+                admin.moved(state, next);
+                return;
+            }
+        }
+    }
+
+    private static long next(long state, int delta) {
+        return pack(version(state) + 1, load(state) + delta);
+    }
+
+    private static long pack(int version, int load) {
+        return ((long) version << 32) | (load & 0xffffffffL);
+    }
+
+    private static int version(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int load(long state) {
+        return (int) state;
+    }
+
+    private static String key(String category) {
+        return category == null ? "" : category.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * The admin a ticket was given to.
+     */
+    public static final class Assignee {
+        private final Long id;
+        private final String username;
+
+        private Assignee(Long id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+    }
+
+    private static final class Admin {
+        private final Long id;
+        private final String username;
+        private final Set<String> skills;
+        private final List<ConcurrentSkipListSet<Slot>> queues;
+        private final Assignee assignee;
+        private final AtomicLong state;
+
+        private Admin(Long id, String username, Set<String> skills, List<ConcurrentSkipListSet<Slot>> queues,
+                      int load) {
+            this.id = id;
+            this.username = username;
+            this.skills = skills;
+            this.queues = queues;
+            this.assignee = new Assignee(id, username);
+            this.state = new AtomicLong(pack(0, load));
+        }
+
+        private Slot slot(long state) {
+            return new Slot(this, load(state), version(state));
+        }
+
+        // Called by the thread whose CAS moved the state; the new slot goes in before
+        // the old one comes out, so the admin never drops out of a queue
+        private void moved(long from, long to) {
+            Slot fresh = slot(to);
+            Slot stale = slot(from);
+            for (ConcurrentSkipListSet<Slot> queue : queues) {
+                queue.add(fresh);
+            }
+            for (ConcurrentSkipListSet<Slot> queue : queues) {
+                queue.remove(stale);
+            }
+        }
+    }
+
+    private static final class Slot {
+        private final Admin admin;
+        private final int load;
+        private final int version;
+
+        private Slot(Admin admin, int load, int version) {
+            this.admin = admin;
+            this.load = load;
+            this.version = version;
+        }
+
+        private boolean isCurrent() {
+            return version(admin.state.get()) == version;
+        }
+    }
+}
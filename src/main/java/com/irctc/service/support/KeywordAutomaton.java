@@ -0,0 +1,195 @@
+package com.irctc.service.support;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick matcher over a fixed set of keywords, so any number of keywords is found
+ * in a single pass over the text. Matching ignores case and treats every whitespace
+ * character as a space. Keywords match whole words only; a keyword ending in {@code *}
+ * may be followed by more letters, so {@code refund*} also finds "refunded".
+ *
+ * <p>Instances are immutable once built and safe to share between threads.
+ *
+ * @param <T> what a keyword stands for
+ */
+public final class KeywordAutomaton<T> {
+    private static final int ROOT = 0;
+
+    // Per state: outgoing edges sorted by character, the failure link, and the
+    // nearest state along the failure chain (itself included) that ends a keyword
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    private final int[] outputLink;
+    // Keywords ending at each state, or null
+    private final Keyword<T>[][] outputs;
+
+    private KeywordAutomaton(char[][] edgeChars, int[][] edgeTargets, int[] failure, int[] outputLink,
+                             Keyword<T>[][] outputs) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.outputLink = outputLink;
+        this.outputs = outputs;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Reports every keyword occurrence in the text, in order of where it ends.
+     */
+    public void scan(CharSequence text, MatchListener<T> listener) {
+        int state = ROOT;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = normalize(text.charAt(i));
+            int next;
+            while ((next = step(state, c)) < 0 && state != ROOT) {
+                state = failure[state];
+            }
+            state = Math.max(next, ROOT);
+            for (int out = outputLink[state]; out >= 0; out = outputLink[failure[out]]) {
+                for (Keyword<T> keyword : outputs[out]) {
+                    int start = i + 1 - keyword.length;
+                    if (isBoundary(text, start - 1) && (keyword.prefix || isBoundary(text, i + 1))) {
+                        listener.onMatch(start, i + 1, keyword.value);
+                    }
+                }
+            }
+        }
+    }
+
+    private int step(int state, char c) {
+        char[] chars = edgeChars[state];
+        int index = Arrays.binarySearch(chars, c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+
+    private static boolean isBoundary(CharSequence text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private static char normalize(char c) {
+        return Character.isWhitespace(c) ? ' ' : Character.toLowerCase(c);
+    }
+
+    @FunctionalInterface
+    public interface MatchListener<T> {
+        /**
+         * @param start index of the first matched character
+         * @param end   index just past the last matched character
+         */
+        void onMatch(int start, int end, T value);
+    }
+
+    private static final class Keyword<T> {
+        private final int length;
+        private final boolean prefix;
+        private final T value;
+
+        private Keyword(int length, boolean prefix, T value) {
+            this.length = length;
+            this.prefix = prefix;
+            this.value = value;
+        }
+    }
+
+    public static final class Builder<T> {
+        private final List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        private final Map<Integer, List<Keyword<T>>> ends = new HashMap<>();
+
+        private Builder() {
+            edges.add(new TreeMap<>());
+        }
+
+        /**
+         * Adds a keyword; blank keywords are ignored.
+         */
+        public Builder<T> add(String keyword, T value) {
+            String text = keyword.trim();
+            boolean prefix = text.endsWith("*");
+            if (prefix) {
+                text = text.substring(0, text.length() - 1).trim();
+            }
+            if (text.isEmpty()) {
+                return this;
+            }
+            int state = ROOT;
+            for (int i = 0; i < text.length(); i++) {
+                char c = normalize(text.charAt(i));
+                Integer next = edges.get(state).get(c);
+                if (next == null) {
+                    next = edges.size();
+                    edges.add(new TreeMap<>());
+                    edges.get(state).put(c, next);
+                }
+                state = next;
+            }
+            ends.computeIfAbsent(state, s -> new ArrayList<>()).add(new Keyword<>(text.length(), prefix, value));
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public KeywordAutomaton<T> build() {
+            int states = edges.size();
+            char[][] edgeChars = new char[states][];
+            int[][] edgeTargets = new int[states][];
+            for (int state = 0; state < states; state++) {
+                TreeMap<Character, Integer> out = edges.get(state);
+                edgeChars[state] = new char[out.size()];
+                edgeTargets[state] = new int[out.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : out.entrySet()) {
+                    edgeChars[state][i] = edge.getKey();
+                    edgeTargets[state][i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            // Generic arrays can't be created directly; the wildcard ones only ever hold Keyword<T>
+            Keyword<T>[][] outputs = (Keyword<T>[][]) new Keyword<?>[states][];
+            ends.forEach((state, keywords) -> outputs[state] = (Keyword<T>[]) keywords.toArray(new Keyword<?>[0]));
+
+            // Breadth-first, so a state's failure target is always finished first
+            int[] failure = new int[states];
+            int[] outputLink = new int[states];
+            // Blank keywords are dropped, so the root never ends one
+            outputLink[ROOT] = -1;
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : edgeTargets[ROOT]) {
+                failure[child] = ROOT;
+                outputLink[child] = outputs[child] != null ? child : -1;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (int i = 0; i < edgeChars[state].length; i++) {
+                    char c = edgeChars[state][i];
+                    int child = edgeTargets[state][i];
+                    int fallback = failure[state];
+                    int target;
+                    while ((target = step(edgeChars, edgeTargets, fallback, c)) < 0 && fallback != ROOT) {
+                        fallback = failure[fallback];
+                    }
+                    failure[child] = Math.max(target, ROOT);
+                    outputLink[child] = outputs[child] != null ? child : outputLink[failure[child]];
+                    queue.add(child);
+                }
+            }
+            return new KeywordAutomaton<>(edgeChars, edgeTargets, failure, outputLink, outputs);
+        }
+
+        private static int step(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+            int index = Arrays.binarySearch(edgeChars[state], c);
+            return index >= 0 ? edgeTargets[state][index] : -1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.irctc.service.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an SLA deadline firing for one ticket.
+ */
+@Getter
+@AllArgsConstructor
+public class SlaBreach {
+    public enum Action {
+        /** The ticket was resolved or its deadline moved; nothing was done. */
+        NONE,
+        /** Priority was raised one level. */
+        ESCALATED,
+        /** Already at the top priority, so the ticket moved to the least-loaded admin. */
+        REASSIGNED,
+        /** Already at the top priority and no other admin to move it to. */
+        NOTIFIED
+    }
+
+    private final Long ticketId;
+    private final Action action;
+    private final String priority;
+    // Email of the admin the ticket is assigned to, if any
+    private final String assigneeEmail;
+    // Null if the ticket no longer needs a deadline
+    private final LocalDateTime nextDueAt;
+}
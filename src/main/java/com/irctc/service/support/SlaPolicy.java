@@ -0,0 +1,83 @@
+package com.irctc.service.support;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * How long a support ticket may wait before it breaches its SLA. Each priority has a
+ * window, and a category may have a shorter one; the tighter of the two applies.
+ * Priorities are listed lowest first, which is also the order escalation climbs.
+ */
+@Component
+public class SlaPolicy {
+
+    @Value("${support.sla.due:LOW:72h, NORMAL:24h, HIGH:8h, URGENT:2h}")
+    private String dueByPriority;
+
+    @Value("${support.sla.category-due:}")
+    private String dueByCategory;
+
+    private Map<String, Duration> priorityWindows;
+    private Map<String, Duration> categoryWindows;
+    private List<String> priorities;
+
+    @PostConstruct
+    void parse() {
+        priorityWindows = parseWindows(dueByPriority, "support.sla.due");
+        categoryWindows = parseWindows(dueByCategory, "support.sla.category-due");
+        priorities = new ArrayList<>(priorityWindows.keySet());
+        if (priorities.isEmpty()) {
+            throw new IllegalStateException("support.sla.due must list at least one priority");
+        }
+    }
+
+    /**
+     * When a ticket of this priority and category breaches if nothing happens from
+     * {@code from} on. Unknown priorities get the lowest priority's window.
+     */
+    public LocalDateTime deadline(String priority, String category, LocalDateTime from) {
+        Duration window = priorityWindows.getOrDefault(key(priority), priorityWindows.get(priorities.get(0)));
+        Duration categoryWindow = categoryWindows.get(key(category));
+        if (categoryWindow != null && categoryWindow.compareTo(window) < 0) {
+            window = categoryWindow;
+        }
+        return from.plus(window);
+    }
+
+    /**
+     * The next priority up, or null if the ticket is already at the top.
+     */
+    public String escalate(String priority) {
+        int index = priorities.indexOf(key(priority));
+        return index + 1 < priorities.size() ? priorities.get(index + 1) : null;
+    }
+
+    private static Map<String, Duration> parseWindows(String spec, String property) {
+        Map<String, Duration> windows = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return windows;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalStateException(property + " entries must look like NAME:24h, got '" + entry + "'");
+            }
+            windows.put(key(parts[0]), DurationStyle.detectAndParse(parts[1].trim()));
+        }
+        return windows;
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,138 @@
+package com.irctc.service.support;
+
+import com.irctc.dto.SupportTicketStats;
+import com.irctc.model.SupportStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory support ticket counts. "Needs attention" is every unresolved ticket minus
+ * the unresolved ones still too young; the young ones are counted in buckets by
+ * submission time, and {@link #expire} drops buckets as they age past the threshold.
+ * A ticket therefore starts needing attention up to one bucket width late.
+ */
+public class SupportCounters {
+    private final long bucketMillis;
+    private final long attentionAfterMillis;
+
+    private final AtomicLong total = new AtomicLong();
+    private final Map<SupportStatus, AtomicLong> byStatus = new EnumMap<>(SupportStatus.class);
+    private final AtomicLong unresolved = new AtomicLong();
+    // Bucket count and the young total only change together, inside the map's compute
+    private final ConcurrentHashMap<Long, Long> youngBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong young = new AtomicLong();
+
+    public SupportCounters(Duration bucketWidth, Duration attentionAfter) {
+        this.bucketMillis = bucketWidth.toMillis();
+        this.attentionAfterMillis = attentionAfter.toMillis();
+        for (SupportStatus status : SupportStatus.values()) {
+            byStatus.put(status, new AtomicLong());
+        }
+    }
+
+    public void seed(SupportStatus status, boolean resolved, long count) {
+        total.addAndGet(count);
+        byStatus.get(status).addAndGet(count);
+        if (!resolved) {
+            unresolved.addAndGet(count);
+        }
+    }
+
+    // Only for tickets that seed() already counted as unresolved
+    public void seedYoung(LocalDateTime submittedAt) {
+        addYoung(submittedAt);
+    }
+
+    public void created(SupportStatus status, boolean resolved, LocalDateTime submittedAt) {
+        seed(status, resolved, 1);
+        if (!resolved) {
+            addYoung(submittedAt);
+        }
+    }
+
+    public void changed(SupportStatus oldStatus, SupportStatus newStatus, boolean wasResolved, boolean resolved,
+                        LocalDateTime submittedAt) {
+        if (oldStatus != newStatus) {
+            byStatus.get(oldStatus).decrementAndGet();
+            byStatus.get(newStatus).incrementAndGet();
+        }
+        if (wasResolved != resolved) {
+            if (resolved) {
+                unresolved.decrementAndGet();
+                removeYoung(submittedAt);
+            } else {
+                unresolved.incrementAndGet();
+                addYoung(submittedAt);
+            }
+        }
+    }
+
+    /**
+     * Drops buckets whose newest ticket is now past the attention threshold.
+     *
+     * @return how many tickets started needing attention
+     */
+    public long expire(LocalDateTime now) {
+        long nowMillis = toMillis(now);
+        long aged = 0;
+        for (Long bucket : youngBuckets.keySet()) {
+            if (isExpired(bucket, nowMillis)) {
+                AtomicLong removed = new AtomicLong();
+                youngBuckets.computeIfPresent(bucket, (key, count) -> {
+                    young.addAndGet(-count);
+                    removed.set(count);
+                    return null;
+                });
+                aged += removed.get();
+            }
+        }
+        return aged;
+    }
+
+    public SupportTicketStats snapshot() {
+        return new SupportTicketStats(
+            total.get(),
+            byStatus.get(SupportStatus.OPEN).get(),
+            byStatus.get(SupportStatus.IN_PROGRESS).get(),
+            byStatus.get(SupportStatus.RESOLVED).get(),
+            byStatus.get(SupportStatus.CLOSED).get(),
+            Math.max(0, unresolved.get() - young.get()));
+    }
+
+    private void addYoung(LocalDateTime submittedAt) {
+        long bucket = bucketOf(submittedAt);
+        // An already aged ticket goes straight to needs-attention
+        if (isExpired(bucket, System.currentTimeMillis())) {
+            return;
+        }
+        youngBuckets.compute(bucket, (key, count) -> {
+            young.incrementAndGet();
+            return count == null ? 1L : count + 1;
+        });
+    }
+
+    private void removeYoung(LocalDateTime submittedAt) {
+        youngBuckets.computeIfPresent(bucketOf(submittedAt), (key, count) -> {
+            young.decrementAndGet();
+            return count == 1 ? null : count - 1;
+        });
+    }
+
+    private boolean isExpired(long bucket, long nowMillis) {
+        return (bucket + 1) * bucketMillis + attentionAfterMillis <= nowMillis;
+    }
+
+    private long bucketOf(LocalDateTime submittedAt) {
+        return toMillis(submittedAt) / bucketMillis;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,31 @@
+package com.irctc.service.support;
+
+import com.irctc.model.SupportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link com.irctc.service.SupportService} inside the transaction that
+ * changed a ticket. Listeners that keep derived state should use
+ * {@code @TransactionalEventListener} so a rolled-back change is never seen.
+ */
+@Getter
+@AllArgsConstructor
+public class SupportTicketEvent {
+    public enum Type {
+        CREATED, STATUS_CHANGED, ASSIGNED, RESPONDED, MESSAGE, SLA_BREACHED
+    }
+
+    private final Long ticketId;
+    private final Type type;
+    // Null for a new ticket
+    private final SupportStatus oldStatus;
+    private final SupportStatus newStatus;
+    private final boolean wasResolved;
+    private final boolean resolved;
+    private final LocalDateTime submittedAt;
+    // Null once resolved
+    private final LocalDateTime slaDueAt;
+}
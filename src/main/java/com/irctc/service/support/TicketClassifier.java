@@ -0,0 +1,182 @@
+package com.irctc.service.support;
+
+import com.irctc.dto.SupportClassification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Classifies ticket text against a keyword dictionary in one pass of a
+ * {@link KeywordAutomaton}. The category with the most keyword hits wins, ties going to
+ * the one listed first; the priority is the highest level with any hit. PNR prefixes
+ * are keywords too, and the code that follows one is read straight from the text.
+ *
+ * <p>Built once per dictionary and immutable, so a reload just swaps instances.
+ */
+public final class TicketClassifier {
+    private static final int MAX_PNRS = 5;
+    // Separators allowed between a PNR prefix and its code, e.g. "PNR: 87A049A3"
+    private static final int MAX_GAP = 3;
+
+    private final KeywordAutomaton<Label> automaton;
+    private final List<String> categories;
+    private final List<String> priorities;
+    private final String defaultCategory;
+    private final String defaultPriority;
+    private final int pnrCodeLength;
+    private final int keywordCount;
+
+    private TicketClassifier(KeywordAutomaton<Label> automaton, List<String> categories, List<String> priorities,
+                             String defaultCategory, String defaultPriority, int pnrCodeLength, int keywordCount) {
+        this.automaton = automaton;
+        this.categories = categories;
+        this.priorities = priorities;
+        this.defaultCategory = defaultCategory;
+        this.defaultPriority = defaultPriority;
+        this.pnrCodeLength = pnrCodeLength;
+        this.keywordCount = keywordCount;
+    }
+
+    /**
+     * Builds a classifier from dictionary entries:
+     * <pre>
+     * category.order=BOOKING, PAYMENT        # tie-break order
+     * category.BOOKING=booking*, seat*, ...
+     * category.default=GENERAL
+     * priority.order=URGENT, HIGH, LOW       # highest first
+     * priority.URGENT=emergency, stranded, ...
+     * priority.default=NORMAL
+     * pnr.prefixes=pnr, pnr no
+     * pnr.code-length=8
+     * </pre>
+     *
+     * @throws IllegalArgumentException if the dictionary is incomplete
+     */
+    public static TicketClassifier fromDictionary(Properties dictionary) {
+        List<String> categories = list(dictionary, "category.order");
+        List<String> priorities = list(dictionary, "priority.order");
+        if (categories.isEmpty()) {
+            throw new IllegalArgumentException("Classifier dictionary has no category.order");
+        }
+
+        KeywordAutomaton.Builder<Label> builder = KeywordAutomaton.builder();
+        int keywords = 0;
+        for (int i = 0; i < categories.size(); i++) {
+            keywords += addAll(builder, dictionary, "category." + categories.get(i), new Label(Kind.CATEGORY, i));
+        }
+        for (int i = 0; i < priorities.size(); i++) {
+            keywords += addAll(builder, dictionary, "priority." + priorities.get(i), new Label(Kind.PRIORITY, i));
+        }
+        keywords += addAll(builder, dictionary, "pnr.prefixes", new Label(Kind.PNR_PREFIX, 0));
+
+        int codeLength;
+        try {
+            codeLength = Integer.parseInt(dictionary.getProperty("pnr.code-length", "8").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Classifier dictionary has an invalid pnr.code-length");
+        }
+        return new TicketClassifier(builder.build(), categories, priorities,
+            dictionary.getProperty("category.default", "GENERAL").trim(),
+            dictionary.getProperty("priority.default", "NORMAL").trim(), codeLength, keywords);
+    }
+
+    public SupportClassification classify(String text) {
+        if (text == null || text.isEmpty()) {
+            return new SupportClassification(defaultCategory, defaultPriority, List.of());
+        }
+        int[] categoryHits = new int[categories.size()];
+        int[] priorityHits = new int[priorities.size()];
+        Set<String> pnrs = new LinkedHashSet<>();
+        automaton.scan(text, (start, end, label) -> {
+            switch (label.kind) {
+                case CATEGORY -> categoryHits[label.index]++;
+                case PRIORITY -> priorityHits[label.index]++;
+                case PNR_PREFIX -> {
+                    String pnr = readPnr(text, end);
+                    if (pnr != null && pnrs.size() < MAX_PNRS) {
+                        pnrs.add(pnr);
+                    }
+                }
+            }
+        });
+
+        String category = defaultCategory;
+        int best = 0;
+        for (int i = 0; i < categoryHits.length; i++) {
+            if (categoryHits[i] > best) {
+                best = categoryHits[i];
+                category = categories.get(i);
+            }
+        }
+        String priority = defaultPriority;
+        for (int i = 0; i < priorityHits.length; i++) {
+            if (priorityHits[i] > 0) {
+                priority = priorities.get(i);
+                break;
+            }
+        }
+        return new SupportClassification(category, priority, new ArrayList<>(pnrs));
+    }
+
+    public int keywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * The PNR code right after a prefix ending at {@code from}, or null if there is none.
+     */
+    private String readPnr(String text, int from) {
+        int start = from;
+        while (start < text.length() && start - from < MAX_GAP && isSeparator(text.charAt(start))) {
+            start++;
+        }
+        int end = start + pnrCodeLength;
+        if (end > text.length() || (end < text.length() && Character.isLetterOrDigit(text.charAt(end)))) {
+            return null;
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                return null;
+            }
+        }
+        return "PNR-" + text.substring(start, end).toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-' || c == ':' || c == '#' || c == '.';
+    }
+
+    private static int addAll(KeywordAutomaton.Builder<Label> builder, Properties dictionary, String key, Label label) {
+        List<String> keywords = list(dictionary, key);
+        keywords.forEach(keyword -> builder.add(keyword, label));
+        return keywords.size();
+    }
+
+    private static List<String> list(Properties dictionary, String key) {
+        String value = dictionary.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(entry -> !entry.isEmpty())
+            .toList();
+    }
+
+    private enum Kind { CATEGORY, PRIORITY, PNR_PREFIX }
+
+    private static final class Label {
+        private final Kind kind;
+        private final int index;
+
+        private Label(Kind kind, int index) {
+            this.kind = kind;
+            this.index = index;
+        }
+    }
+}
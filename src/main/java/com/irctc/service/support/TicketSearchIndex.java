@@ -0,0 +1,475 @@
+package com.irctc.service.support;
+
+import com.irctc.dto.SupportIndexMessage;
+import com.irctc.dto.SupportIndexRow;
+import com.irctc.model.SupportMessage;
+import com.irctc.model.SupportStatus;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over support tickets, ranked with BM25.
+ *
+ * <p>Each indexed version of a ticket gets a new internal doc number, so posting
+ * lists stay sorted and are only ever appended to. Replacing a ticket marks its old
+ * doc dead; dead docs are skipped at query time and dropped by a rebuild. All terms
+ * of a query are required, and a quoted phrase also requires its word pairs. Word
+ * pairs are hashed into a fixed table of posting lists, so the dictionary does not
+ * grow with every pair ever seen; a rare collision can only admit a ticket that
+ * already contains every word of the phrase.
+ *
+ * <p>A ticket's text is its issue plus every message of its conversation: customer
+ * messages weigh like the issue, helpdesk replies like a response and notes and
+ * status-change notes like admin notes.
+ */
+public class TicketSearchIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // Weighted term frequencies are stored as bytes in quarters
+    private static final float TF_SCALE = 4f;
+
+    private static final float EMAIL_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float ISSUE_WEIGHT = 1f;
+    private static final float RESPONSE_WEIGHT = 0.7f;
+    private static final float NOTES_WEIGHT = 0.5f;
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final int BIGRAM_SLOTS = 1 << 22;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final PostingList[] bigramPostings = new PostingList[BIGRAM_SLOTS];
+    private final Map<Long, Integer> docByTicket = new HashMap<>();
+    private final Map<String, Short> labelIds = new HashMap<>();
+    private final BitSet dead = new BitSet();
+
+    private long[] ticketIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private long[] submitted = new long[1024];
+    private byte[] statuses = new byte[1024];
+    private short[] categories = new short[1024];
+    private short[] priorities = new short[1024];
+    private int docCount;
+    private int liveCount;
+    private long totalLength;
+
+    /**
+     * Adds a ticket without a conversation, replacing any earlier version of it.
+     */
+    public void index(SupportIndexRow row) {
+        index(row, List.of());
+    }
+
+    /**
+     * Adds a ticket with its conversation, replacing any earlier version of it.
+     *
+     * @param messages the ticket's messages that have a body, oldest first
+     */
+    public void index(SupportIndexRow row, List<SupportIndexMessage> messages) {
+        Map<String, Float> weights = new HashMap<>();
+        Map<Integer, Float> pairWeights = new HashMap<>();
+        int length = addField(weights, pairWeights, row.getIssue(), ISSUE_WEIGHT, true)
+            + addField(weights, pairWeights, row.getEmail(), EMAIL_WEIGHT, false)
+            + addField(weights, pairWeights, row.getCategory(), CATEGORY_WEIGHT, false);
+        if (messages.isEmpty()) {
+            // Tickets from before conversations keep their replies and notes on the row;
+            // otherwise the row holds copies of the latest ones
+            length += addField(weights, pairWeights, row.getResponse(), RESPONSE_WEIGHT, true)
+                + addField(weights, pairWeights, row.getAdminNotes(), NOTES_WEIGHT, true);
+        }
+        for (SupportIndexMessage message : messages) {
+            length += addField(weights, pairWeights, message.getBody(), weightOf(message), true);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(row.getId());
+            int doc = docCount++;
+            ensureCapacity(doc + 1);
+            ticketIds[doc] = row.getId();
+            lengths[doc] = length;
+            submitted[doc] = row.getSubmittedAt() != null ? row.getSubmittedAt().toEpochSecond(ZoneOffset.UTC) : 0;
+            statuses[doc] = (byte) (row.getStatus() != null ? row.getStatus().ordinal() : -1);
+            categories[doc] = labelId(row.getCategory());
+            priorities[doc] = labelId(row.getPriority());
+            for (Map.Entry<String, Float> term : weights.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new PostingList()).add(doc, storedTf(term.getValue()));
+            }
+            for (Map.Entry<Integer, Float> pair : pairWeights.entrySet()) {
+                int slot = pair.getKey();
+                if (bigramPostings[slot] == null) {
+                    bigramPostings[slot] = new PostingList();
+                }
+                bigramPostings[slot].add(doc, storedTf(pair.getValue()));
+            }
+            docByTicket.put(row.getId(), doc);
+            liveCount++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long ticketId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(ticketId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int deadCount() {
+        lock.readLock().lock();
+        try {
+            return docCount - liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query and returns the total match count with one page of hits, best
+     * first. Ties, including every hit of a filter-only query, go to the newest ticket.
+     */
+    public Result search(String text, Filter filter, int offset, int limit) {
+        Query query = parse(text);
+        lock.readLock().lock();
+        try {
+            Short category = filter.category != null ? labelIds.get(filter.category) : null;
+            Short priority = filter.priority != null ? labelIds.get(filter.priority) : null;
+            if ((filter.category != null && category == null) || (filter.priority != null && priority == null)) {
+                return new Result(0, List.of());
+            }
+            Criteria criteria = new Criteria(filter, category, priority);
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(WORST_FIRST);
+            int wanted = offset + limit;
+            long total = query.isEmpty()
+                ? collectAll(criteria, top, wanted)
+                : collectMatches(query, criteria, top, wanted);
+
+            Hit[] ranked = top.toArray(new Hit[0]);
+            Arrays.sort(ranked, WORST_FIRST.reversed());
+            List<Hit> page = offset >= ranked.length
+                ? List.of()
+                : List.of(Arrays.copyOfRange(ranked, offset, Math.min(ranked.length, wanted)));
+            return new Result(total, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long collectAll(Criteria criteria, PriorityQueue<Hit> top, int wanted) {
+        long total = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (!dead.get(doc) && criteria.matches(doc)) {
+                total++;
+                offer(top, new Hit(ticketIds[doc], 0f, submitted[doc]), wanted);
+            }
+        }
+        return total;
+    }
+
+    private long collectMatches(Query query, Criteria criteria, PriorityQueue<Hit> top, int wanted) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String term : query.terms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return 0;
+            }
+            lists.add(list);
+        }
+        for (int pair : query.pairs) {
+            PostingList list = bigramPostings[pair];
+            if (list == null) {
+                return 0;
+            }
+            lists.add(list);
+        }
+        // Drive the intersection from the rarest term
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        float averageLength = liveCount == 0 ? 1f : Math.max(1f, (float) totalLength / liveCount);
+        float[] idf = new float[lists.size()];
+        for (int i = 0; i < idf.length; i++) {
+            // Dead docs still sit in the lists until the next rebuild
+            int df = Math.min(lists.get(i).size, liveCount);
+            idf[i] = (float) Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+        }
+
+        int[] cursors = new int[lists.size()];
+        PostingList lead = lists.get(0);
+        long total = 0;
+        candidates:
+        for (int i = 0; i < lead.size; i++) {
+            int doc = lead.docs[i];
+            if (dead.get(doc) || !criteria.matches(doc)) {
+                continue;
+            }
+            float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+            float score = bm25(idf[0], lead.tfs[i], norm);
+            for (int t = 1; t < lists.size(); t++) {
+                PostingList list = lists.get(t);
+                int at = list.advance(cursors[t], doc);
+                cursors[t] = at;
+                if (at >= list.size || list.docs[at] != doc) {
+                    continue candidates;
+                }
+                score += bm25(idf[t], list.tfs[at], norm);
+            }
+            total++;
+            offer(top, new Hit(ticketIds[doc], score, submitted[doc]), wanted);
+        }
+        return total;
+    }
+
+    private static byte storedTf(float weightedTf) {
+        return (byte) Math.max(1, Math.min(255, Math.round(weightedTf * TF_SCALE)));
+    }
+
+    private static float bm25(float idf, byte storedTf, float norm) {
+        float tf = (storedTf & 0xff) / TF_SCALE;
+        return idf * tf * (K1 + 1) / (tf + norm);
+    }
+
+    private static void offer(PriorityQueue<Hit> top, Hit hit, int wanted) {
+        if (top.size() < wanted) {
+            top.add(hit);
+        } else if (WORST_FIRST.compare(hit, top.peek()) > 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble((Hit hit) -> hit.score)
+        .thenComparingLong(hit -> hit.submitted)
+        .thenComparingLong(hit -> hit.ticketId);
+
+    // Words and joined forms outside quotes, plus words and word pairs inside them
+    private static Query parse(String text) {
+        Query query = new Query();
+        if (text == null || text.isBlank()) {
+            return query;
+        }
+        Matcher phrase = PHRASE.matcher(text);
+        StringBuilder rest = new StringBuilder();
+        int last = 0;
+        while (phrase.find()) {
+            rest.append(text, last, phrase.start()).append(' ');
+            TicketTokenizer.Terms inside = TicketTokenizer.tokenize(phrase.group(1), true);
+            query.terms.addAll(inside.words);
+            inside.bigrams.forEach(pair -> query.pairs.add(slot(pair)));
+            last = phrase.end();
+        }
+        rest.append(text.substring(last).replace('"', ' '));
+        TicketTokenizer.Terms outside = TicketTokenizer.tokenize(rest.toString(), false);
+        query.terms.addAll(outside.words);
+        query.terms.addAll(outside.compounds);
+        return query;
+    }
+
+    private static float weightOf(SupportIndexMessage message) {
+        if (message.getType() != SupportMessage.Type.MESSAGE) {
+            return NOTES_WEIGHT;
+        }
+        return message.isAgent() ? RESPONSE_WEIGHT : ISSUE_WEIGHT;
+    }
+
+    private static int slot(int pairHash) {
+        return pairHash & (BIGRAM_SLOTS - 1);
+    }
+
+    private static int addField(Map<String, Float> weights, Map<Integer, Float> pairWeights, String text,
+                                float weight, boolean bigrams) {
+        TicketTokenizer.Terms terms = TicketTokenizer.tokenize(text, bigrams);
+        for (String word : terms.words) {
+            weights.merge(word, weight, Float::sum);
+        }
+        for (String compound : terms.compounds) {
+            weights.merge(compound, weight, Float::sum);
+        }
+        for (int pair : terms.bigrams) {
+            pairWeights.merge(slot(pair), weight, Float::sum);
+        }
+        return terms.words.size();
+    }
+
+    private void removeLocked(Long ticketId) {
+        Integer doc = docByTicket.remove(ticketId);
+        if (doc != null) {
+            dead.set(doc);
+            liveCount--;
+            totalLength -= lengths[doc];
+        }
+    }
+
+    private short labelId(String label) {
+        if (label == null) {
+            return -1;
+        }
+        return labelIds.computeIfAbsent(label, key -> (short) labelIds.size());
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ticketIds.length) {
+            return;
+        }
+        int capacity = Math.max(needed, ticketIds.length * 2);
+        ticketIds = Arrays.copyOf(ticketIds, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        submitted = Arrays.copyOf(submitted, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+
+    /**
+     * Optional restrictions on a query; null fields do not filter.
+     */
+    public static class Filter {
+        private final SupportStatus status;
+        private final String category;
+        private final String priority;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        public Filter(SupportStatus status, String category, String priority, LocalDate from, LocalDate to) {
+            this.status = status;
+            this.category = category;
+            this.priority = priority;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    // A filter resolved against this index's label ids and epoch seconds
+    private class Criteria {
+        private final int status;
+        private final short category;
+        private final short priority;
+        private final long from;
+        private final long to;
+
+        private Criteria(Filter filter, Short category, Short priority) {
+            this.status = filter.status != null ? filter.status.ordinal() : -1;
+            this.category = category != null ? category : -1;
+            this.priority = priority != null ? priority : -1;
+            this.from = filter.from != null ? filter.from.atStartOfDay().toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+            this.to = filter.to != null
+                ? filter.to.plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+        }
+
+        private boolean matches(int doc) {
+            return (status < 0 || statuses[doc] == status)
+                && (category < 0 || categories[doc] == category)
+                && (priority < 0 || priorities[doc] == priority)
+                && submitted[doc] >= from && submitted[doc] < to;
+        }
+    }
+
+    private static final class Query {
+        private final Set<String> terms = new LinkedHashSet<>();
+        private final Set<Integer> pairs = new LinkedHashSet<>();
+
+        private boolean isEmpty() {
+            return terms.isEmpty() && pairs.isEmpty();
+        }
+    }
+
+    public static class Hit {
+        private final long ticketId;
+        private final float score;
+        private final long submitted;
+
+        private Hit(long ticketId, float score, long submitted) {
+            this.ticketId = ticketId;
+            this.score = score;
+            this.submitted = submitted;
+        }
+
+        public long getTicketId() {
+            return ticketId;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    public static class Result {
+        private final long total;
+        private final List<Hit> hits;
+
+        private Result(long total, List<Hit> hits) {
+            this.total = total;
+            this.hits = hits;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+    }
+
+    // Doc numbers in ascending order with their weighted term frequencies
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private byte[] tfs = new byte[4];
+        private int size;
+
+        private void add(int doc, byte tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = tf;
+            size++;
+        }
+
+        // First index at or after from whose doc is >= target, galloping then binary search
+        private int advance(int from, int target) {
+            if (from >= size || docs[from] >= target) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + 1;
+            while (high < size && docs[high] < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            // The answer lies in (low, high]
+            int found = Arrays.binarySearch(docs, low + 1, Math.min(high + 1, size), target);
+            return found >= 0 ? found : -found - 1;
+        }
+    }
+}
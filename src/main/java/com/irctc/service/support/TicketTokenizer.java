@@ -0,0 +1,81 @@
+package com.irctc.service.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits ticket text into index terms. Words are lowercased runs of letters and
+ * digits. Joined forms such as e-mail addresses and PNRs are also kept whole, so
+ * {@code PNR-87A049A3} matches both as one term and as {@code pnr} and
+ * {@code 87a049a3}. Adjacent word pairs are reported as hashes, which is how phrase
+ * queries are answered without storing positions.
+ */
+final class TicketTokenizer {
+
+    private TicketTokenizer() {
+    }
+
+    /**
+     * Terms of one piece of text.
+     *
+     * @param bigrams also report a hash for each adjacent word pair
+     */
+    static Terms tokenize(String text, boolean bigrams) {
+        Terms terms = new Terms();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        StringBuilder word = new StringBuilder();
+        StringBuilder chunk = new StringBuilder();
+        int chunkWords = 0;
+        String previous = null;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                char lower = Character.toLowerCase(c);
+                word.append(lower);
+                chunk.append(lower);
+                continue;
+            }
+            if (!word.isEmpty()) {
+                String w = word.toString();
+                terms.words.add(w);
+                if (bigrams && previous != null) {
+                    terms.bigrams.add(bigram(previous, w));
+                }
+                previous = w;
+                word.setLength(0);
+                chunkWords++;
+            }
+            // A joiner between two words keeps the chunk going, e.g. user@mail.com
+            boolean joins = isJoiner(c) && !chunk.isEmpty()
+                && i + 1 < length && Character.isLetterOrDigit(text.charAt(i + 1));
+            if (joins) {
+                chunk.append(c);
+            } else {
+                if (chunkWords > 1) {
+                    terms.compounds.add(chunk.toString());
+                }
+                chunk.setLength(0);
+                chunkWords = 0;
+            }
+        }
+        return terms;
+    }
+
+    static int bigram(String first, String second) {
+        int h = first.hashCode() * 0x9E3779B1 + second.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean isJoiner(char c) {
+        return c == '-' || c == '@' || c == '.' || c == '_' || c == '+';
+    }
+
+    static final class Terms {
+        final List<String> words = new ArrayList<>();
+        final List<String> compounds = new ArrayList<>();
+        final List<Integer> bigrams = new ArrayList<>();
+    }
+}
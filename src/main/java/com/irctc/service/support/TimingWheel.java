@@ -0,0 +1,161 @@
+package com.irctc.service.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel keyed by id. Level 0 has one slot per tick and each level
+ * above covers 64 times the span of the one below; a timer sits in the coarsest level
+ * its deadline needs and drops a level each time the wheel below wraps. Scheduling,
+ * cancelling and expiring a timer are O(1), and a tick only touches the timers that are
+ * due or moving down a level.
+ *
+ * <p>Not thread-safe; the owner drives it from one thread.
+ */
+public final class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+    // 64^5 ticks, about 34 years at one tick a second
+    private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    // Heads of the per-slot timer lists
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private final Map<Long, Timer> timers = new HashMap<>();
+    // Next tick to process
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Sets the id's deadline, replacing any earlier one. A deadline already past fires on
+     * the next advance.
+     */
+    public void schedule(long id, long deadlineMillis) {
+        cancel(id);
+        Timer timer = new Timer(id, Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick));
+        timers.put(id, timer);
+        place(timer);
+    }
+
+    public boolean cancel(long id) {
+        Timer timer = timers.remove(id);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    /**
+     * Processes every tick up to the one containing {@code nowMillis}, handing the id of
+     * each expired timer to {@code expired}, tick by tick.
+     */
+    public void advanceTo(long nowMillis, LongConsumer expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick <= targetTick) {
+            int index = (int) (currentTick & MASK);
+            if (index == 0) {
+                cascade();
+            }
+            Timer timer = slots[0][index];
+            slots[0][index] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.next = null;
+                timer.prev = null;
+                timer.level = -1;
+                timers.remove(timer.id);
+                expired.accept(timer.id);
+                timer = next;
+            }
+            currentTick++;
+        }
+    }
+
+    // Level 0 wrapped: move the due slot of each level down, stopping at the first
+    // level that has not wrapped as well
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Timer timer = slots[level][index];
+            slots[level][index] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.next = null;
+                timer.prev = null;
+                place(timer);
+                timer = next;
+            }
+            if (index != 0) {
+                break;
+            }
+        }
+    }
+
+    private void place(Timer timer) {
+        long delta = Math.min(timer.expiryTick - currentTick, MAX_DELTA);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        long expiry = currentTick + delta;
+        int index = (int) ((expiry >>> (BITS * level)) & MASK);
+        timer.level = level;
+        timer.slot = index;
+        Timer head = slots[level][index];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][index] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.level < 0) {
+            return;
+        }
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.next = null;
+        timer.prev = null;
+        timer.level = -1;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return Math.floorDiv(value + divisor - 1, divisor);
+    }
+
+    private static final class Timer {
+        private final long id;
+        private final long expiryTick;
+        private Timer prev;
+        private Timer next;
+        private int level = -1;
+        private int slot;
+
+        private Timer(long id, long expiryTick) {
+            this.id = id;
+            this.expiryTick = expiryTick;
+        }
+    }
+}
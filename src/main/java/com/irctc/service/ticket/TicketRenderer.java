@@ -0,0 +1,177 @@
+package com.irctc.service.ticket;
+
+import com.irctc.dto.BookingResponseDTO;
+import com.irctc.dto.PassengerResponseDTO;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Draws the e-ticket as a PNG from booking data with Java2D, so the browser no longer
+ * has to screenshot and upload it. Stateless; safe to call from several threads.
+ */
+public final class TicketRenderer {
+
+    // Bump when the layout changes so cached tickets are rendered again
+    public static final int LAYOUT_VERSION = 1;
+
+    private static final int WIDTH = 900;
+    private static final int MARGIN = 40;
+    private static final int ROW_HEIGHT = 28;
+    private static final Color BRAND = new Color(0x1a, 0x23, 0x7e);
+    private static final Color MUTED = new Color(0x61, 0x61, 0x61);
+    private static final Color RULE = new Color(0xe0, 0xe0, 0xe0);
+
+    private static final Font TITLE = new Font(Font.SANS_SERIF, Font.BOLD, 26);
+    private static final Font HEADING = new Font(Font.SANS_SERIF, Font.BOLD, 16);
+    private static final Font LABEL = new Font(Font.SANS_SERIF, Font.PLAIN, 13);
+    private static final Font VALUE = new Font(Font.SANS_SERIF, Font.BOLD, 15);
+    private static final Font BODY = new Font(Font.SANS_SERIF, Font.PLAIN, 14);
+
+    public byte[] render(BookingResponseDTO booking) {
+        List<PassengerResponseDTO> passengers = booking.getPassengers() != null ? booking.getPassengers() : List.of();
+        int height = 620 + passengers.size() * ROW_HEIGHT;
+
+        BufferedImage image = new BufferedImage(WIDTH, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, WIDTH, height);
+
+            // Header band
+            g.setColor(BRAND);
+            g.fillRect(0, 0, WIDTH, 80);
+            g.setColor(Color.WHITE);
+            g.setFont(TITLE);
+            g.drawString("Yatrasetu E-Ticket", MARGIN, 50);
+            g.setFont(HEADING);
+            drawRight(g, "PNR " + booking.getPnr(), WIDTH - MARGIN, 50);
+
+            int y = 120;
+            BookingResponseDTO.TrainSummaryDTO train = booking.getTrain();
+            field(g, "Train", train != null ? train.getTrainNumber() + " " + train.getTrainName() : "--", MARGIN, y);
+            field(g, "Status", booking.getBookingStatus(), 520, y);
+            y += 60;
+            field(g, "From", booking.getFromStation(), MARGIN, y);
+            field(g, "To", booking.getToStation(), 300, y);
+            field(g, "Travel date", booking.getTravelDate(), 560, y);
+            y += 60;
+            field(g, "Departure", train != null ? dateTime(train.getDepartureTime()) : "--", MARGIN, y);
+            field(g, "Arrival", train != null ? dateTime(train.getArrivalTime()) : "--", 300, y);
+            BookingResponseDTO.CoachSummaryDTO coach = booking.getCoach();
+            field(g, "Coach", coach != null ? coach.getCoachNumber() + " " + coach.getCoachClass() : "--", 560, y);
+
+            y += 40;
+            rule(g, y);
+            y += 30;
+            g.setColor(BRAND);
+            g.setFont(HEADING);
+            g.drawString("Passengers", MARGIN, y);
+            y += ROW_HEIGHT;
+            g.setColor(MUTED);
+            g.setFont(LABEL);
+            int[] columns = {MARGIN, 340, 420, 540, 660};
+            String[] headings = {"Name", "Age", "Gender", "Seat", "Status"};
+            for (int i = 0; i < columns.length; i++) {
+                g.drawString(headings[i], columns[i], y);
+            }
+            g.setColor(Color.BLACK);
+            g.setFont(BODY);
+            for (PassengerResponseDTO p : passengers) {
+                y += ROW_HEIGHT;
+                g.drawString(text(p.getName()), columns[0], y);
+                g.drawString(String.valueOf(p.getAge()), columns[1], y);
+                g.drawString(text(p.getGender()), columns[2], y);
+                g.drawString(text(p.getSeatNumber()), columns[3], y);
+                g.drawString(text(p.getStatus()), columns[4], y);
+            }
+
+            y += 30;
+            rule(g, y);
+            y += 30;
+            BookingResponseDTO.FareDTO fare = booking.getFare();
+            if (fare != null) {
+                g.setColor(BRAND);
+                g.setFont(HEADING);
+                g.drawString("Fare", MARGIN, y);
+                y += ROW_HEIGHT;
+                y = fareLine(g, "Base fare", fare.getBaseFare(), y);
+                y = fareLine(g, "Reservation charges", fare.getReservationCharges(), y);
+                y = fareLine(g, "GST", fare.getGst(), y);
+                g.setFont(VALUE);
+                g.setColor(Color.BLACK);
+                g.drawString("Total", MARGIN, y);
+                drawRight(g, rupees(fare.getTotalFare()), WIDTH - MARGIN, y);
+            }
+
+            g.setColor(MUTED);
+            g.setFont(LABEL);
+            g.drawString("Carry a valid photo ID while travelling. This ticket was generated by Yatrasetu.",
+                MARGIN, height - 30);
+        } finally {
+            g.dispose();
+        }
+
+        // Encode in memory; ImageIO's default file cache adds a temp file per render
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try (ImageOutputStream out = new MemoryCacheImageOutputStream(png)) {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode ticket for PNR " + booking.getPnr(), e);
+        }
+        return png.toByteArray();
+    }
+
+    private static void field(Graphics2D g, String label, String value, int x, int y) {
+        g.setColor(MUTED);
+        g.setFont(LABEL);
+        g.drawString(label, x, y);
+        g.setColor(Color.BLACK);
+        g.setFont(VALUE);
+        g.drawString(text(value), x, y + 22);
+    }
+
+    private static int fareLine(Graphics2D g, String label, double amount, int y) {
+        g.setColor(Color.BLACK);
+        g.setFont(BODY);
+        g.drawString(label, MARGIN, y);
+        drawRight(g, rupees(amount), WIDTH - MARGIN, y);
+        return y + ROW_HEIGHT;
+    }
+
+    private static void rule(Graphics2D g, int y) {
+        g.setColor(RULE);
+        g.setStroke(new BasicStroke(1f));
+        g.drawLine(MARGIN, y, WIDTH - MARGIN, y);
+    }
+
+    private static void drawRight(Graphics2D g, String s, int right, int y) {
+        g.drawString(s, right - g.getFontMetrics().stringWidth(s), y);
+    }
+
+    // Rs. rather than the rupee sign, which the default fonts may not have
+    private static String rupees(double amount) {
+        return String.format("Rs. %.2f", amount);
+    }
+
+    private static String dateTime(String iso) {
+        return iso == null || iso.isEmpty() ? "--" : iso.replace('T', ' ');
+    }
+
+    private static String text(String s) {
+        return s == null || s.isEmpty() ? "--" : s;
+    }
+}
@@ -0,0 +1,41 @@
+package com.irctc.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs JMH benchmarks from JUnit, so {@code mvn test -Pbenchmark} is all it takes.
+ * Benchmarks run in the test JVM: surefire's classpath can't be handed to a fork, and
+ * the ones that need the application start it in their own {@code @Setup}.
+ */
+public final class Benchmarks {
+    /** JUnit tag that keeps benchmarks out of the default build. */
+    public static final String TAG = "benchmark";
+
+    private Benchmarks() {
+    }
+
+    public static Collection<RunResult> run(Class<?> benchmark) throws RunnerException {
+        return run(benchmark, UnaryOperator.identity());
+    }
+
+    public static Collection<RunResult> run(Class<?> benchmark, UnaryOperator<ChainedOptionsBuilder> options)
+            throws RunnerException {
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+            .include(benchmark.getName() + "\\.")
+            .forks(0)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(2))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(2))
+            .shouldFailOnError(true);
+        return new Runner(options.apply(builder).build()).run();
+    }
+}
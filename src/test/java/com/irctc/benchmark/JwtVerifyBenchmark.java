@@ -0,0 +1,81 @@
+package com.irctc.benchmark;
+
+import com.irctc.config.JwtUtil;
+import com.irctc.model.Role;
+import com.irctc.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking one request's bearer token: {@link JwtUtil#verify} on a token it
+ * has seen before, the prebuilt parser on its own, and building the key and parser
+ * for every parse, as the filter used to (it parsed each token three times).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerifyBenchmark {
+    private static final String SECRET = "bench-secret-bench-secret-bench-secret-bench-secret-bench-secret-0123";
+
+    private JwtUtil jwtUtil;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(jwtUtil, "expirationMillis", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("rider@example.com");
+        user.setRole(Role.USER);
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims cachedVerify() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Claims prebuiltParser() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        Benchmarks.run(JwtVerifyBenchmark.class);
+    }
+}
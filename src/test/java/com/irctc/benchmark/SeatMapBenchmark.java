@@ -0,0 +1,110 @@
+package com.irctc.benchmark;
+
+import com.irctc.IrctcApplication;
+import com.irctc.dto.CoachDTO;
+import com.irctc.dto.SeatDTO;
+import com.irctc.model.Coach;
+import com.irctc.model.Seat;
+import com.irctc.model.Train;
+import com.irctc.repository.TrainRepository;
+import com.irctc.service.CoachService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seat map of a 24-coach train with 100 seats a coach, built from the coach/seat
+ * projection as {@link CoachService#getCoachesByTrainId} does, against loading the
+ * coach entities with their seats fetch-joined and mapping those, as it used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SeatMapBenchmark {
+    private static final int COACHES = 24;
+    private static final int SEATS_PER_COACH = 100;
+
+    private ConfigurableApplicationContext context;
+    private CoachService coachService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private Long trainId;
+
+    @Setup
+    public void start() {
+        context = new SpringApplicationBuilder(IrctcApplication.class)
+            .properties("server.port=0", "spring.jpa.properties.hibernate.generate_statistics=false")
+            .run();
+        coachService = context.getBean(CoachService.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(org.springframework.transaction.PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        Train train = new Train();
+        train.setName("Benchmark Express");
+        train.setNumber(900001);
+        train.setFromStation("NDLS");
+        train.setToStation("HWH");
+        train.setDepartureTime(LocalTime.of(17, 0));
+        train.setArrivalTime(LocalTime.of(10, 0));
+        trainId = context.getBean(TrainRepository.class).save(train).getId();
+        for (int i = 1; i <= COACHES; i++) {
+            coachService.generateCoachSeats(trainId, "S" + i, 500.0, SEATS_PER_COACH);
+        }
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CoachDTO> projection() {
+        return coachService.getCoachesByTrainId(trainId);
+    }
+
+    @Benchmark
+    public List<CoachDTO> fetchJoinedEntities() {
+        return readOnly.execute(status -> {
+            List<Coach> coaches = entityManager.createQuery(
+                    "SELECT DISTINCT c FROM Coach c LEFT JOIN FETCH c.seats WHERE c.train.id = :trainId", Coach.class)
+                .setParameter("trainId", trainId)
+                .getResultList();
+            List<CoachDTO> dtos = new ArrayList<>(coaches.size());
+            for (Coach coach : coaches) {
+                List<SeatDTO> seats = new ArrayList<>(coach.getSeats().size());
+                int available = 0;
+                for (Seat seat : coach.getSeats()) {
+                    seats.add(new SeatDTO(seat.getId(), seat.getSeatNumber(), seat.isAvailable(), seat.getFare(), seat.isBooked()));
+                    if (seat.isAvailable()) {
+                        available++;
+                    }
+                }
+                dtos.add(new CoachDTO(coach.getId(), coach.getCoachNumber(), coach.getFare(), available, seats));
+            }
+            return dtos;
+        });
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        Benchmarks.run(SeatMapBenchmark.class);
+    }
+}
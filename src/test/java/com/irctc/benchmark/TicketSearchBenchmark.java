@@ -0,0 +1,163 @@
+package com.irctc.benchmark;
+
+import com.irctc.dto.SupportIndexMessage;
+import com.irctc.dto.SupportIndexRow;
+import com.irctc.model.SupportMessage;
+import com.irctc.model.SupportStatus;
+import com.irctc.service.support.TicketSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries against an index of a million synthetic tickets, each with a short
+ * conversation: a PNR and an e-mail lookup, a phrase, broad terms that match a large
+ * share of the tickets, and filters. Setup prints how long indexing took and
+ * the heap the index holds. Run with {@code mvn test -Pbenchmark -Dtest=TicketSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TicketSearchBenchmark {
+    private static final String[] CATEGORIES = {"REFUND", "PAYMENT", "BOOKING", "TATKAL", "SEAT", "FOOD", "OTHER"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    private static final String[] ISSUES = {
+        "Refund not received for cancelled ticket with PNR %1$s",
+        "Money debited but booking failed, PNR %1$s not generated",
+        "Tatkal booking failed at payment step for train %2$d",
+        "Seat not allotted after charting on PNR %1$s",
+        "Food ordered on train %2$d was never delivered",
+        "Waitlist status for PNR %1$s has not moved in a week",
+        "Unable to download e-ticket for PNR %1$s from the app"
+    };
+    private static final String[] REPLIES = {
+        "Please share the payment reference and the bank name",
+        "Your refund has been initiated and will reach the original payment method",
+        "We have escalated this to the zonal office",
+        "Charting happens four hours before departure, seats are allotted then",
+        "The caterer has been asked to refund the order"
+    };
+    private static final String[] NOTES = {
+        "Gateway settlement delayed at the acquirer",
+        "Duplicate of an earlier ticket from the same user",
+        "Checked with the payments team, reversal queued",
+        "Customer called twice"
+    };
+
+    @Param("1000000")
+    private int tickets;
+
+    private TicketSearchIndex index;
+    private TicketSearchIndex.Filter none;
+    private TicketSearchIndex.Filter openHighRefunds;
+    private String pnr;
+    private String email;
+
+    @Setup
+    public void build() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        System.gc();
+        long heapBefore = usedHeap();
+        long began = System.nanoTime();
+
+        index = new TicketSearchIndex();
+        List<SupportIndexMessage> messages = new ArrayList<>();
+        for (int id = 1; id <= tickets; id++) {
+            String ticketPnr = String.format("%010d", 4000000000L + id);
+            int train = 12000 + random.nextInt(900);
+            String issue = String.format(ISSUES[random.nextInt(ISSUES.length)], ticketPnr, train);
+            SupportStatus status = SupportStatus.values()[random.nextInt(SupportStatus.values().length)];
+            SupportIndexRow row = new SupportIndexRow((long) id, "Customer " + id, "user" + id + "@example.com", issue,
+                null, null, CATEGORIES[random.nextInt(CATEGORIES.length)], PRIORITIES[random.nextInt(PRIORITIES.length)],
+                status, start.plusMinutes(id / 2));
+
+            messages.clear();
+            int replies = random.nextInt(4);
+            for (int r = 0; r < replies; r++) {
+                messages.add(new SupportIndexMessage((long) id, SupportMessage.Type.MESSAGE, true,
+                    REPLIES[random.nextInt(REPLIES.length)]));
+                if (random.nextInt(3) == 0) {
+                    messages.add(new SupportIndexMessage((long) id, SupportMessage.Type.MESSAGE, false,
+                        "Still waiting, train " + train + " PNR " + ticketPnr));
+                }
+            }
+            if (random.nextInt(4) == 0) {
+                messages.add(new SupportIndexMessage((long) id, SupportMessage.Type.NOTE, true,
+                    NOTES[random.nextInt(NOTES.length)]));
+            }
+            index.index(row, List.copyOf(messages));
+        }
+
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+        System.gc();
+        System.out.printf("Indexed %d tickets in %d ms, index holds about %d MB%n", tickets, tookMs,
+            (usedHeap() - heapBefore) >> 20);
+
+        none = new TicketSearchIndex.Filter(null, null, null, null, null);
+        openHighRefunds = new TicketSearchIndex.Filter(SupportStatus.OPEN, "REFUND", "HIGH",
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30));
+        pnr = String.format("%010d", 4000000000L + tickets / 3);
+        email = "user" + (tickets / 7) + "@example.com";
+    }
+
+    @Benchmark
+    public TicketSearchIndex.Result pnrLookup() {
+        return index.search(pnr, none, 0, 20);
+    }
+
+    @Benchmark
+    public TicketSearchIndex.Result emailLookup() {
+        return index.search(email, none, 0, 20);
+    }
+
+    @Benchmark
+    public TicketSearchIndex.Result phrase() {
+        return index.search("\"settlement delayed\"", none, 0, 20);
+    }
+
+    @Benchmark
+    public TicketSearchIndex.Result broadTerm() {
+        return index.search("refund", none, 0, 20);
+    }
+
+    @Benchmark
+    public TicketSearchIndex.Result broadTermFiltered() {
+        return index.search("refund", openHighRefunds, 0, 20);
+    }
+
+    @Benchmark
+    public TicketSearchIndex.Result filtersOnly() {
+        return index.search(null, openHighRefunds, 0, 20);
+    }
+
+    @Benchmark
+    public TicketSearchIndex.Result deepPage() {
+        return index.search("payment", none, 980, 20);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    @Tag(Benchmarks.TAG)
+    void run() throws Exception {
+        Benchmarks.run(TicketSearchBenchmark.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.irctc.config;
+
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Booking;
+import com.irctc.model.Role;
+import com.irctc.model.User;
+import com.irctc.repository.UserRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private User user;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user(Role.USER);
+        booking = fixtures.booking(user, fixtures.train(1, 4), LocalDate.now().plusDays(10), 1);
+        clearInvocations(userRepository);
+    }
+
+    @Test
+    void userIdComesFromTheUidClaim() throws Exception {
+        mockMvc.perform(get("/api/bookings/user").header("Authorization", "Bearer " + fixtures.token(user)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.bookings[0].pnr").value(booking.getPnr()));
+
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void legacyTokenFallsBackToTheEmail() throws Exception {
+        mockMvc.perform(get("/api/bookings/user").header("Authorization", "Bearer " + legacyToken(user)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.bookings[0].pnr").value(booking.getPnr()));
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + legacyToken(user)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.username").value(user.getEmail()));
+
+        verify(userRepository).findByEmail(user.getEmail());
+    }
+
+    @Test
+    void legacyTokenOfADeletedUserGetsNothing() throws Exception {
+        User gone = new User();
+        gone.setEmail("deleted@example.com");
+        gone.setRole(Role.USER);
+
+        mockMvc.perform(get("/api/bookings/user").header("Authorization", "Bearer " + legacyToken(gone)))
+            .andExpect(status().isBadRequest());
+    }
+
+    // A token as issued before tokens carried a jti or a uid
+    private String legacyToken(User user) {
+        return Jwts.builder()
+            .setSubject(user.getEmail())
+            .claim("role", user.getRole().name())
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS512)
+            .compact();
+    }
+}
@@ -0,0 +1,140 @@
+package com.irctc.config;
+
+import com.irctc.model.Role;
+import com.irctc.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+    private static final String SECRET = "unit-secret-unit-secret-unit-secret-unit-secret-unit-secret-unit-secret-01";
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = jwtUtil(Duration.ofMinutes(5));
+        user = new User();
+        user.setId(42L);
+        user.setEmail("rider@example.com");
+        user.setRole(Role.USER);
+    }
+
+    @Test
+    void repeatedTokenIsServedFromTheCache() {
+        String token = jwtUtil.generateToken(user);
+
+        Claims first = jwtUtil.verify(token);
+
+        assertSame(first, jwtUtil.verify(token));
+        assertEquals("rider@example.com", first.getSubject());
+        assertEquals(42, first.get(JwtUtil.USER_ID_CLAIM, Integer.class));
+    }
+
+    @Test
+    void tamperedPayloadIsRejectedAfterTheOriginalWasCached() {
+        String token = jwtUtil.generateToken(user);
+        jwtUtil.verify(token);
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String forged = parts[0] + "." + base64Url(payload.replace("\"USER\"", "\"ADMIN\"")) + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(forged));
+        // The genuine token is still good
+        assertEquals("USER", jwtUtil.verify(token).get("role"));
+    }
+
+    @Test
+    void tamperedSignatureIsRejectedAfterTheOriginalWasCached() {
+        String token = jwtUtil.generateToken(user);
+        jwtUtil.verify(token);
+
+        char last = token.charAt(token.length() - 2);
+        String forged = token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(forged));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String token = jwtUtil.generateToken(user);
+        jwtUtil.verify(token);
+
+        String other = Jwts.builder()
+            .setSubject("rider@example.com")
+            .claim("role", "ADMIN")
+            .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(Keys.hmacShaKeyFor("another-secret-another-secret-another-secret-another-secret-0123"
+                .getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+            .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(other));
+    }
+
+    @Test
+    void expiredTokenIsRejectedAfterACacheHit() throws Exception {
+        String token = tokenExpiringIn(Duration.ofMillis(1500));
+        jwtUtil.verify(token);
+        jwtUtil.verify(token);
+
+        Thread.sleep(1600);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+        // And stays rejected once the cache entry is gone
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void cacheTtlIsCappedByTokenExpiryEvenWhenTheTtlIsLonger() throws Exception {
+        jwtUtil = jwtUtil(Duration.ofHours(1));
+        String token = tokenExpiringIn(Duration.ofMillis(1500));
+        jwtUtil.verify(token);
+
+        Thread.sleep(1600);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    private String tokenExpiringIn(Duration validity) {
+        return Jwts.builder()
+            .setSubject("rider@example.com")
+            .claim("role", "USER")
+            .claim(JwtUtil.USER_ID_CLAIM, 42)
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + validity.toMillis()))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+            .compact();
+    }
+
+    private static String base64Url(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static JwtUtil jwtUtil(Duration cacheTtl) {
+        JwtUtil jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheTtl", cacheTtl);
+        ReflectionTestUtils.setField(jwtUtil, "expirationMillis", 86_400_000L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
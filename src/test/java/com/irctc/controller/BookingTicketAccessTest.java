@@ -0,0 +1,94 @@
+package com.irctc.controller;
+
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Booking;
+import com.irctc.model.Role;
+import com.irctc.model.User;
+import com.irctc.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingTicketAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepo;
+
+    private User owner;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.user(Role.USER);
+        booking = fixtures.booking(owner, fixtures.train(1, 4), LocalDate.now().plusDays(10), 1, 2);
+    }
+
+    @Test
+    void ownerAndAdminCanMailTheTicket() throws Exception {
+        sendEmail(owner, booking.getPnr(), "me@example.com").andExpect(status().isAccepted());
+        sendEmail(fixtures.user(Role.ADMIN), booking.getPnr(), "desk@example.com").andExpect(status().isAccepted());
+    }
+
+    @Test
+    void otherUsersCannotMailSomeoneElsesTicket() throws Exception {
+        long queued = outboxRepo.count();
+
+        sendEmail(fixtures.user(Role.USER), booking.getPnr(), "attacker@example.com")
+            .andExpect(status().isForbidden());
+
+        assertEquals(queued, outboxRepo.count());
+    }
+
+    @Test
+    void unknownPnrIsNotQueued() throws Exception {
+        long queued = outboxRepo.count();
+
+        sendEmail(owner, "T999999999", "me@example.com").andExpect(status().isNotFound());
+
+        assertEquals(queued, outboxRepo.count());
+    }
+
+    @Test
+    void onlyOwnerAndAdminCanDownloadTheTicket() throws Exception {
+        download(fixtures.user(Role.USER), booking.getPnr()).andExpect(status().isForbidden());
+        download(owner, "T999999999").andExpect(status().isNotFound());
+
+        download(owner, booking.getPnr())
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_PNG));
+        download(fixtures.user(Role.ADMIN), booking.getPnr()).andExpect(status().isOk());
+    }
+
+    private ResultActions sendEmail(User caller, String pnr, String recipient) throws Exception {
+        return mockMvc.perform(post("/api/bookings/send-email")
+            .header("Authorization", "Bearer " + fixtures.token(caller))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"" + recipient + "\",\"pnr\":\"" + pnr + "\"}"));
+    }
+
+    private ResultActions download(User caller, String pnr) throws Exception {
+        return mockMvc.perform(get("/api/bookings/pnr/" + pnr + "/ticket")
+            .header("Authorization", "Bearer " + fixtures.token(caller)));
+    }
+}
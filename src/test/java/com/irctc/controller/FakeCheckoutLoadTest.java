@@ -0,0 +1,107 @@
+package com.irctc.controller;
+
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Booking;
+import com.irctc.model.Role;
+import com.irctc.model.Train;
+import com.irctc.model.User;
+import com.irctc.repository.BookingRepository;
+import com.irctc.service.PaymentEventProcessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+/**
+ * Many users checking out at once against the fake gateway: every session must come
+ * back through the inbox and end with its booking paid.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class FakeCheckoutLoadTest {
+    private static final int USERS = 40;
+    private static final Pattern SESSION_ID = Pattern.compile("session_id=(cs_fake_\\w+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private PaymentEventProcessor processor;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Test
+    void concurrentCheckoutsAllEndConfirmed() throws Exception {
+        Train train = fixtures.train(1, USERS);
+        LocalDate travelDate = LocalDate.now().plusDays(7);
+        List<User> users = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            User user = fixtures.user(Role.USER);
+            users.add(user);
+            bookings.add(fixtures.booking(user, train, travelDate, i));
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<String>> sessions = new ArrayList<>();
+        try {
+            for (int i = 0; i < USERS; i++) {
+                User user = users.get(i);
+                Booking booking = bookings.get(i);
+                sessions.add(clients.submit((Callable<String>) () -> checkout(user, booking)));
+            }
+            for (Future<String> session : sessions) {
+                session.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        processor.processPending();
+
+        for (int i = 0; i < USERS; i++) {
+            String sessionId = sessions.get(i).get();
+            Booking booking = bookingRepo.findById(bookings.get(i).getId()).orElseThrow();
+            assertEquals(sessionId, booking.getStripeSessionId());
+            mockMvc.perform(get("/api/v1/payment/status/" + sessionId)
+                    .header("Authorization", "Bearer " + fixtures.token(users.get(i))))
+                .andExpect(jsonPath("$.status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.pnr").value(booking.getPnr()));
+        }
+    }
+
+    private String checkout(User user, Booking booking) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/payment/checkout")
+                .header("Authorization", "Bearer " + fixtures.token(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookingId\": " + booking.getId() + "}"))
+            .andReturn();
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        Matcher matcher = SESSION_ID.matcher(result.getResponse().getContentAsString());
+        assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.irctc.controller;
+
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "rate-limit.enabled=true",
+    "rate-limit.rules=POST /login ANONYMOUS=3/1m"
+})
+@AutoConfigureMockMvc
+class LoginRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void signedInCallersCannotSkipTheLoginLimit() throws Exception {
+        String token = fixtures.token(fixtures.user(Role.USER));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(asyncDispatch(mockMvc.perform(login("203.0.113.5", token)).andReturn()))
+                .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(login("203.0.113.5", token))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists("Retry-After"));
+        // Nor by switching to another account's token
+        mockMvc.perform(login("203.0.113.5", fixtures.token(fixtures.user(Role.ADMIN))))
+            .andExpect(status().isTooManyRequests());
+    }
+
+    private static MockHttpServletRequestBuilder login(String address, String token) {
+        return post("/login")
+            .with(request -> {
+                request.setRemoteAddr(address);
+                return request;
+            })
+            .header("Authorization", "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"victim@example.com\",\"password\":\"guess\"}");
+    }
+}
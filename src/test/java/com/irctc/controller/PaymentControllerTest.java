@@ -0,0 +1,126 @@
+package com.irctc.controller;
+
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Booking;
+import com.irctc.model.Role;
+import com.irctc.model.Train;
+import com.irctc.model.User;
+import com.irctc.repository.BookingRepository;
+import com.irctc.repository.PassengerRepository;
+import com.irctc.service.BookingService;
+import com.irctc.service.PaymentEventProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaymentControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private PassengerRepository passengerRepo;
+
+    @Autowired
+    private PaymentEventProcessor processor;
+
+    private User owner;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.user(Role.USER);
+        Train train = fixtures.train(1, 10);
+        booking = fixtures.booking(owner, train, LocalDate.now().plusDays(5), 1);
+    }
+
+    @Test
+    void checkoutNeedsASignedInCaller() throws Exception {
+        mockMvc.perform(post("/api/v1/payment/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookingId\": " + booking.getId() + "}"))
+            .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void checkoutOfOwnBookingReturnsTheSessionUrl() throws Exception {
+        checkout(owner, "{\"bookingId\": " + booking.getId() + "}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.url").exists());
+    }
+
+    @Test
+    void checkoutOfAnotherUsersBookingIsForbidden() throws Exception {
+        checkout(fixtures.user(Role.USER), "{\"bookingId\": " + booking.getId() + "}")
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void checkoutWithoutBookingIsRejected() throws Exception {
+        checkout(owner, "{\"amount\": 100, \"metadata\": {\"trainId\": 1, \"seatIds\": \"[1]\"}}")
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cancelledBookingCannotBePaid() throws Exception {
+        bookingService.cancelBooking(booking.getPnr());
+
+        checkout(owner, "{\"bookingId\": " + booking.getId() + "}")
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("INVALID_BOOKING_REQUEST"));
+    }
+
+    @Test
+    void clientAmountAndCurrencyAreIgnored() throws Exception {
+        checkout(owner, "{\"bookingId\": " + booking.getId() + ", \"amount\": 1, \"currency\": \"usd\"}")
+            .andExpect(status().isOk());
+
+        // The fake gateway charges what the session was created with, and the webhook
+        // only confirms a payment of the quoted fare
+        processor.processPending();
+        assertNotNull(bookingRepo.findById(booking.getId()).orElseThrow().getStripeSessionId());
+    }
+
+    @Test
+    void bookingWithoutAKnownFareIsRejected() throws Exception {
+        passengerRepo.deleteAll(booking.getPassengers());
+
+        checkout(owner, "{\"bookingId\": " + booking.getId() + "}")
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorCode").value("INVALID_BOOKING_REQUEST"));
+    }
+
+    @Test
+    void unknownBookingIsNotFound() throws Exception {
+        checkout(owner, "{\"bookingId\": " + Long.MAX_VALUE + "}")
+            .andExpect(status().isNotFound());
+    }
+
+    private org.springframework.test.web.servlet.ResultActions checkout(User user, String body) throws Exception {
+        return mockMvc.perform(post("/api/v1/payment/checkout")
+            .header("Authorization", "Bearer " + fixtures.token(user))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+    }
+}
@@ -0,0 +1,190 @@
+package com.irctc.controller;
+
+import com.irctc.fixtures.Fixtures;
+import com.irctc.fixtures.StripeWebhooks;
+import com.irctc.model.Booking;
+import com.irctc.model.PaymentEvent;
+import com.irctc.model.Role;
+import com.irctc.model.User;
+import com.irctc.repository.BookingRepository;
+import com.irctc.repository.PaymentEventRepository;
+import com.irctc.service.BookingService;
+import com.irctc.service.PaymentEventProcessor;
+import com.irctc.service.fare.FareEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Signed webhook in, booking paid out: the endpoint, the inbox and the processor together.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaymentWebhookTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private PaymentEventProcessor processor;
+
+    @Autowired
+    private PaymentEventRepository paymentEventRepo;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @SpyBean
+    private BookingService bookingService;
+
+    @Value("${stripe.webhook.secret}")
+    private String webhookSecret;
+
+    @Value("${payment.webhook.max-attempts}")
+    private int maxAttempts;
+
+    private User owner;
+    private Booking booking;
+    private long fare;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.user(Role.USER);
+        booking = fixtures.booking(owner, fixtures.train(1, 10), LocalDate.now().plusDays(3), 4, 5);
+        fare = bookingService.quoteBooking(booking.getId()).orElseThrow().getTotal();
+    }
+
+    @Test
+    void paidCheckoutConfirmsTheBooking() throws Exception {
+        StripeWebhooks.Delivery delivery = paid(fare);
+
+        deliver(delivery).andExpect(status().isOk()).andExpect(jsonPath("$.duplicate").value(false));
+        assertEquals(PaymentEvent.Status.PENDING, event(delivery).getStatus());
+        paymentStatus(delivery)
+            .andExpect(jsonPath("$.status").value("PENDING"));
+
+        processor.processPending();
+
+        PaymentEvent event = event(delivery);
+        assertEquals(PaymentEvent.Status.PROCESSED, event.getStatus());
+        assertEquals(booking.getPnr(), event.getBookingPnr());
+        assertEquals(delivery.getSessionId(), bookingRepo.findById(booking.getId()).orElseThrow().getStripeSessionId());
+        paymentStatus(delivery)
+            .andExpect(jsonPath("$.status").value("CONFIRMED"))
+            .andExpect(jsonPath("$.pnr").value(booking.getPnr()));
+    }
+
+    @Test
+    void redeliveryIsStoredOnce() throws Exception {
+        StripeWebhooks.Delivery delivery = paid(fare);
+
+        deliver(delivery).andExpect(jsonPath("$.duplicate").value(false));
+        deliver(delivery).andExpect(jsonPath("$.duplicate").value(true));
+    }
+
+    @Test
+    void badSignatureIsRejected() throws Exception {
+        StripeWebhooks.Delivery forged = StripeWebhooks.checkoutCompleted("whsec_someone_else", StripeWebhooks.sessionId(),
+            "paid", fare, FareEngine.CURRENCY, metadata());
+
+        deliver(forged).andExpect(status().isBadRequest());
+        assertTrue(paymentEventRepo.findFirstBySessionIdOrderByIdDesc(forged.getSessionId()).isEmpty());
+    }
+
+    @Test
+    void underpaidCheckoutIsDeadLetteredWithoutRetries() throws Exception {
+        StripeWebhooks.Delivery delivery = paid(fare - 100);
+        deliver(delivery);
+
+        processor.processPending();
+
+        PaymentEvent event = event(delivery);
+        assertEquals(PaymentEvent.Status.DEAD, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertNull(bookingRepo.findById(booking.getId()).orElseThrow().getStripeSessionId());
+    }
+
+    @Test
+    void transientFailuresBackOffThenDeadLetter() throws Exception {
+        StripeWebhooks.Delivery delivery = paid(fare);
+        doThrow(new QueryTimeoutException("database went away"))
+            .when(bookingService).confirmPaidSession(eq(delivery.getSessionId()), any(), any(), any());
+        deliver(delivery);
+
+        processor.processPending();
+        PaymentEvent event = event(delivery);
+        assertEquals(PaymentEvent.Status.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        // Not due yet, so the next poll leaves it alone
+        processor.processPending();
+        assertEquals(1, event(delivery).getAttempts());
+
+        for (int attempt = 2; attempt <= maxAttempts; attempt++) {
+            makeDue(delivery);
+            processor.processPending();
+        }
+        event = event(delivery);
+        assertEquals(PaymentEvent.Status.DEAD, event.getStatus());
+        assertEquals(maxAttempts, event.getAttempts());
+        paymentStatus(delivery)
+            .andExpect(jsonPath("$.status").value("FAILED"));
+    }
+
+    private StripeWebhooks.Delivery paid(long amount) {
+        return StripeWebhooks.checkoutCompleted(webhookSecret, StripeWebhooks.sessionId(),
+            "paid", amount, FareEngine.CURRENCY, metadata());
+    }
+
+    private Map<String, String> metadata() {
+        return Map.of("bookingId", booking.getId().toString(), "userId", owner.getId().toString(), "pnr", booking.getPnr());
+    }
+
+    private ResultActions deliver(StripeWebhooks.Delivery delivery) throws Exception {
+        return mockMvc.perform(post("/api/v1/payment/webhook")
+            .header("Stripe-Signature", delivery.getSignature())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(delivery.getPayload()));
+    }
+
+    private ResultActions paymentStatus(StripeWebhooks.Delivery delivery) throws Exception {
+        return mockMvc.perform(get("/api/v1/payment/status/" + delivery.getSessionId())
+            .header("Authorization", "Bearer " + fixtures.token(owner)));
+    }
+
+    private PaymentEvent event(StripeWebhooks.Delivery delivery) {
+        return paymentEventRepo.findFirstBySessionIdOrderByIdDesc(delivery.getSessionId()).orElseThrow();
+    }
+
+    private void makeDue(StripeWebhooks.Delivery delivery) {
+        PaymentEvent event = event(delivery);
+        event.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        paymentEventRepo.save(event);
+    }
+}
@@ -0,0 +1,100 @@
+package com.irctc.controller;
+
+import com.irctc.model.Role;
+import com.irctc.model.User;
+import com.irctc.repository.UserRepository;
+import com.irctc.service.PasswordHashingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RegistrationTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger(5000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private PasswordHashingService passwordHashingService;
+
+    @Test
+    void registersWithAHashedPassword() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+
+        MvcResult started = mockMvc.perform(register(n)).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("signup" + n + "@example.com"))
+            .andExpect(jsonPath("$.token").isNotEmpty());
+        User saved = userRepository.findByEmail("signup" + n + "@example.com").orElseThrow();
+        assertTrue(saved.getPassword().startsWith("$2"));
+        assertFalse(passwordHashingService.needsRehash(saved.getPassword()));
+    }
+
+    @Test
+    void registrationLosingARaceIsRejectedLikeADuplicate() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+        CompletableFuture<String> hash = new CompletableFuture<>();
+        doReturn(hash).when(passwordHashingService).encode(anyString());
+
+        // The duplicate checks pass, then another sign-up takes the email while the hash runs
+        MvcResult started = mockMvc.perform(register(n)).andExpect(request().asyncStarted()).andReturn();
+        User rival = user(n);
+        rival.setUsername("rival" + n);
+        rival.setPhoneNumber("91" + String.format("%08d", n));
+        rival.setPassword("not-a-bcrypt-hash");
+        userRepository.save(rival);
+        hash.complete("$2a$04$abcdefghijklmnopqrstuuJ6yb0Y7H2z8Y1oIg5t0eZb9nA4pQm6S");
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Email already in use"));
+        assertEquals(rival.getId(), userRepository.findByEmail("signup" + n + "@example.com").orElseThrow().getId());
+    }
+
+    private static MockHttpServletRequestBuilder register(int n) {
+        return post("/register")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"username":"signup%1$d","fullname":"Sign Up %1$d","password":"secret-%1$d",
+                 "email":"signup%1$d@example.com","gender":"Other","phoneNumber":"98%2$08d","role":"USER"}
+                """.formatted(n, n));
+    }
+
+    private static User user(int n) {
+        User user = new User();
+        user.setUsername("signup" + n);
+        user.setFullname("Sign Up " + n);
+        user.setEmail("signup" + n + "@example.com");
+        user.setGender("Other");
+        user.setPhoneNumber("98" + String.format("%08d", n));
+        user.setRole(Role.USER);
+        return user;
+    }
+}
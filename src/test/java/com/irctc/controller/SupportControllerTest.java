@@ -0,0 +1,103 @@
+package com.irctc.controller;
+
+import com.irctc.dto.SupportRequest;
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Role;
+import com.irctc.model.SupportStatus;
+import com.irctc.model.User;
+import com.irctc.service.SupportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SupportControllerTest {
+    private static final String STATUS_NOTE = "Customer has raised this four times, check for fraud";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private SupportService supportService;
+
+    private User owner;
+    private User admin;
+    private Long ticketId;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.user(Role.USER);
+        admin = fixtures.user(Role.ADMIN);
+        SupportRequest request = new SupportRequest();
+        request.setName(owner.getFullname());
+        request.setEmail(owner.getEmail());
+        request.setIssue("Refund not received for a cancelled ticket");
+        ticketId = supportService.createTicket(request).getId();
+
+        // OPEN -> IN_PROGRESS with an assignment note, then a note on the next change
+        supportService.assign(ticketId, admin.getId(), admin.getEmail());
+        supportService.addResponse(ticketId, "We are checking with the bank", admin.getEmail());
+        supportService.updateStatus(ticketId, SupportStatus.RESOLVED, STATUS_NOTE, admin.getEmail());
+    }
+
+    @Test
+    void ownerSeesStatusChangesWithoutTheirNotes() throws Exception {
+        as(owner, "/api/support/" + ticketId + "/messages")
+            .andExpect(status().isOk())
+            .andExpect(content().string(not(containsString(STATUS_NOTE))))
+            .andExpect(content().string(not(containsString("Assigned to"))))
+            .andExpect(jsonPath("$[?(@.type == 'STATUS_CHANGE')]", hasSize(3)))
+            .andExpect(jsonPath("$[?(@.type == 'STATUS_CHANGE')].statusChange", hasItem("RESOLVED")))
+            .andExpect(jsonPath("$[?(@.type == 'MESSAGE')].text", hasItem("We are checking with the bank")))
+            .andExpect(jsonPath("$[?(@.type == 'NOTE')]", hasSize(0)));
+    }
+
+    @Test
+    void ownerSeesHistoryWithoutNotes() throws Exception {
+        as(owner, "/api/support/" + ticketId + "/history")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[2].status").value("RESOLVED"))
+            .andExpect(content().string(not(containsString(STATUS_NOTE))))
+            .andExpect(content().string(not(containsString("Assigned to"))));
+    }
+
+    @Test
+    void adminSeesTheNotes() throws Exception {
+        as(admin, "/api/support/" + ticketId + "/messages")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.type == 'STATUS_CHANGE')].text", hasItem(STATUS_NOTE)))
+            .andExpect(jsonPath("$[?(@.type == 'STATUS_CHANGE')].text",
+                hasItem("Assigned to " + admin.getUsername())));
+        as(admin, "/api/support/" + ticketId + "/history")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[2].notes").value(STATUS_NOTE));
+    }
+
+    @Test
+    void otherUsersCannotReadTheConversation() throws Exception {
+        as(fixtures.user(Role.USER), "/api/support/" + ticketId + "/messages")
+            .andExpect(status().isForbidden());
+    }
+
+    private ResultActions as(User user, String path) throws Exception {
+        return mockMvc.perform(get(path).header("Authorization", "Bearer " + fixtures.token(user)));
+    }
+}
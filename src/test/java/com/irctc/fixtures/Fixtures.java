@@ -0,0 +1,124 @@
+package com.irctc.fixtures;
+
+import com.irctc.config.JwtUtil;
+import com.irctc.model.Booking;
+import com.irctc.model.Passenger;
+import com.irctc.model.Role;
+import com.irctc.model.Seat;
+import com.irctc.model.Train;
+import com.irctc.model.User;
+import com.irctc.repository.BookingRepository;
+import com.irctc.repository.PassengerRepository;
+import com.irctc.repository.SeatRepository;
+import com.irctc.repository.TrainRepository;
+import com.irctc.repository.UserRepository;
+import com.irctc.service.CoachService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saves users, trains and bookings for tests. Every call makes fresh rows with unique
+ * keys, so tests sharing a context don't see each other's data.
+ */
+@Component
+@RequiredArgsConstructor
+public class Fixtures {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger(700000);
+
+    private final UserRepository userRepo;
+    private final TrainRepository trainRepo;
+    private final SeatRepository seatRepo;
+    private final BookingRepository bookingRepo;
+    private final PassengerRepository passengerRepo;
+    private final CoachService coachService;
+    private final JwtUtil jwtUtil;
+
+    public User user(Role role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("user" + n);
+        user.setFullname("Test User " + n);
+        // Never checked: tests authenticate with token(user)
+        user.setPassword("not-a-bcrypt-hash");
+        user.setEmail("user" + n + "@example.com");
+        user.setGender("Other");
+        user.setPhoneNumber("98765" + String.format("%05d", n % 100000));
+        user.setRole(role);
+        return userRepo.save(user);
+    }
+
+    public String token(User user) {
+        return jwtUtil.generateToken(user);
+    }
+
+    public Train train(int coaches, int seatsPerCoach) {
+        Train train = new Train();
+        int number = SEQUENCE.incrementAndGet();
+        train.setName("Test Express " + number);
+        train.setNumber(number);
+        train.setFromStation("NDLS");
+        train.setToStation("BCT");
+        train.setDepartureTime(LocalTime.of(16, 30));
+        train.setArrivalTime(LocalTime.of(8, 15));
+        train.setRunningDays("MO,TU,WE,TH,FR,SA,SU");
+        Long trainId = trainRepo.save(train).getId();
+        for (int i = 1; i <= coaches; i++) {
+            coachService.generateCoachSeats(trainId, "S" + i, 450.0 + i, seatsPerCoach);
+        }
+        return trainRepo.findById(trainId).orElseThrow();
+    }
+
+    /**
+     * A confirmed, unpaid booking of the given seats in the train's first coach, one
+     * adult passenger per seat, as {@code BookingService.bookSeats} leaves it.
+     */
+    @Transactional
+    public Booking booking(User user, Train train, LocalDate travelDate, int... seatNumbers) {
+        List<Seat> coachSeats = seatRepo.findByCoach_CoachNumberAndCoach_Train_Id("S1", train.getId());
+        List<Seat> seats = new ArrayList<>();
+        for (int seatNumber : seatNumbers) {
+            Seat seat = coachSeats.stream().filter(s -> s.getSeatNumber() == seatNumber).findFirst().orElseThrow();
+            seat.setAvailable(false);
+            seat.setBooked(true);
+            seats.add(seat);
+        }
+        seatRepo.saveAll(seats);
+
+        Booking booking = new Booking();
+        booking.setTrain(train);
+        booking.setUser(user);
+        booking.setSeats(seats);
+        booking.setTravelDate(travelDate);
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setBookingStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setPnr("T" + SEQUENCE.incrementAndGet());
+        booking.setSeatClass("Seating");
+        booking.setUserEmail(user.getEmail());
+        booking.setFromStation(train.getFromStation());
+        booking.setToStation(train.getToStation());
+        Booking saved = bookingRepo.save(booking);
+
+        List<Passenger> passengers = new ArrayList<>();
+        for (Seat seat : seats) {
+            Passenger passenger = new Passenger();
+            passenger.setName("Passenger " + seat.getSeatNumber());
+            passenger.setAge(35);
+            passenger.setGender("Other");
+            passenger.setSeatId(seat.getId());
+            passenger.setAadhaar(String.format("%012d", seat.getId()));
+            passenger.setBooking(saved);
+            passengers.add(passenger);
+        }
+        passengerRepo.saveAll(passengers);
+        saved.setPassengers(passengers);
+        return saved;
+    }
+}
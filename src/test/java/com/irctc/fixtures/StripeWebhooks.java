@@ -0,0 +1,67 @@
+package com.irctc.fixtures;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.net.Webhook;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds {@code checkout.session.completed} webhook deliveries signed the way Stripe
+ * signs them, for exercising the payment inbox without Stripe.
+ */
+public final class StripeWebhooks {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private StripeWebhooks() {
+    }
+
+    public static String sessionId() {
+        return "cs_test_" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public static Delivery checkoutCompleted(String secret, String sessionId, String paymentStatus,
+                                             Long amountTotal, String currency, Map<String, String> metadata) {
+        Map<String, Object> session = new LinkedHashMap<>();
+        session.put("id", sessionId);
+        session.put("object", "checkout.session");
+        session.put("mode", "payment");
+        session.put("status", "complete");
+        session.put("payment_status", paymentStatus);
+        session.put("amount_total", amountTotal);
+        session.put("currency", currency);
+        session.put("metadata", metadata);
+
+        long now = Webhook.Util.getTimeNow();
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", "evt_test_" + UUID.randomUUID().toString().replace("-", ""));
+        event.put("object", "event");
+        event.put("api_version", "2023-10-16");
+        event.put("created", now);
+        event.put("livemode", false);
+        event.put("type", "checkout.session.completed");
+        event.put("data", Map.of("object", session));
+
+        try {
+            String payload = MAPPER.writeValueAsString(event);
+            String signature = "t=" + now + ",v1=" + Webhook.Util.computeHmacSha256(secret, now + "." + payload);
+            return new Delivery(sessionId, payload, signature);
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not build webhook event", e);
+        }
+    }
+
+    /** Body and {@code Stripe-Signature} header of one webhook POST. */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Delivery {
+        private final String sessionId;
+        private final String payload;
+        private final String signature;
+    }
+}
@@ -0,0 +1,176 @@
+package com.irctc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.dto.PnrStatusSummary;
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Booking;
+import com.irctc.model.Role;
+import com.irctc.model.Train;
+import com.irctc.model.User;
+import com.irctc.repository.ArchivedBookingRepository;
+import com.irctc.repository.BookingRepository;
+import com.irctc.repository.PassengerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingArchiveServiceTest {
+    private static final LocalDateTime BOOKED = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private BookingArchiveService archiveService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @SpyBean
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepo;
+
+    @Autowired
+    private PassengerRepository passengerRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User user;
+    private Train train;
+    private int nextSeat;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user(Role.USER);
+        train = fixtures.train(1, 40);
+        nextSeat = 1;
+    }
+
+    @Test
+    void archivedPnrStillResolves() {
+        Booking old = booking(LocalDate.now().minusDays(90), BOOKED, 2);
+
+        assertTrue(archiveService.archivePastJourneys() >= 1);
+
+        assertFalse(bookingRepo.findByPnr(old.getPnr()).isPresent());
+        assertTrue(archivedBookingRepo.findByPnr(old.getPnr()).isPresent());
+        BookingService.PnrDetailsResponse details = bookingService.getPnrDetails(old.getPnr());
+        assertEquals(old.getPnr(), details.getPnr());
+        assertEquals(user.getId(), details.getUserId());
+        assertEquals(2, details.getPassengers().size());
+        assertEquals(2, details.getSeatIds().size());
+
+        Map<String, PnrStatusSummary> statuses = bookingService.getPnrStatuses(List.of(old.getPnr(), "T0000000"));
+        assertEquals("CONFIRMED", statuses.get(old.getPnr()).getBookingStatus());
+        assertEquals(2L, statuses.get(old.getPnr()).getPassengerCount());
+        assertNull(statuses.get("T0000000"));
+    }
+
+    @Test
+    void historyPagesMergeBothTablesWithoutGapsOrDuplicates() throws Exception {
+        // Booked an hour apart, alternating between journeys that get archived and ones that don't
+        List<String> newestFirst = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            LocalDate travel = i % 2 == 0 ? LocalDate.now().minusDays(60 + i) : LocalDate.now().plusDays(5 + i);
+            newestFirst.add(0, booking(travel, BOOKED.plusHours(i), 1).getPnr());
+        }
+        // Two bookings made in the same second, one of each, are ordered by id
+        newestFirst.add(0, booking(LocalDate.now().minusDays(45), BOOKED.plusHours(20), 1).getPnr());
+        newestFirst.add(0, booking(LocalDate.now().plusDays(3), BOOKED.plusHours(20), 1).getPnr());
+
+        archiveService.archivePastJourneys();
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = history(cursor, 3);
+            page.get("bookings").forEach(booking -> seen.add(booking.get("pnr").asText()));
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(newestFirst, seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void failedBatchRollsBackInsertsAndDeletes() {
+        Booking old = booking(LocalDate.now().minusDays(90), BOOKED, 2);
+        long passengers = passengerRepo.count();
+        // Fails only once the batch has been written to the archive and deleted from the hot tables
+        doAnswer(invocation -> {
+            entityManager.createQuery("DELETE FROM Booking b WHERE b.id IN :ids")
+                .setParameter("ids", invocation.getArgument(0))
+                .executeUpdate();
+            throw new IllegalStateException("connection lost");
+        }).when(bookingRepo).deleteByIdIn(anyCollection());
+
+        assertThrows(IllegalStateException.class, () -> archiveService.archivePastJourneys());
+
+        assertTrue(bookingRepo.findByPnr(old.getPnr()).isPresent());
+        assertFalse(archivedBookingRepo.findByPnr(old.getPnr()).isPresent());
+        assertEquals(passengers, passengerRepo.count());
+        assertEquals(2, bookingRepo.findSeatIdsByBookingId(old.getId()).size());
+    }
+
+    private Booking booking(LocalDate travelDate, LocalDateTime bookedAt, int seats) {
+        int[] seatNumbers = new int[seats];
+        for (int i = 0; i < seats; i++) {
+            seatNumbers[i] = nextSeat++;
+        }
+        Booking booking = fixtures.booking(user, train, travelDate, seatNumbers);
+        transactionTemplate.executeWithoutResult(tx ->
+            bookingRepo.findById(booking.getId()).orElseThrow().setBookingTime(bookedAt));
+        return booking;
+    }
+
+    private JsonNode history(String cursor, int size) throws Exception {
+        var request = get("/api/bookings/user")
+            .header("Authorization", "Bearer " + fixtures.token(user))
+            .param("size", Integer.toString(size));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
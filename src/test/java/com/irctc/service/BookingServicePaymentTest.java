@@ -0,0 +1,122 @@
+package com.irctc.service;
+
+import com.irctc.Exception.InvalidBookingRequestException;
+import com.irctc.Exception.SeatsNotAvailableException;
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Booking;
+import com.irctc.model.Role;
+import com.irctc.model.Train;
+import com.irctc.model.User;
+import com.irctc.repository.BookingRepository;
+import com.irctc.service.fare.FareEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BookingServicePaymentTest {
+    private static final LocalDate TRAVEL_DATE = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    private User owner;
+    private Train train;
+    private Booking booking;
+    private long fare;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.user(Role.USER);
+        train = fixtures.train(1, 10);
+        booking = fixtures.booking(owner, train, TRAVEL_DATE, 1, 2);
+        fare = bookingService.quoteBooking(booking.getId()).orElseThrow().getTotal();
+    }
+
+    @Test
+    void paidSessionIsLinkedOnceAndRepeatsReturnTheSamePnr() {
+        String session = session();
+
+        assertEquals(booking.getPnr(), bookingService.confirmPaidSession(session, metadata(booking, owner), fare, "inr"));
+        assertEquals(booking.getPnr(), bookingService.confirmPaidSession(session, metadata(booking, owner), fare, "inr"));
+        assertEquals(session, bookingRepo.findById(booking.getId()).orElseThrow().getStripeSessionId());
+    }
+
+    @Test
+    void sessionChargingAnotherAmountIsRejected() {
+        assertThrows(InvalidBookingRequestException.class,
+            () -> bookingService.confirmPaidSession(session(), metadata(booking, owner), 100L, "inr"));
+        assertThrows(InvalidBookingRequestException.class,
+            () -> bookingService.confirmPaidSession(session(), metadata(booking, owner), fare, "usd"));
+        assertThrows(InvalidBookingRequestException.class,
+            () -> bookingService.confirmPaidSession(session(), metadata(booking, owner), null, "inr"));
+        assertNull(bookingRepo.findById(booking.getId()).orElseThrow().getStripeSessionId());
+    }
+
+    @Test
+    void sessionStartedByAnotherUserCannotClaimTheBooking() {
+        User other = fixtures.user(Role.USER);
+
+        assertThrows(InvalidBookingRequestException.class,
+            () -> bookingService.confirmPaidSession(session(), metadata(booking, other), fare, FareEngine.CURRENCY));
+    }
+
+    @Test
+    void sessionWithoutBookingIsRejected() {
+        assertThrows(InvalidBookingRequestException.class,
+            () -> bookingService.confirmPaidSession(session(),
+                Map.of("trainId", train.getId().toString(), "userId", owner.getId().toString(), "seatIds", "[1,2]"),
+                fare, FareEngine.CURRENCY));
+    }
+
+    @Test
+    void secondSessionForAPaidBookingIsRejected() {
+        bookingService.confirmPaidSession(session(), metadata(booking, owner), fare, FareEngine.CURRENCY);
+
+        assertThrows(InvalidBookingRequestException.class,
+            () -> bookingService.confirmPaidSession(session(), metadata(booking, owner), fare, FareEngine.CURRENCY));
+    }
+
+    @Test
+    void cancelledBookingIsNotConfirmed() {
+        bookingService.cancelBooking(booking.getPnr());
+
+        assertThrows(InvalidBookingRequestException.class,
+            () -> bookingService.confirmPaidSession(session(), metadata(booking, owner), fare, FareEngine.CURRENCY));
+    }
+
+    @Test
+    void seatsTakenByAnotherBookingAreRechecked() {
+        bookingService.cancelBooking(booking.getPnr());
+        Booking stale = fixtures.booking(owner, train, TRAVEL_DATE, 3);
+        Booking other = fixtures.booking(fixtures.user(Role.USER), train, TRAVEL_DATE, 3);
+        long staleFare = bookingService.quoteBooking(stale.getId()).orElseThrow().getTotal();
+
+        assertThrows(SeatsNotAvailableException.class,
+            () -> bookingService.confirmPaidSession(session(), metadata(stale, owner), staleFare, FareEngine.CURRENCY));
+        assertNull(bookingRepo.findById(other.getId()).orElseThrow().getStripeSessionId());
+    }
+
+    private static String session() {
+        return "cs_test_" + UUID.randomUUID();
+    }
+
+    private static Map<String, String> metadata(Booking booking, User user) {
+        return Map.of("bookingId", booking.getId().toString(), "userId", user.getId().toString());
+    }
+}
@@ -0,0 +1,103 @@
+package com.irctc.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.irctc.dto.BulkMailJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the bulk sender against GreenMail on the test SMTP port. Two connections that
+ * carry five messages each and batches of ten keep the connection counts exact.
+ */
+@SpringBootTest(properties = {
+    "email.bulk.connections=2",
+    "email.bulk.messages-per-connection=5",
+    "email.bulk.batch-size=10",
+    "email.bulk.rate-per-second=20"
+})
+class BulkNotificationServiceTest {
+    // A new server per test, so connections left in the pool are reopened
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+        .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private BulkNotificationService bulkService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void connectionsAreReusedAndRecycledAfterTheLimit() throws Exception {
+        double opened = connectionsOpened();
+
+        BulkMailJob job = finish(bulkService.send("Delay", "<p>Running late</p>", recipients(20)));
+
+        assertEquals(BulkMailJob.Status.COMPLETED, job.getStatus());
+        assertEquals(20, job.getSent().get());
+        assertEquals(20, greenMail.getReceivedMessages().length);
+        // One connection per five messages, not one per message
+        assertEquals(4, connectionsOpened() - opened);
+    }
+
+    @Test
+    void sendsNoFasterThanTheRateCap() throws Exception {
+        long start = System.nanoTime();
+
+        BulkMailJob job = finish(bulkService.send("Delay", "<p>Running late</p>", recipients(20)));
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(20, job.getSent().get());
+        // 20 per second: the last of 20 sends starts 19 intervals of 50 ms after the first
+        assertTrue(elapsedMillis >= 19 * 50, "20 messages took only " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void refusedRecipientsAreCountedAndTheRestDelivered() throws Exception {
+        List<String> recipients = recipients(9);
+        // GreenMail answers 501 to a RCPT whose address contains '>'
+        String refused = "\"no>box\"@example.com";
+        recipients.add(4, refused);
+
+        BulkMailJob job = finish(bulkService.send("Delay", "<p>Running late</p>", recipients));
+
+        assertEquals(BulkMailJob.Status.COMPLETED, job.getStatus());
+        assertEquals(9, job.getSent().get());
+        assertEquals(1, job.getFailed().get());
+        assertEquals(List.of(refused), job.getFailedRecipients());
+        assertEquals(9, greenMail.getReceivedMessages().length);
+    }
+
+    private double connectionsOpened() {
+        return meterRegistry.get("email.bulk.connections").functionCounter().count();
+    }
+
+    private static List<String> recipients(int count) {
+        List<String> recipients = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            recipients.add("passenger" + i + "@example.com");
+        }
+        return recipients;
+    }
+
+    private static BulkMailJob finish(BulkMailJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(job.isFinished(), "Bulk mail job did not finish");
+        return job;
+    }
+}
@@ -0,0 +1,93 @@
+package com.irctc.service;
+
+import com.irctc.dto.CoachDTO;
+import com.irctc.dto.SeatDTO;
+import com.irctc.fixtures.Fixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CoachServiceTest {
+    @Autowired
+    private CoachService coachService;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void seatMapOfAFullTrainIsBuiltWithOneQuery() {
+        Long trainId = trainWithCoaches(24, 100);
+        // Loads the fare table, which later calls share
+        coachService.getCoachesByTrainId(trainId);
+
+        statistics.clear();
+        List<CoachDTO> coaches = coachService.getCoachesByTrainId(trainId);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(24, coaches.size());
+        for (CoachDTO coach : coaches) {
+            assertEquals(100, coach.getSeats().size());
+            assertEquals(100, coach.getAvailableSeats());
+            assertEquals(1, coach.getSeats().get(0).getSeatNumber());
+            assertEquals(100, coach.getSeats().get(99).getSeatNumber());
+            for (SeatDTO seat : coach.getSeats()) {
+                assertEquals(coach.getFare(), seat.getFare());
+            }
+        }
+    }
+
+    @Test
+    void queryCountDoesNotGrowWithCoaches() {
+        Long small = trainWithCoaches(1, 10);
+        Long large = trainWithCoaches(12, 100);
+        coachService.getCoachesByTrainId(small);
+        coachService.getCoachesByTrainId(large);
+
+        statistics.clear();
+        coachService.getCoachesByTrainId(small);
+        long forSmall = statistics.getPrepareStatementCount();
+        statistics.clear();
+        coachService.getCoachesByTrainId(large);
+
+        assertEquals(forSmall, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void trainWithoutCoachesNeedsOneMoreQuery() {
+        Long trainId = trainWithCoaches(0, 0);
+
+        statistics.clear();
+        assertTrue(coachService.getCoachesByTrainId(trainId).isEmpty());
+        assertTrue(statistics.getPrepareStatementCount() <= 2);
+    }
+
+    @Test
+    void unknownTrainIsRejected() {
+        assertThrows(RuntimeException.class, () -> coachService.getCoachesByTrainId(Long.MAX_VALUE));
+    }
+
+    private Long trainWithCoaches(int coaches, int seatsPerCoach) {
+        return fixtures.train(coaches, seatsPerCoach).getId();
+    }
+}
@@ -0,0 +1,100 @@
+package com.irctc.service;
+
+import com.irctc.config.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitServiceTest {
+    private static final String RULES = "POST /login ANONYMOUS=3/1m; POST /api/bookings/book USER=2/1m";
+
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = rateLimitService(100_000);
+    }
+
+    @Test
+    void signedInCallersGetTheAnonymousLimitByAddress() {
+        AuthenticatedUser user = new AuthenticatedUser(1L, "a@example.com", "USER");
+        AuthenticatedUser other = new AuthenticatedUser(2L, "b@example.com", "USER");
+        AuthenticatedUser admin = new AuthenticatedUser(3L, "c@example.com", "ADMIN");
+
+        assertEquals(0, login(user, "10.0.0.1"));
+        assertEquals(0, login(other, "10.0.0.1"));
+        assertEquals(0, login(null, "10.0.0.1"));
+
+        assertTrue(login(admin, "10.0.0.1") > 0);
+        assertTrue(login(user, "10.0.0.1") > 0);
+        assertEquals(0, login(user, "10.0.0.2"));
+    }
+
+    @Test
+    void routeWithoutAnAnonymousLimitOnlyLimitsItsRoles() {
+        AuthenticatedUser user = new AuthenticatedUser(1L, "a@example.com", "USER");
+        AuthenticatedUser admin = new AuthenticatedUser(3L, "c@example.com", "ADMIN");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimitService.acquire("POST", "/api/bookings/book", admin, "10.0.0.1"));
+            assertEquals(0, rateLimitService.acquire("POST", "/api/bookings/book", null, "10.0.0.1"));
+        }
+
+        assertEquals(0, rateLimitService.acquire("POST", "/api/bookings/book", user, "10.0.0.1"));
+        assertEquals(0, rateLimitService.acquire("POST", "/api/bookings/book", user, "10.0.0.2"));
+        assertTrue(rateLimitService.acquire("POST", "/api/bookings/book", user, "10.0.0.3") > 0);
+    }
+
+    @Test
+    void ipv6ClientsShareABucketPerSlash64() {
+        assertEquals(0, login(null, "2001:db8:1:2::1"));
+        assertEquals(0, login(null, "2001:db8:1:2:aaaa:bbbb:cccc:dddd"));
+        assertEquals(0, login(null, "2001:0db8:0001:0002:0:0:0:ffff"));
+
+        assertTrue(login(null, "2001:db8:1:2::ffff%eth0") > 0);
+        assertEquals(0, login(null, "2001:db8:1:3::1"));
+        assertEquals(0, login(null, "::1"));
+    }
+
+    @Test
+    void ipv4MappedAddressesShareTheIpv4Bucket() {
+        assertEquals(0, login(null, "192.0.2.7"));
+        assertEquals(0, login(null, "::ffff:192.0.2.7"));
+        assertEquals(0, login(null, "0:0:0:0:0:ffff:192.0.2.7"));
+
+        assertTrue(login(null, "192.0.2.7") > 0);
+    }
+
+    @Test
+    void rotatingAddressesDoNotLiftTheLimit() {
+        rateLimitService = rateLimitService(256);
+        for (int i = 0; i < 3; i++) {
+            login(null, "2001:db8:aaaa:1::1");
+        }
+        assertTrue(login(null, "2001:db8:aaaa:1::1") > 0);
+
+        // Far more prefixes than the table holds
+        for (int i = 0; i < 20_000; i++) {
+            login(null, "2001:db8:" + Integer.toHexString(i >> 8) + ":" + Integer.toHexString(i & 0xff) + "::1");
+        }
+
+        assertTrue(login(null, "2001:db8:aaaa:1::1") > 0);
+    }
+
+    private long login(AuthenticatedUser user, String address) {
+        return rateLimitService.acquire("POST", "/login", user, address);
+    }
+
+    private static RateLimitService rateLimitService(int maxKeys) {
+        RateLimitService service = new RateLimitService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "rulesSpec", RULES);
+        ReflectionTestUtils.setField(service, "stripes", 4);
+        ReflectionTestUtils.setField(service, "maxKeysPerRoute", maxKeys);
+        ReflectionTestUtils.invokeMethod(service, "start");
+        return service;
+    }
+}
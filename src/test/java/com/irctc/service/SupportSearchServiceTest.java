@@ -0,0 +1,74 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportRequest;
+import com.irctc.dto.SupportSearchHit;
+import com.irctc.dto.SupportSearchPage;
+import com.irctc.model.SupportStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SupportSearchServiceTest {
+    @Autowired
+    private SupportService supportService;
+
+    @Autowired
+    private SupportSearchService searchService;
+
+    @Test
+    void wholeConversationIsSearchableOnceCommitted() throws Exception {
+        SupportRequest request = new SupportRequest();
+        request.setName("Kavya Rao");
+        request.setEmail("kavya.rao@example.com");
+        request.setIssue("Money debited twice for one ticket");
+        Long id = supportService.createTicket(request).getId();
+
+        supportService.addResponse(id, "Please send the Razorpay reference", "agent1");
+        supportService.addMessage(id, "Reference is pay_Qx19fkLm, debited from Canara", "kavya.rao@example.com", false);
+        supportService.updateStatus(id, SupportStatus.IN_PROGRESS, "Chargeback raised with settlement team", "agent1");
+        // The latest reply is the only one the ticket row keeps
+        supportService.addResponse(id, "Second amount will be reversed", "agent1");
+
+        assertEquals(List.of(id), awaitHits("razorpay reference", 1));
+        assertEquals(List.of(id), awaitHits("canara", 1));
+        assertEquals(List.of(id), awaitHits("\"settlement team\"", 1));
+        assertEquals(List.of(id), awaitHits("reversed", 1));
+    }
+
+    @Test
+    void rebuildReadsConversationsToo() throws Exception {
+        SupportRequest request = new SupportRequest();
+        request.setName("Arjun Das");
+        request.setEmail("arjun.das@example.com");
+        request.setIssue("Berth changed after charting");
+        Long id = supportService.createTicket(request).getId();
+        supportService.addMessage(id, "Coach B4 became B7 without notice", "arjun.das@example.com", false);
+        supportService.addResponse(id, "Escalated to the zonal office", "agent2");
+        awaitHits("zonal", 1);
+
+        // A running rebuild is fine too: the replay covers tickets changed during it
+        searchService.startRebuild();
+
+        assertEquals(List.of(id), awaitHits("\"b4 became b7\"", 1));
+    }
+
+    // Index writes land on the indexer thread after commit
+    private List<Long> awaitHits(String query, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        SupportSearchPage page;
+        do {
+            page = searchService.search(query, null, null, null, null, null, 0, 10);
+            if (page.isIndexReady() && page.getTotal() == expected) {
+                break;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        return page.getHits().stream().map(SupportSearchHit::getTicketId).toList();
+    }
+}
@@ -0,0 +1,146 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportAdminLoad;
+import com.irctc.dto.SupportRequest;
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Role;
+import com.irctc.model.Support;
+import com.irctc.model.SupportStatus;
+import com.irctc.model.User;
+import com.irctc.repository.SupportRepository;
+import com.irctc.service.support.SlaBreach;
+import com.irctc.service.support.TicketClassifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SupportServiceTest {
+    @Autowired
+    private SupportService supportService;
+
+    @Autowired
+    private SupportRepository supportRepository;
+
+    @Autowired
+    private SupportAssignmentService assignmentService;
+
+    @Autowired
+    private SupportClassifierService classifierService;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void reopenedTicketGetsAFreshSlaDeadline() {
+        Long id = ticket("Refund not received for a cancelled ticket");
+        supportService.updateStatus(id, SupportStatus.RESOLVED, null, "agent1");
+        Support resolved = supportRepository.findById(id).orElseThrow();
+        assertTrue(resolved.isResolved());
+        assertNull(resolved.getSlaDueAt());
+
+        LocalDateTime reopenedAt = LocalDateTime.now();
+        supportService.updateStatus(id, SupportStatus.OPEN, "Customer says the refund never came", "agent1");
+
+        Support reopened = supportRepository.findById(id).orElseThrow();
+        assertFalse(reopened.isResolved());
+        assertNotNull(reopened.getSlaDueAt());
+        assertTrue(reopened.getSlaDueAt().isAfter(reopenedAt));
+        // And it can breach again once that deadline passes
+        SlaBreach breach = supportService.breachSla(id, reopened.getSlaDueAt().plusSeconds(1)).orElseThrow();
+        assertEquals(SlaBreach.Action.ESCALATED, breach.getAction());
+    }
+
+    @Test
+    void movingBetweenOpenStatesKeepsTheDeadline() {
+        Long id = ticket("Seat not allotted after charting");
+        LocalDateTime due = supportRepository.findById(id).orElseThrow().getSlaDueAt();
+
+        supportService.updateStatus(id, SupportStatus.IN_PROGRESS, null, "agent1");
+
+        assertEquals(due, supportRepository.findById(id).orElseThrow().getSlaDueAt());
+    }
+
+    @Test
+    void closingAResolvedTicketKeepsItResolved() {
+        Long id = ticket("Food was not delivered");
+        supportService.updateStatus(id, SupportStatus.RESOLVED, null, "agent1");
+        supportService.updateStatus(id, SupportStatus.CLOSED, null, "agent1");
+
+        Support closed = supportRepository.findById(id).orElseThrow();
+        assertTrue(closed.isResolved());
+        assertNull(closed.getSlaDueAt());
+    }
+
+    @Test
+    void reopenedTicketIsBackOnItsAdminsLoad() {
+        User admin = fixtures.user(Role.ADMIN);
+        assignmentService.registerAdmin(admin);
+        Long id = ticket("Money debited but booking failed");
+        supportService.assign(id, admin.getId(), "lead");
+        assertEquals(1, load(admin));
+
+        supportService.updateStatus(id, SupportStatus.RESOLVED, null, admin.getEmail());
+        assertEquals(0, load(admin));
+        supportService.updateStatus(id, SupportStatus.OPEN, null, admin.getEmail());
+        assertEquals(1, load(admin));
+
+        // The database agrees, so a resync keeps it there
+        assignmentService.resync();
+        assertEquals(1, load(admin));
+    }
+
+    @Test
+    void referencedPnrsAreCutToWholeCodesThatFitTheColumn() {
+        Properties dictionary = new Properties();
+        dictionary.setProperty("category.order", "GENERAL");
+        dictionary.setProperty("pnr.prefixes", "pnr");
+        dictionary.setProperty("pnr.code-length", "40");
+        TicketClassifier classifier = (TicketClassifier) ReflectionTestUtils.getField(classifierService, "classifier");
+        ReflectionTestUtils.setField(classifierService, "classifier", TicketClassifier.fromDictionary(dictionary));
+        try {
+            StringBuilder issue = new StringBuilder("Charged for all of these:");
+            for (char c = 'A'; c < 'F'; c++) {
+                issue.append(" PNR ").append(String.valueOf(c).repeat(40));
+            }
+            Long id = ticket(issue.toString());
+
+            // Each is 44 characters, so only two fit in 100
+            assertEquals("PNR-" + "A".repeat(40) + ",PNR-" + "B".repeat(40),
+                supportRepository.findById(id).orElseThrow().getReferencedPnrs());
+
+            dictionary.setProperty("pnr.code-length", "120");
+            ReflectionTestUtils.setField(classifierService, "classifier", TicketClassifier.fromDictionary(dictionary));
+            Long tooLong = ticket("Charged twice for PNR " + "C".repeat(120));
+            assertNull(supportRepository.findById(tooLong).orElseThrow().getReferencedPnrs());
+        } finally {
+            ReflectionTestUtils.setField(classifierService, "classifier", classifier);
+        }
+    }
+
+    private int load(User admin) {
+        return assignmentService.getLoads().stream()
+            .filter(load -> load.getAdminId().equals(admin.getId()))
+            .mapToInt(SupportAdminLoad::getOpenTickets)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private Long ticket(String issue) {
+        SupportRequest request = new SupportRequest();
+        request.setName("Meera Iyer");
+        request.setEmail("meera.iyer@example.com");
+        request.setIssue(issue);
+        return supportService.createTicket(request).getId();
+    }
+}
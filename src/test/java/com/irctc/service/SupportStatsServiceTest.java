@@ -0,0 +1,90 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportRequest;
+import com.irctc.dto.SupportTicketStats;
+import com.irctc.model.Support;
+import com.irctc.model.SupportStatus;
+import com.irctc.repository.SupportRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SupportStatsServiceTest {
+    @Autowired
+    private SupportStatsService statsService;
+
+    @Autowired
+    private SupportService supportService;
+
+    @Autowired
+    private SupportRepository supportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countsFollowCommittedChangesAndMatchAResync() {
+        statsService.resync();
+        SupportTicketStats before = statsService.getStats();
+
+        Long resolved = ticket("Refund not credited");
+        Long open = ticket("Seat changed after charting");
+        supportService.updateStatus(resolved, SupportStatus.RESOLVED, null, "agent1");
+        supportService.updateStatus(open, SupportStatus.IN_PROGRESS, null, "agent1");
+
+        SupportTicketStats live = statsService.getStats();
+        assertEquals(before.getTotal() + 2, live.getTotal());
+        assertEquals(before.getResolved() + 1, live.getResolved());
+        assertEquals(before.getInProgress() + 1, live.getInProgress());
+        assertEquals(before.getNeedsAttention(), live.getNeedsAttention());
+
+        statsService.resync();
+        assertStatsEqual(live, statsService.getStats());
+    }
+
+    @Test
+    void resyncPicksUpTicketsWrittenElsewhere() {
+        statsService.resync();
+        SupportTicketStats before = statsService.getStats();
+
+        // As another instance would: straight to the database, no event here
+        Long old = supportRepository.save(
+            new Support("Ravi Kumar", "ravi.kumar@example.com", "Tatkal payment failed")).getId();
+        supportRepository.save(new Support("Ravi Kumar", "ravi.kumar@example.com", "Second attempt also failed"));
+        // submitted_at is set on insert, so backdate it underneath the entity
+        jdbcTemplate.update("UPDATE support_tickets SET submitted_at = ? WHERE id = ?",
+            LocalDateTime.now().minusDays(3), old);
+        assertStatsEqual(before, statsService.getStats());
+
+        statsService.resync();
+
+        SupportTicketStats after = statsService.getStats();
+        assertEquals(before.getTotal() + 2, after.getTotal());
+        assertEquals(before.getOpen() + 2, after.getOpen());
+        // Only the three-day-old ticket is past the attention threshold
+        assertEquals(before.getNeedsAttention() + 1, after.getNeedsAttention());
+    }
+
+    private Long ticket(String issue) {
+        SupportRequest request = new SupportRequest();
+        request.setName("Nisha Verma");
+        request.setEmail("nisha.verma@example.com");
+        request.setIssue(issue);
+        return supportService.createTicket(request).getId();
+    }
+
+    private static void assertStatsEqual(SupportTicketStats expected, SupportTicketStats actual) {
+        assertEquals(expected.getTotal(), actual.getTotal());
+        assertEquals(expected.getOpen(), actual.getOpen());
+        assertEquals(expected.getInProgress(), actual.getInProgress());
+        assertEquals(expected.getResolved(), actual.getResolved());
+        assertEquals(expected.getClosed(), actual.getClosed());
+        assertEquals(expected.getNeedsAttention(), actual.getNeedsAttention());
+    }
+}
@@ -0,0 +1,118 @@
+package com.irctc.service;
+
+import com.irctc.dto.SupportRequest;
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SupportStreamServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private SupportService supportService;
+
+    @Autowired
+    private SupportStreamService supportStreamService;
+
+    @Test
+    void committedTicketChangesAreFlushedToDashboards() throws Exception {
+        MockHttpServletResponse stream = subscribe();
+        assertTrue(stream.getContentAsString().contains("event:stats"));
+
+        Long id = ticket("Tatkal booking charged twice");
+
+        waitFor(() -> content(stream).contains("event:tickets") && content(stream).contains("\"id\":" + id));
+    }
+
+    @Test
+    void dashboardThatCannotBeWrittenToIsDropped() throws Exception {
+        SseEmitter gone = new SseEmitter() {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        List<SseEmitter> clients = clients();
+        clients.add(gone);
+
+        ticket("Refund stuck for three weeks");
+
+        waitFor(() -> !clients.contains(gone));
+    }
+
+    @Test
+    void idleStreamGetsAHeartbeat() throws Exception {
+        Duration heartbeat = (Duration) ReflectionTestUtils.getField(supportStreamService, "heartbeat");
+        ReflectionTestUtils.setField(supportStreamService, "heartbeat", Duration.ofMillis(200));
+        try {
+            MockHttpServletResponse stream = subscribe();
+
+            // Nothing changes, yet the stream keeps getting written to
+            waitFor(() -> content(stream).split(":heartbeat", -1).length > 2);
+        } finally {
+            ReflectionTestUtils.setField(supportStreamService, "heartbeat", heartbeat);
+        }
+    }
+
+    private MockHttpServletResponse subscribe() throws Exception {
+        String token = fixtures.token(fixtures.user(Role.ADMIN));
+        return mockMvc.perform(get("/api/support/stream").header("Authorization", "Bearer " + token))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SseEmitter> clients() {
+        return (List<SseEmitter>) ReflectionTestUtils.getField(supportStreamService, "clients");
+    }
+
+    private Long ticket(String issue) {
+        SupportRequest request = new SupportRequest();
+        request.setName("Meera Iyer");
+        request.setEmail("meera.iyer@example.com");
+        request.setIssue(issue);
+        return supportService.createTicket(request).getId();
+    }
+
+    private static String content(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean(), "Stream did not catch up");
+    }
+}
@@ -0,0 +1,209 @@
+package com.irctc.service;
+
+import com.irctc.config.JwtUtil;
+import com.irctc.fixtures.Fixtures;
+import com.irctc.model.RevokedToken;
+import com.irctc.model.Role;
+import com.irctc.model.User;
+import com.irctc.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Test
+    void legacyTokenIsRevokedWithItsUser() throws Exception {
+        User user = fixtures.user(Role.USER);
+        String legacy = legacyToken(user);
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + legacy))
+            .andExpect(status().isOk());
+
+        // A token with a uid revokes every token of the user, including the legacy one
+        mockMvc.perform(post("/api/auth/logout-all").header("Authorization", "Bearer " + fixtures.token(user)))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + legacy))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loggingOutWithALegacyTokenRevokesIt() throws Exception {
+        User user = fixtures.user(Role.USER);
+        User other = fixtures.user(Role.USER);
+        String legacy = legacyToken(user);
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + legacy))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + legacy))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + legacyToken(other)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void logoutAllRejectsTokensIssuedUpToItsSecond() {
+        User user = fixtures.user(Role.USER);
+        User other = fixtures.user(Role.USER);
+        tokenRevocationService.revokeAllForUser(user.getId(), user.getEmail());
+        long cutoff = cutoffSecond(user);
+
+        // Issued later within the same second, e.g. by a login racing the logout
+        assertTrue(tokenRevocationService.isRevoked(issued(user.getId(), null, cutoff * 1000 + 999)));
+        assertTrue(tokenRevocationService.isRevoked(issued(user.getId(), null, cutoff * 1000 - 5000)));
+        assertFalse(tokenRevocationService.isRevoked(issued(user.getId(), null, (cutoff + 1) * 1000)));
+        assertFalse(tokenRevocationService.isRevoked(issued(other.getId(), null, cutoff * 1000)));
+    }
+
+    @Test
+    void logoutAllRejectsLegacyTokensByTheirSubject() {
+        User user = fixtures.user(Role.USER);
+        User other = fixtures.user(Role.USER);
+        tokenRevocationService.revokeAllForUser(user.getId(), user.getEmail());
+        long cutoff = cutoffSecond(user);
+
+        assertTrue(tokenRevocationService.isRevoked(issued(null, user.getEmail(), cutoff * 1000 + 999)));
+        assertFalse(tokenRevocationService.isRevoked(issued(null, user.getEmail(), (cutoff + 1) * 1000)));
+        assertFalse(tokenRevocationService.isRevoked(issued(null, other.getEmail(), cutoff * 1000)));
+    }
+
+    @Test
+    void syncPicksUpRowsCommittedOutOfIdOrder() throws Exception {
+        String slow = UUID.randomUUID().toString();
+        String fast = UUID.randomUUID().toString();
+        tokenRevocationService.sync();
+
+        // The first row takes its id, then stays uncommitted while a later one commits
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowInsert = CompletableFuture.runAsync(() ->
+            transactionTemplate.executeWithoutResult(tx -> {
+                revokedTokenRepository.save(revoked(slow));
+                inserted.countDown();
+                await(release);
+            }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+        revokedTokenRepository.save(revoked(fast));
+
+        tokenRevocationService.sync();
+        assertTrue(tokenRevocationService.isRevoked(claims(fast)));
+        assertFalse(tokenRevocationService.isRevoked(claims(slow)));
+
+        release.countDown();
+        slowInsert.get(10, TimeUnit.SECONDS);
+        tokenRevocationService.sync();
+
+        assertTrue(tokenRevocationService.isRevoked(claims(slow)));
+    }
+
+    @Test
+    void syncPicksUpRowsStampedBeforeThePreviousPoll() {
+        String jti = UUID.randomUUID().toString();
+        tokenRevocationService.sync();
+
+        // Written by an instance whose clock runs a little behind
+        RevokedToken row = revoked(jti);
+        row.setRevokedAt(LocalDateTime.now().minusSeconds(20));
+        revokedTokenRepository.save(row);
+        tokenRevocationService.sync();
+
+        assertTrue(tokenRevocationService.isRevoked(claims(jti)));
+        assertFalse(tokenRevocationService.isRevoked(claims(UUID.randomUUID().toString())));
+    }
+
+    // A token as issued before tokens carried a jti or a uid
+    private String legacyToken(User user) {
+        return Jwts.builder()
+            .setSubject(user.getEmail())
+            .claim("role", user.getRole().name())
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS512)
+            .compact();
+    }
+
+    private long cutoffSecond(User user) {
+        return revokedTokenRepository.findAll().stream()
+            .filter(row -> row.getJti() == null && user.getId().equals(row.getUserId()))
+            .map(row -> row.getRevokedAt().atZone(ZoneId.systemDefault()).toEpochSecond())
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static Claims issued(Long userId, String subject, long issuedAtMillis) {
+        Claims claims = Jwts.claims();
+        claims.setId(UUID.randomUUID().toString());
+        claims.setSubject(subject);
+        if (userId != null) {
+            claims.put(JwtUtil.USER_ID_CLAIM, userId);
+        }
+        claims.setIssuedAt(new Date(issuedAtMillis));
+        return claims;
+    }
+
+    private static RevokedToken revoked(String jti) {
+        RevokedToken row = new RevokedToken();
+        row.setJti(jti);
+        row.setRevokedAt(LocalDateTime.now());
+        row.setExpiresAt(LocalDateTime.now().plusHours(1));
+        return row;
+    }
+
+    private static Claims claims(String jti) {
+        Claims claims = Jwts.claims();
+        claims.setId(jti);
+        claims.setSubject("nobody@example.com");
+        return claims;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
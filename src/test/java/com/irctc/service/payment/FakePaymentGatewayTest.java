@@ -0,0 +1,74 @@
+package com.irctc.service.payment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.Exception.PaymentGatewayUnavailableException;
+import com.irctc.dto.CheckoutRequest;
+import com.irctc.dto.CheckoutSessionResult;
+import com.stripe.model.Event;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FakePaymentGatewayTest {
+    private static final CheckoutRequest REQUEST = new CheckoutRequest(53700, "inr", "Test booking",
+        "http://localhost:3000/booking/confirmation", "http://localhost:3000/booking/cancel",
+        Map.of("bookingId", "42", "userId", "7"));
+
+    private final List<Event> delivered = new CopyOnWriteArrayList<>();
+
+    @Test
+    void everySessionIsPaidThroughASignedWebhook() throws Exception {
+        FakePaymentGateway gateway = new FakePaymentGateway(0, 0, 0.0, "whsec_unit", 0, delivered::add);
+
+        CheckoutSessionResult result = gateway.createCheckoutSession(REQUEST);
+
+        assertTrue(result.getUrl().endsWith("?session_id=" + result.getSessionId()));
+        assertEquals(1, delivered.size());
+        Event event = delivered.get(0);
+        assertEquals("checkout.session.completed", event.getType());
+        JsonNode session = new ObjectMapper().readTree(event.getDataObjectDeserializer().getRawJson());
+        assertEquals(result.getSessionId(), session.get("id").asText());
+        assertEquals("paid", session.get("payment_status").asText());
+        assertEquals(53700, session.get("amount_total").asLong());
+        assertEquals("inr", session.get("currency").asText());
+        assertEquals("42", session.get("metadata").get("bookingId").asText());
+    }
+
+    @Test
+    void delayedWebhookArrivesLater() throws Exception {
+        FakePaymentGateway gateway = new FakePaymentGateway(0, 0, 0.0, "whsec_unit", 200, delivered::add);
+
+        gateway.createCheckoutSession(REQUEST);
+        assertTrue(delivered.isEmpty());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (delivered.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    void failedCheckoutSendsNoWebhook() {
+        FakePaymentGateway gateway = new FakePaymentGateway(0, 0, 1.0, "whsec_unit", 0, delivered::add);
+
+        assertThrows(PaymentGatewayUnavailableException.class, () -> gateway.createCheckoutSession(REQUEST));
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    void sinkFailureDoesNotFailTheCheckout() {
+        FakePaymentGateway gateway = new FakePaymentGateway(0, 0, 0.0, "whsec_unit", 0, event -> {
+            throw new IllegalStateException("inbox down");
+        });
+
+        gateway.createCheckoutSession(REQUEST);
+    }
+}
@@ -0,0 +1,70 @@
+package com.irctc.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTableTest {
+    // 10 a minute: one token every 6 s, up to 54 s drawn ahead
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(6);
+    private static final long BURST = TimeUnit.SECONDS.toNanos(54);
+
+    @Test
+    void limitsAKeyToItsBurst() {
+        TokenBucketTable table = new TokenBucketTable(4, 1000);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, table.tryAcquire(7, INTERVAL, BURST, now));
+        }
+
+        assertEquals(INTERVAL, table.tryAcquire(7, INTERVAL, BURST, now));
+        assertEquals(0, table.tryAcquire(7, INTERVAL, BURST, now + INTERVAL));
+    }
+
+    @Test
+    void fullTableEvictsRotatingKeysInsteadOfLettingThemThrough() {
+        TokenBucketTable table = new TokenBucketTable(4, 64);
+        long now = System.nanoTime();
+        // Keys drawing hard on their limit, spread over the stripes
+        for (long hot = 1; hot <= 20; hot++) {
+            for (int i = 0; i < 10; i++) {
+                table.tryAcquire(hot, INTERVAL, BURST, now);
+            }
+        }
+
+        // One request each from far more keys than the table holds
+        for (long key = 1000; key < 100_000; key++) {
+            assertEquals(0, table.tryAcquire(key, INTERVAL, BURST, now + key));
+        }
+
+        assertTrue(table.evictions() > 90_000, "evictions: " + table.evictions());
+        assertTrue(table.size() <= 64, "size: " + table.size());
+        // Every hot bucket survived, and is still found after the deletions around it
+        for (long hot = 1; hot <= 20; hot++) {
+            assertTrue(table.tryAcquire(hot, INTERVAL, BURST, now + 100_000) > 0, "key " + hot + " was let through");
+        }
+        // The newest rotating key is still held
+        assertTrue(table.tryAcquire(99_999, TimeUnit.SECONDS.toNanos(60), 0, now + 100_000) > 0);
+    }
+
+    @Test
+    void idleBucketsAreDroppedBeforeActiveOnes() {
+        TokenBucketTable table = new TokenBucketTable(2, 16);
+        long now = System.nanoTime();
+        for (long key = 1; key <= 8; key++) {
+            table.tryAcquire(key, INTERVAL, BURST, now);
+        }
+
+        // Even if every key lands in one stripe, those have refilled a minute later and a
+        // sweep makes room without evicting
+        long later = now + TimeUnit.MINUTES.toNanos(1);
+        for (long key = 100; key < 108; key++) {
+            table.tryAcquire(key, INTERVAL, BURST, later + TimeUnit.SECONDS.toNanos(1));
+        }
+
+        assertEquals(0, table.evictions());
+    }
+}
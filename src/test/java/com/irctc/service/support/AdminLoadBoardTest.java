@@ -0,0 +1,132 @@
+package com.irctc.service.support;
+
+import com.irctc.dto.SupportAdminLoad;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdminLoadBoardTest {
+
+    @Test
+    void claimTakesTheLeastLoadedAdmin() {
+        AdminLoadBoard board = new AdminLoadBoard(Map.of());
+        board.register(1L, "asha", 3);
+        board.register(2L, "bilal", 1);
+        board.register(3L, "chen", 2);
+
+        assertEquals(2L, board.claim("REFUND", null).getId());
+        // bilal and chen are both at 2 now; ties go to the lower id
+        assertEquals(2L, board.claim("REFUND", null).getId());
+        assertEquals(3L, board.claim("REFUND", null).getId());
+        assertEquals(Map.of(1L, 3, 2L, 3, 3L, 3), loads(board));
+    }
+
+    @Test
+    void claimPassesOverTheExcludedAdmin() {
+        AdminLoadBoard board = new AdminLoadBoard(Map.of());
+        board.register(1L, "asha", 0);
+        board.register(2L, "bilal", 5);
+
+        assertEquals(2L, board.claim("REFUND", 1L).getId());
+
+        AdminLoadBoard alone = new AdminLoadBoard(Map.of());
+        alone.register(1L, "asha", 0);
+        assertNull(alone.claim("REFUND", 1L));
+    }
+
+    @Test
+    void categoryGoesToItsTeamAndFallsBackToEveryone() {
+        AdminLoadBoard board = new AdminLoadBoard(Map.of("asha", Set.of("Payment"), "bilal", Set.of("PAYMENT", "SEAT")));
+        board.register(1L, "asha", 4);
+        board.register(2L, "bilal", 6);
+        board.register(3L, "chen", 0);
+
+        // chen is idle but not on the payment team
+        assertEquals(1L, board.claim("payment", null).getId());
+        assertEquals(2L, board.claim("SEAT", null).getId());
+        // Every seat specialist excluded, or no team at all: least-loaded overall
+        assertEquals(3L, board.claim("SEAT", 2L).getId());
+        assertEquals(3L, board.claim("FOOD", null).getId());
+        assertEquals(3L, board.claim(null, null).getId());
+    }
+
+    @Test
+    void incrementAndDecrementMoveTheAdmin() {
+        AdminLoadBoard board = new AdminLoadBoard(Map.of());
+        board.register(1L, "asha", 1);
+        board.register(2L, "bilal", 1);
+
+        board.increment(1L);
+        assertEquals(2L, board.claim(null, null).getId());
+        board.decrement(1L);
+        board.decrement(1L);
+        board.decrement(1L);
+        // Loads never go below zero, and unknown admins are ignored
+        board.increment(99L);
+        board.increment(null);
+        assertEquals(Map.of(1L, 0, 2L, 2), loads(board));
+    }
+
+    @Test
+    void concurrentClaimsSpreadEvenlyAndLoseNoCount() throws Exception {
+        AdminLoadBoard board = new AdminLoadBoard(Map.of("a1", Set.of("REFUND"), "a2", Set.of("REFUND", "FOOD")));
+        int admins = 8;
+        for (long id = 1; id <= admins; id++) {
+            board.register(id, "a" + id, 0);
+        }
+        int threads = 8;
+        int claimsPerThread = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            done.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < claimsPerThread; i++) {
+                    AdminLoadBoard.Assignee assignee = board.claim(i % 2 == 0 ? "OTHER" : null, null);
+                    if ((i + thread) % 4 == 0) {
+                        board.decrement(assignee.getId());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : done) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Map<Long, Integer> loads = loads(board);
+        int total = loads.values().stream().mapToInt(Integer::intValue).sum();
+        assertEquals(threads * claimsPerThread * 3 / 4, total);
+        // Every admin still has exactly one current slot
+        assertEquals(admins, board.snapshot().size());
+        // Each claim took a least-loaded admin, give or take the ones in flight
+        int min = loads.values().stream().mapToInt(Integer::intValue).min().orElseThrow();
+        int max = loads.values().stream().mapToInt(Integer::intValue).max().orElseThrow();
+        assertTrue(max - min <= threads, "loads " + loads);
+    }
+
+    private static Map<Long, Integer> loads(AdminLoadBoard board) {
+        Map<Long, Integer> loads = new HashMap<>();
+        for (SupportAdminLoad load : board.snapshot()) {
+            loads.put(load.getAdminId(), load.getOpenTickets());
+        }
+        return loads;
+    }
+}
@@ -0,0 +1,54 @@
+package com.irctc.service.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void findsOverlappingKeywordsInOnePass() {
+        KeywordAutomaton<String> automaton = KeywordAutomaton.<String>builder()
+            .add("refund", "REFUND")
+            .add("refund status", "STATUS")
+            .add("status", "STATUS")
+            .add("tatkal", "TATKAL")
+            .build();
+
+        assertEquals(List.of("REFUND 6-12", "STATUS 6-19", "STATUS 13-19", "TATKAL 24-30"),
+            matches(automaton, "Where refund\tSTATUS for tatkal?"));
+    }
+
+    @Test
+    void matchesWholeWordsUnlessMarkedAsPrefix() {
+        KeywordAutomaton<String> automaton = KeywordAutomaton.<String>builder()
+            .add("seat", "SEAT")
+            .add("refund*", "REFUND")
+            .add("  ", "BLANK")
+            .build();
+
+        assertEquals(List.of("REFUND 9-15"), matches(automaton, "Seating, refunded"));
+        assertEquals(List.of("SEAT 0-4", "REFUND 5-11"), matches(automaton, "seat refund"));
+    }
+
+    @Test
+    void keywordsSharingAnEndingAllMatch() {
+        KeywordAutomaton<Integer> automaton = KeywordAutomaton.<Integer>builder()
+            .add("pnr", 1)
+            .add("PNR", 2)
+            .build();
+
+        List<Integer> values = new ArrayList<>();
+        automaton.scan("pnr", (start, end, value) -> values.add(value));
+        assertEquals(List.of(1, 2), values);
+    }
+
+    private static List<String> matches(KeywordAutomaton<String> automaton, String text) {
+        List<String> found = new ArrayList<>();
+        automaton.scan(text, (start, end, value) -> found.add(value + " " + start + "-" + end));
+        return found;
+    }
+}
@@ -0,0 +1,100 @@
+package com.irctc.service.support;
+
+import com.irctc.dto.SupportTicketStats;
+import com.irctc.model.SupportStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SupportCountersTest {
+    private static final Duration BUCKET = Duration.ofMinutes(5);
+    private static final Duration ATTENTION = Duration.ofHours(1);
+
+    private final SupportCounters counters = new SupportCounters(BUCKET, ATTENTION);
+
+    @Test
+    void youngTicketNeedsAttentionOnceItsBucketIsSwept() {
+        // Start of a bucket, so the ticket ages out exactly one bucket width after the threshold
+        LocalDateTime submitted = currentBucketStart();
+        counters.created(SupportStatus.OPEN, false, submitted);
+        assertEquals(0, counters.snapshot().getNeedsAttention());
+
+        LocalDateTime bucketAged = submitted.plus(ATTENTION).plus(BUCKET);
+        assertEquals(0, counters.expire(bucketAged.minusSeconds(1)));
+        assertEquals(0, counters.snapshot().getNeedsAttention());
+
+        assertEquals(1, counters.expire(bucketAged));
+        assertEquals(1, counters.snapshot().getNeedsAttention());
+        // Sweeping again changes nothing
+        assertEquals(0, counters.expire(bucketAged.plusHours(1)));
+        assertEquals(1, counters.snapshot().getNeedsAttention());
+    }
+
+    @Test
+    void ticketsShareBucketsAndAgeTogether() {
+        LocalDateTime bucketStart = currentBucketStart();
+        counters.created(SupportStatus.OPEN, false, bucketStart);
+        counters.created(SupportStatus.OPEN, false, bucketStart.plusMinutes(4));
+        counters.created(SupportStatus.OPEN, false, bucketStart.plusMinutes(5));
+
+        assertEquals(2, counters.expire(bucketStart.plus(ATTENTION).plus(BUCKET)));
+        assertEquals(2, counters.snapshot().getNeedsAttention());
+        assertEquals(1, counters.expire(bucketStart.plus(ATTENTION).plus(BUCKET).plus(BUCKET)));
+        assertEquals(3, counters.snapshot().getNeedsAttention());
+    }
+
+    @Test
+    void alreadyAgedTicketNeedsAttentionStraightAway() {
+        counters.created(SupportStatus.OPEN, false, LocalDateTime.now().minusDays(2));
+
+        SupportTicketStats stats = counters.snapshot();
+        assertEquals(1, stats.getTotal());
+        assertEquals(1, stats.getOpen());
+        assertEquals(1, stats.getNeedsAttention());
+    }
+
+    @Test
+    void resolvingAndReopeningMoveTicketsInAndOutOfTheCounts() {
+        LocalDateTime young = LocalDateTime.now().minusMinutes(10);
+        LocalDateTime old = LocalDateTime.now().minusDays(1);
+        counters.created(SupportStatus.OPEN, false, young);
+        counters.created(SupportStatus.OPEN, false, old);
+
+        counters.changed(SupportStatus.OPEN, SupportStatus.RESOLVED, false, true, young);
+        counters.changed(SupportStatus.OPEN, SupportStatus.IN_PROGRESS, false, false, old);
+        SupportTicketStats stats = counters.snapshot();
+        assertEquals(2, stats.getTotal());
+        assertEquals(0, stats.getOpen());
+        assertEquals(1, stats.getInProgress());
+        assertEquals(1, stats.getResolved());
+        assertEquals(1, stats.getNeedsAttention());
+
+        // Reopened young ticket is young again, not needing attention
+        counters.changed(SupportStatus.RESOLVED, SupportStatus.OPEN, true, false, young);
+        assertEquals(1, counters.snapshot().getNeedsAttention());
+        assertEquals(1, counters.expire(young.plus(ATTENTION).plus(BUCKET)));
+        assertEquals(2, counters.snapshot().getNeedsAttention());
+    }
+
+    @Test
+    void seedCountsYoungTicketsOnlyOnce() {
+        LocalDateTime young = LocalDateTime.now().minusMinutes(10);
+        counters.seed(SupportStatus.OPEN, false, 3);
+        counters.seed(SupportStatus.CLOSED, true, 4);
+        counters.seedYoung(young);
+
+        SupportTicketStats stats = counters.snapshot();
+        assertEquals(7, stats.getTotal());
+        assertEquals(4, stats.getClosed());
+        assertEquals(2, stats.getNeedsAttention());
+    }
+
+    private static LocalDateTime currentBucketStart() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        return now.minusMinutes(now.getMinute() % BUCKET.toMinutes());
+    }
+}
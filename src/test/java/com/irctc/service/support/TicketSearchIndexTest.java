@@ -0,0 +1,200 @@
+package com.irctc.service.support;
+
+import com.irctc.dto.SupportIndexMessage;
+import com.irctc.dto.SupportIndexRow;
+import com.irctc.model.SupportMessage;
+import com.irctc.model.SupportStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketSearchIndexTest {
+    private static final TicketSearchIndex.Filter NO_FILTER = new TicketSearchIndex.Filter(null, null, null, null, null);
+    private static final LocalDateTime SUBMITTED = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    private final TicketSearchIndex index = new TicketSearchIndex();
+
+    @Test
+    void moreOccurrencesRankHigher() {
+        index.index(ticket(1, "Refund requested for my booking, please help with the refund"));
+        index.index(ticket(2, "Refund refund refund, where is my refund for the cancelled booking"));
+        index.index(ticket(3, "Seat not allotted after payment"));
+
+        TicketSearchIndex.Result result = index.search("refund", NO_FILTER, 0, 10);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(2L, 1L), ids(result));
+        assertTrue(result.getHits().get(0).getScore() > result.getHits().get(1).getScore());
+    }
+
+    @Test
+    void shorterTicketRanksHigherForTheSameCount() {
+        index.index(ticket(1, "Refund pending for the booking I cancelled last week on the Rajdhani to Mumbai"));
+        index.index(ticket(2, "Refund pending"));
+
+        assertEquals(List.of(2L, 1L), ids(index.search("refund", NO_FILTER, 0, 10)));
+    }
+
+    @Test
+    void rareTermsWeighMoreThanCommonOnes() {
+        index.index(ticket(1, "Booking booking tatkal"));
+        index.index(ticket(2, "Booking tatkal tatkal"));
+        index.index(ticket(3, "Booking seat change"));
+        index.index(ticket(4, "Booking food order"));
+
+        // Each has one word twice; tatkal is the rarer of the two
+        assertEquals(List.of(2L, 1L), ids(index.search("booking tatkal", NO_FILTER, 0, 10)));
+    }
+
+    @Test
+    void everyWordIsRequired() {
+        index.index(ticket(1, "Booking failed twice"));
+        index.index(ticket(2, "Booking tatkal failed"));
+
+        assertEquals(List.of(2L), ids(index.search("tatkal booking", NO_FILTER, 0, 10)));
+        assertEquals(0, index.search("tatkal refund", NO_FILTER, 0, 10).getTotal());
+    }
+
+    @Test
+    void emailMatchOutweighsAMentionInTheIssue() {
+        index.index(row(1, "a@example.com", "Mr Iyer asked me to raise this refund", "OTHER", "LOW",
+            SupportStatus.OPEN, SUBMITTED, null, null));
+        index.index(row(2, "iyer@example.com", "Refund pending since Monday", "OTHER", "LOW",
+            SupportStatus.OPEN, SUBMITTED, null, null));
+
+        assertEquals(List.of(2L, 1L), ids(index.search("iyer", NO_FILTER, 0, 10)));
+        // The whole address is a term of its own
+        assertEquals(List.of(2L), ids(index.search("iyer@example.com", NO_FILTER, 0, 10)));
+    }
+
+    @Test
+    void quotedPhraseNeedsTheWordsNextToEachOther() {
+        index.index(ticket(1, "Seat not allotted after payment went through"));
+        index.index(ticket(2, "Payment went through but the seat was not allotted"));
+
+        assertEquals(List.of(1L), ids(index.search("\"seat not allotted\"", NO_FILTER, 0, 10)));
+        assertEquals(2, index.search("seat not allotted", NO_FILTER, 0, 10).getTotal());
+        assertEquals(List.of(2L), ids(index.search("seat \"through but\"", NO_FILTER, 0, 10)));
+    }
+
+    @Test
+    void filtersNarrowTheMatches() {
+        index.index(row(1, "a@example.com", "Refund pending", "REFUND", "HIGH", SupportStatus.OPEN,
+            LocalDateTime.of(2026, 3, 1, 10, 0), null, null));
+        index.index(row(2, "b@example.com", "Refund pending", "REFUND", "LOW", SupportStatus.RESOLVED,
+            LocalDateTime.of(2026, 3, 5, 10, 0), null, null));
+        index.index(row(3, "c@example.com", "Refund pending", "PAYMENT", "HIGH", SupportStatus.OPEN,
+            LocalDateTime.of(2026, 3, 9, 23, 59), null, null));
+
+        assertEquals(List.of(1L), ids(search("refund", SupportStatus.OPEN, "REFUND", null, null, null)));
+        // The category matches "refund" too, so ticket 1 ranks above ticket 3
+        assertEquals(List.of(1L, 3L), ids(search("refund", null, null, "HIGH", null, null)));
+        assertEquals(List.of(2L), ids(search("refund", SupportStatus.RESOLVED, null, null, null, null)));
+        assertEquals(List.of(2L, 3L), ids(search("refund", null, null, null,
+            LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 9))));
+        // A label the index has never seen matches nothing
+        assertEquals(0, search("refund", null, "LOST_LUGGAGE", null, null, null).getTotal());
+        // Filters alone list every match, newest first
+        assertEquals(List.of(3L, 1L), ids(search(null, SupportStatus.OPEN, null, null, null, null)));
+    }
+
+    @Test
+    void pagesShareTheTotal() {
+        for (int i = 1; i <= 25; i++) {
+            index.index(row(i, "u" + i + "@example.com", "Refund pending", "REFUND", "LOW", SupportStatus.OPEN,
+                SUBMITTED.plusMinutes(i), null, null));
+        }
+
+        TicketSearchIndex.Result first = index.search("refund", NO_FILTER, 0, 10);
+        TicketSearchIndex.Result last = index.search("refund", NO_FILTER, 20, 10);
+
+        assertEquals(25, first.getTotal());
+        assertEquals(25, last.getTotal());
+        assertEquals(10, first.getHits().size());
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(last));
+        assertTrue(index.search("refund", NO_FILTER, 30, 10).getHits().isEmpty());
+    }
+
+    @Test
+    void reindexingReplacesTheOldText() {
+        index.index(ticket(1, "Waitlist status not updating"));
+        index.index(ticket(1, "Refund pending"));
+
+        assertEquals(0, index.search("waitlist", NO_FILTER, 0, 10).getTotal());
+        assertEquals(List.of(1L), ids(index.search("refund", NO_FILTER, 0, 10)));
+        assertEquals(1, index.size());
+        assertEquals(1, index.deadCount());
+
+        index.remove(1L);
+        assertEquals(0, index.search("refund", NO_FILTER, 0, 10).getTotal());
+    }
+
+    @Test
+    void everyMessageOfTheConversationIsSearchable() {
+        SupportIndexRow row = row(1, "a@example.com", "Refund pending", "REFUND", "LOW", SupportStatus.IN_PROGRESS,
+            SUBMITTED, "Your refund was processed today", "Escalated to accounts");
+        index.index(row, List.of(
+            message(1, SupportMessage.Type.MESSAGE, true, "Please share the PNR and the UPI reference"),
+            message(1, SupportMessage.Type.MESSAGE, false, "PNR is 4521839012, paid with PhonePe"),
+            message(1, SupportMessage.Type.NOTE, true, "Gateway settlement delayed at the acquirer"),
+            message(1, SupportMessage.Type.STATUS_CHANGE, true, "Escalated to accounts"),
+            message(1, SupportMessage.Type.MESSAGE, true, "Your refund was processed today")));
+
+        assertEquals(List.of(1L), ids(index.search("upi reference", NO_FILTER, 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("phonepe", NO_FILTER, 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("\"settlement delayed\"", NO_FILTER, 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("accounts processed", NO_FILTER, 0, 10)));
+    }
+
+    @Test
+    void legacyTicketsAreSearchedByTheirRowText() {
+        index.index(row(1, "a@example.com", "Refund pending", "REFUND", "LOW", SupportStatus.RESOLVED, SUBMITTED,
+            "Credited to the original card", "Checked with the bank"), List.of());
+
+        assertEquals(List.of(1L), ids(index.search("credited bank", NO_FILTER, 0, 10)));
+    }
+
+    @Test
+    void aReplyOnlyCountsOnceWhenTheRowCopiesIt() {
+        // Same issue and reply; ticket 1 has the reply as a message and a copy on the row
+        index.index(row(1, "a@example.com", "Refund pending", "REFUND", "LOW", SupportStatus.OPEN, SUBMITTED,
+            "Refund initiated", null),
+            List.of(message(1, SupportMessage.Type.MESSAGE, true, "Refund initiated")));
+        index.index(row(2, "b@example.com", "Refund pending", "REFUND", "LOW", SupportStatus.OPEN, SUBMITTED,
+            "Refund initiated", null), List.of());
+
+        TicketSearchIndex.Result result = index.search("initiated", NO_FILTER, 0, 10);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(result.getHits().get(0).getScore(), result.getHits().get(1).getScore(), 1e-6);
+    }
+
+    private TicketSearchIndex.Result search(String text, SupportStatus status, String category, String priority,
+                                            LocalDate from, LocalDate to) {
+        return index.search(text, new TicketSearchIndex.Filter(status, category, priority, from, to), 0, 10);
+    }
+
+    private static SupportIndexRow ticket(long id, String issue) {
+        return row(id, "user" + id + "@example.com", issue, "OTHER", "LOW", SupportStatus.OPEN, SUBMITTED, null, null);
+    }
+
+    private static SupportIndexRow row(long id, String email, String issue, String category, String priority,
+                                       SupportStatus status, LocalDateTime submittedAt, String response,
+                                       String adminNotes) {
+        return new SupportIndexRow(id, "Customer " + id, email, issue, response, adminNotes, category, priority,
+            status, submittedAt);
+    }
+
+    private static SupportIndexMessage message(long ticketId, SupportMessage.Type type, boolean agent, String body) {
+        return new SupportIndexMessage(ticketId, type, agent, body);
+    }
+
+    private static List<Long> ids(TicketSearchIndex.Result result) {
+        return result.getHits().stream().map(TicketSearchIndex.Hit::getTicketId).toList();
+    }
+}